@@ -1,6 +1,7 @@
 package com.budgetmanager.dto;
 
 import com.budgetmanager.entity.Banque;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 
 import java.util.UUID;
 
+@RegisterForReflection
 @Data
 @Builder
 @NoArgsConstructor
@@ -1,10 +1,12 @@
 package com.budgetmanager.dto;
 
 import com.budgetmanager.util.MoneyConstants;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.Data;
 
 import java.math.BigDecimal;
 
+@RegisterForReflection
 @Data
 public class BudgetConfigResponse {
     private BigDecimal pourcentageChargesFixes;
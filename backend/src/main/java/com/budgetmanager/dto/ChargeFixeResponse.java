@@ -3,6 +3,7 @@ package com.budgetmanager.dto;
 import com.budgetmanager.entity.ChargeFixe;
 import com.budgetmanager.entity.FrequenceCharge;
 import com.budgetmanager.entity.TypeTransaction;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,6 +14,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+@RegisterForReflection
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,6 +30,7 @@ public class ChargeFixeResponse {
     private LocalDate dateDebut;
     private LocalDate dateFin;
     private Boolean actif;
+    private LocalDate prochaineEcheance;
     private CompteResponse compte;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -44,6 +47,7 @@ public class ChargeFixeResponse {
                 .dateDebut(charge.getDateDebut())
                 .dateFin(charge.getDateFin())
                 .actif(charge.getActif())
+                .prochaineEcheance(charge.getProchaineEcheance())
                 .compte(charge.getCompte() != null ? CompteResponse.fromEntity(charge.getCompte()) : null)
                 .createdAt(charge.getCreatedAt())
                 .updatedAt(charge.getUpdatedAt())
@@ -2,6 +2,7 @@ package com.budgetmanager.dto;
 
 import com.budgetmanager.entity.Compte;
 import com.budgetmanager.entity.TypeCompte;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,6 +12,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
 
+@RegisterForReflection
 @Data
 @Builder
 @NoArgsConstructor
@@ -2,6 +2,7 @@ package com.budgetmanager.dto;
 
 import com.budgetmanager.entity.Compte;
 import com.budgetmanager.entity.TypeCompte;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.util.UUID;
 
+@RegisterForReflection
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
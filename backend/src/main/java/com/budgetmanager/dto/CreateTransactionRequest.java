@@ -34,4 +34,6 @@ public class CreateTransactionRequest {
 
     @NotBlank(message = "La date de transaction est obligatoire")
     private String dateTransaction; // Format ISO : "2025-01-15"
+
+    private String reference; // Optionnel, référence bancaire de la ligne de relevé importée
 }
@@ -1,5 +1,6 @@
 package com.budgetmanager.dto;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.List;
 
+@RegisterForReflection
 @Data
 @Builder
 @NoArgsConstructor
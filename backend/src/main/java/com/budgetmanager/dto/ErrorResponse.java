@@ -1,5 +1,6 @@
 package com.budgetmanager.dto;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 import java.util.Map;
 
+@RegisterForReflection
 @Data
 @Builder
 @NoArgsConstructor
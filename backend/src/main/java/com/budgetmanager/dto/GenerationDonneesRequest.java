@@ -0,0 +1,40 @@
+package com.budgetmanager.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Paramètres du jeu de données synthétique : même graine, mêmes données.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationDonneesRequest {
+    @Min(value = 1, message = "Au moins un compte")
+    @Max(value = 50, message = "50 comptes au plus")
+    private int comptes = 4;
+
+    @Min(value = 0, message = "Le nombre d'objectifs ne peut pas être négatif")
+    @Max(value = 100, message = "100 objectifs au plus")
+    private int objectifs = 5;
+
+    @Min(value = 0, message = "Le nombre de charges fixes ne peut pas être négatif")
+    @Max(value = 200, message = "200 charges fixes au plus")
+    private int chargesFixes = 8;
+
+    @Min(value = 1, message = "Au moins une année d'historique")
+    @Max(value = 30, message = "30 années d'historique au plus")
+    private int annees = 3;
+
+    @Min(value = 0, message = "Le nombre de dépenses par mois ne peut pas être négatif")
+    @Max(value = 20000, message = "20000 dépenses par mois au plus")
+    private int depensesParMois = 60;
+
+    @Min(value = 0, message = "Le nombre de transferts par mois ne peut pas être négatif")
+    @Max(value = 1000, message = "1000 transferts par mois au plus")
+    private int transfertsParMois = 2;
+
+    private long graine = 42L;
+}
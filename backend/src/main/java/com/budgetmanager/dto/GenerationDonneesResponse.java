@@ -0,0 +1,30 @@
+package com.budgetmanager.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Bilan d'une génération de jeu de données.
+ */
+@RegisterForReflection
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationDonneesResponse {
+    private UUID userId;
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private int comptes;
+    private int objectifs;
+    private int chargesFixes;
+    private long transactions;
+    private long transferts;
+    private long dureeMs;
+}
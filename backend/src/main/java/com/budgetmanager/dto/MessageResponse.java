@@ -1,10 +1,12 @@
 package com.budgetmanager.dto;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+@RegisterForReflection
 @Data
 @Builder
 @NoArgsConstructor
@@ -1,6 +1,7 @@
 package com.budgetmanager.dto;
 
 import com.budgetmanager.entity.MonthSnapshot;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +11,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+@RegisterForReflection
 @Data
 @Builder
 @NoArgsConstructor
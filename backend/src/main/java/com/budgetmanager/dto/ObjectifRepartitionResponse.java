@@ -1,6 +1,7 @@
 package com.budgetmanager.dto;
 
 import com.budgetmanager.entity.ObjectifRepartition;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.util.UUID;
 
+@RegisterForReflection
 @Data
 @Builder
 @NoArgsConstructor
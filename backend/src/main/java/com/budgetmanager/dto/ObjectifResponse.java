@@ -3,6 +3,7 @@ package com.budgetmanager.dto;
 import com.budgetmanager.entity.Objectif;
 import com.budgetmanager.entity.PrioriteObjectif;
 import com.budgetmanager.entity.TypeObjectif;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,6 +14,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+@RegisterForReflection
 @Data
 @Builder
 @NoArgsConstructor
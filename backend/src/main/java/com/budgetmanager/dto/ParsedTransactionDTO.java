@@ -1,6 +1,7 @@
 package com.budgetmanager.dto;
 
 import com.budgetmanager.entity.TypeTransaction;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
+@RegisterForReflection
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,4 +21,6 @@ public class ParsedTransactionDTO {
     private TypeTransaction type;
     private Boolean isDebit;
     private String rawLine; // For debugging
+    private String reference; // Référence bancaire (FITID OFX, AcctSvcrRef CAMT), si le format en fournit
+    private Boolean doublon; // Déjà importée sur ce compte
 }
@@ -0,0 +1,27 @@
+package com.budgetmanager.dto;
+
+import com.budgetmanager.entity.TypeTransaction;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Prévision des dépenses variables d'une catégorie, un montant par cycle à partir de premierCycle.
+ */
+@RegisterForReflection
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrevisionCategorieResponse {
+    private TypeTransaction categorie;
+    private String premierCycle;
+    private List<BigDecimal> montants;
+    private Integer nombreCycles; // Cycles observés
+    private BigDecimal erreurMoyenne; // Erreur absolue moyenne des prévisions passées, null au début
+}
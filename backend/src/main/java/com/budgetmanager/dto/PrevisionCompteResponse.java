@@ -0,0 +1,29 @@
+package com.budgetmanager.dto;
+
+import com.budgetmanager.entity.TypeCompte;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@RegisterForReflection
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrevisionCompteResponse {
+    private UUID compteId;
+    private String nom;
+    private TypeCompte type;
+    private BigDecimal soldeInitial;
+    private BigDecimal soldeFinal;
+    private BigDecimal soldeMin;
+    private LocalDate dateSoldeMin;
+    private List<BigDecimal> soldes; // Un solde par jour
+}
@@ -0,0 +1,31 @@
+package com.budgetmanager.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Prévision de trésorerie jour par jour : soldes projetés de chaque compte
+ * à partir des charges fixes et du salaire attendu.
+ * Les listes de soldes commencent à dateDebut (solde actuel) et finissent à dateFin.
+ */
+@RegisterForReflection
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrevisionResponse {
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private Integer mois;
+    private List<PrevisionCompteResponse> comptes;
+    private List<BigDecimal> soldesTotaux;
+    private BigDecimal soldeTotalMin;
+    private LocalDate dateSoldeTotalMin;
+}
@@ -1,5 +1,6 @@
 package com.budgetmanager.dto;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,6 +10,7 @@ import java.math.BigDecimal;
 /**
  * DTO pour statistiques
  */
+@RegisterForReflection
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -2,6 +2,7 @@ package com.budgetmanager.dto;
 
 import com.budgetmanager.entity.Transaction;
 import com.budgetmanager.entity.TypeTransaction;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +13,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+@RegisterForReflection
 @Data
 @Builder
 @NoArgsConstructor
@@ -1,5 +1,6 @@
 package com.budgetmanager.dto;
 
+import com.budgetmanager.entity.TypeTransaction;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -20,6 +21,8 @@ public class UpdateTransactionRequest {
 
     private String description;
 
+    private TypeTransaction type; // Recatégorisation (optionnel)
+
     private String dateTransaction; // Format ISO : "2025-01-15"
 }
 
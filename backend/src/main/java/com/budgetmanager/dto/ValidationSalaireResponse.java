@@ -1,5 +1,6 @@
 package com.budgetmanager.dto;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,6 +12,7 @@ import java.util.UUID;
  * ValidationSalaireResponse
  * Réponse après validation du salaire
  */
+@RegisterForReflection
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Cacheable
 @Table(name = "banques")
 @Getter
 @Setter
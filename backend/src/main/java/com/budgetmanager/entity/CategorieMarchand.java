@@ -0,0 +1,66 @@
+package com.budgetmanager.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Catégorie apprise pour un marchand à partir de l'historique de l'utilisateur.
+ * Une ligne par (utilisateur, clé marchand, type) avec le nombre d'occurrences :
+ * le type le plus fréquent pour une clé est celui proposé à l'import.
+ */
+@Entity
+@Table(name = "categories_marchands",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_categorie_marchand", columnNames = {"user_id", "cle_marchand", "type"})
+    },
+    indexes = {
+        @Index(name = "idx_categorie_marchand_user", columnList = "user_id")
+    }
+)
+@Getter
+@Setter
+public class CategorieMarchand extends PanacheEntityBase {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    /**
+     * Description normalisée (voir MerchantKeyUtil)
+     */
+    @Column(name = "cle_marchand", nullable = false, length = 100)
+    private String cleMarchand;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TypeTransaction type;
+
+    @Column(nullable = false)
+    private Integer occurrences = 0;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructeurs
+    public CategorieMarchand() {}
+
+    public CategorieMarchand(User user, String cleMarchand, TypeTransaction type) {
+        this.user = user;
+        this.cleMarchand = cleMarchand;
+        this.type = type;
+        this.occurrences = 0;
+    }
+}
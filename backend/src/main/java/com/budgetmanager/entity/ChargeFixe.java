@@ -1,5 +1,6 @@
 package com.budgetmanager.entity;
 
+import com.budgetmanager.util.CycleBudgetaire;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
@@ -14,12 +15,15 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
 @Table(name = "charges_fixes", indexes = {
-    @Index(name = "idx_charge_user_actif", columnList = "user_id,actif"),
+    @Index(name = "idx_charge_user_actif", columnList = "user_id,actif,nom"),
+    @Index(name = "idx_charge_actif_echeance", columnList = "actif,prochaine_echeance"),
     @Index(name = "idx_charge_compte", columnList = "compte_id"),
     @Index(name = "idx_charge_jour_prelevement", columnList = "jour_prelevement"),
     @Index(name = "idx_charge_frequence", columnList = "frequence")
 })
+@EntityListeners(EcritureEntiteListener.class)
 @Getter
 @Setter
 public class ChargeFixe extends PanacheEntityBase {
@@ -68,6 +72,10 @@ public class ChargeFixe extends PanacheEntityBase {
     @Column(nullable = false)
     private Boolean actif = true;
 
+    // Borne basse de la prochaine échéance non passée, null si la charge est terminée
+    @Column(name = "prochaine_echeance")
+    private LocalDate prochaineEcheance;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -92,4 +100,26 @@ public class ChargeFixe extends PanacheEntityBase {
         this.frequence = frequence;
         this.dateDebut = dateDebut;
     }
-}
\ No newline at end of file
+
+    /**
+     * Première date à examiner pour une charge sans occurrence passée : début du cycle budgétaire
+     * courant, au plus tôt dateDebut. Les cycles antérieurs ne sont jamais prélevés.
+     *
+     * @param today Date de référence
+     */
+    public LocalDate echeanceInitiale(LocalDate today) {
+        LocalDate debutCycle = CycleBudgetaire.courant(user.getJourPaie(), today).debut();
+        return debutCycle.isBefore(dateDebut) ? dateDebut : debutCycle;
+    }
+
+    /**
+     * Une nouvelle charge est à examiner à partir du cycle courant ;
+     * la date exacte est calculée au premier passage (ChargeRattrapageService).
+     */
+    @PrePersist
+    private void initProchaineEcheance() {
+        if (prochaineEcheance == null) {
+            prochaineEcheance = echeanceInitiale(LocalDate.now());
+        }
+    }
+}
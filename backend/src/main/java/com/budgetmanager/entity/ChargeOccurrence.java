@@ -0,0 +1,74 @@
+package com.budgetmanager.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.UUID;
+
+/**
+ * Échéance d'une charge fixe déjà passée en transaction.
+ * Une ligne par (charge, cycle) : la contrainte unique garantit qu'une charge n'est jamais
+ * débitée deux fois pour la même échéance, même si deux chargements du dashboard se croisent.
+ * Supprimer la transaction générée supprime l'occurrence, la charge redevient alors due.
+ */
+@Entity
+@Table(name = "charge_occurrences",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_charge_occurrence", columnNames = {"charge_fixe_id", "cycle_budget"})
+    },
+    indexes = {
+        @Index(name = "idx_charge_occurrence_transaction", columnList = "transaction_id")
+    }
+)
+@Getter
+@Setter
+public class ChargeOccurrence extends PanacheEntityBase {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "charge_fixe_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private ChargeFixe chargeFixe;
+
+    /**
+     * Mois de l'échéance, format "YYYY-MM" (voir cycleOf)
+     */
+    @Column(name = "cycle_budget", nullable = false, length = 7)
+    private String cycle;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Transaction transaction;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Constructeurs
+    public ChargeOccurrence() {}
+
+    public ChargeOccurrence(ChargeFixe chargeFixe, String cycle, Transaction transaction) {
+        this.chargeFixe = chargeFixe;
+        this.cycle = cycle;
+        this.transaction = transaction;
+    }
+
+    /**
+     * Clé de cycle d'une échéance : le mois de la date de prélèvement.
+     * Un cycle budgétaire dure moins d'un mois, une charge y tombe donc au plus une fois.
+     */
+    public static String cycleOf(LocalDate dateEcheance) {
+        return YearMonth.from(dateEcheance).toString();
+    }
+}
@@ -1,5 +1,7 @@
 package com.budgetmanager.entity;
 
+import com.budgetmanager.util.Money;
+import com.budgetmanager.util.MoneyAccumulator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
@@ -12,11 +14,13 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Cacheable
 @Table(name = "comptes", indexes = {
-    @Index(name = "idx_compte_user_actif", columnList = "user_id,actif"),
+    @Index(name = "idx_compte_user_actif", columnList = "user_id,actif,nom"),
     @Index(name = "idx_compte_type", columnList = "type"),
     @Index(name = "idx_compte_banque", columnList = "banque_id")
 })
+@EntityListeners(EcritureEntiteListener.class)
 @Getter
 @Setter
 public class Compte extends PanacheEntityBase {
@@ -82,10 +86,11 @@ public class Compte extends PanacheEntityBase {
     public BigDecimal getArgentLibre() {
         if (this.objectifRepartitions == null) return this.soldeTotal;
 
-        BigDecimal totalObjectifs = this.objectifRepartitions.stream()
-                .map(ObjectifRepartition::getMontantActuel)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        MoneyAccumulator totalObjectifs = new MoneyAccumulator();
+        for (ObjectifRepartition repartition : this.objectifRepartitions) {
+            totalObjectifs.add(repartition.getMontantActuel());
+        }
 
-        return this.soldeTotal.subtract(totalObjectifs);
+        return Money.of(this.soldeTotal).minus(totalObjectifs.toMoney()).toBigDecimal();
     }
 }
@@ -0,0 +1,16 @@
+package com.budgetmanager.entity;
+
+/**
+ * Écriture d'une entité relevée par EcritureEntiteListener, publiée comme événement CDI
+ * au flush, dans la transaction qui écrit.
+ *
+ * @param entite Entité insérée, modifiée ou supprimée
+ */
+public record EcritureEntite(Object entite, Nature nature) {
+
+    public enum Nature {
+        INSERTION,
+        MODIFICATION,
+        SUPPRESSION
+    }
+}
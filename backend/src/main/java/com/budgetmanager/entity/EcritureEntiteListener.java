@@ -0,0 +1,38 @@
+package com.budgetmanager.entity;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Publie les écritures des entités qui le déclarent (@EntityListeners) comme événements
+ * EcritureEntite ; les services qui en dépendent les observent.
+ * Instancié par Hibernate : l'événement est émis par le conteneur.
+ * Les écritures HQL en masse ne passent pas par ici.
+ */
+public class EcritureEntiteListener {
+
+    @PostPersist
+    public void inseree(Object entite) {
+        publier(entite, EcritureEntite.Nature.INSERTION);
+    }
+
+    @PostUpdate
+    public void modifiee(Object entite) {
+        publier(entite, EcritureEntite.Nature.MODIFICATION);
+    }
+
+    @PostRemove
+    public void supprimee(Object entite) {
+        publier(entite, EcritureEntite.Nature.SUPPRESSION);
+    }
+
+    private static void publier(Object entite, EcritureEntite.Nature nature) {
+        ArcContainer container = Arc.container();
+        if (container != null && container.isRunning()) {
+            container.beanManager().getEvent().select(EcritureEntite.class).fire(new EcritureEntite(entite, nature));
+        }
+    }
+}
@@ -16,7 +16,8 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "month_snapshots", indexes = {
-    @Index(name = "idx_snapshot_user_month", columnList = "user_id,month", unique = true)
+    @Index(name = "idx_snapshot_user_month", columnList = "user_id,month", unique = true),
+    @Index(name = "idx_snapshot_user_month_desc", columnList = "user_id,month DESC")
 })
 @Data
 @EqualsAndHashCode(callSuper = false)
@@ -1,5 +1,6 @@
 package com.budgetmanager.entity;
 
+import com.budgetmanager.util.MoneyAccumulator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
@@ -12,7 +13,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "objectifs", indexes = {
-    @Index(name = "idx_objectif_user_actif", columnList = "user_id,actif"),
+    @Index(name = "idx_objectif_user_actif", columnList = "user_id,actif,priorite,nom"),
     @Index(name = "idx_objectif_priorite", columnList = "priorite"),
     @Index(name = "idx_objectif_type", columnList = "type")
 })
@@ -116,9 +117,11 @@ public class Objectif extends PanacheEntityBase {
     public BigDecimal getMontantActuel() {
         if (this.repartitions == null) return BigDecimal.ZERO;
 
-        return this.repartitions.stream()
-                .map(ObjectifRepartition::getMontantActuel)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        MoneyAccumulator total = new MoneyAccumulator();
+        for (ObjectifRepartition repartition : this.repartitions) {
+            total.add(repartition.getMontantActuel());
+        }
+        return total.toBigDecimal();
     }
 
     public BigDecimal getPourcentageProgression() {
@@ -10,7 +10,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "objectif_repartitions",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"objectif_id", "compte_id"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"objectif_id", "compte_id"}),
+        indexes = @Index(name = "idx_repartition_compte", columnList = "compte_id"))
 @NamedEntityGraph(
         name = "ObjectifRepartition.full",
         attributeNodes = {
@@ -0,0 +1,76 @@
+package com.budgetmanager.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Modèle de prévision des dépenses variables d'une catégorie (lissage exponentiel saisonnier).
+ * Les paramètres sont mis à jour à chaque clôture de cycle (voir LissageSaisonnier) :
+ * servir une prévision ne relit pas l'historique des transactions.
+ */
+@Entity
+@Table(name = "previsions_depenses",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_prevision_depense", columnNames = {"user_id", "categorie"})
+    }
+)
+@Getter
+@Setter
+public class PrevisionDepense extends PanacheEntityBase {
+
+    public static final int SAISONS = 12;
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TypeTransaction categorie;
+
+    @Column(nullable = false)
+    private double niveau;
+
+    @Column(nullable = false)
+    private double tendance;
+
+    // Écart saisonnier par mois de début de cycle (index 0 = janvier)
+    @Column(nullable = false)
+    private double[] saisons = new double[SAISONS];
+
+    // Dernier cycle intégré, format "YYYY-MM"
+    @Column(name = "dernier_cycle", nullable = false, length = 7)
+    private String dernierCycle;
+
+    @Column(name = "nombre_cycles", nullable = false)
+    private int nombreCycles;
+
+    // Somme des erreurs absolues des prévisions à un cycle, pour l'erreur moyenne
+    @Column(name = "erreur_absolue_cumulee", nullable = false)
+    private double erreurAbsolueCumulee;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructeurs
+    public PrevisionDepense() {}
+
+    public PrevisionDepense(User user, TypeTransaction categorie) {
+        this.user = user;
+        this.categorie = categorie;
+    }
+}
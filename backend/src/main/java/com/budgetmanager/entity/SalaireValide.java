@@ -27,6 +27,7 @@ import java.util.UUID;
         @Index(name = "idx_salaire_valide_mois", columnList = "mois")
     }
 )
+@EntityListeners(EcritureEntiteListener.class)
 @Getter
 @Setter
 public class SalaireValide extends PanacheEntityBase {
@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.PartitionKey;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -13,11 +14,12 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "transactions", indexes = {
-    @Index(name = "idx_transaction_user_date", columnList = "user_id,date_transaction"),
+    @Index(name = "idx_transaction_user_date", columnList = "user_id,date_transaction DESC,created_at DESC"),
     @Index(name = "idx_transaction_compte_date", columnList = "compte_id,date_transaction"),
     @Index(name = "idx_transaction_objectif", columnList = "objectif_id"),
     @Index(name = "idx_transaction_type", columnList = "type"),
-    @Index(name = "idx_transaction_created_at", columnList = "created_at")
+    @Index(name = "idx_transaction_created_at", columnList = "created_at"),
+    @Index(name = "idx_transaction_compte_empreinte", columnList = "compte_id,empreinte")
 })
 @NamedEntityGraph(
         name = "Transaction.full",
@@ -33,6 +35,7 @@ import java.util.UUID;
                 )
         }
 )
+@EntityListeners(EcritureEntiteListener.class)
 @Getter
 @Setter
 public class Transaction extends PanacheEntityBase {
@@ -65,9 +68,15 @@ public class Transaction extends PanacheEntityBase {
     @Column(nullable = false, length = 500)
     private String description;
 
+    // Clé de partition sous PostgreSQL (V4) : ajoutée aux update/delete par id pour ne viser qu'une partition
+    @PartitionKey
     @Column(name = "date_transaction", nullable = false)
     private LocalDate dateTransaction;
 
+    // Empreinte de la ligne de relevé d'origine, pour détecter les ré-imports (voir FingerprintUtil)
+    @Column(length = 40)
+    private String empreinte;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
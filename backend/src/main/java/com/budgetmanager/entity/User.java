@@ -15,9 +15,11 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Cacheable
 @Table(name = "users", indexes = {
     @Index(name = "idx_user_created_at", columnList = "created_at")
 })
+@EntityListeners(EcritureEntiteListener.class)
 @Getter
 @Setter
 public class User extends PanacheEntityBase {
@@ -0,0 +1,31 @@
+package com.budgetmanager.exception;
+
+import com.budgetmanager.dto.ErrorResponse;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+import org.hibernate.exception.ConstraintViolationException;
+import org.jboss.logging.Logger;
+
+/**
+ * Exception handler for database unique/foreign key violations.
+ * Occurs when two requests insert the same row concurrently, e.g. two dashboard loads
+ * applying the same charge fixe occurrence: the losing request is rolled back.
+ */
+@Provider
+public class ConstraintViolationExceptionMapper implements ExceptionMapper<ConstraintViolationException> {
+
+    private static final Logger LOGGER = Logger.getLogger(ConstraintViolationExceptionMapper.class);
+
+    @Override
+    public Response toResponse(ConstraintViolationException exception) {
+        LOGGER.warnf("Constraint violation %s - concurrent insert detected", exception.getConstraintName());
+
+        String message = "Cette opération a déjà été effectuée par une autre requête. "
+                + "Veuillez rafraîchir.";
+
+        return Response.status(Response.Status.CONFLICT)
+                .entity(new ErrorResponse(message))
+                .build();
+    }
+}
@@ -1,6 +1,8 @@
 package com.budgetmanager.exception;
 
 import com.budgetmanager.dto.ErrorResponse;
+import com.budgetmanager.metrics.OptimisticLockMetrics;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -20,6 +22,9 @@ public class GlobalExceptionMapper implements ExceptionMapper<Exception> {
     @ConfigProperty(name = "quarkus.profile")
     String profile;
 
+    @Inject
+    OptimisticLockMetrics optimisticLockMetrics;
+
     @Override
     public Response toResponse(Exception exception) {
         // Si c'est déjà une WebApplicationException, laisser le mapper spécifique la gérer
@@ -28,6 +33,9 @@ public class GlobalExceptionMapper implements ExceptionMapper<Exception> {
             return wae.getResponse();
         }
 
+        // Conflit détecté au commit : enveloppé dans l'exception de la transaction
+        optimisticLockMetrics.enregistrer(exception);
+
         // Log l'exception avec détails
         LOGGER.error("Unexpected exception occurred", exception);
 
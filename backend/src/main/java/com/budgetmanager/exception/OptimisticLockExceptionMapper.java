@@ -1,6 +1,8 @@
 package com.budgetmanager.exception;
 
 import com.budgetmanager.dto.ErrorResponse;
+import com.budgetmanager.metrics.OptimisticLockMetrics;
+import jakarta.inject.Inject;
 import jakarta.persistence.OptimisticLockException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -16,8 +18,12 @@ public class OptimisticLockExceptionMapper implements ExceptionMapper<Optimistic
 
     private static final Logger LOGGER = Logger.getLogger(OptimisticLockExceptionMapper.class);
 
+    @Inject
+    OptimisticLockMetrics optimisticLockMetrics;
+
     @Override
     public Response toResponse(OptimisticLockException exception) {
+        optimisticLockMetrics.enregistrer(exception);
         LOGGER.warn("Optimistic lock exception occurred - concurrent modification detected", exception);
 
         String message = "Les données ont été modifiées par un autre utilisateur. "
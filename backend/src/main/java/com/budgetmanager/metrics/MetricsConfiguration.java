@@ -0,0 +1,52 @@
+package com.budgetmanager.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+
+/**
+ * Configuration des métriques exposées sur /q/metrics.
+ * Les timers HTTP (http.server.requests, un par méthode et URI de ressource REST) et les
+ * métriques applicatives budget.* publient un histogramme : p50/p99 se calculent côté
+ * Prometheus avec histogram_quantile, agrégeables entre instances.
+ */
+@Singleton
+public class MetricsConfiguration {
+
+    /**
+     * Préfixe des métriques applicatives.
+     */
+    public static final String PREFIX = "budget.";
+
+    @Produces
+    @Singleton
+    MeterFilter histogrammes() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().equals("http.server.requests")
+                        || (id.getName().startsWith(PREFIX) && id.getType() == Meter.Type.TIMER)) {
+                    return DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                            .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos())
+                            .build()
+                            .merge(config);
+                }
+                if (id.getName().equals(SqlStatementMetricsFilter.METRIC)) {
+                    return DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .minimumExpectedValue(1.0)
+                            .maximumExpectedValue(1000.0)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+}
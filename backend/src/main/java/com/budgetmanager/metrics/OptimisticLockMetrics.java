@@ -0,0 +1,68 @@
+package com.budgetmanager.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.StaleStateException;
+
+/**
+ * Compteur des conflits de verrou optimiste (budget.optimistic.lock.failures, tag entite).
+ * Le conflit peut remonter directement (flush explicite) ou enveloppé dans l'exception
+ * de commit de la transaction : la chaîne des causes est parcourue.
+ */
+@ApplicationScoped
+public class OptimisticLockMetrics {
+
+    static final String METRIC = "budget.optimistic.lock.failures";
+
+    @Inject
+    MeterRegistry registry;
+
+    /**
+     * Compte l'exception si elle est, ou contient, un conflit de verrou optimiste.
+     *
+     * @param exception Exception levée par la requête ou le traitement
+     * @return true si un conflit a été compté
+     */
+    public boolean enregistrer(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            String entite = entite(cause);
+            if (entite != null) {
+                Counter.builder(METRIC)
+                        .description("Conflits de verrou optimiste (modification concurrente)")
+                        .tag("entite", entite)
+                        .register(registry)
+                        .increment();
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static String entite(Throwable cause) {
+        if (cause instanceof StaleObjectStateException stale) {
+            return simpleName(stale.getEntityName());
+        }
+        if (cause instanceof OptimisticLockException lock) {
+            if (lock.getEntity() != null) {
+                return lock.getEntity().getClass().getSimpleName();
+            }
+            return lock.getCause() instanceof StaleObjectStateException stale
+                    ? simpleName(stale.getEntityName()) : "inconnue";
+        }
+        if (cause instanceof StaleStateException) {
+            return "inconnue";
+        }
+        return null;
+    }
+
+    private static String simpleName(String entityName) {
+        return entityName.substring(entityName.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,47 @@
+package com.budgetmanager.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Taux de succès du cache de second niveau, par région, sur /q/metrics.
+ * Les compteurs bruts (hibernate_second_level_cache_requests_total{result=hit|miss}) viennent
+ * de quarkus.hibernate-orm.metrics.enabled ; la jauge budget.cache.l2.hit.ratio donne le ratio
+ * cumulé depuis le démarrage, y compris pour le cache de requêtes (default-query-results-region).
+ */
+@ApplicationScoped
+public class SecondLevelCacheMetrics {
+
+    static final String METRIC = MetricsConfiguration.PREFIX + "cache.l2.hit.ratio";
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    MeterRegistry registry;
+
+    void onStart(@Observes StartupEvent event) {
+        Statistics statistics = sessionFactory.getStatistics();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            Gauge.builder(METRIC, statistics, stats -> ratio(stats.getCacheRegionStatistics(region)))
+                    .tag("region", region)
+                    .description("Part des lectures du cache de second niveau servies sans base")
+                    .register(registry);
+        }
+    }
+
+    private static double ratio(CacheRegionStatistics region) {
+        if (region == null) {
+            return Double.NaN;
+        }
+        long total = region.getHitCount() + region.getMissCount();
+        return total == 0 ? Double.NaN : (double) region.getHitCount() / total;
+    }
+}
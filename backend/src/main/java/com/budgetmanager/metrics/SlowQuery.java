@@ -0,0 +1,21 @@
+package com.budgetmanager.metrics;
+
+import java.time.Instant;
+
+/**
+ * Instruction SQL lente capturée par SlowQueryDriver.
+ * Les valeurs des paramètres ne sont jamais conservées, seulement leur forme (type par position).
+ *
+ * @param horodatage Fin de l'exécution
+ * @param dureeMs Durée d'exécution côté JDBC
+ * @param sql Instruction telle que préparée (paramètres ?)
+ * @param parametres Forme des paramètres liés, par exemple "1:UUID, 2:LocalDate"
+ * @param lots Nombre de lignes d'un executeBatch, 0 hors batch
+ * @param plan Plan d'exécution capturé, null si désactivé, non applicable ou en cours
+ */
+public record SlowQuery(Instant horodatage, long dureeMs, String sql, String parametres, int lots, String plan) {
+
+    SlowQuery withPlan(String plan) {
+        return new SlowQuery(horodatage, dureeMs, sql, parametres, lots, plan);
+    }
+}
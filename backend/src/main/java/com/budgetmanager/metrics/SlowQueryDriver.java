@@ -0,0 +1,305 @@
+package com.budgetmanager.metrics;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Pilote JDBC délégant qui chronomètre chaque exécution et signale les instructions lentes
+ * à SlowQueryLog. Activé par configuration, sans toucher au code d'accès aux données :
+ *
+ * <pre>
+ * quarkus.datasource.jdbc.driver=com.budgetmanager.metrics.SlowQueryDriver
+ * </pre>
+ *
+ * Le pilote réel est choisi d'après l'URL (PostgreSQL ou H2). Le plan d'une requête de lecture
+ * lente est rejoué sur une connexion séparée en lecture seule, avec les mêmes paramètres :
+ * EXPLAIN (ANALYZE, BUFFERS) sur PostgreSQL, EXPLAIN sur H2. Les écritures ne sont jamais rejouées.
+ */
+@RegisterForReflection
+public class SlowQueryDriver implements Driver {
+
+    private static final Map<String, String> DELEGATES = Map.of(
+            "jdbc:postgresql:", "org.postgresql.Driver",
+            "jdbc:h2:", "org.h2.Driver");
+
+    private volatile SlowQueryLog log;
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        Driver delegate = delegate(url);
+        if (delegate == null) {
+            return null;
+        }
+        Connection connection = delegate.connect(url, info);
+        if (connection == null) {
+            return null;
+        }
+        Target target = new Target(delegate, url, info);
+        return (Connection) Proxy.newProxyInstance(SlowQueryDriver.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection, target));
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return delegateClass(url) != null;
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+        Driver delegate = delegate(url);
+        return delegate != null ? delegate.getPropertyInfo(url, info) : new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    private static String delegateClass(String url) {
+        if (url == null) {
+            return null;
+        }
+        return DELEGATES.entrySet().stream()
+                .filter(entry -> url.startsWith(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static Driver delegate(String url) throws SQLException {
+        String className = delegateClass(url);
+        if (className == null) {
+            return null;
+        }
+        try {
+            return (Driver) Class.forName(className, true, Thread.currentThread().getContextClassLoader())
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException("JDBC driver " + className + " not available", e);
+        }
+    }
+
+    /**
+     * Journal des requêtes lentes, résolu au premier usage : les connexions peuvent être
+     * ouvertes avant que le conteneur CDI ne soit prêt.
+     */
+    private SlowQueryLog log() {
+        SlowQueryLog current = log;
+        if (current == null) {
+            ArcContainer container = Arc.container();
+            if (container == null || !container.isRunning()) {
+                return null;
+            }
+            current = container.instance(SlowQueryLog.class).get();
+            log = current;
+        }
+        return current;
+    }
+
+    /**
+     * Base réelle, pour rejouer les plans sur une connexion séparée.
+     */
+    private record Target(Driver driver, String url, Properties info) {
+
+        boolean postgres() {
+            return url.startsWith("jdbc:postgresql:");
+        }
+
+        boolean h2() {
+            return url.startsWith("jdbc:h2:");
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+        private final Target target;
+
+        ConnectionHandler(Connection connection, Target target) {
+            this.connection = connection;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            Object result = SlowQueryDriver.invoke(connection, method, args);
+            if (result instanceof PreparedStatement statement && args != null && args[0] instanceof String sql) {
+                Class<?> type = method.getReturnType();
+                return Proxy.newProxyInstance(SlowQueryDriver.class.getClassLoader(), new Class<?>[]{type},
+                        new StatementHandler(statement, sql, target));
+            }
+            if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+                return Proxy.newProxyInstance(SlowQueryDriver.class.getClassLoader(), new Class<?>[]{Statement.class},
+                        new StatementHandler(statement, null, target));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String sql;
+        private final Target target;
+        // Parameter setters by position, kept only to replay the plan of a slow execution
+        private final Map<Integer, Object[]> parametres = new TreeMap<>();
+        private final Map<Integer, Method> setters = new TreeMap<>();
+        private int lots;
+
+        StatementHandler(Statement statement, String sql, Target target) {
+            this.statement = statement;
+            this.sql = sql;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                    && method.getDeclaringClass() != Statement.class) {
+                parametres.put(index, args);
+                setters.put(index, method);
+            } else if (name.equals("clearParameters")) {
+                parametres.clear();
+                setters.clear();
+            } else if (name.equals("addBatch")) {
+                lots++;
+            } else if (name.startsWith("execute")) {
+                return executer(method, args);
+            }
+            return SlowQueryDriver.invoke(statement, method, args);
+        }
+
+        private Object executer(Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return SlowQueryDriver.invoke(statement, method, args);
+            } finally {
+                long dureeMs = (System.nanoTime() - start) / 1_000_000;
+                SlowQueryLog journal = log();
+                if (journal != null && dureeMs >= journal.getSeuilMs()) {
+                    String executed = sql != null ? sql : (args != null && args[0] instanceof String s ? s : "?");
+                    boolean batch = method.getName().equals("executeBatch")
+                            || method.getName().equals("executeLargeBatch");
+                    journal.enregistrer(
+                            new SlowQuery(Instant.now(), dureeMs, executed, forme(), batch ? lots : 0, null),
+                            planificateur(executed, batch, journal.isExplainAnalyze()));
+                }
+                if (method.getName().equals("executeBatch") || method.getName().equals("executeLargeBatch")) {
+                    lots = 0;
+                }
+            }
+        }
+
+        private String forme() {
+            StringBuilder forme = new StringBuilder();
+            for (Map.Entry<Integer, Object[]> entry : parametres.entrySet()) {
+                if (!forme.isEmpty()) {
+                    forme.append(", ");
+                }
+                Object valeur = entry.getValue()[1];
+                boolean nul = setters.get(entry.getKey()).getName().equals("setNull") || valeur == null;
+                forme.append(entry.getKey()).append(':').append(nul ? "null" : valeur.getClass().getSimpleName());
+            }
+            return forme.toString();
+        }
+
+        /**
+         * Plan rejouable : lecture seule, paramètres recopiables (pas de flux déjà consommé).
+         * EXPLAIN seul par défaut ; avec analyze, PostgreSQL exécute de nouveau la requête
+         * (EXPLAIN (ANALYZE, BUFFERS)) pour donner les temps et les lignes réels.
+         */
+        private SlowQueryLog.PlanCapture planificateur(String executed, boolean batch, boolean analyze) {
+            String debut = executed.stripLeading().toLowerCase(Locale.ROOT);
+            if (batch || !(debut.startsWith("select") || debut.startsWith("with"))
+                    || !(target.postgres() || target.h2())) {
+                return null;
+            }
+            for (Object[] valeurs : parametres.values()) {
+                for (Object valeur : valeurs) {
+                    if (valeur instanceof InputStream || valeur instanceof Reader) {
+                        return null;
+                    }
+                }
+            }
+            Map<Integer, Object[]> valeurs = new TreeMap<>(parametres);
+            Map<Integer, Method> methodes = new TreeMap<>(setters);
+            String explain = (target.postgres() && analyze ? "EXPLAIN (ANALYZE, BUFFERS) " : "EXPLAIN ") + executed;
+
+            return () -> {
+                try (Connection connection = target.driver().connect(target.url(), target.info())) {
+                    connection.setAutoCommit(false);
+                    connection.setReadOnly(true);
+                    try (PreparedStatement plan = connection.prepareStatement(explain)) {
+                        plan.setQueryTimeout(30);
+                        for (Map.Entry<Integer, Object[]> entry : valeurs.entrySet()) {
+                            SlowQueryDriver.invoke(plan, methodes.get(entry.getKey()), entry.getValue());
+                        }
+                        StringBuilder lignes = new StringBuilder();
+                        try (ResultSet resultSet = plan.executeQuery()) {
+                            while (resultSet.next()) {
+                                lignes.append(resultSet.getString(1)).append('\n');
+                            }
+                        }
+                        return lignes.toString().stripTrailing();
+                    } finally {
+                        connection.rollback();
+                    }
+                } catch (Throwable e) {
+                    throw e instanceof Exception exception ? exception : new SQLException(e);
+                }
+            };
+        }
+    }
+}
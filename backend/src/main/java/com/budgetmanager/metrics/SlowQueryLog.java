@@ -0,0 +1,184 @@
+package com.budgetmanager.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Journal des requêtes lentes alimenté par SlowQueryDriver.
+ * Les captures sont gardées dans un tampon circulaire borné (budget.slow-query.buffer-size) :
+ * les plus anciennes sont écrasées, la mémoire ne grossit pas sous charge.
+ * Le plan d'exécution est capturé en arrière-plan (budget.slow-query.explain), sur une
+ * connexion séparée, pour ne pas rallonger la requête qui a déjà été lente.
+ */
+@ApplicationScoped
+public class SlowQueryLog {
+
+    private static final Logger LOGGER = Logger.getLogger(SlowQueryLog.class);
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "budget.slow-query.threshold-ms", defaultValue = "500")
+    long seuilMs;
+
+    @ConfigProperty(name = "budget.slow-query.explain", defaultValue = "false")
+    boolean explain;
+
+    @ConfigProperty(name = "budget.slow-query.explain-analyze", defaultValue = "false")
+    boolean explainAnalyze;
+
+    @ConfigProperty(name = "budget.slow-query.buffer-size", defaultValue = "100")
+    int bufferSize;
+
+    @ConfigProperty(name = "budget.slow-query.explain-queue-size", defaultValue = "16")
+    int fileExplain;
+
+    private SlowQuery[] captures;
+    private int suivante;
+    private int taille;
+    private Counter lentes;
+    private ExecutorService plans;
+
+    @PostConstruct
+    void init() {
+        captures = new SlowQuery[Math.max(1, bufferSize)];
+        lentes = Counter.builder("budget.sql.slow")
+                .description("Instructions SQL au-delà du seuil budget.slow-query.threshold-ms")
+                .register(registry);
+        // One background thread, a few pending plans at most: extra captures keep no plan
+        plans = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, fileExplain)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        plans.shutdownNow();
+    }
+
+    /**
+     * @return Seuil en millisecondes au-delà duquel une instruction est capturée
+     */
+    public long getSeuilMs() {
+        return seuilMs;
+    }
+
+    void setSeuilMs(long seuilMs) {
+        this.seuilMs = seuilMs;
+    }
+
+    boolean isExplain() {
+        return explain;
+    }
+
+    void setExplain(boolean explain) {
+        this.explain = explain;
+    }
+
+    /**
+     * @return true si le plan PostgreSQL est capturé avec EXPLAIN (ANALYZE, BUFFERS), ce qui rejoue la requête
+     */
+    boolean isExplainAnalyze() {
+        return explainAnalyze;
+    }
+
+    /**
+     * Enregistre une instruction lente et, si activé, planifie la capture de son plan.
+     *
+     * @param capture Instruction lente, sans plan
+     * @param planificateur Calcul du plan (null si non applicable)
+     */
+    void enregistrer(SlowQuery capture, PlanCapture planificateur) {
+        synchronized (this) {
+            captures[suivante] = capture;
+            suivante = (suivante + 1) % captures.length;
+            taille = Math.min(taille + 1, captures.length);
+        }
+        lentes.increment();
+        LOGGER.warnf("Slow SQL statement (%d ms, parameters [%s]): %s",
+                capture.dureeMs(), capture.parametres(), capture.sql());
+
+        if (explain && planificateur != null) {
+            plans.execute(() -> {
+                try {
+                    remplacer(capture, capture.withPlan(planificateur.capturer()));
+                } catch (Exception e) {
+                    LOGGER.debugf(e, "Could not capture plan for slow statement %s", capture.sql());
+                    remplacer(capture, capture.withPlan("EXPLAIN impossible : " + e.getMessage()));
+                }
+            });
+        }
+    }
+
+    /**
+     * Attend la fin des captures de plan déjà planifiées (le thread unique les traite dans l'ordre).
+     *
+     * @param delai Attente maximale
+     * @return false si le délai est dépassé ou si la file était pleine
+     */
+    boolean attendrePlans(Duration delai) throws InterruptedException {
+        try {
+            plans.submit(() -> { }).get(delai.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    private synchronized void remplacer(SlowQuery ancienne, SlowQuery nouvelle) {
+        for (int i = 0; i < captures.length; i++) {
+            if (captures[i] == ancienne) {
+                captures[i] = nouvelle;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return Captures du tampon, de la plus récente à la plus ancienne
+     */
+    public synchronized List<SlowQuery> lister() {
+        List<SlowQuery> resultat = new ArrayList<>(taille);
+        for (int i = 1; i <= taille; i++) {
+            resultat.add(captures[(suivante - i + captures.length) % captures.length]);
+        }
+        return resultat;
+    }
+
+    /**
+     * Vide le tampon.
+     */
+    public synchronized void vider() {
+        Arrays.fill(captures, null);
+        suivante = 0;
+        taille = 0;
+    }
+
+    /**
+     * Calcul différé du plan d'exécution d'une capture.
+     */
+    @FunctionalInterface
+    interface PlanCapture {
+        String capturer() throws Exception;
+    }
+}
@@ -0,0 +1,22 @@
+package com.budgetmanager.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Nombre maximum d'instructions SQL attendu pour une méthode de ressource REST
+ * (ou toutes les méthodes d'une ressource). Au-delà, SqlStatementMetricsFilter
+ * journalise un avertissement et incrémente budget.http.sql.budget.exceeded.
+ * Sans annotation, le budget par défaut budget.sql.default-budget s'applique.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    /**
+     * @return Instructions SQL autorisées par requête
+     */
+    int value();
+}
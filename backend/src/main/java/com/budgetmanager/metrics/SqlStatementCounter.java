@@ -0,0 +1,44 @@
+package com.budgetmanager.metrics;
+
+import jakarta.enterprise.context.RequestScoped;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Instructions SQL préparées pendant la requête HTTP courante.
+ * Alimenté par SqlStatementInspector, lu en fin de requête par SqlStatementMetricsFilter.
+ * Les instructions sont paramétrées (?) : un même texte répété signale une boucle de
+ * chargements, typiquement un N+1.
+ */
+@RequestScoped
+public class SqlStatementCounter {
+
+    private final Map<String, Integer> executions = new HashMap<>();
+    private int count;
+
+    void record(String sql) {
+        count++;
+        executions.merge(sql, 1, Integer::sum);
+    }
+
+    /**
+     * @return Instructions SQL préparées depuis le début de la requête
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return Instruction la plus exécutée et son nombre d'exécutions, null si aucune
+     */
+    Map.Entry<String, Integer> getLePlusRepete() {
+        Map.Entry<String, Integer> max = null;
+        for (Map.Entry<String, Integer> entry : executions.entrySet()) {
+            if (max == null || entry.getValue() > max.getValue()) {
+                max = entry;
+            }
+        }
+        return max;
+    }
+}
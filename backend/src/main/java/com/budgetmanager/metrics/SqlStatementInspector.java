@@ -0,0 +1,26 @@
+package com.budgetmanager.metrics;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.inject.Inject;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Compte chaque instruction SQL préparée par Hibernate dans la requête HTTP courante.
+ * Hors contexte de requête (démarrage, traitements sans requête active), l'instruction
+ * n'est pas comptée. Le SQL est renvoyé tel quel.
+ */
+@PersistenceUnitExtension
+public class SqlStatementInspector implements StatementInspector {
+
+    @Inject
+    SqlStatementCounter counter;
+
+    @Override
+    public String inspect(String sql) {
+        if (Arc.container().requestContext().isActive()) {
+            counter.record(sql);
+        }
+        return sql;
+    }
+}
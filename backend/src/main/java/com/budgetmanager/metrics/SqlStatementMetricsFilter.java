@@ -0,0 +1,96 @@
+package com.budgetmanager.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Enregistre en fin de requête le nombre d'instructions SQL exécutées, par méthode de
+ * ressource REST (budget.http.sql.statements, tag ressource = Classe.methode).
+ * La requête est comparée au budget de la méthode (@SqlBudget, sinon budget.sql.default-budget) ;
+ * une même instruction exécutée au moins budget.sql.repeat-threshold fois est signalée
+ * comme N+1 probable. Le bilan est publié en événement SqlStatementReport.
+ */
+@Provider
+public class SqlStatementMetricsFilter implements ContainerResponseFilter {
+
+    private static final Logger LOGGER = Logger.getLogger(SqlStatementMetricsFilter.class);
+
+    static final String METRIC = "budget.http.sql.statements";
+    static final String EXCEEDED_METRIC = "budget.http.sql.budget.exceeded";
+
+    @Inject
+    SqlStatementCounter counter;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Event<SqlStatementReport> reports;
+
+    @ConfigProperty(name = "budget.sql.default-budget", defaultValue = "100")
+    int defaultBudget;
+
+    @ConfigProperty(name = "budget.sql.repeat-threshold", defaultValue = "10")
+    int repeatThreshold;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Method method = resourceInfo.getResourceMethod();
+        if (method == null) {
+            return;
+        }
+        String ressource = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        int statements = counter.getCount();
+
+        DistributionSummary.builder(METRIC)
+                .description("Instructions SQL exécutées par requête HTTP")
+                .baseUnit("statements")
+                .tag("ressource", ressource)
+                .register(registry)
+                .record(statements);
+
+        Map.Entry<String, Integer> lePlusRepete = counter.getLePlusRepete();
+        SqlStatementReport report = new SqlStatementReport(ressource, statements, budget(method),
+                lePlusRepete != null ? lePlusRepete.getKey() : null,
+                lePlusRepete != null ? lePlusRepete.getValue() : 0);
+
+        if (report.depasseBudget()) {
+            Counter.builder(EXCEEDED_METRIC)
+                    .description("Requêtes HTTP au-delà de leur budget d'instructions SQL")
+                    .tag("ressource", ressource)
+                    .register(registry)
+                    .increment();
+            LOGGER.warnf("%s executed %d SQL statements (budget %d)", ressource, statements, report.budget());
+        }
+        if (report.repetitions() >= repeatThreshold) {
+            LOGGER.warnf("%s: probable N+1, statement executed %d times: %s",
+                    ressource, report.repetitions(), report.statementLePlusRepete());
+        }
+        reports.fire(report);
+    }
+
+    private int budget(Method method) {
+        SqlBudget budget = method.getAnnotation(SqlBudget.class);
+        if (budget == null) {
+            budget = method.getDeclaringClass().getAnnotation(SqlBudget.class);
+        }
+        return budget != null ? budget.value() : defaultBudget;
+    }
+}
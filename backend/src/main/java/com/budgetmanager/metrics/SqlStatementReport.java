@@ -0,0 +1,21 @@
+package com.budgetmanager.metrics;
+
+/**
+ * Bilan SQL d'une requête HTTP, publié en événement CDI en fin de requête.
+ *
+ * @param ressource Méthode de ressource (Classe.methode)
+ * @param statements Instructions SQL exécutées
+ * @param budget Budget applicable à la méthode
+ * @param statementLePlusRepete Instruction SQL la plus répétée
+ * @param repetitions Nombre d'exécutions de cette instruction
+ */
+public record SqlStatementReport(String ressource, int statements, int budget,
+                                 String statementLePlusRepete, int repetitions) {
+
+    /**
+     * @return true si la requête a dépassé son budget
+     */
+    public boolean depasseBudget() {
+        return statements > budget;
+    }
+}
@@ -0,0 +1,27 @@
+package com.budgetmanager.metrics;
+
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+/**
+ * Export des traces OpenTelemetry (requête REST, services, instructions JDBC).
+ * En production, les spans partent vers le collecteur OTLP (quarkus.otel.exporter.otlp.*).
+ * En local, budget.tracing.log-spans=true les écrit dans le journal, un span par ligne,
+ * sans collecteur à démarrer. Les deux réglages sont lus à la construction de l'application.
+ * Le journal est branché comme processeur de spans : il reste actif avec
+ * quarkus.otel.traces.exporter=none, qui n'écarte que les exporteurs.
+ */
+@Singleton
+public class TracingConfiguration {
+
+    @Produces
+    @Singleton
+    @IfBuildProperty(name = "budget.tracing.log-spans", stringValue = "true")
+    SpanProcessor journal() {
+        return SimpleSpanProcessor.create(LoggingSpanExporter.create());
+    }
+}
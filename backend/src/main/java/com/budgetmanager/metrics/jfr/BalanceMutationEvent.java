@@ -0,0 +1,29 @@
+package com.budgetmanager.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Modification du solde d'un compte, relevée au flush Hibernate (BalanceMutationInterceptor).
+ * La trace de pile désigne l'opération métier à l'origine du flush.
+ */
+@Name("com.budgetmanager.BalanceMutation")
+@Label("Mouvement de solde")
+@Category({"Budget Manager", "Comptes"})
+@StackTrace(true)
+public class BalanceMutationEvent extends Event {
+
+    @Label("Compte")
+    public String compte;
+
+    @Label("Delta (centimes)")
+    public long deltaCentimes;
+
+    @Label("Version")
+    @Description("Version optimiste avant écriture : un saut signale des écritures concurrentes")
+    public long version;
+}
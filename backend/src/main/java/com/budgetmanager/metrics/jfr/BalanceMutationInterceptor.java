@@ -0,0 +1,51 @@
+package com.budgetmanager.metrics.jfr;
+
+import com.budgetmanager.entity.Compte;
+import com.budgetmanager.util.Money;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Émet un BalanceMutationEvent pour chaque compte dont le solde change au flush.
+ * Les soldes sont modifiés à de nombreux endroits (transactions, transferts, charges fixes) :
+ * le flush est le seul point de passage commun. Ne modifie jamais l'état de l'entité.
+ */
+@PersistenceUnitExtension
+public class BalanceMutationInterceptor implements Interceptor {
+
+    @Override
+    public boolean onFlushDirty(Object entity, Object id, Object[] currentState, Object[] previousState,
+                                String[] propertyNames, Type[] types) {
+        if (!(entity instanceof Compte) || previousState == null) {
+            return false;
+        }
+        BalanceMutationEvent event = new BalanceMutationEvent();
+        if (!event.isEnabled()) {
+            return false;
+        }
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (propertyNames[i].equals("soldeTotal")
+                    && currentState[i] instanceof BigDecimal nouveau && previousState[i] instanceof BigDecimal ancien
+                    && nouveau.compareTo(ancien) != 0) {
+                event.compte = Objects.toString(id);
+                event.deltaCentimes = Money.toCents(nouveau) - Money.toCents(ancien);
+                event.version = version(propertyNames, previousState);
+                event.commit();
+            }
+        }
+        return false;
+    }
+
+    private static long version(String[] propertyNames, Object[] state) {
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (propertyNames[i].equals("version") && state[i] instanceof Long version) {
+                return version;
+            }
+        }
+        return -1;
+    }
+}
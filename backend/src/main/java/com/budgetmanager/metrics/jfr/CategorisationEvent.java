@@ -0,0 +1,24 @@
+package com.budgetmanager.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Lot de catégorisations appris dans le mémo marchand (import en masse, recatégorisation).
+ */
+@Name("com.budgetmanager.Categorisation")
+@Label("Lot de catégorisation")
+@Category({"Budget Manager", "Import"})
+@Description("Mise à jour du mémo marchand -> catégorie pour un lot de transactions")
+public class CategorisationEvent extends Event {
+
+    @Label("Transactions")
+    public int transactions;
+
+    @Label("Marchands")
+    @Description("Clés marchand distinctes mises à jour")
+    public int marchands;
+}
@@ -0,0 +1,41 @@
+package com.budgetmanager.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Assemblage du tableau de bord (GET /api/dashboard/{mois}), avec la durée de chaque lecture.
+ */
+@Name("com.budgetmanager.DashboardAssembly")
+@Label("Assemblage du tableau de bord")
+@Category({"Budget Manager", "Dashboard"})
+public class DashboardAssemblyEvent extends Event {
+
+    @Label("Mois")
+    public String mois;
+
+    @Label("Comptes")
+    public int comptes;
+
+    @Label("Objectifs")
+    public int objectifs;
+
+    @Label("Lecture des comptes")
+    @Timespan
+    public long dureeComptes;
+
+    @Label("Lecture des objectifs")
+    @Timespan
+    public long dureeObjectifs;
+
+    @Label("Calcul de l'argent libre")
+    @Timespan
+    public long dureeArgentLibre;
+
+    @Label("Vérification du salaire")
+    @Timespan
+    public long dureeSalaire;
+}
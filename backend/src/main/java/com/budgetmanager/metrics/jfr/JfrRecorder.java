@@ -0,0 +1,120 @@
+package com.budgetmanager.metrics.jfr;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enregistrement JFR continu (budget.jfr.enabled) : profil "default" du JDK (GC, allocations,
+ * verrous) plus les événements métier de l'application, conservés sur disque dans la limite
+ * de budget.jfr.max-age et budget.jfr.max-size. Un dump se récupère sur GET /api/admin/jfr/dump
+ * (dev et test), ou avec {@code jcmd <pid> JFR.dump name=budget-manager}.
+ * Les événements qui recopient l'environnement, les propriétés système et la ligne de commande
+ * (mots de passe de la base entre autres) sont retirés du profil.
+ */
+@ApplicationScoped
+public class JfrRecorder {
+
+    private static final Logger LOGGER = Logger.getLogger(JfrRecorder.class);
+
+    static final List<Class<? extends jdk.jfr.Event>> EVENTS = List.of(
+            StatementParseEvent.class,
+            CategorisationEvent.class,
+            SnapshotComputationEvent.class,
+            DashboardAssemblyEvent.class,
+            BalanceMutationEvent.class);
+
+    // Environment variables, system properties and command lines carry the datasource credentials
+    static final List<String> EVENEMENTS_SENSIBLES = List.of(
+            "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty",
+            "jdk.JVMInformation",
+            "jdk.SystemProcess");
+
+    @ConfigProperty(name = "budget.jfr.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "budget.jfr.max-age", defaultValue = "1H")
+    Duration maxAge;
+
+    @ConfigProperty(name = "budget.jfr.max-size", defaultValue = "100000000")
+    long maxSize;
+
+    private Recording recording;
+
+    void onStart(@Observes StartupEvent event) {
+        if (enabled) {
+            // Starting a recording takes a few hundred milliseconds: keep it off the startup path
+            Thread.ofVirtual().name("jfr-recorder-start").start(this::demarrer);
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        arreter();
+    }
+
+    synchronized void demarrer() {
+        if (recording != null) {
+            return;
+        }
+        Map<String, String> settings;
+        try {
+            settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        } catch (IOException | ParseException e) {
+            LOGGER.errorf(e, "Cannot load the default JFR configuration, recording disabled");
+            return;
+        }
+        EVENEMENTS_SENSIBLES.forEach(nom -> settings.put(nom + "#enabled", "false"));
+        recording = new Recording(settings);
+        recording.setName("budget-manager");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize);
+        EVENTS.forEach(type -> recording.enable(type));
+        recording.start();
+        LOGGER.infof("Continuous JFR recording started (max age %s, max size %d bytes)", maxAge, maxSize);
+    }
+
+    synchronized void arreter() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * @return true si l'enregistrement continu tourne
+     */
+    public synchronized boolean isActif() {
+        return recording != null;
+    }
+
+    /**
+     * Copie l'enregistrement courant dans un fichier temporaire, sans l'arrêter.
+     *
+     * @return Fichier .jfr à supprimer par l'appelant
+     * @throws IllegalStateException si l'enregistrement n'est pas actif
+     */
+    public synchronized Path dump() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("Enregistrement JFR désactivé (budget.jfr.enabled=false)");
+        }
+        Path file = Files.createTempFile("budget-manager-", ".jfr");
+        recording.dump(file);
+        return file;
+    }
+}
@@ -0,0 +1,27 @@
+package com.budgetmanager.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Calcul d'un snapshot de cycle budgétaire (MonthSnapshotService.createOrUpdateSnapshot).
+ */
+@Name("com.budgetmanager.SnapshotComputation")
+@Label("Calcul de snapshot")
+@Category({"Budget Manager", "Snapshots"})
+public class SnapshotComputationEvent extends Event {
+
+    @Label("Mois")
+    public String mois;
+
+    @Label("Début du cycle")
+    public String debutCycle;
+
+    @Label("Fin du cycle")
+    public String finCycle;
+
+    @Label("Transactions lues")
+    public int transactions;
+}
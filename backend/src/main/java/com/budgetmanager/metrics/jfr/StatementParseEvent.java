@@ -0,0 +1,35 @@
+package com.budgetmanager.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Analyse d'un relevé importé (POST /api/transactions/upload), de l'ouverture à la dernière ligne.
+ */
+@Name("com.budgetmanager.StatementParse")
+@Label("Analyse de relevé")
+@Category({"Budget Manager", "Import"})
+@Description("Lecture et catégorisation d'un relevé bancaire importé")
+public class StatementParseEvent extends Event {
+
+    @Label("Format")
+    public String format;
+
+    @Label("Pages")
+    @Description("Pages du relevé PDF, 0 pour les autres formats")
+    public int pages;
+
+    @Label("Lignes")
+    public int lignes;
+
+    @Label("Taille")
+    @DataAmount
+    public long octets;
+
+    @Label("Doublons")
+    public int doublons;
+}
@@ -8,8 +8,10 @@ import com.budgetmanager.entity.ChargeFixe;
 import com.budgetmanager.entity.Compte;
 import com.budgetmanager.entity.Transaction;
 import com.budgetmanager.entity.User;
+import com.budgetmanager.service.ChargeRattrapageService;
 import com.budgetmanager.service.TransactionService;
 import com.budgetmanager.service.UserContext;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -26,6 +28,7 @@ import java.util.stream.Collectors;
 @Path("/api/charges-fixes")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class ChargeFixeResource {
 
     @Inject
@@ -34,6 +37,9 @@ public class ChargeFixeResource {
     @Inject
     TransactionService transactionService;
 
+    @Inject
+    ChargeRattrapageService chargeRattrapageService;
+
     /**
      * POST /api/charges-fixes/process
      * Vérifie et traite les charges fixes dues pour le mois en cours.
@@ -136,6 +142,9 @@ public class ChargeFixeResource {
         if (request.getDateDebut() != null) charge.setDateDebut(request.getDateDebut());
         if (request.getDateFin() != null) charge.setDateFin(request.getDateFin());
 
+        // The schedule may have changed: next due date from the last applied occurrence
+        chargeRattrapageService.replanifier(charge);
+
         // ⭐ Convertir en DTO
         ChargeFixeResponse response = ChargeFixeResponse.fromEntity(charge);
         return Response.ok(response).build();
@@ -8,8 +8,10 @@ import com.budgetmanager.dto.UpdateCompteRequest;
 import com.budgetmanager.entity.Banque;
 import com.budgetmanager.entity.Compte;
 import com.budgetmanager.entity.User;
+import com.budgetmanager.metrics.SqlBudget;
 import com.budgetmanager.service.CompteService;
 import com.budgetmanager.service.UserContext;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -24,6 +26,7 @@ import java.util.stream.Collectors;
 @Path("/api/comptes")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class CompteResource {
 
     @Inject
@@ -33,6 +36,7 @@ public class CompteResource {
     CompteService compteService;
 
     @GET
+    @SqlBudget(10)
     public List<CompteResponse> getAllComptes(
             @QueryParam("page") @DefaultValue("0") Integer page,
             @QueryParam("limit") @DefaultValue("50") Integer limit) {
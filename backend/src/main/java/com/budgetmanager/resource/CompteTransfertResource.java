@@ -4,6 +4,7 @@ import com.budgetmanager.dto.*;
 import com.budgetmanager.entity.*;
 import com.budgetmanager.service.UserContext;
 import com.budgetmanager.util.LazyLoadingUtil;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -17,6 +18,7 @@ import java.time.LocalDate;
 @Path("/api/transferts/comptes")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class CompteTransfertResource {
 
     @Inject
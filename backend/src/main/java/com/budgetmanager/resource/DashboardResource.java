@@ -6,16 +6,20 @@ import com.budgetmanager.dto.MonthSnapshotResponse;
 import com.budgetmanager.dto.ObjectifResponse;
 import com.budgetmanager.dto.UserResponse;
 import com.budgetmanager.entity.*;
+import com.budgetmanager.metrics.SqlBudget;
+import com.budgetmanager.metrics.jfr.DashboardAssemblyEvent;
 import com.budgetmanager.service.CompteService;
 import com.budgetmanager.service.MonthSnapshotService;
 import com.budgetmanager.service.ObjectifService;
 import com.budgetmanager.service.SalaireValideService;
 import com.budgetmanager.service.UserContext;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.hibernate.jpa.HibernateHints;
 import org.jboss.logging.Logger;
 
 import java.math.BigDecimal;
@@ -24,11 +28,13 @@ import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Path("/api/dashboard")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class DashboardResource {
 
     private static final Logger LOG = Logger.getLogger(DashboardResource.class);
@@ -62,31 +68,42 @@ public class DashboardResource {
     }
 
     @GET
+    @SqlBudget(10)
     @Path("/{mois}")
     public Response getDashboard(@PathParam("mois") String mois) {
         User user = userContext.getCurrentUser();
+        DashboardAssemblyEvent event = new DashboardAssemblyEvent();
+        event.begin();
 
-        List<Compte> comptes = Compte.find("user = ?1 and actif = true", user).list();
+        long debut = System.nanoTime();
+        List<Compte> comptes = Compte.find("user = ?1 and actif = true", user)
+                .withHint(HibernateHints.HINT_CACHEABLE, true)
+                .list();
+        event.dureeComptes = System.nanoTime() - debut;
 
         // Fetch objectifs with repartitions in a single query (avoids N+1)
+        debut = System.nanoTime();
         List<Objectif> objectifs = objectifService.findObjectifsWithRepartitions(user);
+        event.dureeObjectifs = System.nanoTime() - debut;
 
         // Convert entities to DTOs
         UserResponse userResponse = UserResponse.fromEntity(user);
 
-        // Calculer l'argent libre pour chaque compte
+        // Calculer l'argent libre de tous les comptes (une requête groupée)
+        debut = System.nanoTime();
+        Map<UUID, BigDecimal> argentLibre = compteService.calculerArgentLibre(comptes);
+        event.dureeArgentLibre = System.nanoTime() - debut;
         List<CompteResponse> compteResponses = comptes.stream()
-                .map(compte -> {
-                    BigDecimal argentLibre = compteService.calculerArgentLibre(compte);
-                    return CompteResponse.fromEntityWithArgentLibre(compte, argentLibre);
-                })
+                .map(compte -> CompteResponse.fromEntityWithArgentLibre(compte, argentLibre.get(compte.getId())))
                 .collect(Collectors.toList());
         List<ObjectifResponse> objectifResponses = objectifs.stream()
                 .map(ObjectifResponse::fromEntity)
                 .collect(Collectors.toList());
 
         // Vérifier si le salaire a été validé pour ce mois
+        debut = System.nanoTime();
         boolean salaireValide = salaireValideService.existsForMois(user, mois);
+        event.dureeSalaire = System.nanoTime() - debut;
 
         DashboardResponse dashboard = DashboardResponse.builder()
                 .mois(mois)
@@ -97,6 +114,11 @@ public class DashboardResource {
                 .timestamp(LocalDateTime.now())
                 .build();
 
+        event.mois = mois;
+        event.comptes = comptes.size();
+        event.objectifs = objectifs.size();
+        event.commit();
+
         return Response.ok(dashboard).build();
     }
 
@@ -0,0 +1,50 @@
+package com.budgetmanager.resource;
+
+import com.budgetmanager.dto.ErrorResponse;
+import com.budgetmanager.dto.GenerationDonneesRequest;
+import com.budgetmanager.dto.GenerationDonneesResponse;
+import com.budgetmanager.service.GenerateurDonneesService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.LocalDate;
+
+@Path("/api/dev/donnees")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class GenerateurDonneesResource {
+
+    @Inject
+    GenerateurDonneesService generateurDonneesService;
+
+    @ConfigProperty(name = "budget.generateur.enabled", defaultValue = "false")
+    boolean enabled;
+
+    /**
+     * POST /api/dev/donnees
+     * Génère un utilisateur et son historique synthétique sur une base vide, pour les tests de charge.
+     * Disponible seulement si budget.generateur.enabled=true (profils dev et test).
+     */
+    @POST
+    public Response generer(@Valid GenerationDonneesRequest request) {
+        if (!enabled) {
+            throw new NotFoundException();
+        }
+
+        try {
+            GenerationDonneesResponse response = generateurDonneesService.generer(
+                    request != null ? request : new GenerationDonneesRequest(), LocalDate.now());
+            return Response.status(201).entity(response).build();
+        } catch (IllegalStateException e) {
+            return Response.status(409)
+                    .entity(new ErrorResponse(e.getMessage()))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.budgetmanager.resource;
+
+import com.budgetmanager.dto.ErrorResponse;
+import com.budgetmanager.metrics.jfr.JfrRecorder;
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Route non authentifiée : absente du build de production, où l'enregistrement se récupère
+// avec jcmd <pid> JFR.dump name=budget-manager
+@IfBuildProfile(anyOf = {"dev", "test"})
+@Path("/api/admin/jfr")
+@RunOnVirtualThread
+public class JfrResource {
+
+    private static final Logger LOGGER = Logger.getLogger(JfrResource.class);
+
+    @Inject
+    JfrRecorder jfrRecorder;
+
+    /**
+     * GET /api/admin/jfr/dump
+     * Télécharge l'enregistrement JFR continu (à ouvrir dans JDK Mission Control).
+     * 409 si l'enregistrement n'est pas activé (budget.jfr.enabled).
+     */
+    @GET
+    @Path("/dump")
+    @Produces({MediaType.APPLICATION_OCTET_STREAM, MediaType.APPLICATION_JSON})
+    public Response dump() {
+        if (!jfrRecorder.isActif()) {
+            return Response.status(409)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(new ErrorResponse("Enregistrement JFR désactivé (budget.jfr.enabled=false)"))
+                    .build();
+        }
+
+        java.nio.file.Path file;
+        try {
+            file = jfrRecorder.dump();
+        } catch (IOException e) {
+            LOGGER.errorf(e, "JFR dump failed");
+            return Response.status(500)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(new ErrorResponse("Erreur lors du dump JFR: " + e.getMessage()))
+                    .build();
+        }
+
+        StreamingOutput stream = output -> {
+            try {
+                Files.copy(file, output);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        String nom = "budget-manager-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr";
+        return Response.ok(stream, MediaType.APPLICATION_OCTET_STREAM)
+                .header("Content-Disposition", "attachment; filename=\"" + nom + "\"")
+                .build();
+    }
+}
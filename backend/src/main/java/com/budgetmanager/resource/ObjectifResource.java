@@ -2,9 +2,11 @@ package com.budgetmanager.resource;
 
 import com.budgetmanager.dto.*;
 import com.budgetmanager.entity.*;
+import com.budgetmanager.metrics.SqlBudget;
 import com.budgetmanager.service.ObjectifService;
 import com.budgetmanager.service.UserContext;
 import com.budgetmanager.util.LazyLoadingUtil;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -20,6 +22,7 @@ import java.util.stream.Collectors;
 @Path("/api/objectifs")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class ObjectifResource {
 
     @Inject
@@ -33,6 +36,7 @@ public class ObjectifResource {
     // ===============================================
 
     @GET
+    @SqlBudget(10)
     public List<ObjectifResponse> getAllObjectifs(
             @QueryParam("page") @DefaultValue("0") Integer page,
             @QueryParam("limit") @DefaultValue("50") Integer limit) {
@@ -43,8 +47,8 @@ public class ObjectifResource {
                 .page(page, limit)
                 .list();
 
-        // Charger les répartitions et calculer montantActuel
-        objectifs.forEach(objectifService::enrichirObjectif);
+        // Charger les répartitions (une requête pour la page) et calculer montantActuel
+        objectifService.enrichirObjectifs(objectifs);
 
         return objectifs.stream()
                 .map(ObjectifResponse::fromEntity)
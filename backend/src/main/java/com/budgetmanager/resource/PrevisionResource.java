@@ -0,0 +1,74 @@
+package com.budgetmanager.resource;
+
+import com.budgetmanager.dto.ErrorResponse;
+import com.budgetmanager.dto.PrevisionCategorieResponse;
+import com.budgetmanager.dto.PrevisionResponse;
+import com.budgetmanager.entity.User;
+import com.budgetmanager.service.PrevisionDepenseService;
+import com.budgetmanager.service.PrevisionService;
+import com.budgetmanager.service.UserContext;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Path("/api/previsions")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class PrevisionResource {
+
+    @Inject
+    UserContext userContext;
+
+    @Inject
+    PrevisionService previsionService;
+
+    @Inject
+    PrevisionDepenseService previsionDepenseService;
+
+    /**
+     * GET /api/previsions?mois=N
+     * Soldes projetés jour par jour de chaque compte sur les N prochains mois
+     * (charges fixes et salaire attendu). Recalculé seulement si les données ont changé.
+     */
+    @GET
+    public Response getPrevisions(@QueryParam("mois") @DefaultValue("12") int mois) {
+        if (mois < 1 || mois > PrevisionService.MOIS_MAX) {
+            return Response.status(400)
+                    .entity(new ErrorResponse("Le nombre de mois doit être compris entre 1 et "
+                            + PrevisionService.MOIS_MAX))
+                    .build();
+        }
+
+        User user = userContext.getCurrentUser();
+        String version = previsionService.versionDonnees(user);
+
+        PrevisionResponse prevision = previsionService.calculer(user.getId(), version, LocalDate.now(), mois);
+        return Response.ok(prevision).build();
+    }
+
+    /**
+     * GET /api/previsions/depenses?mois=N
+     * Dépenses variables prévues par catégorie pour les N prochains cycles,
+     * évaluées à partir des modèles mis à jour à chaque clôture de cycle.
+     */
+    @GET
+    @Path("/depenses")
+    public Response getPrevisionsDepenses(@QueryParam("mois") @DefaultValue("12") int mois) {
+        if (mois < 1 || mois > PrevisionService.MOIS_MAX) {
+            return Response.status(400)
+                    .entity(new ErrorResponse("Le nombre de mois doit être compris entre 1 et "
+                            + PrevisionService.MOIS_MAX))
+                    .build();
+        }
+
+        User user = userContext.getCurrentUser();
+        List<PrevisionCategorieResponse> previsions = previsionDepenseService.prevoir(user, mois);
+        return Response.ok(previsions).build();
+    }
+}
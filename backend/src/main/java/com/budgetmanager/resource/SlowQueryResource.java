@@ -0,0 +1,44 @@
+package com.budgetmanager.resource;
+
+import com.budgetmanager.metrics.SlowQuery;
+import com.budgetmanager.metrics.SlowQueryLog;
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.List;
+
+// Routes non authentifiées (texte SQL et plans) : absentes du build de production,
+// où les requêtes lentes restent écrites dans le journal applicatif
+@IfBuildProfile(anyOf = {"dev", "test"})
+@Path("/api/admin/slow-queries")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class SlowQueryResource {
+
+    @Inject
+    SlowQueryLog slowQueryLog;
+
+    /**
+     * GET /api/admin/slow-queries
+     * Dernières instructions SQL lentes (la plus récente en premier), avec la forme des
+     * paramètres et le plan d'exécution capturé. Vide si SlowQueryDriver n'est pas configuré.
+     */
+    @GET
+    public List<SlowQuery> getSlowQueries() {
+        return slowQueryLog.lister();
+    }
+
+    /**
+     * DELETE /api/admin/slow-queries
+     * Vide le tampon des requêtes lentes.
+     */
+    @DELETE
+    public Response clearSlowQueries() {
+        slowQueryLog.vider();
+        return Response.noContent().build();
+    }
+}
@@ -3,13 +3,31 @@ package com.budgetmanager.resource;
 import com.budgetmanager.dto.*;
 import com.budgetmanager.entity.*;
 import com.budgetmanager.entity.TypeTransaction;
-import com.budgetmanager.service.BankStatementParserService;
-import com.budgetmanager.service.CSVBankStatementParserService;
+import com.budgetmanager.metrics.SqlBudget;
+import com.budgetmanager.metrics.jfr.StatementParseEvent;
+import com.budgetmanager.service.CategorieMarchandService;
 import com.budgetmanager.service.MonthSnapshotService;
 import com.budgetmanager.service.SalaireValideService;
 import com.budgetmanager.service.TransactionService;
 import com.budgetmanager.service.UserContext;
+import com.budgetmanager.service.analytics.LedgerColumnStore;
+import com.budgetmanager.service.analytics.TotauxParType;
+import com.budgetmanager.service.archive.TransactionArchiveService;
+import com.budgetmanager.service.statement.StatementFormat;
+import com.budgetmanager.service.statement.StatementFormatRegistry;
+import com.budgetmanager.service.statement.StatementRowReader;
+import com.budgetmanager.util.DateUtil;
+import com.budgetmanager.util.FingerprintUtil;
 import com.budgetmanager.util.LazyLoadingUtil;
+import com.budgetmanager.util.Money;
+import com.budgetmanager.util.MoneyAccumulator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -19,9 +37,9 @@ import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
 import org.jboss.resteasy.reactive.multipart.FileUpload;
 
-import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,6 +50,7 @@ import java.util.stream.Collectors;
 @Path("/api/transactions")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class TransactionResource {
 
     private static final Logger LOGGER = Logger.getLogger(TransactionResource.class);
@@ -43,10 +62,7 @@ public class TransactionResource {
     TransactionService transactionService;
 
     @Inject
-    BankStatementParserService pdfParserService;
-
-    @Inject
-    CSVBankStatementParserService csvParserService;
+    StatementFormatRegistry statementFormatRegistry;
 
     @Inject
     SalaireValideService salaireValideService;
@@ -54,11 +70,28 @@ public class TransactionResource {
     @Inject
     MonthSnapshotService monthSnapshotService;
 
+    @Inject
+    CategorieMarchandService categorieMarchandService;
+
+    @Inject
+    TransactionArchiveService transactionArchiveService;
+
+    @Inject
+    LedgerColumnStore ledgerColumnStore;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Tracer tracer;
+
     /**
      * GET /api/transactions
-     * Récupérer toutes les transactions de l'utilisateur avec filtres optionnels
+     * Récupérer toutes les transactions de l'utilisateur avec filtres optionnels,
+     * transactions archivées comprises
      */
     @GET
+    @SqlBudget(10)
     public Response getAllTransactions(
             @QueryParam("dateDebut") String dateDebut,
             @QueryParam("dateFin") String dateFin,
@@ -80,6 +113,9 @@ public class TransactionResource {
                 .map(TransactionResponse::fromEntity)
                 .collect(Collectors.toList());
 
+        transactionResponses = transactionArchiveService.completer(user.getId(), transactionResponses,
+                DateUtil.parseDate(dateDebut), DateUtil.parseDate(dateFin), type, compteId, objectifId, limit);
+
         return Response.ok(transactionResponses).build();
     }
 
@@ -143,6 +179,7 @@ public class TransactionResource {
                     id,
                     request.getDescription(),
                     request.getMontant(),
+                    request.getType(),
                     request.getDateTransaction()
             );
 
@@ -254,7 +291,7 @@ public class TransactionResource {
 
     /**
      * GET /api/transactions/statistiques
-     * Obtenir les statistiques globales
+     * Obtenir les statistiques globales, transactions archivées comprises
      */
     @GET
     @Path("/statistiques")
@@ -267,41 +304,39 @@ public class TransactionResource {
         LocalDate debut = dateDebut != null ? LocalDate.parse(dateDebut) : LocalDate.now().withDayOfMonth(1);
         LocalDate fin = dateFin != null ? LocalDate.parse(dateFin) : debut.plusMonths(1).minusDays(1);
 
-        List<Transaction> transactions = Transaction.find(
-                "user = ?1 and dateTransaction >= ?2 and dateTransaction <= ?3",
-                user, debut, fin
-        ).list();
-
-        // Calculer les totaux par type
-        BigDecimal totalRevenus = transactions.stream()
-                .filter(t -> transactionService.isRevenu(t.getType()))
-                .map(t -> t.getMontant())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalChargesFixes = transactions.stream()
-                .filter(t -> transactionService.isChargeFixe(t.getType()))
-                .map(t -> t.getMontant().abs())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalDepensesVariables = transactions.stream()
-                .filter(t -> transactionService.isDepenseVariable(t.getType()))
-                .map(t -> t.getMontant().abs())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalEpargne = transactions.stream()
-                .filter(t -> t.getType() == TypeTransaction.EPARGNE || t.getType() == TypeTransaction.INVESTISSEMENT)
-                .map(t -> t.getMontant().abs())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Totaux par type sur le grand livre en colonnes (table et archive), puis regroupés en centimes
+        TotauxParType totaux = ledgerColumnStore.colonnes(user.getId()).totaliser(debut, fin, null);
+        MoneyAccumulator totalRevenus = new MoneyAccumulator();
+        MoneyAccumulator totalChargesFixes = new MoneyAccumulator();
+        MoneyAccumulator totalDepensesVariables = new MoneyAccumulator();
+        MoneyAccumulator totalEpargne = new MoneyAccumulator();
+        for (TypeTransaction type : TypeTransaction.values()) {
+            long credits = totaux.credits(type);
+            long debits = totaux.debits(type);
+            if (transactionService.isRevenu(type)) {
+                totalRevenus.addCents(credits + debits);
+            }
+            if (transactionService.isChargeFixe(type)) {
+                totalChargesFixes.addCents(credits - debits);
+            }
+            if (transactionService.isDepenseVariable(type)) {
+                totalDepensesVariables.addCents(credits - debits);
+            }
+            if (type == TypeTransaction.EPARGNE || type == TypeTransaction.INVESTISSEMENT) {
+                totalEpargne.addCents(credits - debits);
+            }
+        }
 
         StatistiquesResponse stats = new StatistiquesResponse();
         stats.setDateDebut(debut.toString());
         stats.setDateFin(fin.toString());
-        stats.setTotalRevenus(totalRevenus);
-        stats.setTotalChargesFixes(totalChargesFixes);
-        stats.setTotalDepensesVariables(totalDepensesVariables);
-        stats.setTotalEpargne(totalEpargne);
-        stats.setSoldeNet(totalRevenus.subtract(totalChargesFixes).subtract(totalDepensesVariables));
-        stats.setNombreTransactions(transactions.size());
+        stats.setTotalRevenus(totalRevenus.toBigDecimal());
+        stats.setTotalChargesFixes(totalChargesFixes.toBigDecimal());
+        stats.setTotalDepensesVariables(totalDepensesVariables.toBigDecimal());
+        stats.setTotalEpargne(totalEpargne.toBigDecimal());
+        stats.setSoldeNet(Money.toBigDecimal(
+                totalRevenus.cents() - totalChargesFixes.cents() - totalDepensesVariables.cents()));
+        stats.setNombreTransactions(totaux.nombre());
 
         return Response.ok(stats).build();
     }
@@ -327,43 +362,66 @@ public class TransactionResource {
                     .build();
         }
 
-        String contentType = file.contentType();
-        String fileName = file.fileName();
-
-        // Determine file type by content type or extension
-        boolean isPdf = "application/pdf".equals(contentType) ||
-                        (fileName != null && fileName.toLowerCase().endsWith(".pdf"));
-        boolean isCsv = "text/csv".equals(contentType) ||
-                        "application/csv".equals(contentType) ||
-                        "text/plain".equals(contentType) ||
-                        (fileName != null && fileName.toLowerCase().endsWith(".csv"));
+        StatementFormat format;
+        try {
+            format = statementFormatRegistry.detect(file.filePath(), file.fileName(), file.contentType())
+                    .orElse(null);
+        } catch (IOException e) {
+            LOGGER.errorf(e, "Error reading uploaded bank statement");
+            return Response.status(500)
+                    .entity(new ErrorResponse("Erreur lors de la lecture du fichier: " + e.getMessage()))
+                    .build();
+        }
 
-        if (!isPdf && !isCsv) {
+        if (format == null) {
             return Response.status(400)
-                    .entity(new ErrorResponse("Le fichier doit être un PDF ou un CSV"))
+                    .entity(new ErrorResponse("Format de relevé non reconnu (PDF ou CSV attendu)"))
                     .build();
         }
 
-        try {
-            File uploadedFile = file.filePath().toFile();
-            List<ParsedTransactionDTO> parsedTransactions;
-
-            if (isPdf) {
-                parsedTransactions = pdfParserService.parseBankStatement(uploadedFile);
-                LOGGER.infof("Successfully parsed %d transactions from uploaded PDF", parsedTransactions.size());
-            } else {
-                parsedTransactions = csvParserService.parseCSVBankStatement(uploadedFile);
-                LOGGER.infof("Successfully parsed %d transactions from uploaded CSV", parsedTransactions.size());
+        Map<String, TypeTransaction> memo = categorieMarchandService.getMemo(user);
+        List<ParsedTransactionDTO> parsedTransactions = new ArrayList<>();
+
+        Timer.Sample sample = Timer.start(registry);
+        StatementParseEvent parseEvent = new StatementParseEvent();
+        parseEvent.begin();
+        // Rows are pulled here, not inside a bean method: the parse span is opened explicitly
+        Span span = tracer.spanBuilder("StatementFormat.parse")
+                .setAttribute("budget.statement.format", format.getName())
+                .startSpan();
+        try (Scope ignored = span.makeCurrent();
+             StatementRowReader reader = format.open(file.filePath(), memo)) {
+            ParsedTransactionDTO row;
+            while ((row = reader.nextRow()) != null) {
+                parsedTransactions.add(row);
             }
+            sample.stop(registry.timer("budget.statement.parse", "format", format.getName()));
+            span.setAttribute("budget.statement.rows", reader.rowCount());
+            int doublons = transactionService.marquerDoublons(compteId, parsedTransactions);
+            registry.counter("budget.statement.rows", "format", format.getName()).increment(reader.rowCount());
+            registry.counter("budget.statement.duplicates", "format", format.getName()).increment(doublons);
+            if (parseEvent.shouldCommit()) {
+                parseEvent.format = format.getName();
+                parseEvent.pages = reader.pageCount();
+                parseEvent.lignes = reader.rowCount();
+                parseEvent.octets = Files.size(file.filePath());
+                parseEvent.doublons = doublons;
+                parseEvent.commit();
+            }
+            LOGGER.infof("Successfully parsed %d transactions from uploaded %s (%d already imported)",
+                    reader.rowCount(), format.getName(), doublons);
 
             return Response.ok(parsedTransactions).build();
 
         } catch (IOException e) {
-            String fileType = isPdf ? "PDF" : "CSV";
-            LOGGER.errorf(e, "Error parsing bank statement %s", fileType);
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            LOGGER.errorf(e, "Error parsing bank statement %s", format.getName());
             return Response.status(500)
-                    .entity(new ErrorResponse("Erreur lors de la lecture du fichier " + fileType + ": " + e.getMessage()))
+                    .entity(new ErrorResponse("Erreur lors de la lecture du fichier " + format.getName() + ": " + e.getMessage()))
                     .build();
+        } finally {
+            span.end();
         }
     }
 
@@ -386,6 +444,7 @@ public class TransactionResource {
         }
 
         List<TransactionResponse> createdTransactions = new ArrayList<>();
+        List<Map.Entry<String, TypeTransaction>> categorisations = new ArrayList<>();
         BigDecimal totalImpact = BigDecimal.ZERO;
 
         for (CreateTransactionRequest transactionRequest : request.getTransactions()) {
@@ -409,7 +468,11 @@ public class TransactionResource {
             transaction.setType(transactionRequest.getType());
             transaction.setDateTransaction(transactionRequest.getDateTransaction() != null ?
                     LocalDate.parse(transactionRequest.getDateTransaction()) : LocalDate.now());
+            transaction.setEmpreinte(FingerprintUtil.of(transaction.getDateTransaction(),
+                    transactionRequest.getMontant(), transactionRequest.getDescription(),
+                    transactionRequest.getReference()));
             transaction.persist();
+            categorisations.add(Map.entry(transaction.getDescription(), transaction.getType()));
 
             totalImpact = totalImpact.add(transactionRequest.getMontant());
 
@@ -440,6 +503,10 @@ public class TransactionResource {
         // Mettre à jour le solde du compte une seule fois
         compte.setSoldeTotal(compte.getSoldeTotal().add(totalImpact));
 
+        // Apprendre les catégories des seules transactions créées (une seule lecture du mémo)
+        categorieMarchandService.enregistrerTous(user, categorisations);
+
+        registry.counter("budget.transactions.imported").increment(createdTransactions.size());
         LOGGER.infof("Successfully created %d transactions in bulk for compte %s",
                 createdTransactions.size(), compte.getId());
 
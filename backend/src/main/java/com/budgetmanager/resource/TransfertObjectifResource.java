@@ -4,7 +4,10 @@ import com.budgetmanager.dto.*;
 import com.budgetmanager.entity.*;
 import com.budgetmanager.entity.TypeTransaction;
 import com.budgetmanager.service.UserContext;
+import com.budgetmanager.service.analytics.LedgerColumnStore;
+import com.budgetmanager.service.archive.TransactionArchiveService;
 import com.budgetmanager.util.LazyLoadingUtil;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -21,11 +24,18 @@ import java.util.stream.Collectors;
 @Path("/api/transferts/objectifs")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class TransfertObjectifResource {
 
     @Inject
     UserContext userContext;
 
+    @Inject
+    LedgerColumnStore ledgerColumnStore;
+
+    @Inject
+    TransactionArchiveService transactionArchiveService;
+
     /**
      * GET /api/transferts/objectifs
      * Récupérer l'historique des transferts entre objectifs
@@ -248,6 +258,15 @@ public class TransfertObjectifResource {
                     .build();
         }
 
+        // Les transactions du transfert ont quitté la table pour l'archive, en lecture seule :
+        // les supprimer ici les laisserait dans les lectures fusionnées
+        LocalDate derniereArchivee = transactionArchiveService.derniereDate(transfert.getUser().getId());
+        if (derniereArchivee != null && !transfert.getDateTransfert().isAfter(derniereArchivee)) {
+            return Response.status(409)
+                    .entity(new ErrorResponse("Transfert archivé : il ne peut plus être annulé"))
+                    .build();
+        }
+
         // 1. Restaurer la répartition source
         ObjectifRepartition repartitionSource = ObjectifRepartition.find(
                 "objectif = ?1 and compte = ?2",
@@ -284,8 +303,9 @@ public class TransfertObjectifResource {
             transfert.getCompteDestination().setSoldeTotal(transfert.getCompteDestination().getSoldeTotal().subtract(transfert.getMontant()));
         }
 
-        // 4. Supprimer les transactions liées
+        // 4. Supprimer les transactions liées (suppression en masse : le grand livre en colonnes est rechargé)
         Transaction.delete("transfertObjectif = ?1", transfert);
+        ledgerColumnStore.invaliderApresCommit(transfert.getUser().getId());
 
         // 5. Supprimer le transfert
         transfert.delete();
@@ -7,6 +7,8 @@ import com.budgetmanager.dto.UserResponse;
 import com.budgetmanager.entity.User;
 import com.budgetmanager.service.UserContext;
 import com.budgetmanager.util.MoneyConstants;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -18,6 +20,7 @@ import jakarta.ws.rs.core.Response;
 @Path("/api/user")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class UserResource {
 
     @Inject
@@ -43,6 +46,7 @@ public class UserResource {
     /**
      * Simple response class for user existence check
      */
+    @RegisterForReflection
     public static class UserExistsResponse {
         public boolean exists;
 
@@ -2,6 +2,9 @@ package com.budgetmanager.service;
 
 import com.budgetmanager.dto.ParsedTransactionDTO;
 import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.service.statement.StatementRowReader;
+import com.budgetmanager.util.MerchantKeyUtil;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -16,6 +19,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,33 +48,90 @@ public class BankStatementParserService {
      * Parse un fichier PDF de relevé bancaire et retourne les transactions extraites.
      */
     public List<ParsedTransactionDTO> parseBankStatement(File pdfFile) throws IOException {
+        return parseBankStatement(pdfFile, Map.of());
+    }
+
+    /**
+     * Parse un relevé PDF en consultant d'abord le mémo marchand -> catégorie de l'utilisateur,
+     * les règles par mots-clés ne servant que pour les marchands inconnus.
+     */
+    @WithSpan
+    public List<ParsedTransactionDTO> parseBankStatement(File pdfFile, Map<String, TypeTransaction> memo) throws IOException {
         List<ParsedTransactionDTO> transactions = new ArrayList<>();
 
-        try (PDDocument document = Loader.loadPDF(pdfFile)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(document);
+        try (StatementRowReader reader = openReader(pdfFile, memo)) {
+            ParsedTransactionDTO transaction;
+            while ((transaction = reader.nextRow()) != null) {
+                transactions.add(transaction);
+            }
+
+            LOGGER.infof("Parsed %d transactions from PDF", transactions.size());
+        }
 
-            LOGGER.infof("Extracted text from PDF (%d characters)", text.length());
-            LOGGER.debugf("PDF text preview: %s", text.substring(0, Math.min(1000, text.length())));
+        return transactions;
+    }
 
-            // Split par ligne et parser en mode multi-ligne
-            String[] lines = text.split("\\r?\\n");
-            boolean inTransactionSection = false;
+    /**
+     * Ouvre un lecteur en flux sur un relevé PDF.
+     * Le texte est extrait page par page : seule la page en cours est gardée en mémoire.
+     *
+     * @param pdfFile Fichier PDF
+     * @param memo Mémo marchand -> catégorie de l'utilisateur
+     */
+    public StatementRowReader openReader(File pdfFile, Map<String, TypeTransaction> memo) throws IOException {
+        return new PdfRowReader(Loader.loadPDF(pdfFile), memo);
+    }
 
-            // Variables pour accumuler une transaction multi-ligne
-            String currentDate = null;
-            String currentDateValeur = null;
-            StringBuilder currentDescription = new StringBuilder();
-            String currentAmount = null;
-            int currentLineNumber = 0;
+    /**
+     * Machine à états du parsing multi-ligne, alimentée ligne à ligne.
+     */
+    private class PdfRowReader implements StatementRowReader {
+
+        private final PDDocument document;
+        private final Map<String, TypeTransaction> memo;
+        private final PDFTextStripper stripper;
+
+        private String[] pageLines = new String[0];
+        private int pageLineIndex = 0;
+        private int nextPage = 1;
+        private int lineNumber = 0;
+        private int rows = 0;
+        private boolean inTransactionSection = false;
+        private boolean finished = false;
+
+        // Variables pour accumuler une transaction multi-ligne
+        private String currentDate = null;
+        private String currentDateValeur = null;
+        private StringBuilder currentDescription = new StringBuilder();
+        private String currentAmount = null;
+        private int currentLineNumber = 0;
+
+        PdfRowReader(PDDocument document, Map<String, TypeTransaction> memo) throws IOException {
+            this.document = document;
+            this.memo = memo;
+            this.stripper = new PDFTextStripper();
+        }
 
-            for (int i = 0; i < lines.length; i++) {
-                String line = lines[i].trim();
+        @Override
+        public ParsedTransactionDTO nextRow() throws IOException {
+            while (!finished) {
+                String line = nextLine();
+
+                if (line == null) {
+                    // Finaliser la dernière transaction si elle existe
+                    finished = true;
+                    ParsedTransactionDTO transaction = flushCurrent();
+                    if (transaction != null) {
+                        LOGGER.debugf("Parsed last transaction: %s - %s", transaction.getDescription(), transaction.getMontant());
+                        return transaction;
+                    }
+                    break;
+                }
 
                 // Détecter le début de la section transactions
                 if (line.contains("Date") && line.contains("Valeur") &&
                     (line.contains("Nature de l'opération") || line.contains("Débit") || line.contains("Crédit"))) {
-                    LOGGER.debugf("Found transaction section start at line %d: %s", i + 1, line);
+                    LOGGER.debugf("Found transaction section start at line %d: %s", lineNumber, line);
                     inTransactionSection = true;
                     continue;
                 }
@@ -78,19 +139,14 @@ public class BankStatementParserService {
                 // Arrêter à la fin des transactions
                 if (line.contains("TOTAL DES OPERATIONS") || line.contains("SOLDE CREDITEUR") ||
                     line.contains("Total des opérations")) {
-                    LOGGER.debugf("Found transaction section end at line %d: %s", i + 1, line);
+                    LOGGER.debugf("Found transaction section end at line %d: %s", lineNumber, line);
 
                     // Finaliser la transaction en cours si elle existe
-                    if (currentDate != null) {
-                        ParsedTransactionDTO transaction = buildTransaction(
-                            currentDate, currentDateValeur, currentDescription.toString(), currentAmount, currentLineNumber
-                        );
-                        if (transaction != null) {
-                            transactions.add(transaction);
-                        }
+                    finished = true;
+                    ParsedTransactionDTO transaction = flushCurrent();
+                    if (transaction != null) {
+                        return transaction;
                     }
-
-                    inTransactionSection = false;
                     break;
                 }
 
@@ -102,64 +158,100 @@ public class BankStatementParserService {
                 Matcher startMatcher = TRANSACTION_START_PATTERN.matcher(line);
                 if (startMatcher.matches()) {
                     // Finaliser la transaction précédente si elle existe
-                    if (currentDate != null) {
-                        ParsedTransactionDTO transaction = buildTransaction(
-                            currentDate, currentDateValeur, currentDescription.toString(), currentAmount, currentLineNumber
-                        );
-                        if (transaction != null) {
-                            transactions.add(transaction);
-                            LOGGER.debugf("Parsed transaction: %s - %s", transaction.getDescription(), transaction.getMontant());
-                        }
-                    }
+                    ParsedTransactionDTO transaction = flushCurrent();
 
                     // Démarrer une nouvelle transaction
                     currentDate = startMatcher.group(1);
                     currentDateValeur = startMatcher.group(2);
                     currentDescription = new StringBuilder(startMatcher.group(3).trim());
                     currentAmount = null;
-                    currentLineNumber = i + 1;
+                    currentLineNumber = lineNumber;
                     LOGGER.debugf("Started new transaction at line %d: %s %s %s",
-                        i + 1, currentDate, currentDateValeur, currentDescription);
+                        lineNumber, currentDate, currentDateValeur, currentDescription);
+
+                    if (transaction != null) {
+                        LOGGER.debugf("Parsed transaction: %s - %s", transaction.getDescription(), transaction.getMontant());
+                        return transaction;
+                    }
                 }
                 // Vérifier si c'est une ligne de montant
                 else if (currentDate != null) {
                     Matcher amountMatcher = AMOUNT_PATTERN.matcher(line);
                     if (amountMatcher.matches()) {
                         currentAmount = amountMatcher.group(1);
-                        LOGGER.debugf("Found amount at line %d: %s", i + 1, currentAmount);
+                        LOGGER.debugf("Found amount at line %d: %s", lineNumber, currentAmount);
                     } else {
                         // C'est une ligne de description supplémentaire
                         if (currentDescription.length() > 0) {
                             currentDescription.append(" ");
                         }
                         currentDescription.append(line);
-                        LOGGER.debugf("Added description line at %d: %s", i + 1, line);
+                        LOGGER.debugf("Added description line at %d: %s", lineNumber, line);
                     }
                 }
             }
+            return null;
+        }
+
+        @Override
+        public int rowCount() {
+            return rows;
+        }
+
+        @Override
+        public int pageCount() {
+            return document.getNumberOfPages();
+        }
+
+        @Override
+        public void close() throws IOException {
+            document.close();
+        }
 
-            // Finaliser la dernière transaction si elle existe
-            if (currentDate != null) {
-                ParsedTransactionDTO transaction = buildTransaction(
-                    currentDate, currentDateValeur, currentDescription.toString(), currentAmount, currentLineNumber
-                );
-                if (transaction != null) {
-                    transactions.add(transaction);
-                    LOGGER.debugf("Parsed last transaction: %s - %s", transaction.getDescription(), transaction.getMontant());
+        /**
+         * Ligne suivante du texte extrait, en passant à la page suivante si besoin.
+         */
+        private String nextLine() throws IOException {
+            while (pageLineIndex >= pageLines.length) {
+                if (nextPage > document.getNumberOfPages()) {
+                    return null;
                 }
+                stripper.setStartPage(nextPage);
+                stripper.setEndPage(nextPage);
+                String text = stripper.getText(document);
+                LOGGER.debugf("Extracted page %d from PDF (%d characters)", nextPage, text.length());
+                pageLines = text.split("\\r?\\n");
+                pageLineIndex = 0;
+                nextPage++;
             }
-
-            LOGGER.infof("Parsed %d transactions from PDF", transactions.size());
+            lineNumber++;
+            return pageLines[pageLineIndex++].trim();
         }
 
-        return transactions;
+        /**
+         * Construit la transaction en cours et réinitialise l'accumulateur.
+         */
+        private ParsedTransactionDTO flushCurrent() {
+            if (currentDate == null) {
+                return null;
+            }
+            ParsedTransactionDTO transaction = buildTransaction(
+                currentDate, currentDateValeur, currentDescription.toString(), currentAmount, currentLineNumber, memo
+            );
+            currentDate = null;
+            if (transaction != null) {
+                rows++;
+            }
+            return transaction;
+        }
     }
 
     /**
      * Construit une transaction à partir des données accumulées.
      */
     private ParsedTransactionDTO buildTransaction(String dateStr, String dateValeurStr,
-                                                   String description, String amountStr, int lineNumber) {
+                                                   String description, String amountStr, int lineNumber,
+                                                   Map<String, TypeTransaction> memo) {
         if (dateStr == null || description == null || description.isEmpty()) {
             LOGGER.debugf("Cannot build transaction: missing date or description at line %d", lineNumber);
             return null;
@@ -182,8 +274,11 @@ public class BankStatementParserService {
                 montant = montant.negate();
             }
 
-            // Auto-catégoriser basé sur la description
-            TypeTransaction type = categorizeTransaction(description, isDebit);
+            // Catégorie apprise d'abord, sinon auto-catégoriser basé sur la description
+            TypeTransaction type = memo.isEmpty() ? null : memo.get(MerchantKeyUtil.normalize(description));
+            if (type == null) {
+                type = categorizeTransaction(description, isDebit);
+            }
 
             String rawLine = String.format("%s %s %s %s", dateStr, dateValeurStr, description, amountStr);
 
@@ -242,8 +337,9 @@ public class BankStatementParserService {
 
     /**
      * Auto-catégorise une transaction basée sur sa description.
+     * Règles par mots-clés génériques, réutilisées par les formats sans catégorie bancaire.
      */
-    private TypeTransaction categorizeTransaction(String description, boolean isDebit) {
+    public TypeTransaction categorizeTransaction(String description, boolean isDebit) {
         if (description == null) {
             return TypeTransaction.AUTRE;
         }
@@ -2,6 +2,8 @@ package com.budgetmanager.service;
 
 import com.budgetmanager.dto.ParsedTransactionDTO;
 import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.service.statement.StatementRowReader;
+import com.budgetmanager.util.MerchantKeyUtil;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.jboss.logging.Logger;
 
@@ -13,6 +15,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service pour parser les relevés bancaires CSV.
@@ -39,47 +42,86 @@ public class CSVBankStatementParserService {
      * Parse un fichier CSV de relevé bancaire et retourne les transactions extraites.
      */
     public List<ParsedTransactionDTO> parseCSVBankStatement(File csvFile) throws IOException {
+        return parseCSVBankStatement(csvFile, Map.of());
+    }
+
+    /**
+     * Parse un fichier CSV en consultant d'abord le mémo marchand -> catégorie de l'utilisateur,
+     * les règles BoursoBank ne servant que pour les marchands inconnus.
+     */
+    public List<ParsedTransactionDTO> parseCSVBankStatement(File csvFile, Map<String, TypeTransaction> memo) throws IOException {
         List<ParsedTransactionDTO> transactions = new ArrayList<>();
 
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(csvFile), StandardCharsets.UTF_8))) {
+        try (StatementRowReader reader = openReader(new BufferedReader(
+                new InputStreamReader(new FileInputStream(csvFile), StandardCharsets.UTF_8)), memo)) {
 
-            String line;
-            boolean isFirstLine = true;
+            ParsedTransactionDTO transaction;
+            while ((transaction = reader.nextRow()) != null) {
+                transactions.add(transaction);
+            }
 
-            while ((line = reader.readLine()) != null) {
-                // Skip BOM if present
-                if (isFirstLine) {
-                    line = removeBOM(line);
-                    isFirstLine = false;
+            LOGGER.infof("Parsed %d transactions from CSV", transactions.size());
+        }
 
-                    // Skip header line
-                    if (line.toLowerCase().contains("dateop") || line.toLowerCase().contains("label")) {
-                        LOGGER.debug("Skipping header line");
-                        continue;
+        return transactions;
+    }
+
+    /**
+     * Ouvre un lecteur en flux sur un CSV BoursoBank : une ligne lue par transaction produite.
+     *
+     * @param reader Source du CSV (fermée avec le lecteur)
+     * @param memo Mémo marchand -> catégorie de l'utilisateur
+     */
+    public StatementRowReader openReader(BufferedReader reader, Map<String, TypeTransaction> memo) {
+        return new StatementRowReader() {
+            private boolean isFirstLine = true;
+            private int rows = 0;
+
+            @Override
+            public ParsedTransactionDTO nextRow() throws IOException {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // Skip BOM if present
+                    if (isFirstLine) {
+                        line = removeBOM(line);
+                        isFirstLine = false;
+
+                        // Skip header line
+                        if (line.toLowerCase().contains("dateop") || line.toLowerCase().contains("label")) {
+                            LOGGER.debug("Skipping header line");
+                            continue;
+                        }
                     }
-                }
 
-                if (line.trim().isEmpty()) {
-                    continue;
-                }
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
 
-                ParsedTransactionDTO transaction = parseLine(line);
-                if (transaction != null) {
-                    transactions.add(transaction);
+                    ParsedTransactionDTO transaction = parseLine(line, memo);
+                    if (transaction != null) {
+                        rows++;
+                        return transaction;
+                    }
                 }
+                return null;
             }
 
-            LOGGER.infof("Parsed %d transactions from CSV", transactions.size());
-        }
+            @Override
+            public int rowCount() {
+                return rows;
+            }
 
-        return transactions;
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
     }
 
     /**
      * Parse une ligne CSV et retourne une transaction.
      */
-    private ParsedTransactionDTO parseLine(String line) {
+    private ParsedTransactionDTO parseLine(String line, Map<String, TypeTransaction> memo) {
         try {
             String[] columns = parseCSVLine(line);
 
@@ -105,8 +147,11 @@ public class CSVBankStatementParserService {
             // Determine if debit based on amount sign
             boolean isDebit = montant.compareTo(BigDecimal.ZERO) < 0;
 
-            // Auto-categorize based on BoursoBank category or description
-            TypeTransaction type = categorizeFromBoursoBank(category, categoryParent, label, isDebit);
+            // Learned merchant category first, then BoursoBank category or description
+            TypeTransaction type = memo.isEmpty() ? null : memo.get(MerchantKeyUtil.normalize(label));
+            if (type == null) {
+                type = categorizeFromBoursoBank(category, categoryParent, label, isDebit);
+            }
 
             return ParsedTransactionDTO.builder()
                     .date(date.toString())
@@ -0,0 +1,348 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.entity.CategorieMarchand;
+import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.entity.User;
+import com.budgetmanager.metrics.jfr.CategorisationEvent;
+import com.budgetmanager.util.MerchantKeyUtil;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.jboss.logging.Logger;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mémo "marchand -> catégorie" appris de l'historique de chaque utilisateur.
+ *
+ * Les occurrences sont persistées dans categories_marchands ; en mémoire on ne garde
+ * que le type le plus fréquent par clé marchand, chargé une fois par utilisateur.
+ * Les imports consultent ce mémo avant les règles par mots-clés des parsers.
+ * Le mémo ne change qu'à la validation de la transaction qui a modifié les occurrences :
+ * une annulation le laisse conforme à la table.
+ */
+@ApplicationScoped
+public class CategorieMarchandService {
+
+    private static final Logger LOGGER = Logger.getLogger(CategorieMarchandService.class);
+
+    // Types that describe a movement rather than a merchant: never learned
+    private static final Set<TypeTransaction> TYPES_NON_APPRIS = EnumSet.of(
+            TypeTransaction.AUTRE,
+            TypeTransaction.VIREMENT_INTERNE,
+            TypeTransaction.TRANSFERT_OBJECTIF,
+            TypeTransaction.VERSEMENT_OBJECTIF
+    );
+
+    private static final Object MODIFICATIONS = CategorieMarchandService.class;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Inject
+    TransactionSynchronizationRegistry synchronisations;
+
+    private final Map<UUID, Map<String, TypeTransaction>> memos = new ConcurrentHashMap<>();
+
+    /**
+     * Modifications des mémos dans la transaction en cours, appliquées à la validation.
+     * Une valeur null retire la clé ; un mémo reconstruit est relu depuis la table.
+     */
+    private static final class Modifications {
+        final Map<UUID, Map<String, TypeTransaction>> cles = new HashMap<>();
+        final Set<UUID> reconstruits = new HashSet<>();
+    }
+
+    /**
+     * Récupère le mémo d'un utilisateur (clé marchand -> type le plus fréquent).
+     * Chargé depuis categories_marchands au premier appel, ou calculé depuis
+     * l'historique des transactions si l'utilisateur n'a encore aucune entrée.
+     *
+     * @param user L'utilisateur
+     * @return Vue en lecture seule du mémo
+     */
+    public Map<String, TypeTransaction> getMemo(User user) {
+        Map<String, TypeTransaction> memo = memos.get(user.getId());
+        if (memo == null) {
+            // Loaded outside the map: no query under the bin lock, the first loader wins
+            Map<String, TypeTransaction> charge = load(user);
+            memo = memos.putIfAbsent(user.getId(), charge);
+            if (memo == null) {
+                memo = charge;
+            }
+        }
+        return Collections.unmodifiableMap(memo);
+    }
+
+    /**
+     * Cherche la catégorie apprise pour une description.
+     *
+     * @return Le type appris, ou null si le marchand est inconnu
+     */
+    public TypeTransaction lookup(User user, String description) {
+        String cle = MerchantKeyUtil.normalize(description);
+        return cle.isEmpty() ? null : getMemo(user).get(cle);
+    }
+
+    /**
+     * Enregistre une transaction catégorisée par l'utilisateur.
+     * Doit être appelé dans une transaction active, après le persist de la transaction.
+     */
+    public void enregistrer(User user, String description, TypeTransaction type) {
+        enregistrerTous(user, List.of(Map.entry(description, type)));
+    }
+
+    /**
+     * Enregistre un lot de (description, type) en une seule lecture des entrées concernées.
+     * Doit être appelé dans une transaction active.
+     *
+     * @param user L'utilisateur
+     * @param categorisations Couples description / type
+     */
+    public void enregistrerTous(User user, Collection<Map.Entry<String, TypeTransaction>> categorisations) {
+        CategorisationEvent event = new CategorisationEvent();
+        event.begin();
+        Map<String, Map<TypeTransaction, Integer>> deltas = new HashMap<>();
+        for (Map.Entry<String, TypeTransaction> entry : categorisations) {
+            addDelta(deltas, entry.getKey(), entry.getValue(), 1);
+        }
+        appliquer(user, deltas);
+        event.transactions = categorisations.size();
+        event.marchands = deltas.size();
+        event.commit();
+    }
+
+    /**
+     * Met à jour le mémo après une recatégorisation : l'ancienne occurrence est retirée
+     * et la nouvelle ajoutée. Doit être appelé dans une transaction active.
+     */
+    public void recategoriser(User user, String ancienneDescription, TypeTransaction ancienType,
+                              String nouvelleDescription, TypeTransaction nouveauType) {
+        Map<String, Map<TypeTransaction, Integer>> deltas = new HashMap<>();
+        addDelta(deltas, ancienneDescription, ancienType, -1);
+        addDelta(deltas, nouvelleDescription, nouveauType, 1);
+        appliquer(user, deltas);
+    }
+
+    /**
+     * Oublie le mémo en mémoire d'un utilisateur (rechargé au prochain accès).
+     */
+    public void invalidate(User user) {
+        memos.remove(user.getId());
+    }
+
+    private void addDelta(Map<String, Map<TypeTransaction, Integer>> deltas,
+                          String description, TypeTransaction type, int delta) {
+        if (type == null || TYPES_NON_APPRIS.contains(type)) {
+            return;
+        }
+        String cle = MerchantKeyUtil.normalize(description);
+        if (cle.isEmpty()) {
+            return;
+        }
+        deltas.computeIfAbsent(cle, k -> new EnumMap<>(TypeTransaction.class))
+                .merge(type, delta, Integer::sum);
+    }
+
+    private void appliquer(User user, Map<String, Map<TypeTransaction, Integer>> deltas) {
+        deltas.values().forEach(parType -> parType.values().removeIf(delta -> delta == 0));
+        deltas.values().removeIf(Map::isEmpty);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        if (CategorieMarchand.count("user = ?1", user) == 0) {
+            // First learning: the user row lock lets a single import write the rows from history
+            entityManager.find(User.class, user.getId(), LockModeType.PESSIMISTIC_WRITE);
+            if (CategorieMarchand.count("user = ?1", user) == 0) {
+                // History already contains the flushed transactions being recorded
+                persisterHistorique(user);
+                modifications().reconstruits.add(user.getId());
+                return;
+            }
+        }
+        Map<String, TypeTransaction> changements = modifications().cles.computeIfAbsent(user.getId(),
+                id -> new HashMap<>());
+
+        List<CategorieMarchand> existantes = CategorieMarchand.list(
+                "user = ?1 and cleMarchand in ?2", user, deltas.keySet());
+
+        Map<String, List<CategorieMarchand>> parCle = new HashMap<>();
+        for (CategorieMarchand categorie : existantes) {
+            parCle.computeIfAbsent(categorie.getCleMarchand(), k -> new ArrayList<>()).add(categorie);
+        }
+
+        deltas.forEach((cle, parType) -> {
+            List<CategorieMarchand> lignes = parCle.computeIfAbsent(cle, k -> new ArrayList<>());
+            TypeTransaction dernierAjout = null;
+
+            for (Map.Entry<TypeTransaction, Integer> delta : parType.entrySet()) {
+                CategorieMarchand ligne = lignes.stream()
+                        .filter(l -> l.getType() == delta.getKey())
+                        .findFirst()
+                        .orElse(null);
+
+                if (ligne == null) {
+                    if (delta.getValue() <= 0) {
+                        continue;
+                    }
+                    ligne = new CategorieMarchand(user, cle, delta.getKey());
+                    ligne.persist();
+                    lignes.add(ligne);
+                }
+
+                ligne.setOccurrences(Math.max(0, ligne.getOccurrences() + delta.getValue()));
+                if (delta.getValue() > 0) {
+                    dernierAjout = delta.getKey();
+                }
+            }
+
+            changements.put(cle, plusFrequent(lignes, dernierAjout));
+        });
+    }
+
+    private Modifications modifications() {
+        Modifications modifications = (Modifications) synchronisations.getResource(MODIFICATIONS);
+        if (modifications == null) {
+            Modifications nouvelles = new Modifications();
+            synchronisations.putResource(MODIFICATIONS, nouvelles);
+            synchronisations.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int statut) {
+                    publier(nouvelles, statut == Status.STATUS_COMMITTED);
+                }
+            });
+            modifications = nouvelles;
+        }
+        return modifications;
+    }
+
+    private void publier(Modifications modifications, boolean validee) {
+        if (!validee) {
+            // A memo loaded in the rolled back transaction may have seen its rows
+            modifications.cles.keySet().forEach(memos::remove);
+            modifications.reconstruits.forEach(memos::remove);
+            return;
+        }
+        modifications.reconstruits.forEach(memos::remove);
+        modifications.cles.forEach((userId, cles) -> memos.computeIfPresent(userId, (id, memo) -> {
+            cles.forEach((cle, type) -> {
+                if (type != null) {
+                    memo.put(cle, type);
+                } else {
+                    memo.remove(cle);
+                }
+            });
+            return memo;
+        }));
+    }
+
+    /**
+     * Type le plus fréquent ; en cas d'égalité, la dernière catégorie choisie l'emporte.
+     */
+    private TypeTransaction plusFrequent(List<CategorieMarchand> lignes, TypeTransaction prefere) {
+        TypeTransaction meilleur = null;
+        int max = 0;
+        for (CategorieMarchand ligne : lignes) {
+            int occurrences = ligne.getOccurrences();
+            if (occurrences > max || (occurrences == max && occurrences > 0 && ligne.getType() == prefere)) {
+                max = occurrences;
+                meilleur = ligne.getType();
+            }
+        }
+        return meilleur;
+    }
+
+    /**
+     * Ligne la plus fréquente ; en cas d'égalité, la dernière modifiée (le dernier choix).
+     */
+    private static CategorieMarchand meilleure(CategorieMarchand a, CategorieMarchand b) {
+        int comparaison = Integer.compare(b.getOccurrences(), a.getOccurrences());
+        if (comparaison == 0 && a.getUpdatedAt() != null && b.getUpdatedAt() != null) {
+            comparaison = b.getUpdatedAt().compareTo(a.getUpdatedAt());
+        }
+        return comparaison > 0 ? b : a;
+    }
+
+    private Map<String, TypeTransaction> load(User user) {
+        List<CategorieMarchand> lignes = CategorieMarchand.list("user = ?1 and occurrences > 0", user);
+        if (lignes.isEmpty()) {
+            return buildFromHistory(user);
+        }
+
+        Map<String, CategorieMarchand> meilleures = new HashMap<>(lignes.size());
+        for (CategorieMarchand ligne : lignes) {
+            meilleures.merge(ligne.getCleMarchand(), ligne, CategorieMarchandService::meilleure);
+        }
+
+        Map<String, TypeTransaction> memo = new ConcurrentHashMap<>(meilleures.size());
+        meilleures.forEach((cle, ligne) -> memo.put(cle, ligne.getType()));
+
+        LOGGER.debugf("Loaded merchant memo for user %s (%d keys)", user.getId(), memo.size());
+        return memo;
+    }
+
+    /**
+     * Calcule le mémo depuis les transactions déjà catégorisées, sans rien écrire.
+     */
+    private Map<String, TypeTransaction> buildFromHistory(User user) {
+        Map<String, TypeTransaction> memo = new ConcurrentHashMap<>();
+        compterHistorique(user).forEach((cle, parType) -> memo.put(cle, plusFrequent(parType)));
+        LOGGER.infof("Built merchant memo for user %s from history (%d keys)", user.getId(), memo.size());
+        return memo;
+    }
+
+    /**
+     * Persiste les occurrences de l'historique, pour que les démarrages suivants
+     * n'aient qu'à relire categories_marchands. Appelé sous le verrou de l'utilisateur.
+     */
+    private void persisterHistorique(User user) {
+        compterHistorique(user).forEach((cle, parType) -> parType.forEach((type, occurrences) -> {
+            CategorieMarchand ligne = new CategorieMarchand(user, cle, type);
+            ligne.setOccurrences(occurrences);
+            ligne.persist();
+        }));
+    }
+
+    private Map<String, Map<TypeTransaction, Integer>> compterHistorique(User user) {
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT t.description, t.type, COUNT(t) FROM Transaction t " +
+                        "WHERE t.user.id = :user AND t.type NOT IN :exclus " +
+                        "GROUP BY t.description, t.type", Object[].class)
+                .setParameter("user", user.getId())
+                .setParameter("exclus", TYPES_NON_APPRIS)
+                .getResultList();
+
+        Map<String, Map<TypeTransaction, Integer>> compteurs = new HashMap<>();
+        for (Object[] row : rows) {
+            String cle = MerchantKeyUtil.normalize((String) row[0]);
+            if (!cle.isEmpty()) {
+                compteurs.computeIfAbsent(cle, k -> new EnumMap<>(TypeTransaction.class))
+                        .merge((TypeTransaction) row[1], ((Long) row[2]).intValue(), Integer::sum);
+            }
+        }
+        return compteurs;
+    }
+
+    private static TypeTransaction plusFrequent(Map<TypeTransaction, Integer> parType) {
+        TypeTransaction meilleur = null;
+        int max = 0;
+        for (Map.Entry<TypeTransaction, Integer> entry : parType.entrySet()) {
+            if (entry.getValue() > max) {
+                max = entry.getValue();
+                meilleur = entry.getKey();
+            }
+        }
+        return meilleur;
+    }
+}
@@ -0,0 +1,121 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.entity.ChargeFixe;
+import com.budgetmanager.metrics.OptimisticLockMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Passage planifié des charges fixes dues, pour tous les utilisateurs.
+ * Les charges dues sont trouvées en une requête, puis traitées par lots de
+ * budget.charges.batch.size dans des transactions séparées : un lot en échec
+ * (par exemple une échéance passée en parallèle par POST /api/charges-fixes/process)
+ * est annulé seul et repris au passage suivant.
+ */
+@ApplicationScoped
+public class ChargeFixeBatchJob {
+
+    private static final Logger LOGGER = Logger.getLogger(ChargeFixeBatchJob.class);
+
+    @Inject
+    ChargeOccurrenceService chargeOccurrenceService;
+
+    @Inject
+    ChargeRattrapageService chargeRattrapageService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    OptimisticLockMetrics optimisticLockMetrics;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "budget.charges.batch.size", defaultValue = "200")
+    int batchSize;
+
+    private Counter generees;
+    private Counter lotsEnEchec;
+    private Timer duree;
+
+    @PostConstruct
+    void initMetrics() {
+        generees = Counter.builder("budget.charges.batch.generated")
+                .description("Transactions de charges fixes générées par le traitement planifié")
+                .register(registry);
+        lotsEnEchec = Counter.builder("budget.charges.batch.failed.chunks")
+                .description("Lots de charges fixes annulés, repris au passage suivant")
+                .register(registry);
+        duree = Timer.builder("budget.charges.batch.duration")
+                .description("Durée d'un passage du traitement des charges fixes")
+                .register(registry);
+    }
+
+    @Scheduled(identity = "charges-fixes-batch", cron = "{budget.charges.batch.cron}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void planifie() {
+        traiter(LocalDate.now());
+    }
+
+    /**
+     * Passe toutes les charges fixes dues à la date donnée.
+     *
+     * @param today Date de traitement
+     * @return Nombre de transactions générées
+     */
+    public int traiter(LocalDate today) {
+        Timer.Sample sample = Timer.start(registry);
+
+        List<UUID> ids = QuarkusTransaction.requiringNew()
+                .call(() -> chargeOccurrenceService.findIdsChargesDues(today));
+
+        int total = 0;
+        int lots = 0;
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            List<UUID> lot = ids.subList(i, Math.min(i + batchSize, ids.size()));
+            try {
+                total += QuarkusTransaction.requiringNew().call(() -> traiterLot(lot, today));
+                lots++;
+            } catch (RuntimeException e) {
+                lotsEnEchec.increment();
+                optimisticLockMetrics.enregistrer(e);
+                LOGGER.errorf(e, "Charge fixe batch chunk of %d charges failed, will be retried on next run", lot.size());
+            }
+        }
+
+        generees.increment(total);
+        long nanos = sample.stop(duree);
+        LOGGER.infof("Charge fixe batch for %s: %d candidate charges, %d transactions created in %d chunks (%d ms)",
+                today, ids.size(), total, lots, nanos / 1_000_000);
+        return total;
+    }
+
+    /**
+     * Traite un lot de charges dans la transaction courante, échéances manquées comprises.
+     * Les soldes sont mis à jour une fois par compte pour tout le lot.
+     */
+    int traiterLot(List<UUID> ids, LocalDate today) {
+        List<ChargeFixe> charges = entityManager.createQuery(
+                        "select c from ChargeFixe c join fetch c.user join fetch c.compte where c.id in :ids",
+                        ChargeFixe.class)
+                .setParameter("ids", ids)
+                .getResultList();
+
+        return chargeRattrapageService.rattraper(charges, today).size();
+    }
+}
@@ -0,0 +1,136 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.entity.ChargeFixe;
+import com.budgetmanager.entity.ChargeOccurrence;
+import com.budgetmanager.entity.Transaction;
+import com.budgetmanager.entity.User;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Suivi des échéances de charges fixes déjà passées en transaction (table charge_occurrences).
+ * Remplace la recherche des transactions par libellé : une charge est due pour un cycle
+ * tant qu'aucune occurrence (charge, cycle) n'existe.
+ */
+@ApplicationScoped
+public class ChargeOccurrenceService {
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    /**
+     * Charges actives sur le cycle budgétaire et pas encore passées pour leur échéance de ce cycle.
+     * Une seule requête (anti-jointure) pour toutes les charges de l'utilisateur ; le compte est
+     * chargé avec la charge car son solde est mis à jour.
+     * L'échéance d'une charge tombe dans le mois de début du cycle si son jour de prélèvement
+     * est après le début du cycle, sinon dans le mois suivant.
+     *
+     * @param user Utilisateur
+     * @param cycleStart Début du cycle budgétaire
+     * @param cycleEnd Fin du cycle budgétaire
+     * @return Charges sans occurrence pour ce cycle
+     */
+    public List<ChargeFixe> findChargesNonPassees(User user, LocalDate cycleStart, LocalDate cycleEnd) {
+        YearMonth moisDebut = YearMonth.from(cycleStart);
+
+        return entityManager.createQuery(
+                        "select c from ChargeFixe c join fetch c.compte " +
+                        "where c.user = :user and c.actif = true " +
+                        "and c.dateDebut <= :cycleEnd " +
+                        "and (c.dateFin is null or c.dateFin >= :cycleStart) " +
+                        "and not exists (select 1 from ChargeOccurrence o where o.chargeFixe = c " +
+                        "and ((c.jourPrelevement >= :jourDebut and o.cycle = :moisDebut) " +
+                        "or (c.jourPrelevement < :jourDebut and o.cycle = :moisSuivant)))",
+                        ChargeFixe.class)
+                .setParameter("user", user)
+                .setParameter("cycleStart", cycleStart)
+                .setParameter("cycleEnd", cycleEnd)
+                .setParameter("jourDebut", cycleStart.getDayOfMonth())
+                .setParameter("moisDebut", moisDebut.toString())
+                .setParameter("moisSuivant", moisDebut.plusMonths(1).toString())
+                .getResultList();
+    }
+
+    /**
+     * Charges dont la prochaine échéance est atteinte, tous utilisateurs confondus.
+     * Parcourt l'index idx_charge_actif_echeance : le coût dépend du nombre de charges dues,
+     * pas du nombre total de charges.
+     *
+     * @param today Date de traitement
+     * @return Identifiants des charges, triés
+     */
+    public List<UUID> findIdsChargesDues(LocalDate today) {
+        return entityManager.createQuery(
+                        "select c.id from ChargeFixe c " +
+                        "where c.actif = true and c.prochaineEcheance <= :today order by c.id",
+                        UUID.class)
+                .setParameter("today", today)
+                .getResultList();
+    }
+
+    /**
+     * Charges de l'utilisateur dont la prochaine échéance est atteinte, avec leur compte.
+     *
+     * @param user Utilisateur
+     * @param today Date de traitement
+     * @return Charges à passer
+     */
+    public List<ChargeFixe> findChargesDues(User user, LocalDate today) {
+        return entityManager.createQuery(
+                        "select c from ChargeFixe c join fetch c.compte " +
+                        "where c.user = :user and c.actif = true and c.prochaineEcheance <= :today",
+                        ChargeFixe.class)
+                .setParameter("user", user)
+                .setParameter("today", today)
+                .getResultList();
+    }
+
+    /**
+     * Occurrences déjà enregistrées pour un lot de charges à partir d'un cycle,
+     * sous forme "chargeId|cycle".
+     */
+    public Set<String> findCles(Collection<UUID> chargeIds, String depuisCycle) {
+        List<Object[]> rows = entityManager.createQuery(
+                        "select o.chargeFixe.id, o.cycle from ChargeOccurrence o " +
+                        "where o.chargeFixe.id in :ids and o.cycle >= :depuis",
+                        Object[].class)
+                .setParameter("ids", chargeIds)
+                .setParameter("depuis", depuisCycle)
+                .getResultList();
+
+        Set<String> cles = new HashSet<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            cles.add(cle((UUID) row[0], (String) row[1]));
+        }
+        return cles;
+    }
+
+    /**
+     * Clé d'occurrence "chargeId|cycle".
+     */
+    public static String cle(UUID chargeId, String cycle) {
+        return chargeId + "|" + cycle;
+    }
+
+    /**
+     * Enregistre l'échéance d'une charge comme passée.
+     * Si une requête concurrente a déjà passé cette échéance, la contrainte uk_charge_occurrence
+     * échoue au flush et la transaction entière (transaction de charge et solde compris) est annulée.
+     *
+     * @param charge Charge fixe
+     * @param dateEcheance Date de prélèvement de la transaction générée
+     * @param transaction Transaction générée
+     */
+    public void enregistrer(ChargeFixe charge, LocalDate dateEcheance, Transaction transaction) {
+        new ChargeOccurrence(charge, ChargeOccurrence.cycleOf(dateEcheance), transaction).persist();
+    }
+}
@@ -0,0 +1,291 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.entity.ChargeFixe;
+import com.budgetmanager.entity.ChargeOccurrence;
+import com.budgetmanager.entity.Compte;
+import com.budgetmanager.entity.Transaction;
+import com.budgetmanager.util.CycleBudgetaire;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Rattrapage des échéances de charges fixes manquées.
+ * Pour chaque charge, toutes les échéances depuis prochaineEcheance jusqu'à aujourd'hui sont
+ * calculées en mémoire à partir de jourPrelevement et frequence : une requête pour les
+ * occurrences déjà passées, des insertions groupées et une seule mise à jour de solde par compte.
+ * prochaineEcheance est ensuite avancée à la première échéance future.
+ */
+@ApplicationScoped
+public class ChargeRattrapageService {
+
+    private static final Logger LOGGER = Logger.getLogger(ChargeRattrapageService.class);
+
+    @Inject
+    ChargeOccurrenceService chargeOccurrenceService;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "budget.charges.rattrapage.max-cycles", defaultValue = "12")
+    int maxCycles;
+
+    /**
+     * Génère dans la transaction courante toutes les échéances manquées des charges données.
+     * Les charges doivent être chargées avec leur utilisateur et leur compte.
+     *
+     * @param charges Charges fixes à rattraper
+     * @param today Date de traitement
+     * @return Transactions créées, dans l'ordre des charges puis des dates
+     */
+    public List<Transaction> rattraper(Collection<ChargeFixe> charges, LocalDate today) {
+        if (charges.isEmpty()) {
+            return List.of();
+        }
+
+        YearMonth limite = YearMonth.from(today).minusMonths(maxCycles - 1L);
+        Map<ChargeFixe, YearMonth> departs = new IdentityHashMap<>();
+        YearMonth premierDepart = YearMonth.from(today);
+        for (ChargeFixe charge : charges) {
+            LocalDate borne = charge.getProchaineEcheance() != null ? charge.getProchaineEcheance() : charge.getDateDebut();
+            YearMonth depuis = YearMonth.from(borne).isBefore(limite) ? limite : YearMonth.from(borne);
+            departs.put(charge, depuis);
+            if (depuis.isBefore(premierDepart)) {
+                premierDepart = depuis;
+            }
+        }
+
+        // Occurrences already applied from the earliest start on, e.g. by a salary validation
+        List<UUID> ids = charges.stream().map(ChargeFixe::getId).toList();
+        Set<String> passees = chargeOccurrenceService.findCles(ids, premierDepart.toString());
+
+        List<Transaction> transactions = new ArrayList<>();
+        List<ChargeFixe> chargesGenerees = new ArrayList<>();
+        Map<Compte, BigDecimal> deltas = new IdentityHashMap<>();
+
+        for (ChargeFixe charge : charges) {
+            int jourPaie = charge.getUser().getJourPaie();
+            for (LocalDate date : echeancesManquees(charge, jourPaie, departs.get(charge), today)) {
+                if (!passees.add(ChargeOccurrenceService.cle(charge.getId(), ChargeOccurrence.cycleOf(date)))) {
+                    continue;
+                }
+                String label = CycleBudgetaire.courant(jourPaie, date).label();
+                transactions.add(nouvelleTransaction(charge, date, label));
+                chargesGenerees.add(charge);
+                deltas.merge(charge.getCompte(), charge.getMontant().negate(), BigDecimal::add);
+            }
+            charge.setProchaineEcheance(echeanceSuivante(charge, jourPaie, today, passees));
+        }
+
+        // Occurrences after every transaction so that Hibernate batches each table's inserts together
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            chargeOccurrenceService.enregistrer(chargesGenerees.get(i), transaction.getDateTransaction(), transaction);
+        }
+
+        // One balance update per compte, whatever the number of generated occurrences
+        deltas.forEach((compte, delta) -> compte.setSoldeTotal(compte.getSoldeTotal().add(delta)));
+
+        if (!transactions.isEmpty()) {
+            LOGGER.infof("Generated %d charge fixe transactions for %d charges on %d comptes",
+                    transactions.size(), charges.size(), deltas.size());
+        }
+        return transactions;
+    }
+
+    /**
+     * Avance prochaineEcheance après des échéances passées hors rattrapage (validation du
+     * salaire) : première échéance sans occurrence à partir de l'ancienne prochaineEcheance.
+     * Une échéance antérieure encore manquée reste due ; une prochaineEcheance déjà plus loin
+     * que l'échéance passée ne bouge pas. Une requête pour toutes les charges.
+     *
+     * @param echeancesPassees Date de l'échéance passée, par charge (occurrence déjà enregistrée)
+     */
+    public void avancer(Map<ChargeFixe, LocalDate> echeancesPassees) {
+        Map<ChargeFixe, LocalDate> departs = new IdentityHashMap<>();
+        LocalDate premierDepart = null;
+        for (Map.Entry<ChargeFixe, LocalDate> echeance : echeancesPassees.entrySet()) {
+            LocalDate prochaine = echeance.getKey().getProchaineEcheance();
+            if (prochaine != null && prochaine.isAfter(echeance.getValue())) {
+                continue;
+            }
+            LocalDate depart = prochaine != null ? prochaine : echeance.getValue();
+            departs.put(echeance.getKey(), depart);
+            if (premierDepart == null || depart.isBefore(premierDepart)) {
+                premierDepart = depart;
+            }
+        }
+        if (departs.isEmpty()) {
+            return;
+        }
+
+        List<UUID> ids = departs.keySet().stream().map(ChargeFixe::getId).toList();
+        Set<String> passees = chargeOccurrenceService.findCles(ids, YearMonth.from(premierDepart).toString());
+        departs.forEach((charge, depart) -> {
+            passees.add(ChargeOccurrenceService.cle(charge.getId(),
+                    ChargeOccurrence.cycleOf(echeancesPassees.get(charge))));
+            charge.setProchaineEcheance(echeanceSuivante(charge, charge.getUser().getJourPaie(),
+                    depart.minusDays(1), passees));
+        });
+    }
+
+    /**
+     * Recalcule la prochaine échéance après modification du calendrier d'une charge
+     * (jour, fréquence, dates) : premier mois sans occurrence passée, au plus tôt dateDebut ;
+     * cycle courant pour une charge jamais passée.
+     *
+     * @param charge Charge fixe modifiée
+     */
+    public void replanifier(ChargeFixe charge) {
+        YearMonth derniere = findDernieresOccurrences(List.of(charge)).get(charge.getId());
+        charge.setProchaineEcheance(borneInitiale(charge, derniere));
+    }
+
+    /**
+     * Ramène la prochaine échéance à une date dont l'occurrence vient d'être supprimée,
+     * pour que la charge soit de nouveau passée.
+     *
+     * @param charge Charge fixe
+     * @param date Date de la transaction supprimée
+     */
+    public void reporter(ChargeFixe charge, LocalDate date) {
+        if (charge.getProchaineEcheance() == null || date.isBefore(charge.getProchaineEcheance())) {
+            charge.setProchaineEcheance(date);
+        }
+    }
+
+    /**
+     * Initialise prochaineEcheance pour les charges antérieures à la colonne, après la reprise
+     * des occurrences historiques (migration V2).
+     */
+    @Transactional
+    void initialiserEcheances(@Observes @Priority(Interceptor.Priority.APPLICATION + 600) StartupEvent event) {
+        List<ChargeFixe> charges = ChargeFixe.list("actif = true and prochaineEcheance is null");
+        if (charges.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, YearMonth> dernieres = findDernieresOccurrences(charges);
+        for (ChargeFixe charge : charges) {
+            charge.setProchaineEcheance(borneInitiale(charge, dernieres.get(charge.getId())));
+        }
+        LOGGER.infof("Initialized next due date of %d charges fixes", charges.size());
+    }
+
+    private static LocalDate borneInitiale(ChargeFixe charge, YearMonth derniere) {
+        if (derniere == null) {
+            return charge.echeanceInitiale(LocalDate.now());
+        }
+        LocalDate apres = derniere.plusMonths(1).atDay(1);
+        return apres.isBefore(charge.getDateDebut()) ? charge.getDateDebut() : apres;
+    }
+
+    /**
+     * Échéances d'une charge à partir du mois donné jusqu'à aujourd'hui inclus, en respectant
+     * dateDebut, dateFin et la fréquence (comptée sur le cycle budgétaire de chaque échéance).
+     *
+     * @param charge Charge fixe
+     * @param jourPaie Jour de paie de l'utilisateur
+     * @param depuis Premier mois à examiner
+     * @param today Date de traitement
+     * @return Dates de prélèvement, croissantes
+     */
+    static List<LocalDate> echeancesManquees(ChargeFixe charge, int jourPaie, YearMonth depuis, LocalDate today) {
+        List<LocalDate> dates = new ArrayList<>();
+        YearMonth fin = YearMonth.from(today);
+
+        for (YearMonth mois = depuis; !mois.isAfter(fin); mois = mois.plusMonths(1)) {
+            LocalDate date = mois.atDay(Math.min(charge.getJourPrelevement(), mois.lengthOfMonth()));
+            if (date.isAfter(today) || (charge.getDateFin() != null && date.isAfter(charge.getDateFin()))) {
+                break;
+            }
+            if (date.isBefore(charge.getDateDebut())) {
+                continue;
+            }
+            if (CycleBudgetaire.courant(jourPaie, date).concerne(charge)) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Première échéance strictement après la date donnée et pas encore passée.
+     *
+     * @param charge Charge fixe
+     * @param jourPaie Jour de paie de l'utilisateur
+     * @param apres Date de référence
+     * @param passees Occurrences déjà enregistrées ("chargeId|cycle")
+     * @return Date de la prochaine échéance, null si la charge est terminée
+     */
+    static LocalDate echeanceSuivante(ChargeFixe charge, int jourPaie, LocalDate apres, Set<String> passees) {
+        YearMonth mois = YearMonth.from(apres.isBefore(charge.getDateDebut()) ? charge.getDateDebut() : apres);
+
+        // Annual charges recur within 12 months; a few more cover the already applied future ones
+        for (int i = 0; i < 24; i++, mois = mois.plusMonths(1)) {
+            LocalDate date = mois.atDay(Math.min(charge.getJourPrelevement(), mois.lengthOfMonth()));
+            if (charge.getDateFin() != null && date.isAfter(charge.getDateFin())) {
+                return null;
+            }
+            if (!date.isAfter(apres) || date.isBefore(charge.getDateDebut())
+                    || !CycleBudgetaire.courant(jourPaie, date).concerne(charge)
+                    || passees.contains(ChargeOccurrenceService.cle(charge.getId(), mois.toString()))) {
+                continue;
+            }
+            return date;
+        }
+        return null;
+    }
+
+    /**
+     * Dernier mois d'échéance passé par charge, en une requête.
+     */
+    private Map<UUID, YearMonth> findDernieresOccurrences(Collection<ChargeFixe> charges) {
+        List<UUID> ids = charges.stream().map(ChargeFixe::getId).toList();
+
+        List<Object[]> rows = entityManager.createQuery(
+                        "select o.chargeFixe.id, max(o.cycle) from ChargeOccurrence o " +
+                        "where o.chargeFixe.id in :ids group by o.chargeFixe.id",
+                        Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+
+        Map<UUID, YearMonth> dernieres = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            dernieres.put((UUID) row[0], YearMonth.parse((String) row[1]));
+        }
+        return dernieres;
+    }
+
+    private Transaction nouvelleTransaction(ChargeFixe charge, LocalDate date, String label) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(charge.getUser());
+        transaction.setCompte(charge.getCompte());
+        transaction.setMontant(charge.getMontant().negate()); // Negative amount
+        transaction.setDescription(charge.getNom() + " - " + label);
+        transaction.setType(charge.getCategorie());
+        transaction.setDateTransaction(date);
+        transaction.persist();
+        return transaction;
+    }
+}
@@ -5,9 +5,14 @@ import com.budgetmanager.entity.ObjectifRepartition;
 import com.budgetmanager.entity.TypeCompte;
 import com.budgetmanager.entity.User;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.hibernate.jpa.HibernateHints;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Service pour g�rer la logique m�tier des comptes.
@@ -15,6 +20,9 @@ import java.util.List;
 @ApplicationScoped
 public class CompteService {
 
+    @Inject
+    PrevisionService previsionService;
+
     /**
      * R�cup�re tous les comptes actifs d'un utilisateur.
      *
@@ -25,6 +33,7 @@ public class CompteService {
      */
     public List<Compte> getComptesActifs(User user, int page, int limit) {
         return Compte.find("user = ?1 and actif = true order by nom", user)
+                .withHint(HibernateHints.HINT_CACHEABLE, true)
                 .page(page, limit)
                 .list();
     }
@@ -64,6 +73,8 @@ public class CompteService {
      */
     public void unsetAllPrincipalChargesFixes(User user) {
         Compte.update("principalChargesFixes = false where user = ?1", user);
+        // Mise a jour en masse : la prevision (compte du salaire) n'est pas prevenue par les entites
+        previsionService.donneesModifiees(user.getId());
     }
 
     /**
@@ -88,4 +99,34 @@ public class CompteService {
         // Argent libre = Solde total - Montant alloue
         return compte.getSoldeTotal().subtract(montantAlloue);
     }
+
+    /**
+     * Calcule l'argent libre de plusieurs comptes en une seule requete
+     * (montants alloues groupes par compte).
+     *
+     * @param comptes Les comptes
+     * @return Argent libre par identifiant de compte
+     */
+    public Map<UUID, BigDecimal> calculerArgentLibre(List<Compte> comptes) {
+        Map<UUID, BigDecimal> argentLibre = new HashMap<>();
+        if (comptes.isEmpty()) {
+            return argentLibre;
+        }
+
+        Map<UUID, BigDecimal> montantsAlloues = new HashMap<>();
+        List<Object[]> lignes = ObjectifRepartition.getEntityManager().createQuery(
+                        "select r.compte.id, coalesce(sum(r.montantActuel), 0) from ObjectifRepartition r " +
+                        "where r.compte in ?1 and r.objectif.actif = true group by r.compte.id", Object[].class)
+                .setParameter(1, comptes)
+                .getResultList();
+        for (Object[] ligne : lignes) {
+            montantsAlloues.put((UUID) ligne[0], (BigDecimal) ligne[1]);
+        }
+
+        for (Compte compte : comptes) {
+            argentLibre.put(compte.getId(),
+                    compte.getSoldeTotal().subtract(montantsAlloues.getOrDefault(compte.getId(), BigDecimal.ZERO)));
+        }
+        return argentLibre;
+    }
 }
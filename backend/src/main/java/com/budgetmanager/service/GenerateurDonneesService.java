@@ -0,0 +1,338 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.dto.GenerationDonneesRequest;
+import com.budgetmanager.dto.GenerationDonneesResponse;
+import com.budgetmanager.entity.*;
+import com.budgetmanager.util.FingerprintUtil;
+import com.budgetmanager.util.Money;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Génère un utilisateur complet avec des années d'historique réaliste (salaires, charges fixes,
+ * dépenses variables, épargne, transferts entre objectifs), pour mesurer l'application à volume réel.
+ * Chaque mois est écrit dans sa propre transaction, par lots vidés du contexte de persistance ;
+ * les soldes et répartitions sont calculés en centimes puis posés à la fin.
+ */
+@ApplicationScoped
+public class GenerateurDonneesService {
+
+    private static final Logger LOGGER = Logger.getLogger(GenerateurDonneesService.class);
+
+    static final int JOUR_PAIE = 25;
+    private static final int LOT = 1000;
+
+    private static final TypeCompte[] TYPES_EPARGNE = {
+            TypeCompte.LIVRET_A, TypeCompte.LDDS, TypeCompte.PEL, TypeCompte.ASSURANCE_VIE, TypeCompte.PEA
+    };
+
+    private static final TypeObjectif[] TYPES_OBJECTIF = {
+            TypeObjectif.SECURITE, TypeObjectif.COURT_TERME, TypeObjectif.MOYEN_TERME,
+            TypeObjectif.LONG_TERME, TypeObjectif.PLAISIR, TypeObjectif.PROJET_IMMOBILIER
+    };
+
+    // nom, catégorie, montant en centimes, fréquence
+    private static final Object[][] CHARGES = {
+            {"Loyer", TypeTransaction.LOYER, 85_000L, FrequenceCharge.MENSUELLE},
+            {"Assurance habitation", TypeTransaction.ASSURANCE, 1_800L, FrequenceCharge.MENSUELLE},
+            {"Box internet", TypeTransaction.ABONNEMENT, 3_999L, FrequenceCharge.MENSUELLE},
+            {"Forfait mobile", TypeTransaction.ABONNEMENT, 1_599L, FrequenceCharge.MENSUELLE},
+            {"Mutuelle", TypeTransaction.MUTUELLE, 4_500L, FrequenceCharge.MENSUELLE},
+            {"Streaming", TypeTransaction.ABONNEMENT, 1_399L, FrequenceCharge.MENSUELLE},
+            {"Taxe foncière", TypeTransaction.IMPOTS, 95_000L, FrequenceCharge.ANNUELLE},
+            {"Assurance auto", TypeTransaction.ASSURANCE, 18_000L, FrequenceCharge.TRIMESTRIELLE},
+            {"Frais de tenue de compte", TypeTransaction.FRAIS_BANCAIRE, 600L, FrequenceCharge.MENSUELLE},
+            {"Crédit auto", TypeTransaction.CREDIT_CONSO, 21_000L, FrequenceCharge.MENSUELLE}
+    };
+
+    // catégorie, marchands, montant min et max en centimes
+    private static final Object[][] DEPENSES = {
+            {TypeTransaction.ALIMENTATION, new String[]{"CARTE X4521 CARREFOUR MARKET", "CARTE X4521 MONOPRIX",
+                    "CARTE X4521 LIDL", "CARTE X4521 BIOCOOP"}, 500L, 15_000L},
+            {TypeTransaction.RESTAURANT, new String[]{"CARTE X4521 UBER EATS", "CARTE X4521 LE PETIT BISTROT",
+                    "CARTE X4521 BOULANGERIE PAUL"}, 300L, 6_000L},
+            {TypeTransaction.TRANSPORT, new String[]{"CARTE X4521 SNCF", "CARTE X4521 RATP", "CARTE X4521 PARKING INDIGO"},
+                    200L, 8_000L},
+            {TypeTransaction.ESSENCE, new String[]{"CARTE X4521 TOTAL ACCESS", "CARTE X4521 ESSO"}, 3_000L, 9_000L},
+            {TypeTransaction.SHOPPING, new String[]{"CARTE X4521 AMAZON", "CARTE X4521 FNAC", "CARTE X4521 ZARA"},
+                    1_000L, 20_000L},
+            {TypeTransaction.LOISIRS, new String[]{"CARTE X4521 UGC CINE", "CARTE X4521 DECATHLON"}, 500L, 10_000L},
+            {TypeTransaction.SANTE, new String[]{"CARTE X4521 PHARMACIE DU CENTRE", "CARTE X4521 DR MARTIN"},
+                    500L, 6_000L},
+            {TypeTransaction.MAISON, new String[]{"CARTE X4521 IKEA", "CARTE X4521 LEROY MERLIN"}, 1_000L, 25_000L}
+    };
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    /**
+     * Identifiants et compteurs partagés par les transactions mois par mois.
+     */
+    private static final class Jeu {
+        UUID userId;
+        final List<UUID> comptes = new ArrayList<>();
+        final List<UUID> objectifs = new ArrayList<>();
+        final List<UUID> repartitions = new ArrayList<>();
+        final List<UUID> charges = new ArrayList<>();
+        // Balances and goal allocations in cents, indexed like the id lists
+        long[] soldes;
+        long[] montantsObjectifs;
+        int[] compteObjectif;
+        long transactions;
+        long transferts;
+    }
+
+    /**
+     * Génère le jeu de données sur une base sans utilisateur.
+     *
+     * @param request Paramètres de génération
+     * @param today Fin de l'historique
+     * @return Bilan de la génération
+     * @throws IllegalStateException si un profil utilisateur existe déjà
+     */
+    public GenerationDonneesResponse generer(GenerationDonneesRequest request, LocalDate today) {
+        long debutMs = System.currentTimeMillis();
+        Random random = new Random(request.getGraine());
+        YearMonth premierMois = YearMonth.from(today).minusYears(request.getAnnees()).plusMonths(1);
+        LocalDate dateDebut = premierMois.atDay(1);
+
+        Jeu jeu = QuarkusTransaction.requiringNew().call(() -> creerReferentiel(request, dateDebut, random));
+
+        for (YearMonth mois = premierMois; !mois.isAfter(YearMonth.from(today)); mois = mois.plusMonths(1)) {
+            YearMonth courant = mois;
+            QuarkusTransaction.requiringNew().run(() -> genererMois(jeu, request, courant, today, random));
+        }
+
+        QuarkusTransaction.requiringNew().run(() -> finaliser(jeu, today));
+
+        long dureeMs = System.currentTimeMillis() - debutMs;
+        LOGGER.infof("Generated dataset for user %s: %d transactions, %d transfers over %d months (%d ms)",
+                jeu.userId, jeu.transactions, jeu.transferts, request.getAnnees() * 12, dureeMs);
+
+        return GenerationDonneesResponse.builder()
+                .userId(jeu.userId)
+                .dateDebut(dateDebut)
+                .dateFin(today)
+                .comptes(jeu.comptes.size())
+                .objectifs(jeu.objectifs.size())
+                .chargesFixes(jeu.charges.size())
+                .transactions(jeu.transactions)
+                .transferts(jeu.transferts)
+                .dureeMs(dureeMs)
+                .build();
+    }
+
+    /**
+     * Utilisateur, comptes, objectifs (une répartition chacun) et charges fixes.
+     */
+    private Jeu creerReferentiel(GenerationDonneesRequest request, LocalDate dateDebut, Random random) {
+        if (User.count() > 0) {
+            throw new IllegalStateException("Un profil utilisateur existe déjà : la génération demande une base vide");
+        }
+
+        Banque banque = Banque.<Banque>find("order by nom").firstResult();
+        if (banque == null) {
+            banque = new Banque("Banque synthétique", "#607D8B", null);
+            banque.persist();
+        }
+
+        User user = new User("Synthetique", "Utilisateur", JOUR_PAIE, new BigDecimal("3200.00"), new BigDecimal("500.00"));
+        user.persist();
+
+        Jeu jeu = new Jeu();
+        jeu.userId = user.getId();
+        jeu.soldes = new long[request.getComptes()];
+
+        Compte courant = new Compte(user, banque, "Compte courant", TypeCompte.COMPTE_COURANT, BigDecimal.ZERO);
+        courant.setPrincipalChargesFixes(true);
+        courant.persist();
+        jeu.comptes.add(courant.getId());
+        jeu.soldes[0] = 150_000L;
+
+        List<Compte> epargne = new ArrayList<>();
+        for (int i = 1; i < request.getComptes(); i++) {
+            TypeCompte type = TYPES_EPARGNE[(i - 1) % TYPES_EPARGNE.length];
+            Compte compte = new Compte(user, banque, type.name().replace('_', ' ') + " " + i, type, BigDecimal.ZERO);
+            compte.persist();
+            epargne.add(compte);
+            jeu.comptes.add(compte.getId());
+            jeu.soldes[i] = 100_000L * i;
+        }
+
+        jeu.montantsObjectifs = new long[request.getObjectifs()];
+        jeu.compteObjectif = new int[request.getObjectifs()];
+        for (int i = 0; i < request.getObjectifs(); i++) {
+            Objectif objectif = new Objectif(user, "Objectif " + (i + 1),
+                    Money.toBigDecimal(500_000L + 250_000L * random.nextInt(20)),
+                    TYPES_OBJECTIF[i % TYPES_OBJECTIF.length]);
+            objectif.persist();
+
+            // Goals live on savings accounts when there are some
+            int compte = epargne.isEmpty() ? 0 : 1 + i % epargne.size();
+            Compte support = compte == 0 ? courant : epargne.get(compte - 1);
+            ObjectifRepartition repartition = new ObjectifRepartition(objectif, support, BigDecimal.ZERO);
+            repartition.setOrdre(1);
+            repartition.persist();
+
+            jeu.objectifs.add(objectif.getId());
+            jeu.repartitions.add(repartition.getId());
+            jeu.compteObjectif[i] = compte;
+        }
+
+        for (int i = 0; i < request.getChargesFixes(); i++) {
+            Object[] modele = CHARGES[i % CHARGES.length];
+            String nom = i < CHARGES.length ? (String) modele[0] : modele[0] + " " + (i / CHARGES.length + 1);
+            ChargeFixe charge = new ChargeFixe(user, courant, nom, null, Money.toBigDecimal((Long) modele[2]),
+                    (TypeTransaction) modele[1], 1 + random.nextInt(28), (FrequenceCharge) modele[3], dateDebut);
+            charge.persist();
+            jeu.charges.add(charge.getId());
+        }
+        return jeu;
+    }
+
+    /**
+     * Un mois d'historique : salaire, échéances des charges fixes, dépenses variables,
+     * épargne vers un objectif et transferts entre objectifs.
+     */
+    private void genererMois(Jeu jeu, GenerationDonneesRequest request, YearMonth mois, LocalDate today, Random random) {
+        User user = entityManager.getReference(User.class, jeu.userId);
+        Compte courant = entityManager.getReference(Compte.class, jeu.comptes.get(0));
+        LocalDate finMois = mois.atEndOfMonth().isAfter(today) ? today : mois.atEndOfMonth();
+        int[] persistees = {0};
+
+        LocalDate jourSalaire = mois.atDay(Math.min(JOUR_PAIE, mois.lengthOfMonth()));
+        if (!jourSalaire.isAfter(finMois)) {
+            persister(jeu, transaction(user, courant, null, 320_000L, TypeTransaction.SALAIRE,
+                    "VIR SEPA SALAIRE ACME SAS", jourSalaire), 0, persistees);
+        }
+
+        for (UUID chargeId : jeu.charges) {
+            ChargeFixe charge = entityManager.find(ChargeFixe.class, chargeId);
+            for (LocalDate date : ChargeRattrapageService.echeancesManquees(charge, JOUR_PAIE, mois, finMois)) {
+                Transaction transaction = transaction(user, courant, null, -Money.toCents(charge.getMontant()),
+                        charge.getCategorie(), charge.getNom(), date);
+                persister(jeu, transaction, 0, persistees);
+                new ChargeOccurrence(charge, ChargeOccurrence.cycleOf(date), transaction).persist();
+            }
+        }
+
+        int jours = finMois.getDayOfMonth();
+        for (int i = 0; i < request.getDepensesParMois(); i++) {
+            Object[] modele = DEPENSES[random.nextInt(DEPENSES.length)];
+            String[] marchands = (String[]) modele[1];
+            long min = (Long) modele[2];
+            long montant = min + (long) (random.nextDouble() * ((Long) modele[3] - min));
+            persister(jeu, transaction(user, courant, null, -montant, (TypeTransaction) modele[0],
+                    marchands[random.nextInt(marchands.length)], mois.atDay(1 + random.nextInt(jours))), 0, persistees);
+        }
+
+        if (!jeu.objectifs.isEmpty() && !jourSalaire.isAfter(finMois)) {
+            epargner(jeu, user, courant, random, jourSalaire, persistees);
+        }
+
+        for (int i = 0; i < request.getTransfertsParMois() && jeu.objectifs.size() > 1; i++) {
+            transferer(jeu, user, random, mois.atDay(1 + random.nextInt(jours)), persistees);
+        }
+    }
+
+    private void epargner(Jeu jeu, User user, Compte courant, Random random, LocalDate date, int[] persistees) {
+        int index = random.nextInt(jeu.objectifs.size());
+        Objectif objectif = entityManager.getReference(Objectif.class, jeu.objectifs.get(index));
+        int compte = jeu.compteObjectif[index];
+        long montant = 10_000L * (1 + random.nextInt(30));
+
+        persister(jeu, transaction(user, courant, null, -montant, TypeTransaction.EPARGNE,
+                "VIR EPARGNE OBJECTIF " + (index + 1), date), 0, persistees);
+        persister(jeu, transaction(user, entityManager.getReference(Compte.class, jeu.comptes.get(compte)), objectif,
+                montant, TypeTransaction.EPARGNE, "VIR EPARGNE DEPUIS COMPTE COURANT", date), compte, persistees);
+        jeu.montantsObjectifs[index] += montant;
+    }
+
+    private void transferer(Jeu jeu, User user, Random random, LocalDate date, int[] persistees) {
+        int source = random.nextInt(jeu.objectifs.size());
+        int destination = (source + 1 + random.nextInt(jeu.objectifs.size() - 1)) % jeu.objectifs.size();
+        long disponible = jeu.montantsObjectifs[source];
+        if (disponible < 100L) {
+            return;
+        }
+        long montant = Math.max(100L, disponible / (2 + random.nextInt(8)));
+
+        Objectif objectifSource = entityManager.getReference(Objectif.class, jeu.objectifs.get(source));
+        Objectif objectifDestination = entityManager.getReference(Objectif.class, jeu.objectifs.get(destination));
+        int indexCompteSource = jeu.compteObjectif[source];
+        int indexCompteDestination = jeu.compteObjectif[destination];
+        Compte compteSource = entityManager.getReference(Compte.class, jeu.comptes.get(indexCompteSource));
+        Compte compteDestination = entityManager.getReference(Compte.class, jeu.comptes.get(indexCompteDestination));
+
+        TransfertObjectif transfert = new TransfertObjectif(user, objectifSource, objectifDestination,
+                compteSource, compteDestination, Money.toBigDecimal(montant), "Rééquilibrage");
+        transfert.setDateTransfert(date);
+        transfert.persist();
+        jeu.transferts++;
+
+        Transaction debit = transaction(user, compteSource, objectifSource, -montant, TypeTransaction.TRANSFERT_OBJECTIF,
+                "Transfert vers Objectif " + (destination + 1) + " : Rééquilibrage", date);
+        debit.setTransfertObjectif(transfert);
+        persister(jeu, debit, indexCompteSource, persistees);
+
+        Transaction credit = transaction(user, compteDestination, objectifDestination, montant,
+                TypeTransaction.TRANSFERT_OBJECTIF, "Transfert depuis Objectif " + (source + 1) + " : Rééquilibrage", date);
+        credit.setTransfertObjectif(transfert);
+        persister(jeu, credit, indexCompteDestination, persistees);
+
+        jeu.montantsObjectifs[source] -= montant;
+        jeu.montantsObjectifs[destination] += montant;
+    }
+
+    /**
+     * Soldes des comptes, montants des répartitions et prochaines échéances des charges.
+     */
+    private void finaliser(Jeu jeu, LocalDate today) {
+        for (int i = 0; i < jeu.comptes.size(); i++) {
+            Compte compte = entityManager.find(Compte.class, jeu.comptes.get(i));
+            compte.setSoldeTotal(Money.ofCents(jeu.soldes[i]).toColumn());
+        }
+        for (int i = 0; i < jeu.repartitions.size(); i++) {
+            ObjectifRepartition repartition = entityManager.find(ObjectifRepartition.class, jeu.repartitions.get(i));
+            repartition.setMontantActuel(Money.ofCents(jeu.montantsObjectifs[i]).toColumn());
+        }
+        for (UUID chargeId : jeu.charges) {
+            ChargeFixe charge = entityManager.find(ChargeFixe.class, chargeId);
+            charge.setProchaineEcheance(ChargeRattrapageService.echeanceSuivante(charge, JOUR_PAIE, today, Set.of()));
+        }
+    }
+
+    private static Transaction transaction(User user, Compte compte, Objectif objectif, long centimes,
+                                           TypeTransaction type, String description, LocalDate date) {
+        BigDecimal montant = Money.toBigDecimal(centimes);
+        Transaction transaction = new Transaction(user, compte, objectif, montant, type, description);
+        transaction.setDateTransaction(date);
+        transaction.setEmpreinte(FingerprintUtil.ofContent(date, montant, description));
+        return transaction;
+    }
+
+    /**
+     * Persiste une transaction, la reporte sur le solde du compte et vide le contexte tous les LOT.
+     */
+    private void persister(Jeu jeu, Transaction transaction, int compte, int[] persistees) {
+        transaction.persist();
+        jeu.soldes[compte] += Money.toCents(transaction.getMontant());
+        jeu.transactions++;
+        if (++persistees[0] % LOT == 0) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+}
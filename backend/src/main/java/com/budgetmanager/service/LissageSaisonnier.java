@@ -0,0 +1,67 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.entity.PrevisionDepense;
+
+import java.time.YearMonth;
+
+/**
+ * Lissage exponentiel saisonnier additif (Holt-Winters) sur les dépenses par cycle,
+ * saison de 12 cycles. Chaque observation met à jour niveau, tendance et écart saisonnier
+ * en temps constant ; une prévision à h cycles est niveau + h * tendance + saison.
+ */
+final class LissageSaisonnier {
+
+    static final double ALPHA = 0.4; // Niveau
+    static final double BETA = 0.1;  // Tendance
+    static final double GAMMA = 0.3; // Saisonnalité
+
+    private LissageSaisonnier() {
+    }
+
+    /**
+     * Intègre la dépense d'un cycle au modèle.
+     *
+     * @param modele Modèle de la catégorie
+     * @param cycle Cycle observé, postérieur au dernier cycle intégré
+     * @param depense Dépense du cycle (positive, 0 si aucune)
+     */
+    static void integrer(PrevisionDepense modele, YearMonth cycle, double depense) {
+        double[] saisons = modele.getSaisons();
+        int saison = cycle.getMonthValue() - 1;
+
+        if (modele.getNombreCycles() == 0) {
+            modele.setNiveau(depense);
+            modele.setTendance(0);
+        } else {
+            double prevision = modele.getNiveau() + modele.getTendance() + saisons[saison];
+            modele.setErreurAbsolueCumulee(modele.getErreurAbsolueCumulee() + Math.abs(depense - prevision));
+
+            double niveauPrecedent = modele.getNiveau();
+            double niveau = ALPHA * (depense - saisons[saison]) + (1 - ALPHA) * (niveauPrecedent + modele.getTendance());
+            modele.setNiveau(niveau);
+            modele.setTendance(BETA * (niveau - niveauPrecedent) + (1 - BETA) * modele.getTendance());
+            saisons[saison] = GAMMA * (depense - niveau) + (1 - GAMMA) * saisons[saison];
+            // New array instance so that Hibernate sees the change
+            modele.setSaisons(saisons.clone());
+        }
+
+        modele.setDernierCycle(cycle.toString());
+        modele.setNombreCycles(modele.getNombreCycles() + 1);
+    }
+
+    /**
+     * Dépense prévue h cycles après le dernier cycle intégré, jamais négative.
+     */
+    static double prevoir(PrevisionDepense modele, int h) {
+        int saison = YearMonth.parse(modele.getDernierCycle()).plusMonths(h).getMonthValue() - 1;
+        return Math.max(0, modele.getNiveau() + h * modele.getTendance() + modele.getSaisons()[saison]);
+    }
+
+    /**
+     * Erreur absolue moyenne des prévisions à un cycle, null tant qu'il n'y en a pas eu.
+     */
+    static Double erreurMoyenne(PrevisionDepense modele) {
+        return modele.getNombreCycles() < 2 ? null
+                : modele.getErreurAbsolueCumulee() / (modele.getNombreCycles() - 1);
+    }
+}
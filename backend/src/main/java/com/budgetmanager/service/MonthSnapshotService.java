@@ -1,6 +1,15 @@
 package com.budgetmanager.service;
 
 import com.budgetmanager.entity.*;
+import com.budgetmanager.metrics.jfr.SnapshotComputationEvent;
+import com.budgetmanager.service.analytics.LedgerColumnStore;
+import com.budgetmanager.service.analytics.TotauxParType;
+import com.budgetmanager.util.Money;
+import com.budgetmanager.util.MoneyAccumulator;
+import com.budgetmanager.util.MoneyConstants;
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.instrumentation.annotations.SpanAttribute;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
@@ -32,7 +41,7 @@ public class MonthSnapshotService {
     );
 
     // Variable expense types
-    private static final Set<TypeTransaction> VARIABLE_EXPENSE_TYPES = Set.of(
+    static final Set<TypeTransaction> VARIABLE_EXPENSE_TYPES = Set.of(
             TypeTransaction.ALIMENTATION,
             TypeTransaction.RESTAURANT,
             TypeTransaction.TRANSPORT,
@@ -55,9 +64,21 @@ public class MonthSnapshotService {
             TypeTransaction.REMBOURSEMENT
     );
 
+    // Savings types
+    private static final Set<TypeTransaction> SAVINGS_TYPES = Set.of(
+            TypeTransaction.EPARGNE,
+            TypeTransaction.INVESTISSEMENT
+    );
+
     @Inject
     TransactionService transactionService;
 
+    @Inject
+    PrevisionDepenseService previsionDepenseService;
+
+    @Inject
+    LedgerColumnStore ledgerColumnStore;
+
     /**
      * Creates or updates a snapshot for a given budget cycle.
      *
@@ -65,7 +86,12 @@ public class MonthSnapshotService {
      * @param month The month in YYYY-MM format (represents the cycle starting this month)
      * @return The created/updated snapshot
      */
-    public MonthSnapshot createOrUpdateSnapshot(User user, String month) {
+    @WithSpan
+    @Timed(value = "budget.snapshot.update", description = "Calcul et enregistrement d'un snapshot de cycle",
+            histogram = true)
+    public MonthSnapshot createOrUpdateSnapshot(User user, @SpanAttribute("budget.mois") String month) {
+        SnapshotComputationEvent event = new SnapshotComputationEvent();
+        event.begin();
         int jourPaie = user.getJourPaie();
 
         // Calculate budget cycle dates
@@ -92,68 +118,75 @@ public class MonthSnapshotService {
         snapshot.setCycleStart(cycleStart.toString());
         snapshot.setCycleEnd(cycleEnd.toString());
 
-        // Get all transactions in the budget cycle
-        List<Transaction> transactions = Transaction.find(
-                "user = ?1 and dateTransaction >= ?2 and dateTransaction <= ?3",
-                user, cycleStart, cycleEnd
-        ).list();
-
-        // Calculate totals
-        BigDecimal totalRevenus = BigDecimal.ZERO;
-        BigDecimal totalChargesFixes = BigDecimal.ZERO;
-        BigDecimal totalDepensesVariables = BigDecimal.ZERO;
-        BigDecimal totalEpargne = BigDecimal.ZERO;
-        int nombreChargesFixes = 0;
-        int nombreDepensesVariables = 0;
-
-        for (Transaction t : transactions) {
-            if (INCOME_TYPES.contains(t.getType()) && t.getMontant().compareTo(BigDecimal.ZERO) > 0) {
-                totalRevenus = totalRevenus.add(t.getMontant());
-            } else if (FIXED_CHARGE_TYPES.contains(t.getType()) && t.getMontant().compareTo(BigDecimal.ZERO) < 0) {
-                totalChargesFixes = totalChargesFixes.add(t.getMontant().abs());
-                nombreChargesFixes++;
-            } else if (VARIABLE_EXPENSE_TYPES.contains(t.getType()) && t.getMontant().compareTo(BigDecimal.ZERO) < 0) {
-                totalDepensesVariables = totalDepensesVariables.add(t.getMontant().abs());
-                nombreDepensesVariables++;
-            } else if ((t.getType() == TypeTransaction.EPARGNE || t.getType() == TypeTransaction.INVESTISSEMENT)
-                    && t.getMontant().compareTo(BigDecimal.ZERO) < 0) {
-                totalEpargne = totalEpargne.add(t.getMontant().abs());
-            }
-        }
+        // Totals of the budget cycle, scanned from the in-memory ledger columns (no entity loaded)
+        TotauxParType totauxParType = ledgerColumnStore.colonnes(user.getId()).totaliser(cycleStart, cycleEnd, null);
+        TotauxCycle totaux = totaliser(totauxParType);
 
         // Calculate current compte courant balance
-        BigDecimal soldeCompteCourant = Compte.find("user = ?1 and type = ?2 and actif = true", user, TypeCompte.COMPTE_COURANT)
-                .<Compte>stream()
-                .map(Compte::getSoldeTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        MoneyAccumulator soldeCompteCourant = new MoneyAccumulator();
+        for (Compte compte : Compte.<Compte>list("user = ?1 and type = ?2 and actif = true", user, TypeCompte.COMPTE_COURANT)) {
+            soldeCompteCourant.add(compte.getSoldeTotal());
+        }
 
         // Set snapshot values
-        snapshot.setTotalRevenus(totalRevenus);
-        snapshot.setTotalChargesFixes(totalChargesFixes);
-        snapshot.setTotalDepensesVariables(totalDepensesVariables);
-        snapshot.setTotalEpargne(totalEpargne);
-        snapshot.setSoldeCompteCourant(soldeCompteCourant);
-        snapshot.setNombreTransactions(transactions.size());
-        snapshot.setNombreChargesFixes(nombreChargesFixes);
-        snapshot.setNombreDepensesVariables(nombreDepensesVariables);
+        snapshot.setTotalRevenus(totaux.revenus());
+        snapshot.setTotalChargesFixes(totaux.chargesFixes());
+        snapshot.setTotalDepensesVariables(totaux.depensesVariables());
+        snapshot.setTotalEpargne(totaux.epargne());
+        snapshot.setSoldeCompteCourant(soldeCompteCourant.toMoney().toColumn());
+        snapshot.setNombreTransactions(totauxParType.nombre());
+        snapshot.setNombreChargesFixes(totaux.nombreChargesFixes());
+        snapshot.setNombreDepensesVariables(totaux.nombreDepensesVariables());
 
         // Store budget info
         BigDecimal salaire = user.getSalaireMensuelNet() != null ? user.getSalaireMensuelNet() : BigDecimal.ZERO;
         snapshot.setSalaireMensuel(salaire);
-        snapshot.setBudgetChargesFixes(salaire.multiply(BigDecimal.valueOf(user.getPourcentageChargesFixes() / 100.0)));
-        snapshot.setBudgetDepensesVariables(salaire.multiply(BigDecimal.valueOf(user.getPourcentageDepensesVariables() / 100.0)));
+        snapshot.setBudgetChargesFixes(MoneyConstants.applyPercentage(salaire, user.getPourcentageChargesFixes()));
+        snapshot.setBudgetDepensesVariables(MoneyConstants.applyPercentage(salaire, user.getPourcentageDepensesVariables()));
 
         snapshot.persist();
+        event.mois = month;
+        event.debutCycle = cycleStart.toString();
+        event.finCycle = cycleEnd.toString();
+        event.transactions = totauxParType.nombre();
+        event.commit();
+
+        // The cycle is closed: feed it to the spending forecast models
+        previsionDepenseService.integrerCycles(user, month, LocalDate.now());
 
         LOGGER.infof("Snapshot created: revenus=%s, charges=%s, depenses=%s, epargne=%s",
-                totalRevenus, totalChargesFixes, totalDepensesVariables, totalEpargne);
+                totaux.revenus(), totaux.chargesFixes(), totaux.depensesVariables(), totaux.epargne());
 
         return snapshot;
     }
 
+    /**
+     * Totaux d'un cycle : revenus, charges fixes, dépenses variables et épargne (en valeur absolue).
+     */
+    public record TotauxCycle(BigDecimal revenus, BigDecimal chargesFixes, BigDecimal depensesVariables,
+                              BigDecimal epargne, int nombreChargesFixes, int nombreDepensesVariables) {
+    }
+
+    /**
+     * Totaux d'un cycle à partir des totaux par type du grand livre en colonnes.
+     *
+     * @param totaux Totaux par type du cycle
+     * @return Totaux au format des colonnes du snapshot
+     */
+    public static TotauxCycle totaliser(TotauxParType totaux) {
+        return new TotauxCycle(
+                Money.ofCents(totaux.credits(INCOME_TYPES)).toColumn(),
+                Money.ofCents(-totaux.debits(FIXED_CHARGE_TYPES)).toColumn(),
+                Money.ofCents(-totaux.debits(VARIABLE_EXPENSE_TYPES)).toColumn(),
+                Money.ofCents(-totaux.debits(SAVINGS_TYPES)).toColumn(),
+                totaux.nombreDebits(FIXED_CHARGE_TYPES),
+                totaux.nombreDebits(VARIABLE_EXPENSE_TYPES));
+    }
+
     /**
      * Gets a snapshot for a given user and month.
      */
+    @WithSpan
     public Optional<MonthSnapshot> getSnapshot(User user, String month) {
         return MonthSnapshot.find("user = ?1 and month = ?2", user, month).firstResultOptional();
     }
@@ -161,6 +194,7 @@ public class MonthSnapshotService {
     /**
      * Gets all snapshots for a user, ordered by month descending.
      */
+    @WithSpan
     public List<MonthSnapshot> getAllSnapshots(User user) {
         return MonthSnapshot.find("user = ?1 order by month desc", user).list();
     }
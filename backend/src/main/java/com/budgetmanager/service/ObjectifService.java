@@ -3,6 +3,8 @@ package com.budgetmanager.service;
 import com.budgetmanager.entity.Objectif;
 import com.budgetmanager.entity.ObjectifRepartition;
 import com.budgetmanager.entity.User;
+import com.budgetmanager.util.MoneyAccumulator;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -10,7 +12,11 @@ import jakarta.persistence.TypedQuery;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Service pour gérer la logique métier des objectifs.
@@ -28,6 +34,7 @@ public class ObjectifService {
      * @param user The user
      * @return List of objectifs with all relations loaded
      */
+    @WithSpan
     public List<Objectif> findObjectifsWithRepartitions(User user) {
         TypedQuery<Objectif> query = entityManager.createQuery(
                 "SELECT DISTINCT o FROM Objectif o WHERE o.user = :user AND o.actif = true ORDER BY o.priorite, o.nom",
@@ -51,6 +58,7 @@ public class ObjectifService {
      *
      * @param objectif L'objectif à enrichir
      */
+    @WithSpan
     public void enrichirObjectif(Objectif objectif) {
         // Charger les répartitions avec leurs comptes et banques via entity graph
         List<ObjectifRepartition> repartitions = entityManager
@@ -63,6 +71,34 @@ public class ObjectifService {
         calculateObjectifMetrics(objectif);
     }
 
+    /**
+     * Enrichit une page d'objectifs : les répartitions de tous les objectifs sont chargées
+     * en une seule requête (au lieu d'une par objectif).
+     *
+     * @param objectifs Les objectifs à enrichir
+     */
+    @WithSpan
+    public void enrichirObjectifs(List<Objectif> objectifs) {
+        if (objectifs.isEmpty()) {
+            return;
+        }
+        List<ObjectifRepartition> repartitions = entityManager
+                .createQuery("SELECT r FROM ObjectifRepartition r WHERE r.objectif IN :objectifs ORDER BY r.ordre",
+                        ObjectifRepartition.class)
+                .setParameter("objectifs", objectifs)
+                .setHint("jakarta.persistence.fetchgraph", entityManager.getEntityGraph("ObjectifRepartition.full"))
+                .getResultList();
+
+        Map<UUID, List<ObjectifRepartition>> parObjectif = new HashMap<>();
+        for (ObjectifRepartition repartition : repartitions) {
+            parObjectif.computeIfAbsent(repartition.getObjectif().getId(), id -> new ArrayList<>()).add(repartition);
+        }
+        for (Objectif objectif : objectifs) {
+            objectif.setRepartitions(parObjectif.getOrDefault(objectif.getId(), new ArrayList<>()));
+            calculateObjectifMetrics(objectif);
+        }
+    }
+
     /**
      * Calculate montantActuel and pourcentageProgression for an objectif.
      * Assumes repartitions are already loaded.
@@ -78,9 +114,11 @@ public class ObjectifService {
         }
 
         // Calculer montantActuel
-        objectif.setMontantActuel(repartitions.stream()
-                .map(ObjectifRepartition::getMontantActuel)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        MoneyAccumulator montantActuel = new MoneyAccumulator();
+        for (ObjectifRepartition repartition : repartitions) {
+            montantActuel.add(repartition.getMontantActuel());
+        }
+        objectif.setMontantActuel(montantActuel.toBigDecimal());
 
         // Calculer pourcentageProgression
         if (objectif.getMontantCible() != null && objectif.getMontantCible().compareTo(BigDecimal.ZERO) > 0) {
@@ -0,0 +1,158 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.dto.PrevisionCategorieResponse;
+import com.budgetmanager.entity.PrevisionDepense;
+import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.entity.User;
+import com.budgetmanager.service.analytics.LedgerColumnStore;
+import com.budgetmanager.service.analytics.LedgerColumns;
+import com.budgetmanager.service.analytics.TotauxParType;
+import com.budgetmanager.util.CycleBudgetaire;
+import com.budgetmanager.util.MoneyConstants;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prévision des dépenses variables par catégorie (ALIMENTATION, RESTAURANT, TRANSPORT...).
+ * Les modèles (PrevisionDepense) sont mis à jour à chaque clôture de cycle avec les seuls
+ * cycles pas encore intégrés ; servir une prévision n'évalue que les paramètres stockés.
+ */
+@ApplicationScoped
+public class PrevisionDepenseService {
+
+    private static final Logger LOGGER = Logger.getLogger(PrevisionDepenseService.class);
+
+    // History read when a user has no model yet
+    static final int HISTORIQUE_MAX = 24;
+
+    @Inject
+    LedgerColumnStore ledgerColumnStore;
+
+    /**
+     * Intègre aux modèles de l'utilisateur les cycles clos jusqu'au cycle donné inclus.
+     * Sans effet sur les cycles déjà intégrés : rappeler la méthode pour un même mois ne change rien.
+     *
+     * @param user Utilisateur
+     * @param mois Dernier cycle à intégrer, format "YYYY-MM" ; ignoré s'il n'est pas encore clos
+     * @param today Date du jour
+     * @return Nombre de mises à jour de modèles
+     */
+    public int integrerCycles(User user, String mois, LocalDate today) {
+        int jourPaie = user.getJourPaie();
+        YearMonth cible = YearMonth.parse(mois);
+        while (!CycleBudgetaire.du(jourPaie, cible).fin().isBefore(today)) {
+            cible = cible.minusMonths(1);
+        }
+
+        Map<TypeTransaction, PrevisionDepense> modeles = new EnumMap<>(TypeTransaction.class);
+        PrevisionDepense.<PrevisionDepense>list("user", user).forEach(m -> modeles.put(m.getCategorie(), m));
+
+        YearMonth debut = modeles.values().stream()
+                .map(m -> YearMonth.parse(m.getDernierCycle()).plusMonths(1))
+                .min(Comparator.naturalOrder())
+                .orElse(cible.minusMonths(HISTORIQUE_MAX - 1L));
+        if (debut.isBefore(cible.minusMonths(HISTORIQUE_MAX - 1L))) {
+            debut = cible.minusMonths(HISTORIQUE_MAX - 1L);
+        }
+        if (debut.isAfter(cible)) {
+            return 0;
+        }
+
+        int cycles = (int) ChronoUnit.MONTHS.between(debut, cible) + 1;
+        Map<TypeTransaction, double[]> depenses = depensesParCycle(user, debut, cycles);
+
+        int misesAJour = 0;
+        for (TypeTransaction categorie : MonthSnapshotService.VARIABLE_EXPENSE_TYPES) {
+            double[] parCycle = depenses.get(categorie);
+            PrevisionDepense modele = modeles.get(categorie);
+
+            for (int i = 0; i < cycles; i++) {
+                YearMonth cycle = debut.plusMonths(i);
+                double depense = parCycle != null ? parCycle[i] : 0;
+
+                if (modele == null) {
+                    // A category gets a model with its first spending
+                    if (depense == 0) {
+                        continue;
+                    }
+                    modele = new PrevisionDepense(user, categorie);
+                    LissageSaisonnier.integrer(modele, cycle, depense);
+                    modele.persist();
+                    misesAJour++;
+                } else if (cycle.isAfter(YearMonth.parse(modele.getDernierCycle()))) {
+                    LissageSaisonnier.integrer(modele, cycle, depense);
+                    misesAJour++;
+                }
+            }
+        }
+
+        LOGGER.infof("Spending forecast for user %s: %d model updates for cycles %s to %s",
+                user.getId(), misesAJour, debut, cible);
+        return misesAJour;
+    }
+
+    /**
+     * Prévisions des N prochains cycles pour chaque catégorie ayant un modèle.
+     *
+     * @param user Utilisateur
+     * @param mois Nombre de cycles prévus
+     * @return Une prévision par catégorie, par ordre de catégorie
+     */
+    public List<PrevisionCategorieResponse> prevoir(User user, int mois) {
+        List<PrevisionDepense> modeles = PrevisionDepense.list("user = ?1 order by categorie", user);
+
+        List<PrevisionCategorieResponse> previsions = new ArrayList<>(modeles.size());
+        for (PrevisionDepense modele : modeles) {
+            List<BigDecimal> montants = new ArrayList<>(mois);
+            for (int h = 1; h <= mois; h++) {
+                montants.add(montant(LissageSaisonnier.prevoir(modele, h)));
+            }
+
+            Double erreur = LissageSaisonnier.erreurMoyenne(modele);
+            previsions.add(PrevisionCategorieResponse.builder()
+                    .categorie(modele.getCategorie())
+                    .premierCycle(YearMonth.parse(modele.getDernierCycle()).plusMonths(1).toString())
+                    .montants(montants)
+                    .nombreCycles(modele.getNombreCycles())
+                    .erreurMoyenne(erreur != null ? montant(erreur) : null)
+                    .build());
+        }
+        return previsions;
+    }
+
+    /**
+     * Dépenses variables par catégorie et par cycle, un passage sur le grand livre en colonnes par cycle.
+     */
+    private Map<TypeTransaction, double[]> depensesParCycle(User user, YearMonth debut, int cycles) {
+        int jourPaie = user.getJourPaie();
+        LedgerColumns colonnes = ledgerColumnStore.colonnes(user.getId());
+
+        Map<TypeTransaction, double[]> depenses = new EnumMap<>(TypeTransaction.class);
+        for (int i = 0; i < cycles; i++) {
+            CycleBudgetaire cycle = CycleBudgetaire.du(jourPaie, debut.plusMonths(i));
+            TotauxParType totaux = colonnes.totaliser(cycle.debut(), cycle.fin(), null);
+            for (TypeTransaction categorie : MonthSnapshotService.VARIABLE_EXPENSE_TYPES) {
+                long debits = totaux.debits(categorie);
+                if (debits != 0) {
+                    depenses.computeIfAbsent(categorie, t -> new double[cycles])[i] = -debits / 100.0;
+                }
+            }
+        }
+        return depenses;
+    }
+
+    private static BigDecimal montant(double valeur) {
+        return BigDecimal.valueOf(valeur).setScale(MoneyConstants.MONEY_SCALE, MoneyConstants.MONEY_ROUNDING_MODE);
+    }
+}
@@ -0,0 +1,326 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.dto.PrevisionCompteResponse;
+import com.budgetmanager.dto.PrevisionResponse;
+import com.budgetmanager.entity.ChargeFixe;
+import com.budgetmanager.entity.ChargeOccurrence;
+import com.budgetmanager.entity.Compte;
+import com.budgetmanager.entity.EcritureEntite;
+import com.budgetmanager.entity.SalaireValide;
+import com.budgetmanager.entity.TypeCompte;
+import com.budgetmanager.entity.User;
+import com.budgetmanager.util.Money;
+import io.quarkus.cache.CacheResult;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.ws.rs.NotFoundException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Prévision de trésorerie sur plusieurs mois.
+ * Chaque échéance de charge fixe et chaque salaire attendu est posé comme un mouvement en
+ * centimes dans un tableau long[compte][jour], puis les soldes sont obtenus par somme cumulée.
+ * Le résultat est mis en cache par (utilisateur, version des données, date, mois).
+ */
+@ApplicationScoped
+public class PrevisionService {
+
+    public static final int MOIS_MAX = 36;
+
+    private static final Object MODIFIES = PrevisionService.class;
+
+    @Inject
+    ChargeOccurrenceService chargeOccurrenceService;
+
+    @Inject
+    TransactionSynchronizationRegistry synchronisations;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    // Version des données par utilisateur, changée à chaque écriture de ce qui entre dans la prévision
+    private final Map<UUID, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Version des données utilisées par la prévision.
+     * Le compteur de l'utilisateur change à chaque insertion, modification ou suppression d'un
+     * compte, d'une charge fixe, d'un salaire validé ou du profil faite par cette instance.
+     * Les nombres de lignes et sommes de versions lues en base couvrent en plus les
+     * modifications faites par une autre instance.
+     *
+     * @param user Utilisateur
+     * @return Clé de version, à passer à {@link #calculer}
+     */
+    public String versionDonnees(User user) {
+        AtomicLong locale = versions.get(user.getId());
+        StringBuilder version = new StringBuilder().append(locale != null ? locale.get() : 0L).append('|');
+        Object[] row = entityManager.createQuery(
+                        "select u.updatedAt, " +
+                        "(select count(c) from Compte c where c.user = u), " +
+                        "(select coalesce(sum(c.version), 0) from Compte c where c.user = u), " +
+                        "(select count(f) from ChargeFixe f where f.user = u), " +
+                        "(select coalesce(sum(f.version), 0) from ChargeFixe f where f.user = u), " +
+                        "(select count(s) from SalaireValide s where s.user = u), " +
+                        "(select coalesce(sum(s.version), 0) from SalaireValide s where s.user = u) " +
+                        "from User u where u = :user",
+                        Object[].class)
+                .setParameter("user", user)
+                .getSingleResult();
+
+        for (Object part : row) {
+            version.append(part).append('|');
+        }
+        return version.toString();
+    }
+
+    /**
+     * Change la version des données d'un utilisateur tout de suite, puis à la fin de la
+     * transaction en cours : une prévision calculée entre-temps, sur des données pas encore
+     * validées ou lues avant la validation, n'est plus servie ensuite.
+     * Appelé pour chaque écriture d'entité ; à appeler après une écriture HQL en masse sur
+     * les comptes, charges fixes ou salaires validés.
+     */
+    public void donneesModifiees(UUID userId) {
+        incrementer(userId);
+        if (synchronisations.getTransactionKey() == null) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<UUID> modifies = (Set<UUID>) synchronisations.getResource(MODIFIES);
+        if (modifies == null) {
+            Set<UUID> nouveaux = new HashSet<>();
+            synchronisations.putResource(MODIFIES, nouveaux);
+            synchronisations.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int statut) {
+                    nouveaux.forEach(PrevisionService.this::incrementer);
+                }
+            });
+            modifies = nouveaux;
+        }
+        modifies.add(userId);
+    }
+
+    void surEcriture(@Observes EcritureEntite ecriture) {
+        UUID userId = proprietaire(ecriture.entite());
+        if (userId != null) {
+            donneesModifiees(userId);
+        }
+    }
+
+    private static UUID proprietaire(Object entite) {
+        if (entite instanceof User user) {
+            return user.getId();
+        } else if (entite instanceof Compte compte) {
+            return compte.getUser().getId();
+        } else if (entite instanceof ChargeFixe charge) {
+            return charge.getUser().getId();
+        } else if (entite instanceof SalaireValide salaire) {
+            return salaire.getUser().getId();
+        }
+        return null;
+    }
+
+    private void incrementer(UUID userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Projette le solde de chaque compte actif jour par jour, de today à today + mois.
+     *
+     * @param userId Utilisateur
+     * @param version Version des données ({@link #versionDonnees}), clé de cache uniquement
+     * @param today Premier jour (solde actuel)
+     * @param mois Nombre de mois projetés
+     * @return Soldes projetés
+     */
+    @CacheResult(cacheName = "previsions")
+    public PrevisionResponse calculer(UUID userId, String version, LocalDate today, int mois) {
+        User user = User.findById(userId);
+        if (user == null) {
+            throw new NotFoundException("Utilisateur non trouvé");
+        }
+
+        LocalDate fin = today.plusMonths(mois);
+        int jours = (int) ChronoUnit.DAYS.between(today, fin);
+
+        List<Compte> comptes = Compte.list("user = ?1 and actif = true order by nom", user);
+        Map<UUID, Integer> indexComptes = new HashMap<>(comptes.size() * 2);
+        long[][] soldes = new long[comptes.size()][jours + 1];
+        for (int i = 0; i < comptes.size(); i++) {
+            indexComptes.put(comptes.get(i).getId(), i);
+            soldes[i][0] = centimes(comptes.get(i).getSoldeTotal());
+        }
+
+        poserCharges(user, today, fin, indexComptes, soldes);
+        poserSalaires(user, today, fin, comptes, soldes);
+
+        // Running sum: each day's movements on top of the previous day's balance
+        long[] totaux = new long[jours + 1];
+        for (long[] compte : soldes) {
+            for (int jour = 1; jour <= jours; jour++) {
+                compte[jour] += compte[jour - 1];
+            }
+            for (int jour = 0; jour <= jours; jour++) {
+                totaux[jour] += compte[jour];
+            }
+        }
+
+        List<PrevisionCompteResponse> previsions = new ArrayList<>(comptes.size());
+        for (int i = 0; i < comptes.size(); i++) {
+            Compte compte = comptes.get(i);
+            int jourMin = indexMin(soldes[i]);
+            previsions.add(PrevisionCompteResponse.builder()
+                    .compteId(compte.getId())
+                    .nom(compte.getNom())
+                    .type(compte.getType())
+                    .soldeInitial(euros(soldes[i][0]))
+                    .soldeFinal(euros(soldes[i][jours]))
+                    .soldeMin(euros(soldes[i][jourMin]))
+                    .dateSoldeMin(today.plusDays(jourMin))
+                    .soldes(euros(soldes[i]))
+                    .build());
+        }
+
+        int jourMinTotal = indexMin(totaux);
+        return PrevisionResponse.builder()
+                .dateDebut(today)
+                .dateFin(fin)
+                .mois(mois)
+                .comptes(previsions)
+                .soldesTotaux(euros(totaux))
+                .soldeTotalMin(euros(totaux[jourMinTotal]))
+                .dateSoldeTotalMin(today.plusDays(jourMinTotal))
+                .build();
+    }
+
+    /**
+     * Échéances de charges fixes après today, sauf celles déjà passées en transaction
+     * (par exemple à la validation du salaire) dont le solde tient déjà compte.
+     */
+    private void poserCharges(User user, LocalDate today, LocalDate fin,
+                              Map<UUID, Integer> indexComptes, long[][] soldes) {
+        List<ChargeFixe> charges = entityManager.createQuery(
+                        "select c from ChargeFixe c join fetch c.compte " +
+                        "where c.user = :user and c.actif = true and c.dateDebut <= :fin " +
+                        "and (c.dateFin is null or c.dateFin > :today)",
+                        ChargeFixe.class)
+                .setParameter("user", user)
+                .setParameter("today", today)
+                .setParameter("fin", fin)
+                .getResultList();
+        if (charges.isEmpty()) {
+            return;
+        }
+
+        YearMonth premierMois = YearMonth.from(today);
+        Set<String> passees = chargeOccurrenceService.findCles(
+                charges.stream().map(ChargeFixe::getId).toList(), premierMois.toString());
+
+        for (ChargeFixe charge : charges) {
+            Integer index = indexComptes.get(charge.getCompte().getId());
+            if (index == null) {
+                continue;
+            }
+            long montant = centimes(charge.getMontant());
+            for (LocalDate date : ChargeRattrapageService.echeancesManquees(charge, user.getJourPaie(), premierMois, fin)) {
+                if (date.isAfter(today)
+                        && !passees.contains(ChargeOccurrenceService.cle(charge.getId(), ChargeOccurrence.cycleOf(date)))) {
+                    soldes[index][(int) ChronoUnit.DAYS.between(today, date)] -= montant;
+                }
+            }
+        }
+    }
+
+    /**
+     * Salaire attendu au jour de paie de chaque mois, sur le compte qui le reçoit à la validation
+     * (compte principal des charges fixes, sinon premier compte courant), sauf mois déjà validés.
+     */
+    private void poserSalaires(User user, LocalDate today, LocalDate fin, List<Compte> comptes, long[][] soldes) {
+        if (user.getSalaireMensuelNet() == null || user.getJourPaie() == null) {
+            return;
+        }
+
+        int index = indexCompteSalaire(comptes);
+        if (index < 0) {
+            return;
+        }
+
+        Set<String> moisValides = SalaireValide.<SalaireValide>list("user = ?1 and mois >= ?2",
+                        user, YearMonth.from(today).toString())
+                .stream()
+                .map(SalaireValide::getMois)
+                .collect(Collectors.toSet());
+
+        long salaire = centimes(user.getSalaireMensuelNet());
+        for (YearMonth mois = YearMonth.from(today); !mois.isAfter(YearMonth.from(fin)); mois = mois.plusMonths(1)) {
+            LocalDate date = mois.atDay(Math.min(user.getJourPaie(), mois.lengthOfMonth()));
+            if (date.isAfter(today) && !date.isAfter(fin) && !moisValides.contains(mois.toString())) {
+                soldes[index][(int) ChronoUnit.DAYS.between(today, date)] += salaire;
+            }
+        }
+    }
+
+    private static int indexCompteSalaire(List<Compte> comptes) {
+        int compteCourant = -1;
+        for (int i = 0; i < comptes.size(); i++) {
+            Compte compte = comptes.get(i);
+            if (Boolean.TRUE.equals(compte.getPrincipalChargesFixes())) {
+                return i;
+            }
+            if (compteCourant < 0 && compte.getType() == TypeCompte.COMPTE_COURANT) {
+                compteCourant = i;
+            }
+        }
+        return compteCourant;
+    }
+
+    private static int indexMin(long[] valeurs) {
+        int min = 0;
+        for (int i = 1; i < valeurs.length; i++) {
+            if (valeurs[i] < valeurs[min]) {
+                min = i;
+            }
+        }
+        return min;
+    }
+
+    private static long centimes(BigDecimal montant) {
+        return montant == null ? 0L : Money.toCents(montant);
+    }
+
+    private static BigDecimal euros(long centimes) {
+        return Money.toBigDecimal(centimes);
+    }
+
+    private static List<BigDecimal> euros(long[] centimes) {
+        List<BigDecimal> montants = new ArrayList<>(centimes.length);
+        for (long valeur : centimes) {
+            montants.add(euros(valeur));
+        }
+        return montants;
+    }
+}
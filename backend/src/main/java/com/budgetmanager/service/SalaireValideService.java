@@ -3,8 +3,11 @@ package com.budgetmanager.service;
 import com.budgetmanager.entity.Compte;
 import com.budgetmanager.entity.SalaireValide;
 import com.budgetmanager.entity.User;
+import io.opentelemetry.instrumentation.annotations.SpanAttribute;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
 import java.math.BigDecimal;
@@ -18,6 +21,9 @@ import java.util.Optional;
 @ApplicationScoped
 public class SalaireValideService {
 
+    @Inject
+    PrevisionService previsionService;
+
     /**
      * Trouve un salaire validé pour un utilisateur et un mois donné
      *
@@ -36,6 +42,7 @@ public class SalaireValideService {
      * @param mois Le mois au format YYYY-MM
      * @return true si un salaire existe pour ce mois
      */
+    @WithSpan
     public boolean existsForMois(User user, String mois) {
         return SalaireValide.count("user = ?1 and mois = ?2", user, mois) > 0;
     }
@@ -63,8 +70,10 @@ public class SalaireValideService {
      * @return Le salaire validé créé ou mis à jour
      */
     @Transactional
-    public SalaireValide createOrUpdate(User user, String mois, BigDecimal montantSalaire,
-                                        LocalDate dateReception, Compte compte, String description) {
+    @WithSpan
+    public SalaireValide createOrUpdate(User user, @SpanAttribute("budget.mois") String mois,
+                                        BigDecimal montantSalaire, LocalDate dateReception, Compte compte,
+                                        String description) {
         Optional<SalaireValide> existingOpt = findByUserAndMois(user, mois);
 
         if (existingOpt.isPresent()) {
@@ -103,6 +112,11 @@ public class SalaireValideService {
      */
     @Transactional
     public boolean deleteByMois(User user, String mois) {
-        return SalaireValide.delete("user = ?1 and mois = ?2", user, mois) > 0;
+        // Suppression en masse : la prévision n'est pas prévenue par les entités
+        boolean supprime = SalaireValide.delete("user = ?1 and mois = ?2", user, mois) > 0;
+        if (supprime) {
+            previsionService.donneesModifiees(user.getId());
+        }
+        return supprime;
     }
 }
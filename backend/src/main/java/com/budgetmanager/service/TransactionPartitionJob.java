@@ -0,0 +1,97 @@
+package com.budgetmanager.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Création des partitions annuelles de la table transactions (PostgreSQL, migration V4).
+ * Au démarrage puis chaque jour : l'année en cours et les budget.transactions.partitions.annees-avance
+ * suivantes, plus chaque année tombée dans la partition par défaut (import d'un ancien relevé),
+ * dont les lignes sont déplacées dans leur nouvelle partition. Sans effet sur H2.
+ */
+@ApplicationScoped
+public class TransactionPartitionJob {
+
+    private static final Logger LOGGER = Logger.getLogger(TransactionPartitionJob.class);
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    @ConfigProperty(name = "budget.transactions.partitions.annees-avance", defaultValue = "1")
+    int anneesAvance;
+
+    void onStart(@Observes StartupEvent event) {
+        planifie();
+    }
+
+    @Scheduled(identity = "transactions-partitions", cron = "{budget.transactions.partitions.cron}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void planifie() {
+        try {
+            preparer(LocalDate.now());
+        } catch (RuntimeException e) {
+            // La partition par défaut reçoit les lignes en attendant le passage suivant
+            LOGGER.errorf(e, "Could not create transaction partitions, will be retried on next run");
+        }
+    }
+
+    /**
+     * Crée les partitions manquantes à la date donnée.
+     *
+     * @param today Date de référence
+     * @return Nombre de partitions créées (0 hors PostgreSQL)
+     */
+    public int preparer(LocalDate today) {
+        if (!"postgresql".equals(dbKind)) {
+            return 0;
+        }
+
+        return QuarkusTransaction.requiringNew().call(() -> {
+            SortedSet<Integer> annees = new TreeSet<>(anneesAPreparer(today, anneesAvance));
+            for (Object annee : entityManager.createNativeQuery(
+                            "select distinct cast(extract(year from date_transaction) as integer) from transactions_defaut")
+                    .getResultList()) {
+                annees.add(((Number) annee).intValue());
+            }
+
+            int total = 0;
+            for (int annee : annees) {
+                Boolean creee = (Boolean) entityManager.createNativeQuery("select creer_partition_transactions(?1)")
+                        .setParameter(1, annee)
+                        .getSingleResult();
+                if (Boolean.TRUE.equals(creee)) {
+                    LOGGER.infof("Created transaction partition for %d", annee);
+                    total++;
+                }
+            }
+            return total;
+        });
+    }
+
+    /**
+     * @return Années dont la partition doit exister : l'année en cours et les suivantes
+     */
+    static List<Integer> anneesAPreparer(LocalDate today, int anneesAvance) {
+        List<Integer> annees = new ArrayList<>();
+        for (int annee = today.getYear(); annee <= today.getYear() + anneesAvance; annee++) {
+            annees.add(annee);
+        }
+        return annees;
+    }
+}
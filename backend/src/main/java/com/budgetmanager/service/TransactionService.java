@@ -1,8 +1,18 @@
 package com.budgetmanager.service;
 
+import com.budgetmanager.dto.ParsedTransactionDTO;
 import com.budgetmanager.entity.*;
+import com.budgetmanager.util.CycleBudgetaire;
 import com.budgetmanager.util.DateUtil;
+import com.budgetmanager.util.FingerprintUtil;
 import com.budgetmanager.util.LazyLoadingUtil;
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.instrumentation.annotations.SpanAttribute;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
@@ -13,7 +23,12 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -24,9 +39,26 @@ public class TransactionService {
 
     private static final Logger LOGGER = Logger.getLogger(TransactionService.class);
 
+    /**
+     * Nombre maximum d'empreintes par requête "in" lors de la détection de doublons
+     */
+    private static final int EMPREINTES_PAR_REQUETE = 500;
+
     @Inject
     SalaireValideService salaireValideService;
 
+    @Inject
+    CategorieMarchandService categorieMarchandService;
+
+    @Inject
+    ChargeOccurrenceService chargeOccurrenceService;
+
+    @Inject
+    ChargeRattrapageService chargeRattrapageService;
+
+    @Inject
+    Tracer tracer;
+
     /**
      * Récupère les transactions avec filtres optionnels.
      *
@@ -39,6 +71,7 @@ public class TransactionService {
      * @param limit Limite de résultats
      * @return Liste de transactions
      */
+    @WithSpan
     public List<Transaction> getTransactionsFiltered(
             User user,
             String dateDebut,
@@ -97,6 +130,7 @@ public class TransactionService {
      * @param dateTransaction Date de transaction (optionnel)
      * @return Transaction créée
      */
+    @WithSpan
     public Transaction createTransaction(
             User user,
             UUID compteId,
@@ -129,8 +163,12 @@ public class TransactionService {
         transaction.setDescription(description);
         transaction.setType(type);
         transaction.setDateTransaction(DateUtil.parseDateOrNow(dateTransaction));
+        transaction.setEmpreinte(FingerprintUtil.ofContent(transaction.getDateTransaction(), montant, description));
         transaction.persist();
 
+        // Apprendre la catégorie choisie pour ce marchand
+        categorieMarchandService.enregistrer(user, description, type);
+
         // Mettre à jour le solde du compte
         compte.setSoldeTotal(compte.getSoldeTotal().add(montant));
 
@@ -145,19 +183,68 @@ public class TransactionService {
         return transaction;
     }
 
+    /**
+     * Marque les lignes d'un relevé déjà importées sur ce compte.
+     * Une ligne avec référence bancaire est comparée par référence et par contenu,
+     * pour reconnaître aussi un relevé importé auparavant depuis un format sans référence (PDF, CSV).
+     *
+     * @param compteId ID du compte cible de l'import
+     * @param lignes Lignes parsées, modifiées en place (champ doublon)
+     * @return Nombre de doublons détectés
+     */
+    @WithSpan
+    public int marquerDoublons(UUID compteId, List<ParsedTransactionDTO> lignes) {
+        List<String> empreintes = new ArrayList<>(lignes.size() * 2);
+        for (ParsedTransactionDTO ligne : lignes) {
+            LocalDate date = DateUtil.parseDate(ligne.getDate());
+            empreintes.add(FingerprintUtil.ofContent(date, ligne.getMontant(), ligne.getDescription()));
+            if (ligne.getReference() != null && !ligne.getReference().isBlank()) {
+                empreintes.add(FingerprintUtil.ofReference(ligne.getReference()));
+            }
+        }
+
+        Set<String> existantes = new HashSet<>();
+        for (int i = 0; i < empreintes.size(); i += EMPREINTES_PAR_REQUETE) {
+            List<String> lot = empreintes.subList(i, Math.min(i + EMPREINTES_PAR_REQUETE, empreintes.size()));
+            existantes.addAll(Transaction.getEntityManager()
+                    .createQuery("select t.empreinte from Transaction t where t.compte.id = ?1 and t.empreinte in ?2",
+                            String.class)
+                    .setParameter(1, compteId)
+                    .setParameter(2, lot)
+                    .getResultList());
+        }
+
+        int doublons = 0;
+        int index = 0;
+        for (ParsedTransactionDTO ligne : lignes) {
+            boolean doublon = existantes.contains(empreintes.get(index++));
+            if (ligne.getReference() != null && !ligne.getReference().isBlank()) {
+                doublon |= existantes.contains(empreintes.get(index++));
+            }
+            ligne.setDoublon(doublon);
+            if (doublon) {
+                doublons++;
+            }
+        }
+        return doublons;
+    }
+
     /**
      * Met à jour une transaction existante.
      *
      * @param transactionId ID de la transaction
      * @param description Nouvelle description (optionnel)
      * @param montant Nouveau montant (optionnel)
+     * @param type Nouveau type (optionnel)
      * @param dateTransaction Nouvelle date (optionnel)
      * @return Transaction mise à jour
      */
+    @WithSpan
     public Transaction updateTransaction(
             UUID transactionId,
             String description,
             BigDecimal montant,
+            TypeTransaction type,
             String dateTransaction
     ) {
         Transaction transaction = Transaction.findById(transactionId);
@@ -167,6 +254,8 @@ public class TransactionService {
 
         // Sauvegarder l'ancien montant pour ajuster le solde
         BigDecimal ancienMontant = transaction.getMontant();
+        String ancienneDescription = transaction.getDescription();
+        TypeTransaction ancienType = transaction.getType();
 
         // Mise à jour des champs
         if (description != null) {
@@ -193,10 +282,20 @@ public class TransactionService {
             transaction.setMontant(montant);
         }
 
+        if (type != null) {
+            transaction.setType(type);
+        }
+
         if (dateTransaction != null) {
             transaction.setDateTransaction(DateUtil.parseDate(dateTransaction));
         }
 
+        // Recatégorisation : mettre à jour le mémo marchand -> catégorie
+        if (transaction.getType() != ancienType || !Objects.equals(transaction.getDescription(), ancienneDescription)) {
+            categorieMarchandService.recategoriser(transaction.getUser(),
+                    ancienneDescription, ancienType, transaction.getDescription(), transaction.getType());
+        }
+
         // Initialiser les relations lazy
         initializeTransactionRelations(transaction);
 
@@ -208,6 +307,7 @@ public class TransactionService {
      *
      * @param transactionId ID de la transaction
      */
+    @WithSpan
     public void deleteTransaction(UUID transactionId) {
         Transaction transaction = Transaction.findById(transactionId);
         if (transaction == null) {
@@ -233,6 +333,12 @@ public class TransactionService {
             }
         }
 
+        // A deleted charge fixe transaction frees its occurrence: the charge becomes due again
+        ChargeOccurrence occurrence = ChargeOccurrence.find("transaction", transaction).firstResult();
+        if (occurrence != null) {
+            chargeRattrapageService.reporter(occurrence.getChargeFixe(), transaction.getDateTransaction());
+        }
+
         transaction.delete();
     }
 
@@ -248,10 +354,11 @@ public class TransactionService {
      * @param dateReception Date de réception (optionnel)
      * @return Transaction créée
      */
+    @WithSpan
     public Transaction validerSalaire(
             User user,
             UUID compteId,
-            String mois,
+            @SpanAttribute("budget.mois") String mois,
             BigDecimal montant,
             TypeTransaction type,
             String description,
@@ -293,8 +400,19 @@ public class TransactionService {
                     descriptionFinal
             );
 
-            // Traiter automatiquement les charges fixes
-            processChargesFixes(user, mois, transaction.getDateTransaction());
+            // Traiter automatiquement les charges fixes (appel interne : span explicite)
+            Span span = tracer.spanBuilder("TransactionService.processChargesFixes")
+                    .setAttribute("budget.mois", mois)
+                    .startSpan();
+            try (Scope ignored = span.makeCurrent()) {
+                processChargesFixes(user, mois, transaction.getDateTransaction());
+            } catch (RuntimeException e) {
+                span.recordException(e);
+                span.setStatus(StatusCode.ERROR);
+                throw e;
+            } finally {
+                span.end();
+            }
         }
 
         // Initialiser les relations lazy
@@ -403,19 +521,15 @@ public class TransactionService {
         LOGGER.infof("Processing charges fixes for budget cycle %s to %s (salary validated on %s)",
                 cycleStart, cycleEnd, dateValidation);
 
-        // Find all active charges that are valid during this cycle period
+        // Active charges valid during this cycle that were not already applied for it
         // A charge is valid if:
         // - It started on or before the cycle ends (dateDebut <= cycleEnd)
         // - It hasn't ended yet OR it ends on or after the cycle starts (dateFin is null OR dateFin >= cycleStart)
-        List<ChargeFixe> chargesFixes = ChargeFixe.find(
-                "user = ?1 and actif = true " +
-                "and dateDebut <= ?2 " +
-                "and (dateFin is null or dateFin >= ?3)",
-                user, cycleEnd, cycleStart
-        ).list();
+        List<ChargeFixe> chargesFixes = chargeOccurrenceService.findChargesNonPassees(user, cycleStart, cycleEnd);
 
-        LOGGER.infof("Found %d active charges fixes for this cycle", chargesFixes.size());
+        LOGGER.infof("Found %d active charges fixes not yet applied for this cycle", chargesFixes.size());
 
+        Map<ChargeFixe, LocalDate> echeancesPassees = new IdentityHashMap<>();
         for (ChargeFixe charge : chargesFixes) {
             // Calculate the actual transaction date based on jourPrelevement
             // The charge should fall within the budget cycle
@@ -423,40 +537,45 @@ public class TransactionService {
 
             // Only process if the charge date falls within the cycle
             if (chargeDate != null) {
-                // Check if a transaction already exists for this charge in this cycle
-                long existingCount = Transaction.count(
-                        "user = ?1 and type = ?2 and description like ?3 and dateTransaction >= ?4 and dateTransaction <= ?5",
-                        user,
-                        charge.getCategorie(),
-                        "%" + charge.getNom() + "%",
-                        cycleStart,
-                        cycleEnd
-                );
-
-                if (existingCount == 0) {
-                    // Create the transaction for the recurring charge
-                    Transaction chargeTransaction = new Transaction();
-                    chargeTransaction.setUser(user);
-                    chargeTransaction.setCompte(charge.getCompte());
-                    chargeTransaction.setMontant(charge.getMontant().negate()); // Negative amount
-                    chargeTransaction.setDescription(charge.getNom() + " - " + mois);
-                    chargeTransaction.setType(charge.getCategorie());
-                    chargeTransaction.setDateTransaction(chargeDate);
-                    chargeTransaction.persist();
-
-                    // Update account balance
-                    charge.getCompte().setSoldeTotal(charge.getCompte().getSoldeTotal().add(chargeTransaction.getMontant()));
-
-                    LOGGER.infof("Created charge fixe transaction: %s for %s on %s",
-                            charge.getNom(), chargeTransaction.getMontant(), chargeDate);
-                } else {
-                    LOGGER.infof("Charge fixe %s already exists in this cycle, skipping", charge.getNom());
-                }
+                Transaction chargeTransaction = createChargeTransaction(charge, chargeDate, mois);
+                charge.getCompte().setSoldeTotal(charge.getCompte().getSoldeTotal().add(chargeTransaction.getMontant()));
+                echeancesPassees.put(charge, chargeDate);
             } else {
                 LOGGER.infof("Charge fixe %s (day %d) does not fall within cycle %s to %s, skipping",
                         charge.getNom(), charge.getJourPrelevement(), cycleStart, cycleEnd);
             }
         }
+
+        // Same next due date as after a catch-up run: the charges applied here are no longer due
+        chargeRattrapageService.avancer(echeancesPassees);
+    }
+
+    /**
+     * Crée la transaction d'une échéance de charge fixe et enregistre l'occurrence (charge, cycle).
+     * Le solde du compte n'est pas modifié : à l'appelant de l'appliquer.
+     *
+     * @param charge Charge fixe
+     * @param chargeDate Date de prélèvement
+     * @param label Mois affiché dans la description ("YYYY-MM")
+     * @return Transaction créée
+     */
+    private Transaction createChargeTransaction(ChargeFixe charge, LocalDate chargeDate, String label) {
+        Transaction chargeTransaction = new Transaction();
+        chargeTransaction.setUser(charge.getUser());
+        chargeTransaction.setCompte(charge.getCompte());
+        chargeTransaction.setMontant(charge.getMontant().negate()); // Negative amount
+        chargeTransaction.setDescription(charge.getNom() + " - " + label);
+        chargeTransaction.setType(charge.getCategorie());
+        chargeTransaction.setDateTransaction(chargeDate);
+        chargeTransaction.persist();
+
+        // Claim the (charge, cycle) slot: a concurrent request fails on the unique key at flush
+        chargeOccurrenceService.enregistrer(charge, chargeDate, chargeTransaction);
+
+        LOGGER.infof("Created charge fixe transaction: %s for %s on %s",
+                charge.getNom(), chargeTransaction.getMontant(), chargeDate);
+
+        return chargeTransaction;
     }
 
     /**
@@ -494,166 +613,44 @@ public class TransactionService {
     }
 
     /**
-     * Vérifie et traite les charges fixes dues pour le cycle budgétaire en cours.
+     * Vérifie et traite les charges fixes dues pour le cycle budgétaire en cours,
+     * en rattrapant les échéances des cycles précédents manquées (application non ouverte).
      * Le cycle va du jour de paie au jour de paie suivant - 1.
-     * Appelé au chargement du dashboard pour s'assurer que les charges sont traitées.
+     * Les charges sont normalement passées par ChargeFixeBatchJob ; cet appel
+     * sert au déclenchement manuel (POST /api/charges-fixes/process).
      *
      * @param user Utilisateur
      * @return Liste des transactions créées
      */
+    @WithSpan
+    @Timed(value = "budget.charges.process", description = "Passage manuel des charges fixes dues",
+            histogram = true)
     public List<Transaction> checkAndProcessDueCharges(User user) {
         LocalDate today = LocalDate.now();
-        int jourPaie = user.getJourPaie();
-
-        // Calculate budget cycle boundaries based on user's pay day
-        // Cycle runs from jourPaie to jourPaie - 1 of next month
-        LocalDate cycleStart;
-        LocalDate cycleEnd;
-
-        if (today.getDayOfMonth() >= jourPaie) {
-            // We're after pay day this month - cycle is this month's pay day to next month's pay day - 1
-            cycleStart = today.withDayOfMonth(Math.min(jourPaie, today.lengthOfMonth()));
-            cycleEnd = today.plusMonths(1).withDayOfMonth(Math.min(jourPaie - 1, today.plusMonths(1).lengthOfMonth()));
-        } else {
-            // We're before pay day this month - cycle is last month's pay day to this month's pay day - 1
-            cycleStart = today.minusMonths(1).withDayOfMonth(Math.min(jourPaie, today.minusMonths(1).lengthOfMonth()));
-            cycleEnd = today.withDayOfMonth(Math.min(jourPaie - 1, today.lengthOfMonth()));
-        }
-
-        String cycleLabel = cycleStart.getYear() + "-" + String.format("%02d", cycleStart.getMonthValue());
+        CycleBudgetaire cycle = CycleBudgetaire.courant(user.getJourPaie(), today);
 
         LOGGER.infof("Checking due charges for user %s - Budget cycle: %s to %s (today: %s)",
-                user.getId(), cycleStart, cycleEnd, today);
-
-        // Find all active charges
-        List<ChargeFixe> chargesFixes = ChargeFixe.find(
-                "user = ?1 and actif = true " +
-                "and dateDebut <= ?2 " +
-                "and (dateFin is null or dateFin >= ?3)",
-                user, cycleEnd, cycleStart
-        ).list();
+                user.getId(), cycle.debut(), cycle.fin(), today);
 
-        LOGGER.infof("Found %d active charges fixes", chargesFixes.size());
+        // Active charges whose next due date is reached (index on prochaine_echeance)
+        List<ChargeFixe> chargesFixes = chargeOccurrenceService.findChargesDues(user, today);
 
-        List<Transaction> createdTransactions = new ArrayList<>();
+        LOGGER.infof("Found %d active charges fixes due", chargesFixes.size());
 
-        for (ChargeFixe charge : chargesFixes) {
-            // Calculate the charge date within the current budget cycle
-            LocalDate chargeDate = calculateChargeDateInBudgetCycle(cycleStart, cycleEnd, charge.getJourPrelevement());
-
-            if (chargeDate == null) {
-                LOGGER.infof("Charge %s (day %d) does not fall within cycle %s to %s, skipping",
-                        charge.getNom(), charge.getJourPrelevement(), cycleStart, cycleEnd);
-                continue;
-            }
-
-            // Check if the charge date has passed (or is today)
-            if (!chargeDate.isAfter(today)) {
-                // Check frequency to determine if charge should be processed this cycle
-                if (!shouldProcessChargeThisCycle(charge, cycleStart)) {
-                    LOGGER.infof("Charge %s skipped due to frequency %s",
-                            charge.getNom(), charge.getFrequence());
-                    continue;
-                }
+        // Every missed occurrence since the last applied one, not only this cycle's
+        List<Transaction> createdTransactions = chargeRattrapageService.rattraper(chargesFixes, today);
+        createdTransactions.forEach(this::initializeTransactionRelations);
 
-                // Check if a transaction already exists for this charge in this budget cycle
-                long existingCount = Transaction.count(
-                        "user = ?1 and type = ?2 and description like ?3 " +
-                        "and dateTransaction >= ?4 and dateTransaction <= ?5",
-                        user,
-                        charge.getCategorie(),
-                        "%" + charge.getNom() + "%",
-                        cycleStart,
-                        cycleEnd
-                );
-
-                if (existingCount == 0) {
-                    // Create the transaction for the recurring charge
-                    Transaction chargeTransaction = new Transaction();
-                    chargeTransaction.setUser(user);
-                    chargeTransaction.setCompte(charge.getCompte());
-                    chargeTransaction.setMontant(charge.getMontant().negate()); // Negative amount
-                    chargeTransaction.setDescription(charge.getNom() + " - " + cycleLabel);
-                    chargeTransaction.setType(charge.getCategorie());
-                    chargeTransaction.setDateTransaction(chargeDate);
-                    chargeTransaction.persist();
-
-                    // Update account balance
-                    charge.getCompte().setSoldeTotal(
-                            charge.getCompte().getSoldeTotal().add(chargeTransaction.getMontant())
-                    );
-
-                    // Initialize lazy relations
-                    initializeTransactionRelations(chargeTransaction);
-
-                    createdTransactions.add(chargeTransaction);
-
-                    LOGGER.infof("Created charge fixe transaction: %s for %s on %s",
-                            charge.getNom(), chargeTransaction.getMontant(), chargeDate);
-                } else {
-                    LOGGER.infof("Charge fixe %s already processed this cycle, skipping",
-                            charge.getNom());
-                }
-            } else {
-                LOGGER.infof("Charge %s (day %d, date %s) not yet due (today is %s)",
-                        charge.getNom(), charge.getJourPrelevement(), chargeDate, today);
-            }
+        // Flush now so that a concurrent request applying the same occurrences fails here (409)
+        // rather than at commit
+        if (!createdTransactions.isEmpty()) {
+            Transaction.flush();
         }
 
         LOGGER.infof("Processed %d new charge transactions", createdTransactions.size());
         return createdTransactions;
     }
 
-    /**
-     * Calculate the date when a charge should be applied within a budget cycle.
-     *
-     * @param cycleStart Start of the budget cycle
-     * @param cycleEnd End of the budget cycle
-     * @param jourPrelevement Day of month when the charge is applied (1-31)
-     * @return The charge date if it falls within the cycle, null otherwise
-     */
-    private LocalDate calculateChargeDateInBudgetCycle(LocalDate cycleStart, LocalDate cycleEnd, int jourPrelevement) {
-        // Try the charge day in the cycle start month
-        LocalDate chargeDate = cycleStart.withDayOfMonth(
-                Math.min(jourPrelevement, cycleStart.lengthOfMonth())
-        );
-
-        // If it falls within the cycle, use it
-        if (!chargeDate.isBefore(cycleStart) && !chargeDate.isAfter(cycleEnd)) {
-            return chargeDate;
-        }
-
-        // Otherwise, try the next month
-        LocalDate nextMonth = cycleStart.plusMonths(1);
-        chargeDate = nextMonth.withDayOfMonth(
-                Math.min(jourPrelevement, nextMonth.lengthOfMonth())
-        );
-
-        if (!chargeDate.isBefore(cycleStart) && !chargeDate.isAfter(cycleEnd)) {
-            return chargeDate;
-        }
-
-        // Charge doesn't fall in this cycle
-        return null;
-    }
-
-    /**
-     * Détermine si une charge doit être traitée ce cycle selon sa fréquence.
-     */
-    private boolean shouldProcessChargeThisCycle(ChargeFixe charge, LocalDate cycleStart) {
-        LocalDate dateDebut = charge.getDateDebut();
-        int monthsSinceStart = (cycleStart.getYear() - dateDebut.getYear()) * 12
-                + (cycleStart.getMonthValue() - dateDebut.getMonthValue());
-
-        return switch (charge.getFrequence()) {
-            case MENSUELLE -> true;
-            case BIMESTRIELLE -> monthsSinceStart % 2 == 0;
-            case TRIMESTRIELLE -> monthsSinceStart % 3 == 0;
-            case SEMESTRIELLE -> monthsSinceStart % 6 == 0;
-            case ANNUELLE -> monthsSinceStart % 12 == 0;
-        };
-    }
-
     /**
      * Vérifie si un type de transaction est un revenu.
      *
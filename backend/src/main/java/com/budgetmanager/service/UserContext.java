@@ -3,6 +3,7 @@ package com.budgetmanager.service;
 import com.budgetmanager.entity.User;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.ws.rs.NotFoundException;
+import org.hibernate.jpa.HibernateHints;
 
 /**
  * Service pour gérer le contexte utilisateur dans la requête.
@@ -24,7 +25,10 @@ public class UserContext {
      */
     public User getCurrentUser() {
         if (currentUser == null) {
-            currentUser = User.find("order by createdAt").firstResult();
+            // Query cache: the profile is read on every request and almost never changes
+            currentUser = User.find("order by createdAt")
+                    .withHint(HibernateHints.HINT_CACHEABLE, true)
+                    .firstResult();
             if (currentUser == null) {
                 throw new NotFoundException("Aucun profil utilisateur trouvé");
             }
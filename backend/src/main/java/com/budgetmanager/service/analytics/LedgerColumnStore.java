@@ -0,0 +1,253 @@
+package com.budgetmanager.service.analytics;
+
+import com.budgetmanager.entity.EcritureEntite;
+import com.budgetmanager.entity.Transaction;
+import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.service.analytics.LedgerColumns.Ligne;
+import com.budgetmanager.service.archive.ArchivedTransaction;
+import com.budgetmanager.service.archive.TransactionArchiveService;
+import com.budgetmanager.util.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.jboss.logging.Logger;
+
+import java.lang.ref.SoftReference;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grands livres en colonnes (voir LedgerColumns), un par utilisateur, chargés à la première
+ * lecture : une requête de projection sur la table, sans entité, plus l'archive froide. Le
+ * chargement se fait dans la transaction de l'appelant (une seule connexion), ou dans une
+ * transaction à lui s'il n'y en a pas.
+ * <p>
+ * Tenus à jour par les écritures : chaque insertion, modification et suppression de transaction
+ * arrive en événement EcritureEntite (EcritureEntiteListener, déclaré sur l'entité) et est
+ * appliquée au livre quand la transaction base est validée (rien n'est appliqué en cas d'annulation). Une lecture dans une transaction en cours voit
+ * ses propres écritures ; un livre lu dans une transaction qui a écrit pour cet utilisateur
+ * n'est pas mis en cache. Les suppressions en masse (HQL) ne passent pas par les entités :
+ * leurs appelants invalident le livre avec {@link #invaliderApresCommit(UUID)}.
+ * <p>
+ * Les livres sont tenus par des références faibles (SoftReference) : le ramasse-miettes les
+ * libère sous pression mémoire et la lecture suivante les recharge.
+ */
+@ApplicationScoped
+public class LedgerColumnStore {
+
+    private static final Logger LOGGER = Logger.getLogger(LedgerColumnStore.class);
+    private static final Object ECRITURES = LedgerColumnStore.class;
+
+    @Inject
+    TransactionSynchronizationRegistry synchronisations;
+
+    @Inject
+    TransactionArchiveService archiveService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    private final Map<UUID, Entree> livres = new ConcurrentHashMap<>();
+    private Counter chargements;
+
+    /**
+     * Livre d'un utilisateur et nombre d'écritures validées depuis le démarrage ; un chargement
+     * n'est gardé que si aucune écriture n'a été validée pendant sa lecture.
+     */
+    private record Entree(long generation, SoftReference<LedgerColumns> colonnes) {
+
+        LedgerColumns valeur() {
+            return colonnes != null ? colonnes.get() : null;
+        }
+
+        static long generation(Entree entree) {
+            return entree != null ? entree.generation() : 0;
+        }
+    }
+
+    /**
+     * Écritures de la transaction base en cours, par utilisateur.
+     */
+    private static final class Ecritures {
+        final Map<UUID, Map<UUID, Ligne>> lignes = new HashMap<>();
+        final Set<UUID> inserees = new HashSet<>();
+        final Set<UUID> invalides = new HashSet<>();
+    }
+
+    @PostConstruct
+    void initMetrics() {
+        chargements = Counter.builder("budget.ledger.loads")
+                .description("Chargements d'un grand livre en colonnes")
+                .register(registry);
+    }
+
+    /**
+     * Grand livre d'un utilisateur, chargé au besoin.
+     *
+     * @return Colonnes à jour, écritures de la transaction en cours comprises
+     */
+    public LedgerColumns colonnes(UUID userId) {
+        Ecritures enCours = null;
+        if (synchronisations.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            // Comme avant une requête : les écritures en attente sont relevées au flush
+            entityManager.flush();
+            enCours = (Ecritures) synchronisations.getResource(ECRITURES);
+        }
+        if (enCours != null && enCours.invalides.contains(userId)) {
+            // Suppression en masse non validée : lecture dans la transaction, sans mise en cache
+            return charger(userId);
+        }
+
+        Map<UUID, Ligne> modifications = enCours != null ? enCours.lignes.get(userId) : null;
+        Entree entree = livres.get(userId);
+        LedgerColumns colonnes = entree != null ? entree.valeur() : null;
+        if (colonnes == null) {
+            if (modifications != null) {
+                // Lecture dans la transaction, ses écritures comprises : pas pour le livre partagé
+                return charger(userId);
+            }
+            return chargees(userId, Entree.generation(entree));
+        }
+        return modifications != null ? colonnes.appliquer(modifications) : colonnes;
+    }
+
+    void surEcriture(@Observes EcritureEntite ecriture) {
+        if (ecriture.entite() instanceof Transaction transaction) {
+            boolean supprimee = ecriture.nature() == EcritureEntite.Nature.SUPPRESSION;
+            enregistrer(transaction.getUser().getId(), transaction.getId(),
+                    supprimee ? null : Ligne.of(transaction), ecriture.nature() == EcritureEntite.Nature.INSERTION);
+        }
+    }
+
+    /**
+     * Relève l'écriture d'une transaction, appliquée au livre à la validation.
+     *
+     * @param ligne Nouvelle version, null pour une suppression
+     * @param inseree true pour une transaction insérée (nouvel identifiant)
+     */
+    void enregistrer(UUID userId, UUID transactionId, Ligne ligne, boolean inseree) {
+        Ecritures ecritures = ecritures();
+        if (ecritures == null) {
+            invalider(userId);
+            return;
+        }
+        ecritures.lignes.computeIfAbsent(userId, id -> new LinkedHashMap<>()).put(transactionId, ligne);
+        if (inseree) {
+            ecritures.inserees.add(transactionId);
+        }
+    }
+
+    /**
+     * Oublie le livre d'un utilisateur à la validation de la transaction en cours,
+     * après une écriture qui ne passe pas par les entités.
+     */
+    public void invaliderApresCommit(UUID userId) {
+        Ecritures ecritures = ecritures();
+        if (ecritures == null) {
+            invalider(userId);
+            return;
+        }
+        ecritures.invalides.add(userId);
+    }
+
+    private Ecritures ecritures() {
+        if (synchronisations.getTransactionKey() == null) {
+            return null;
+        }
+        Ecritures ecritures = (Ecritures) synchronisations.getResource(ECRITURES);
+        if (ecritures == null) {
+            Ecritures nouvelles = new Ecritures();
+            synchronisations.putResource(ECRITURES, nouvelles);
+            synchronisations.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int statut) {
+                    if (statut == Status.STATUS_COMMITTED) {
+                        publier(nouvelles);
+                    }
+                }
+            });
+            ecritures = nouvelles;
+        }
+        return ecritures;
+    }
+
+    private void publier(Ecritures ecritures) {
+        ecritures.lignes.forEach((userId, modifications) -> livres.compute(userId, (id, entree) -> {
+            LedgerColumns colonnes = entree != null ? entree.valeur() : null;
+            if (colonnes == null) {
+                return new Entree(Entree.generation(entree) + 1, null);
+            }
+            LedgerColumns publiees = colonnes.publier(modifications, ecritures.inserees);
+            return new Entree(entree.generation() + 1,
+                    publiees == colonnes ? entree.colonnes() : new SoftReference<>(publiees));
+        }));
+        ecritures.invalides.forEach(this::invalider);
+    }
+
+    private void invalider(UUID userId) {
+        livres.compute(userId, (id, entree) -> new Entree(Entree.generation(entree) + 1, null));
+    }
+
+    /**
+     * Charge et met en cache le livre, gardé seulement si aucune écriture n'a été validée depuis
+     * la génération lue avant le chargement.
+     */
+    private LedgerColumns chargees(UUID userId, long generation) {
+        // La transaction de l'appelant n'a rien écrit pour cet utilisateur : lignes validées seulement
+        LedgerColumns chargees = QuarkusTransaction.joiningExisting().call(() -> charger(userId));
+        livres.compute(userId, (id, actuelle) -> Entree.generation(actuelle) == generation
+                ? new Entree(generation, new SoftReference<>(chargees))
+                : actuelle);
+        return chargees;
+    }
+
+    private LedgerColumns charger(UUID userId) {
+        long debut = System.nanoTime();
+        List<Object[]> rows = entityManager.createQuery(
+                        "select t.id, t.dateTransaction, t.montant, t.type, t.compte.id from Transaction t"
+                                + " where t.user.id = ?1", Object[].class)
+                .setParameter(1, userId)
+                .getResultList();
+
+        Map<UUID, Ligne> lignes = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            UUID id = (UUID) row[0];
+            lignes.put(id, new Ligne(id, (int) ((LocalDate) row[1]).toEpochDay(),
+                    Money.toCents((BigDecimal) row[2]), (TypeTransaction) row[3], (UUID) row[4]));
+        }
+        // Une ligne encore en table après un archivage interrompu n'est comptée qu'une fois
+        for (ArchivedTransaction archivee : archiveService.rechercher(userId, null, null, null, null, null)) {
+            lignes.putIfAbsent(archivee.id(), Ligne.of(archivee));
+        }
+
+        LedgerColumns colonnes = LedgerColumns.of(List.copyOf(lignes.values()));
+        chargements.increment();
+        LOGGER.debugf("Ledger columns for user %s: %d transactions loaded in %d µs",
+                userId, colonnes.taille(), (System.nanoTime() - debut) / 1000);
+        return colonnes;
+    }
+}
@@ -0,0 +1,383 @@
+package com.budgetmanager.service.analytics;
+
+import com.budgetmanager.entity.Transaction;
+import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.service.archive.ArchivedTransaction;
+import com.budgetmanager.util.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Grand livre d'un utilisateur en colonnes : une entrée par transaction (table et archive froide),
+ * triées par jour, dans des tableaux primitifs parallèles.
+ * <pre>
+ * jours      int[]    jour epoch de la transaction
+ * centimes   long[]   montant signé en centimes
+ * types      byte[]   ordinal du TypeTransaction
+ * comptes    short[]  indice dans le dictionnaire des comptes
+ * idHauts    long[]   identifiant (64 bits de poids fort)
+ * idBas      long[]   identifiant (64 bits de poids faible)
+ * </pre>
+ * Environ 31 octets par transaction, sans entité ni BigDecimal. Les lignes publiées ne changent
+ * jamais : une insertion datée du dernier jour du livre ou après s'écrit en place dans la capacité
+ * libre, au-delà de la taille publiée (volatile) que les lectures en cours ne dépassent pas ;
+ * les autres écritures produisent une nouvelle instance.
+ */
+public final class LedgerColumns {
+
+    static final LedgerColumns VIDE = new LedgerColumns(new int[0], new long[0], new byte[0], new short[0],
+            new UUID[0], new long[0], new long[0], 0);
+
+    private static final int TYPES = TypeTransaction.values().length;
+
+    private final int[] jours;
+    private final long[] centimes;
+    private final byte[] types;
+    private final short[] comptes;
+    private final long[] idHauts;
+    private final long[] idBas;
+    // Écrit avant taille : une lecture qui voit une ligne voit aussi son compte
+    private UUID[] dictionnaireComptes;
+    private volatile int taille;
+
+    private LedgerColumns(int[] jours, long[] centimes, byte[] types, short[] comptes,
+                          UUID[] dictionnaireComptes, long[] idHauts, long[] idBas, int taille) {
+        this.jours = jours;
+        this.centimes = centimes;
+        this.types = types;
+        this.comptes = comptes;
+        this.dictionnaireComptes = dictionnaireComptes;
+        this.idHauts = idHauts;
+        this.idBas = idBas;
+        this.taille = taille;
+    }
+
+    /**
+     * Transaction réduite aux colonnes du grand livre.
+     *
+     * @param jour Jour epoch de la transaction
+     */
+    public record Ligne(UUID id, int jour, long centimes, TypeTransaction type, UUID compteId) {
+
+        public static Ligne of(Transaction transaction) {
+            return new Ligne(transaction.getId(), (int) transaction.getDateTransaction().toEpochDay(),
+                    Money.toCents(transaction.getMontant()), transaction.getType(), transaction.getCompte().getId());
+        }
+
+        public static Ligne of(ArchivedTransaction transaction) {
+            return new Ligne(transaction.id(), (int) transaction.dateTransaction().toEpochDay(),
+                    transaction.montantCents(), transaction.type(), transaction.compteId());
+        }
+    }
+
+    /**
+     * Construit les colonnes à partir de lignes dans un ordre quelconque.
+     */
+    public static LedgerColumns of(List<Ligne> lignes) {
+        List<Ligne> triees = new ArrayList<>(lignes);
+        triees.sort(Comparator.comparingInt(Ligne::jour));
+        return remplir(triees.size(), VIDE, new boolean[0], triees, new Dictionnaire(new UUID[0]));
+    }
+
+    /**
+     * Applique des écritures sur une copie des colonnes.
+     *
+     * @param modifications Nouvelle version par identifiant, null pour une suppression
+     * @return Nouvelles colonnes ; celles-ci ne changent pas
+     */
+    public LedgerColumns appliquer(Map<UUID, Ligne> modifications) {
+        if (modifications.isEmpty()) {
+            return this;
+        }
+        List<Ligne> ajouts = new ArrayList<>();
+        for (Ligne ligne : modifications.values()) {
+            if (ligne != null) {
+                ajouts.add(ligne);
+            }
+        }
+        ajouts.sort(Comparator.comparingInt(Ligne::jour));
+
+        // Identifiants remplacés triés par poids fort : recherche dichotomique, sans UUID par ligne
+        UUID[] remplacees = modifications.keySet().toArray(new UUID[0]);
+        Arrays.sort(remplacees, Comparator.comparingLong(UUID::getMostSignificantBits));
+        long[] hauts = new long[remplacees.length];
+        long[] bas = new long[remplacees.length];
+        for (int r = 0; r < remplacees.length; r++) {
+            hauts[r] = remplacees[r].getMostSignificantBits();
+            bas[r] = remplacees[r].getLeastSignificantBits();
+        }
+
+        // Lignes conservées puis fusion avec les ajouts, déjà triés : un seul passage sur les colonnes
+        int n = taille;
+        boolean[] conservees = new boolean[n];
+        int nombre = ajouts.size();
+        for (int i = 0; i < n; i++) {
+            conservees[i] = !contient(hauts, bas, idHauts[i], idBas[i]);
+            if (conservees[i]) {
+                nombre++;
+            }
+        }
+        return remplir(nombre, this, conservees, ajouts, new Dictionnaire(dictionnaireComptes));
+    }
+
+    /**
+     * Applique les écritures validées d'une transaction base au livre partagé. Des insertions
+     * datées du dernier jour du livre ou après (saisie du jour, relevé du mois, échéances) s'ajoutent
+     * en place ; les autres écritures passent par {@link #appliquer(Map)}. Appelé par un seul
+     * écrivain à la fois (LedgerColumnStore, sous le verrou du livre).
+     *
+     * @param modifications Nouvelle version par identifiant, null pour une suppression
+     * @param inserees Identifiants insérés par la transaction
+     * @return Ces colonnes complétées, ou de nouvelles colonnes
+     */
+    LedgerColumns publier(Map<UUID, Ligne> modifications, Set<UUID> inserees) {
+        List<Ligne> ajouts = new ArrayList<>(modifications.size());
+        for (Map.Entry<UUID, Ligne> modification : modifications.entrySet()) {
+            if (!inserees.contains(modification.getKey())) {
+                return appliquer(modifications);
+            }
+            // Insérée puis supprimée par la même transaction : jamais visible
+            if (modification.getValue() != null) {
+                ajouts.add(modification.getValue());
+            }
+        }
+        if (ajouts.isEmpty()) {
+            return this;
+        }
+        ajouts.sort(Comparator.comparingInt(Ligne::jour));
+
+        int n = taille;
+        // Insertion antidatée, ou lignes déjà lues par un chargement concurrent de la validation
+        if (n > 0 && (ajouts.get(0).jour() < jours[n - 1] || dernierJourContient(n, ajouts))) {
+            return appliquer(modifications);
+        }
+        LedgerColumns cible = n + ajouts.size() <= jours.length ? this : agrandir(n, n + ajouts.size());
+        cible.ajouter(n, ajouts);
+        return cible;
+    }
+
+    private boolean dernierJourContient(int n, List<Ligne> ajouts) {
+        for (int i = n - 1; i >= 0 && jours[i] == jours[n - 1]; i--) {
+            for (Ligne ligne : ajouts) {
+                if (idHauts[i] == ligne.id().getMostSignificantBits()
+                        && idBas[i] == ligne.id().getLeastSignificantBits()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copie des colonnes avec une capacité d'au moins une fois et demie la taille demandée.
+     */
+    private LedgerColumns agrandir(int n, int minimum) {
+        int capacite = Math.max(16, minimum + (minimum >> 1));
+        return new LedgerColumns(Arrays.copyOf(jours, capacite), Arrays.copyOf(centimes, capacite),
+                Arrays.copyOf(types, capacite), Arrays.copyOf(comptes, capacite), dictionnaireComptes,
+                Arrays.copyOf(idHauts, capacite), Arrays.copyOf(idBas, capacite), n);
+    }
+
+    /**
+     * Écrit les lignes après la taille publiée, puis publie la nouvelle taille.
+     */
+    private void ajouter(int n, List<Ligne> ajouts) {
+        Dictionnaire dictionnaire = new Dictionnaire(dictionnaireComptes);
+        int k = n;
+        for (Ligne ligne : ajouts) {
+            jours[k] = ligne.jour();
+            centimes[k] = ligne.centimes();
+            types[k] = (byte) ligne.type().ordinal();
+            comptes[k] = dictionnaire.indice(ligne.compteId());
+            idHauts[k] = ligne.id().getMostSignificantBits();
+            idBas[k] = ligne.id().getLeastSignificantBits();
+            k++;
+        }
+        dictionnaireComptes = dictionnaire.valeurs();
+        taille = k;
+    }
+
+    private static boolean contient(long[] hauts, long[] bas, long haut, long basRecherche) {
+        int r = Arrays.binarySearch(hauts, haut);
+        if (r < 0) {
+            return false;
+        }
+        // Poids forts égaux côte à côte : recherche des deux côtés
+        for (int j = r; j >= 0 && hauts[j] == haut; j--) {
+            if (bas[j] == basRecherche) {
+                return true;
+            }
+        }
+        for (int j = r + 1; j < hauts.length && hauts[j] == haut; j++) {
+            if (bas[j] == basRecherche) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fusionne les lignes conservées de l'ancien livre et les ajouts, les deux triés par jour.
+     */
+    private static LedgerColumns remplir(int nombre, LedgerColumns ancien, boolean[] conservees,
+                                         List<Ligne> ajouts, Dictionnaire dictionnaire) {
+        int[] jours = new int[nombre];
+        long[] centimes = new long[nombre];
+        byte[] types = new byte[nombre];
+        short[] comptes = new short[nombre];
+        long[] idHauts = new long[nombre];
+        long[] idBas = new long[nombre];
+
+        int taille = conservees.length;
+        int i = 0;
+        int a = 0;
+        for (int k = 0; k < nombre; k++) {
+            while (i < taille && !conservees[i]) {
+                i++;
+            }
+            if (i < taille && (a == ajouts.size() || ancien.jours[i] <= ajouts.get(a).jour())) {
+                jours[k] = ancien.jours[i];
+                centimes[k] = ancien.centimes[i];
+                types[k] = ancien.types[i];
+                comptes[k] = ancien.comptes[i];
+                idHauts[k] = ancien.idHauts[i];
+                idBas[k] = ancien.idBas[i];
+                i++;
+            } else {
+                Ligne ligne = ajouts.get(a++);
+                jours[k] = ligne.jour();
+                centimes[k] = ligne.centimes();
+                types[k] = (byte) ligne.type().ordinal();
+                comptes[k] = dictionnaire.indice(ligne.compteId());
+                idHauts[k] = ligne.id().getMostSignificantBits();
+                idBas[k] = ligne.id().getLeastSignificantBits();
+            }
+        }
+        return new LedgerColumns(jours, centimes, types, comptes, dictionnaire.valeurs(), idHauts, idBas, nombre);
+    }
+
+    /**
+     * @return Nombre de transactions
+     */
+    public int taille() {
+        return taille;
+    }
+
+    /**
+     * Totaux par type sur une période, en un passage sur les colonnes de la période
+     * (bornes trouvées par recherche dichotomique sur les jours).
+     *
+     * @param debut Premier jour inclus (optionnel)
+     * @param fin Dernier jour inclus (optionnel)
+     * @param compteId Compte (optionnel, tous les comptes sinon)
+     */
+    public TotauxParType totaliser(LocalDate debut, LocalDate fin, UUID compteId) {
+        // Les lignes ajoutées après cette lecture n'en font pas partie
+        int n = taille;
+        int de = debut == null ? 0 : premier(debut.toEpochDay(), n);
+        int a = fin == null ? n : premier(fin.toEpochDay() + 1, n);
+
+        long[] credits = new long[TYPES];
+        long[] debits = new long[TYPES];
+        int[] nombreCredits = new int[TYPES];
+        int[] nombreDebits = new int[TYPES];
+        int nombre = Math.max(a - de, 0);
+        if (compteId == null) {
+            for (int i = de; i < a; i++) {
+                // Sans branche : crédit et débit par masque de signe
+                long c = centimes[i];
+                int t = types[i];
+                long credit = c & ~(c >> 63);
+                long debit = c - credit;
+                credits[t] += credit;
+                debits[t] += debit;
+                nombreCredits[t] += (int) (-credit >>> 63);
+                nombreDebits[t] += (int) (debit >>> 63);
+            }
+        } else {
+            short compte = indiceCompte(compteId);
+            nombre = 0;
+            for (int i = de; i < a; i++) {
+                int retenue = comptes[i] == compte ? 1 : 0;
+                long c = centimes[i] * retenue;
+                nombre += retenue;
+                int t = types[i];
+                long credit = c & ~(c >> 63);
+                long debit = c - credit;
+                credits[t] += credit;
+                debits[t] += debit;
+                nombreCredits[t] += (int) (-credit >>> 63);
+                nombreDebits[t] += (int) (debit >>> 63);
+            }
+        }
+        return new TotauxParType(credits, debits, nombreCredits, nombreDebits, nombre);
+    }
+
+    /**
+     * @return Indice de la première transaction du jour donné ou d'après
+     */
+    private int premier(long jour, int n) {
+        int bas = 0;
+        int haut = n;
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (jours[milieu] < jour) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return bas;
+    }
+
+    private short indiceCompte(UUID compteId) {
+        for (int i = 0; i < dictionnaireComptes.length; i++) {
+            if (dictionnaireComptes[i].equals(compteId)) {
+                return (short) i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Dictionnaire des comptes, étendu à la première transaction d'un nouveau compte.
+     */
+    private static final class Dictionnaire {
+
+        private final Map<UUID, Short> indices = new HashMap<>();
+        private UUID[] valeurs;
+
+        Dictionnaire(UUID[] valeurs) {
+            this.valeurs = valeurs;
+            for (int i = 0; i < valeurs.length; i++) {
+                indices.put(valeurs[i], (short) i);
+            }
+        }
+
+        short indice(UUID compteId) {
+            Short indice = indices.get(compteId);
+            if (indice != null) {
+                return indice;
+            }
+            if (valeurs.length == Short.MAX_VALUE) {
+                throw new IllegalStateException("Trop de comptes dans le grand livre");
+            }
+            valeurs = Arrays.copyOf(valeurs, valeurs.length + 1);
+            valeurs[valeurs.length - 1] = compteId;
+            indices.put(compteId, (short) (valeurs.length - 1));
+            return (short) (valeurs.length - 1);
+        }
+
+        UUID[] valeurs() {
+            return valeurs;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.budgetmanager.service.analytics;
+
+import com.budgetmanager.entity.TypeTransaction;
+
+import java.util.Set;
+
+/**
+ * Totaux d'une période par type de transaction, crédits et débits séparés, en centimes.
+ * Les regroupements (revenus, charges fixes...) propres à chaque écran se calculent
+ * ensuite sur une trentaine de valeurs au lieu des transactions.
+ */
+public final class TotauxParType {
+
+    private final long[] credits;
+    private final long[] debits;
+    private final int[] nombreCredits;
+    private final int[] nombreDebits;
+    private final int nombre;
+
+    TotauxParType(long[] credits, long[] debits, int[] nombreCredits, int[] nombreDebits, int nombre) {
+        this.credits = credits;
+        this.debits = debits;
+        this.nombreCredits = nombreCredits;
+        this.nombreDebits = nombreDebits;
+        this.nombre = nombre;
+    }
+
+    /**
+     * @return Somme des montants positifs du type
+     */
+    public long credits(TypeTransaction type) {
+        return credits[type.ordinal()];
+    }
+
+    /**
+     * @return Somme des montants négatifs du type (négative ou nulle)
+     */
+    public long debits(TypeTransaction type) {
+        return debits[type.ordinal()];
+    }
+
+    public int nombreCredits(TypeTransaction type) {
+        return nombreCredits[type.ordinal()];
+    }
+
+    public int nombreDebits(TypeTransaction type) {
+        return nombreDebits[type.ordinal()];
+    }
+
+    /**
+     * @return Somme des montants positifs des types donnés
+     */
+    public long credits(Set<TypeTransaction> types) {
+        long total = 0;
+        for (TypeTransaction type : types) {
+            total = Math.addExact(total, credits[type.ordinal()]);
+        }
+        return total;
+    }
+
+    /**
+     * @return Somme des montants négatifs des types donnés (négative ou nulle)
+     */
+    public long debits(Set<TypeTransaction> types) {
+        long total = 0;
+        for (TypeTransaction type : types) {
+            total = Math.addExact(total, debits[type.ordinal()]);
+        }
+        return total;
+    }
+
+    public int nombreDebits(Set<TypeTransaction> types) {
+        int total = 0;
+        for (TypeTransaction type : types) {
+            total += nombreDebits[type.ordinal()];
+        }
+        return total;
+    }
+
+    /**
+     * @return Nombre de transactions de la période, montants nuls compris
+     */
+    public int nombre() {
+        return nombre;
+    }
+}
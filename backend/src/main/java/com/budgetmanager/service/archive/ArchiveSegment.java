@@ -0,0 +1,290 @@
+package com.budgetmanager.service.archive;
+
+import com.budgetmanager.entity.TypeTransaction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Segment d'archive : les transactions d'un utilisateur pour une année, dans un fichier binaire compact.
+ * <pre>
+ * en-tête        magie "BMTA", version, année, nombre de lignes, premier et dernier jour archivés
+ * index          12 × (décalage dans les lignes, nombre de lignes) : lecture à partir du mois voulu
+ * dictionnaires  types, libellés, comptes, objectifs
+ * lignes         triées par date puis création : écart en jours avec la ligne précédente (avec le 1er
+ *                du mois pour la première ligne d'un mois), montant en centimes, indices de dictionnaire,
+ *                identifiant, création en millisecondes depuis le début du jour
+ * </pre>
+ * Entiers à longueur variable (LEB128, zigzag pour les valeurs signées), sauf l'en-tête, l'index
+ * et les identifiants. Écriture dans un fichier temporaire synchronisé puis renommage atomique.
+ */
+final class ArchiveSegment {
+
+    static final String EXTENSION = ".seg";
+
+    private static final int MAGIC = 0x424D5441;
+    private static final byte VERSION = 1;
+    private static final int MOIS = 12;
+
+    private static final Comparator<ArchivedTransaction> ORDRE = Comparator
+            .comparing(ArchivedTransaction::dateTransaction)
+            .thenComparing(ArchivedTransaction::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ArchivedTransaction::id);
+
+    private ArchiveSegment() {
+    }
+
+    /**
+     * En-tête d'un segment, lu sans décoder les lignes.
+     */
+    record Entete(int annee, int lignes, LocalDate premiere, LocalDate derniere) {
+
+        boolean chevauche(LocalDate debut, LocalDate fin) {
+            return (debut == null || !derniere.isBefore(debut)) && (fin == null || !premiere.isAfter(fin));
+        }
+    }
+
+    /**
+     * Écrit (ou remplace) le segment d'une année.
+     *
+     * @param transactions Transactions de l'année, au moins une, dans un ordre quelconque
+     */
+    static Entete ecrire(Path fichier, int annee, List<ArchivedTransaction> transactions) throws IOException {
+        List<ArchivedTransaction> lignes = new ArrayList<>(transactions);
+        lignes.sort(ORDRE);
+        if (lignes.isEmpty()) {
+            throw new IllegalArgumentException("Segment vide pour " + annee);
+        }
+
+        Map<String, Integer> types = new LinkedHashMap<>();
+        Map<String, Integer> libelles = new LinkedHashMap<>();
+        Map<UUID, Integer> comptes = new LinkedHashMap<>();
+        Map<UUID, Integer> objectifs = new LinkedHashMap<>();
+        int[] decalages = new int[MOIS];
+        int[] nombres = new int[MOIS];
+
+        ByteArrayOutputStream tampon = new ByteArrayOutputStream(lignes.size() * 32);
+        DataOutputStream out = new DataOutputStream(tampon);
+        LocalDate precedente = null;
+        for (ArchivedTransaction ligne : lignes) {
+            LocalDate date = ligne.dateTransaction();
+            if (date.getYear() != annee) {
+                throw new IllegalArgumentException("Transaction " + ligne.id() + " hors de l'année " + annee);
+            }
+            int mois = date.getMonthValue() - 1;
+            if (precedente == null || precedente.getMonthValue() - 1 != mois) {
+                decalages[mois] = out.size();
+                precedente = date.withDayOfMonth(1);
+            }
+            nombres[mois]++;
+
+            writeVarLong(out, date.toEpochDay() - precedente.toEpochDay());
+            writeVarLong(out, zigzag(ligne.montantCents()));
+            writeVarLong(out, indice(types, ligne.type().name()));
+            writeVarLong(out, indice(libelles, ligne.description()));
+            writeVarLong(out, indice(comptes, ligne.compteId()));
+            writeVarLong(out, ligne.objectifId() == null ? 0 : indice(objectifs, ligne.objectifId()) + 1);
+            out.writeLong(ligne.id().getMostSignificantBits());
+            out.writeLong(ligne.id().getLeastSignificantBits());
+            writeVarLong(out, ligne.createdAt() == null ? 0
+                    : zigzag(Duration.between(date.atStartOfDay(), ligne.createdAt()).toMillis()) + 1);
+            precedente = date;
+        }
+
+        Entete entete = new Entete(annee, lignes.size(),
+                lignes.get(0).dateTransaction(), lignes.get(lignes.size() - 1).dateTransaction());
+
+        Files.createDirectories(fichier.getParent());
+        Path temporaire = fichier.resolveSibling(fichier.getFileName() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(temporaire.toFile());
+             DataOutputStream segment = new DataOutputStream(new BufferedOutputStream(fos))) {
+            segment.writeInt(MAGIC);
+            segment.writeByte(VERSION);
+            segment.writeShort(annee);
+            segment.writeInt(entete.lignes());
+            segment.writeShort(entete.premiere().getDayOfYear());
+            segment.writeShort(entete.derniere().getDayOfYear());
+            for (int mois = 0; mois < MOIS; mois++) {
+                segment.writeInt(decalages[mois]);
+                segment.writeInt(nombres[mois]);
+            }
+            ecrireChaines(segment, types);
+            ecrireChaines(segment, libelles);
+            ecrireIdentifiants(segment, comptes);
+            ecrireIdentifiants(segment, objectifs);
+            segment.writeInt(tampon.size());
+            tampon.writeTo(segment);
+            segment.flush();
+            fos.getFD().sync();
+        }
+        Files.move(temporaire, fichier, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return entete;
+    }
+
+    /**
+     * Lit l'en-tête seul (quelques octets).
+     */
+    static Entete lireEntete(Path fichier) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fichier), 64))) {
+            return lireEntete(in, fichier);
+        }
+    }
+
+    /**
+     * Lit les transactions d'une période ; les mois avant le début sont sautés grâce à l'index.
+     *
+     * @param debut Premier jour inclus, null pour le début de l'année
+     * @param fin Dernier jour inclus, null pour la fin de l'année
+     * @return Transactions par date puis création croissantes
+     */
+    static List<ArchivedTransaction> lire(Path fichier, LocalDate debut, LocalDate fin) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fichier)))) {
+            Entete entete = lireEntete(in, fichier);
+            if (!entete.chevauche(debut, fin)) {
+                return List.of();
+            }
+
+            int[] decalages = new int[MOIS];
+            int[] nombres = new int[MOIS];
+            for (int mois = 0; mois < MOIS; mois++) {
+                decalages[mois] = in.readInt();
+                nombres[mois] = in.readInt();
+            }
+            List<TypeTransaction> types = lireChaines(in).stream().map(TypeTransaction::valueOf).toList();
+            List<String> libelles = lireChaines(in);
+            List<UUID> comptes = lireIdentifiants(in);
+            List<UUID> objectifs = lireIdentifiants(in);
+            in.readInt();
+
+            int mois = debut != null && debut.getYear() == entete.annee() ? debut.getMonthValue() - 1 : 0;
+            while (mois < MOIS && nombres[mois] == 0) {
+                mois++;
+            }
+            if (mois == MOIS) {
+                return List.of();
+            }
+            in.skipNBytes(decalages[mois]);
+
+            List<ArchivedTransaction> resultat = new ArrayList<>();
+            for (; mois < MOIS; mois++) {
+                LocalDate precedente = LocalDate.of(entete.annee(), mois + 1, 1);
+                for (int i = 0; i < nombres[mois]; i++) {
+                    LocalDate date = precedente.plusDays(readVarLong(in));
+                    if (fin != null && date.isAfter(fin)) {
+                        return resultat;
+                    }
+                    long montant = unzigzag(readVarLong(in));
+                    TypeTransaction type = types.get((int) readVarLong(in));
+                    String libelle = libelles.get((int) readVarLong(in));
+                    UUID compte = comptes.get((int) readVarLong(in));
+                    long objectif = readVarLong(in);
+                    UUID id = new UUID(in.readLong(), in.readLong());
+                    long creation = readVarLong(in);
+
+                    if (debut == null || !date.isBefore(debut)) {
+                        resultat.add(new ArchivedTransaction(id, compte,
+                                objectif == 0 ? null : objectifs.get((int) objectif - 1),
+                                montant, type, libelle, date,
+                                creation == 0 ? null : date.atStartOfDay().plus(Duration.ofMillis(unzigzag(creation - 1)))));
+                    }
+                    precedente = date;
+                }
+            }
+            return resultat;
+        }
+    }
+
+    private static Entete lireEntete(DataInputStream in, Path fichier) throws IOException {
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Segment d'archive invalide : " + fichier);
+        }
+        int annee = in.readShort();
+        int lignes = in.readInt();
+        LocalDate premiere = LocalDate.ofYearDay(annee, in.readShort());
+        LocalDate derniere = LocalDate.ofYearDay(annee, in.readShort());
+        return new Entete(annee, lignes, premiere, derniere);
+    }
+
+    private static <K> int indice(Map<K, Integer> dictionnaire, K valeur) {
+        return dictionnaire.computeIfAbsent(valeur, cle -> dictionnaire.size());
+    }
+
+    private static void ecrireChaines(DataOutput out, Map<String, Integer> dictionnaire) throws IOException {
+        writeVarLong(out, dictionnaire.size());
+        for (String valeur : dictionnaire.keySet()) {
+            out.writeUTF(valeur);
+        }
+    }
+
+    private static List<String> lireChaines(DataInput in) throws IOException {
+        int taille = (int) readVarLong(in);
+        List<String> valeurs = new ArrayList<>(taille);
+        for (int i = 0; i < taille; i++) {
+            valeurs.add(in.readUTF());
+        }
+        return valeurs;
+    }
+
+    private static void ecrireIdentifiants(DataOutput out, Map<UUID, Integer> dictionnaire) throws IOException {
+        writeVarLong(out, dictionnaire.size());
+        for (UUID valeur : dictionnaire.keySet()) {
+            out.writeLong(valeur.getMostSignificantBits());
+            out.writeLong(valeur.getLeastSignificantBits());
+        }
+    }
+
+    private static List<UUID> lireIdentifiants(DataInput in) throws IOException {
+        int taille = (int) readVarLong(in);
+        List<UUID> valeurs = new ArrayList<>(taille);
+        for (int i = 0; i < taille; i++) {
+            valeurs.add(new UUID(in.readLong(), in.readLong()));
+        }
+        return valeurs;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Entier variable trop long");
+    }
+}
@@ -0,0 +1,42 @@
+package com.budgetmanager.service.archive;
+
+import com.budgetmanager.entity.Transaction;
+import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.util.Money;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Transaction archivée, telle que stockée dans un segment : montant en centimes,
+ * compte et objectif par identifiant (les entités restent dans la base).
+ *
+ * @param objectifId Objectif lié, null si aucun
+ * @param createdAt Date de création à la milliseconde, null si inconnue
+ */
+public record ArchivedTransaction(
+        UUID id,
+        UUID compteId,
+        UUID objectifId,
+        long montantCents,
+        TypeTransaction type,
+        String description,
+        LocalDate dateTransaction,
+        LocalDateTime createdAt) {
+
+    /**
+     * @param transaction Transaction de la table, compte et objectif chargés ou non
+     */
+    public static ArchivedTransaction of(Transaction transaction) {
+        return new ArchivedTransaction(
+                transaction.getId(),
+                transaction.getCompte().getId(),
+                transaction.getObjectif() != null ? transaction.getObjectif().getId() : null,
+                Money.toCents(transaction.getMontant()),
+                transaction.getType(),
+                transaction.getDescription(),
+                transaction.getDateTransaction(),
+                transaction.getCreatedAt());
+    }
+}
@@ -0,0 +1,128 @@
+package com.budgetmanager.service.archive;
+
+import com.budgetmanager.entity.ChargeOccurrence;
+import com.budgetmanager.entity.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Passage planifié vers l'archive froide : les transactions antérieures à l'horizon
+ * (budget.archive.horizon-months mois avant le mois en cours) quittent la table pour
+ * le segment de leur utilisateur et de leur année.
+ * Une transaction (base) par utilisateur et par année : le segment est écrit avant la
+ * suppression, un échec laisse donc la ligne aux deux endroits, et les lectures comme le
+ * passage suivant ne la comptent qu'une fois.
+ */
+@ApplicationScoped
+public class TransactionArchiveJob {
+
+    private static final Logger LOGGER = Logger.getLogger(TransactionArchiveJob.class);
+    private static final int IDS_PAR_REQUETE = 500;
+
+    @Inject
+    TransactionArchiveService archiveService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "budget.archive.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "budget.archive.horizon-months", defaultValue = "24")
+    int horizonMois;
+
+    private Counter archivees;
+
+    @PostConstruct
+    void initMetrics() {
+        archivees = Counter.builder("budget.archive.transactions")
+                .description("Transactions déplacées dans l'archive froide")
+                .register(registry);
+    }
+
+    @Scheduled(identity = "transactions-archive", cron = "{budget.archive.cron}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void planifie() {
+        if (enabled) {
+            archiver(LocalDate.now());
+        }
+    }
+
+    /**
+     * Archive toutes les transactions antérieures à l'horizon.
+     *
+     * @param today Date de traitement
+     * @return Nombre de transactions archivées
+     */
+    public int archiver(LocalDate today) {
+        LocalDate limite = limite(today, horizonMois);
+        List<Object[]> lots = QuarkusTransaction.requiringNew().call(() -> entityManager.createQuery(
+                        "select distinct t.user.id, year(t.dateTransaction) from Transaction t"
+                                + " where t.dateTransaction < ?1", Object[].class)
+                .setParameter(1, limite)
+                .getResultList());
+
+        int total = 0;
+        for (Object[] lot : lots) {
+            UUID userId = (UUID) lot[0];
+            int annee = ((Number) lot[1]).intValue();
+            total += QuarkusTransaction.requiringNew().call(() -> archiverAnnee(userId, annee, limite));
+        }
+
+        archivees.increment(total);
+        LOGGER.infof("Transaction archive before %s: %d transactions moved in %d segments", limite, total, lots.size());
+        return total;
+    }
+
+    /**
+     * Archive l'année d'un utilisateur dans la transaction courante.
+     */
+    int archiverAnnee(UUID userId, int annee, LocalDate limite) {
+        LocalDate debut = LocalDate.of(annee, 1, 1);
+        LocalDate fin = debut.plusYears(1).isAfter(limite) ? limite : debut.plusYears(1);
+        List<Transaction> transactions = entityManager.createQuery(
+                        "select t from Transaction t where t.user.id = ?1"
+                                + " and t.dateTransaction >= ?2 and t.dateTransaction < ?3", Transaction.class)
+                .setParameter(1, userId)
+                .setParameter(2, debut)
+                .setParameter(3, fin)
+                .getResultList();
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+
+        archiveService.archiver(userId, annee, transactions.stream().map(ArchivedTransaction::of).toList());
+
+        List<UUID> ids = transactions.stream().map(Transaction::getId).toList();
+        for (int i = 0; i < ids.size(); i += IDS_PAR_REQUETE) {
+            List<UUID> lot = ids.subList(i, Math.min(i + IDS_PAR_REQUETE, ids.size()));
+            // L'occurrence reste : elle empêche de débiter à nouveau la charge pour ce cycle
+            ChargeOccurrence.update("transaction = null where transaction.id in ?1", lot);
+            Transaction.delete("id in ?1 and dateTransaction >= ?2 and dateTransaction < ?3", lot, debut, fin);
+        }
+        return transactions.size();
+    }
+
+    /**
+     * @return Premier jour conservé dans la table : le 1er du mois, horizonMois mois avant today
+     */
+    static LocalDate limite(LocalDate today, int horizonMois) {
+        return today.minusMonths(horizonMois).withDayOfMonth(1);
+    }
+}
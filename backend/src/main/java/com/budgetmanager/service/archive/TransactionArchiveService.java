@@ -0,0 +1,200 @@
+package com.budgetmanager.service.archive;
+
+import com.budgetmanager.dto.CompteResponse;
+import com.budgetmanager.dto.ObjectifResponse;
+import com.budgetmanager.dto.TransactionResponse;
+import com.budgetmanager.entity.Compte;
+import com.budgetmanager.entity.Objectif;
+import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.util.LazyLoadingUtil;
+import com.budgetmanager.util.Money;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Archive froide des transactions : un segment par utilisateur et par année
+ * ({@code budget.archive.directory/<utilisateur>/<année>.seg}, voir ArchiveSegment).
+ * Les en-têtes sont gardés en mémoire : une lecture n'ouvre que les segments qui
+ * chevauchent la période demandée. Les transactions archivées sont en lecture seule.
+ */
+@ApplicationScoped
+public class TransactionArchiveService {
+
+    private static final Comparator<TransactionResponse> PLUS_RECENTES = Comparator
+            .comparing(TransactionResponse::getDateTransaction, Comparator.reverseOrder())
+            .thenComparing(TransactionResponse::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    @ConfigProperty(name = "budget.archive.directory", defaultValue = "data/archive")
+    Path repertoire;
+
+    private final Map<UUID, List<ArchiveSegment.Entete>> entetes = new ConcurrentHashMap<>();
+
+    /**
+     * Ajoute des transactions au segment de leur année ; une transaction déjà archivée
+     * (reprise après un échec de suppression dans la table) est remplacée, pas dupliquée.
+     *
+     * @param transactions Transactions d'une même année
+     */
+    public synchronized void archiver(UUID userId, int annee, List<ArchivedTransaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        Path fichier = segment(userId, annee);
+        try {
+            Map<UUID, ArchivedTransaction> lignes = new LinkedHashMap<>();
+            if (Files.exists(fichier)) {
+                ArchiveSegment.lire(fichier, null, null).forEach(ligne -> lignes.put(ligne.id(), ligne));
+            }
+            transactions.forEach(ligne -> lignes.put(ligne.id(), ligne));
+            ArchiveSegment.ecrire(fichier, annee, new ArrayList<>(lignes.values()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            entetes.remove(userId);
+        }
+    }
+
+    /**
+     * Transactions archivées d'un utilisateur, mêmes filtres que la liste des transactions.
+     *
+     * @param debut Premier jour inclus (optionnel)
+     * @param fin Dernier jour inclus (optionnel)
+     * @return Transactions par date croissante
+     */
+    public List<ArchivedTransaction> rechercher(UUID userId, LocalDate debut, LocalDate fin,
+                                                TypeTransaction type, UUID compteId, UUID objectifId) {
+        List<ArchivedTransaction> resultat = new ArrayList<>();
+        for (ArchiveSegment.Entete entete : entetes(userId)) {
+            if (!entete.chevauche(debut, fin)) {
+                continue;
+            }
+            try {
+                for (ArchivedTransaction ligne : ArchiveSegment.lire(segment(userId, entete.annee()), debut, fin)) {
+                    if ((type == null || ligne.type() == type)
+                            && (compteId == null || compteId.equals(ligne.compteId()))
+                            && (objectifId == null || objectifId.equals(ligne.objectifId()))) {
+                        resultat.add(ligne);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * @return Date de la transaction archivée la plus récente, null si rien n'est archivé
+     */
+    public LocalDate derniereDate(UUID userId) {
+        List<ArchiveSegment.Entete> segments = entetes(userId);
+        return segments.isEmpty() ? null : segments.get(segments.size() - 1).derniere();
+    }
+
+    /**
+     * Complète une page de la liste des transactions avec les transactions archivées.
+     * L'archive n'est pas lue quand la page est pleine de transactions plus récentes que
+     * tout ce qui est archivé (le cas courant : la liste du mois en cours).
+     *
+     * @param chaudes Page lue dans la table, triée par date puis création décroissantes
+     * @return Page fusionnée, même tri, au plus limit éléments
+     */
+    public List<TransactionResponse> completer(UUID userId, List<TransactionResponse> chaudes,
+                                               LocalDate debut, LocalDate fin, TypeTransaction type,
+                                               UUID compteId, UUID objectifId, int limit) {
+        LocalDate derniere = derniereDate(userId);
+        if (derniere == null || (debut != null && debut.isAfter(derniere))) {
+            return chaudes;
+        }
+        if (chaudes.size() >= limit && chaudes.get(chaudes.size() - 1).getDateTransaction().isAfter(derniere)) {
+            return chaudes;
+        }
+
+        List<ArchivedTransaction> archivees = rechercher(userId, debut, fin, type, compteId, objectifId);
+        if (archivees.isEmpty()) {
+            return chaudes;
+        }
+
+        Set<UUID> dejaLues = chaudes.stream().map(TransactionResponse::getId).collect(Collectors.toSet());
+        Map<UUID, CompteResponse> comptes = new HashMap<>();
+        Map<UUID, ObjectifResponse> objectifs = new HashMap<>();
+        // Les plus récentes d'abord : seules celles qui peuvent entrer dans la page sont converties
+        List<TransactionResponse> resultat = new ArrayList<>(chaudes);
+        int converties = 0;
+        for (int i = archivees.size() - 1; i >= 0 && converties < limit; i--) {
+            ArchivedTransaction ligne = archivees.get(i);
+            if (!dejaLues.contains(ligne.id())) {
+                converties++;
+                resultat.add(TransactionResponse.builder()
+                        .id(ligne.id())
+                        .compte(comptes.computeIfAbsent(ligne.compteId(), TransactionArchiveService::compte))
+                        .objectif(ligne.objectifId() == null ? null
+                                : objectifs.computeIfAbsent(ligne.objectifId(), TransactionArchiveService::objectif))
+                        .montant(Money.toBigDecimal(ligne.montantCents()))
+                        .description(ligne.description())
+                        .type(ligne.type())
+                        .dateTransaction(ligne.dateTransaction())
+                        .createdAt(ligne.createdAt())
+                        .build());
+            }
+        }
+        resultat.sort(PLUS_RECENTES);
+        return resultat.size() > limit ? new ArrayList<>(resultat.subList(0, limit)) : resultat;
+    }
+
+    Path segment(UUID userId, int annee) {
+        return repertoire.resolve(userId.toString()).resolve(annee + ArchiveSegment.EXTENSION);
+    }
+
+    private List<ArchiveSegment.Entete> entetes(UUID userId) {
+        return entetes.computeIfAbsent(userId, this::lireEntetes);
+    }
+
+    private List<ArchiveSegment.Entete> lireEntetes(UUID userId) {
+        Path dossier = repertoire.resolve(userId.toString());
+        if (!Files.isDirectory(dossier)) {
+            return List.of();
+        }
+        try (Stream<Path> fichiers = Files.list(dossier)) {
+            List<ArchiveSegment.Entete> resultat = new ArrayList<>();
+            for (Path fichier : fichiers.filter(f -> f.getFileName().toString().endsWith(ArchiveSegment.EXTENSION)).toList()) {
+                resultat.add(ArchiveSegment.lireEntete(fichier));
+            }
+            resultat.sort(Comparator.comparingInt(ArchiveSegment.Entete::annee));
+            return List.copyOf(resultat);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static CompteResponse compte(UUID id) {
+        Compte compte = Compte.findById(id);
+        if (compte == null) {
+            return null;
+        }
+        LazyLoadingUtil.initializeCompte(compte);
+        return CompteResponse.fromEntity(compte);
+    }
+
+    private static ObjectifResponse objectif(UUID id) {
+        Objectif objectif = Objectif.findById(id);
+        return objectif != null ? ObjectifResponse.fromEntity(objectif) : null;
+    }
+}
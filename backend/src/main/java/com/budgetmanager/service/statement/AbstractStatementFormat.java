@@ -0,0 +1,45 @@
+package com.budgetmanager.service.statement;
+
+import com.budgetmanager.dto.ParsedTransactionDTO;
+import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.service.BankStatementParserService;
+import com.budgetmanager.util.MerchantKeyUtil;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Base des formats qui n'ont pas leur propre service de parsing :
+ * la catégorie vient du mémo marchand de l'utilisateur, sinon des règles par mots-clés.
+ */
+public abstract class AbstractStatementFormat implements StatementFormat {
+
+    @Inject
+    BankStatementParserService pdfParserService;
+
+    /**
+     * Construit une ligne de relevé catégorisée.
+     *
+     * @param reference Référence bancaire de la ligne (optionnel)
+     */
+    protected ParsedTransactionDTO toRow(LocalDate date, String description, BigDecimal montant,
+                                         String reference, String rawLine, Map<String, TypeTransaction> memo) {
+        boolean isDebit = montant.compareTo(BigDecimal.ZERO) < 0;
+        TypeTransaction type = memo.isEmpty() ? null : memo.get(MerchantKeyUtil.normalize(description));
+        if (type == null) {
+            type = pdfParserService.categorizeTransaction(description, isDebit);
+        }
+
+        return ParsedTransactionDTO.builder()
+                .date(date.toString())
+                .description(description)
+                .montant(montant)
+                .type(type)
+                .isDebit(isDebit)
+                .rawLine(rawLine)
+                .reference(reference)
+                .build();
+    }
+}
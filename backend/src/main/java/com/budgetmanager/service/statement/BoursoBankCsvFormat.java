@@ -0,0 +1,47 @@
+package com.budgetmanager.service.statement;
+
+import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.service.CSVBankStatementParserService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Export CSV BoursoBank (en-tête dateOp;dateVal;label;category;...;amount).
+ */
+@ApplicationScoped
+public class BoursoBankCsvFormat implements StatementFormat {
+
+    @Inject
+    CSVBankStatementParserService csvParserService;
+
+    @Override
+    public String getName() {
+        return "BoursoBank CSV";
+    }
+
+    @Override
+    public boolean sniff(StatementSample sample) {
+        String header = sample.firstLine().toLowerCase(Locale.ROOT);
+        return header.contains("dateop") && header.contains("label") && header.contains("amount");
+    }
+
+    @Override
+    public StatementRowReader open(Path file, Map<String, TypeTransaction> memo) throws IOException {
+        return csvParserService.openReader(new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)), memo);
+    }
+
+    @Override
+    public int priority() {
+        return 100;
+    }
+}
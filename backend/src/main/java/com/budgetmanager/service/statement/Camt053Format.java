@@ -0,0 +1,276 @@
+package com.budgetmanager.service.statement;
+
+import com.budgetmanager.dto.ParsedTransactionDTO;
+import com.budgetmanager.entity.TypeTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.jboss.logging.Logger;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Relevé de compte ISO 20022 CAMT.053 (BkToCstmrStmt), lu en StAX entrée par entrée (Ntry).
+ * La référence de l'entrée (AcctSvcrRef, sinon NtryRef, sinon celle du détail) sert
+ * de référence bancaire pour la détection des doublons.
+ */
+@ApplicationScoped
+public class Camt053Format extends AbstractStatementFormat {
+
+    private static final Logger LOGGER = Logger.getLogger(Camt053Format.class);
+
+    /**
+     * Longueur maximale d'une description (transactions.description)
+     */
+    private static final int MAX_DESCRIPTION = 500;
+
+    private static final String NOT_PROVIDED = "NOTPROVIDED";
+
+    @Override
+    public String getName() {
+        return "CAMT.053";
+    }
+
+    @Override
+    public boolean sniff(StatementSample sample) {
+        String text = sample.text();
+        return text.contains("camt.053") && text.contains("BkToCstmrStmt");
+    }
+
+    @Override
+    public StatementRowReader open(Path file, Map<String, TypeTransaction> memo) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file));
+        try {
+            return new EntryReader(in, memo);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int priority() {
+        return 90;
+    }
+
+    /**
+     * Champs utiles d'une entrée (Ntry) en cours de lecture.
+     */
+    private static final class Entry {
+        String amount;
+        String creditDebit;
+        String bookingDate;
+        String valueDate;
+        String accountServicerRef;
+        String entryRef;
+        String detailRef;
+        String creditorName;
+        String debtorName;
+        String additionalInfo;
+        final StringBuilder remittance = new StringBuilder();
+
+        String reference() {
+            if (accountServicerRef != null) return accountServicerRef;
+            if (entryRef != null) return entryRef;
+            return detailRef;
+        }
+    }
+
+    private class EntryReader implements StatementRowReader {
+
+        private final InputStream in;
+        private final XMLStreamReader xml;
+        private final Map<String, TypeTransaction> memo;
+        // Chemin de l'élément courant, borné par la profondeur du schéma
+        private final Deque<String> path = new ArrayDeque<>();
+        private final StringBuilder text = new StringBuilder(64);
+        private int rows = 0;
+
+        EntryReader(InputStream in, Map<String, TypeTransaction> memo) throws IOException {
+            this.in = in;
+            this.xml = StatementXml.open(in);
+            this.memo = memo;
+        }
+
+        @Override
+        public ParsedTransactionDTO nextRow() throws IOException {
+            Entry entry = null;
+
+            try {
+                while (xml.hasNext()) {
+                    switch (xml.next()) {
+                        case XMLStreamConstants.START_ELEMENT -> {
+                            String name = xml.getLocalName();
+                            path.push(name);
+                            text.setLength(0);
+                            if ("Ntry".equals(name)) {
+                                entry = new Entry();
+                            }
+                        }
+                        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                            if (entry != null) {
+                                text.append(xml.getText());
+                            }
+                        }
+                        case XMLStreamConstants.END_ELEMENT -> {
+                            String name = path.pop();
+                            if (entry == null) {
+                                break;
+                            }
+                            if ("Ntry".equals(name)) {
+                                ParsedTransactionDTO row = toRow(entry);
+                                entry = null;
+                                if (row != null) {
+                                    rows++;
+                                    return row;
+                                }
+                            } else {
+                                collect(entry, name, text.toString().trim());
+                            }
+                            text.setLength(0);
+                        }
+                        default -> {
+                            // comments, processing instructions, whitespace
+                        }
+                    }
+                }
+            } catch (XMLStreamException e) {
+                throw new IOException("CAMT.053 invalide : " + e.getMessage(), e);
+            }
+            return null;
+        }
+
+        /**
+         * Range la valeur d'un élément feuille selon sa position dans l'entrée.
+         * path contient les ancêtres de l'élément fermé (le parent en tête).
+         */
+        private void collect(Entry entry, String name, String value) {
+            if (value.isEmpty()) {
+                return;
+            }
+            String parent = path.peek();
+
+            switch (name) {
+                case "Amt" -> {
+                    if ("Ntry".equals(parent)) entry.amount = value;
+                }
+                case "CdtDbtInd" -> {
+                    if ("Ntry".equals(parent)) entry.creditDebit = value;
+                }
+                case "Dt", "DtTm" -> {
+                    if ("BookgDt".equals(parent) && entry.bookingDate == null) entry.bookingDate = value;
+                    else if ("ValDt".equals(parent) && entry.valueDate == null) entry.valueDate = value;
+                }
+                case "AcctSvcrRef" -> {
+                    if ("Ntry".equals(parent)) entry.accountServicerRef = value;
+                    else if ("Refs".equals(parent) && entry.detailRef == null) entry.detailRef = value;
+                }
+                case "NtryRef" -> entry.entryRef = value;
+                case "EndToEndId", "TxId" -> {
+                    if ("Refs".equals(parent) && entry.detailRef == null && !NOT_PROVIDED.equals(value)) {
+                        entry.detailRef = value;
+                    }
+                }
+                case "Nm" -> {
+                    String party = party();
+                    if ("Cdtr".equals(party) && entry.creditorName == null) entry.creditorName = value;
+                    else if ("Dbtr".equals(party) && entry.debtorName == null) entry.debtorName = value;
+                }
+                case "Ustrd" -> {
+                    if (entry.remittance.length() < MAX_DESCRIPTION) {
+                        if (!entry.remittance.isEmpty()) entry.remittance.append(' ');
+                        entry.remittance.append(value);
+                    }
+                }
+                case "AddtlNtryInf" -> entry.additionalInfo = value;
+                default -> {
+                    // element not used
+                }
+            }
+        }
+
+        /**
+         * Partie (Cdtr, Dbtr, UltmtCdtr...) la plus proche dans RltdPties, ou null.
+         */
+        private String party() {
+            Iterator<String> ancestors = path.iterator();
+            while (ancestors.hasNext()) {
+                String ancestor = ancestors.next();
+                switch (ancestor) {
+                    case "Cdtr", "Dbtr", "UltmtCdtr", "UltmtDbtr", "CdtrAgt", "DbtrAgt" -> {
+                        return ancestor;
+                    }
+                    case "Ntry" -> {
+                        return null;
+                    }
+                    default -> {
+                        // keep walking up
+                    }
+                }
+            }
+            return null;
+        }
+
+        private ParsedTransactionDTO toRow(Entry entry) {
+            String date = entry.bookingDate != null ? entry.bookingDate : entry.valueDate;
+            if (entry.amount == null || date == null || date.length() < 10) {
+                LOGGER.debugf("Skipping incomplete CAMT entry %s", entry.reference());
+                return null;
+            }
+
+            try {
+                BigDecimal montant = new BigDecimal(entry.amount);
+                boolean isDebit = "DBIT".equals(entry.creditDebit);
+                if (isDebit) {
+                    montant = montant.negate();
+                }
+
+                // Contrepartie : le créancier pour un débit, le débiteur pour un crédit
+                String counterparty = isDebit ? entry.creditorName : entry.debtorName;
+                StringBuilder description = new StringBuilder();
+                if (counterparty != null) {
+                    description.append(counterparty);
+                }
+                if (!entry.remittance.isEmpty()) {
+                    if (!description.isEmpty()) description.append(' ');
+                    description.append(entry.remittance);
+                }
+                if (description.isEmpty()) {
+                    description.append(entry.additionalInfo != null ? entry.additionalInfo : "Opération");
+                }
+                String label = description.length() > MAX_DESCRIPTION
+                        ? description.substring(0, MAX_DESCRIPTION)
+                        : description.toString();
+
+                return Camt053Format.this.toRow(LocalDate.parse(date.substring(0, 10)), label, montant,
+                        entry.reference(), entry.additionalInfo, memo);
+
+            } catch (DateTimeParseException | NumberFormatException e) {
+                LOGGER.warnf("Failed to parse CAMT entry %s - Error: %s", entry.reference(), e.getMessage());
+                return null;
+            }
+        }
+
+        @Override
+        public int rowCount() {
+            return rows;
+        }
+
+        @Override
+        public void close() throws IOException {
+            StatementXml.close(xml, in);
+        }
+    }
+}
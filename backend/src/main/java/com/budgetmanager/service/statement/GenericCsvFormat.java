@@ -0,0 +1,242 @@
+package com.budgetmanager.service.statement;
+
+import com.budgetmanager.dto.ParsedTransactionDTO;
+import com.budgetmanager.entity.TypeTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dialectes CSV des autres banques (Société Générale, Crédit Agricole, Fortuneo, N26...).
+ * Les colonnes sont repérées par leur en-tête : une date, un libellé, et soit un montant
+ * signé, soit une paire débit / crédit. Le séparateur (; , ou tabulation) est déduit de l'en-tête.
+ */
+@ApplicationScoped
+public class GenericCsvFormat extends AbstractStatementFormat {
+
+    private static final Logger LOGGER = Logger.getLogger(GenericCsvFormat.class);
+
+    private static final Set<String> DATE_HEADERS = Set.of(
+            "date", "date operation", "date de l'operation", "date d'operation", "date comptable", "booking date");
+    private static final Set<String> LABEL_HEADERS = Set.of(
+            "libelle", "libelle operation", "libelle de l'operation", "libelle simplifie", "label",
+            "description", "payee", "beneficiaire");
+    private static final Set<String> AMOUNT_HEADERS = Set.of(
+            "montant", "montant (eur)", "montant(euros)", "amount", "amount (eur)");
+    private static final Set<String> DEBIT_HEADERS = Set.of("debit", "debit euros", "debit (eur)");
+    private static final Set<String> CREDIT_HEADERS = Set.of("credit", "credit euros", "credit (eur)");
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+            DateTimeFormatter.ofPattern("dd.MM.yyyy"),
+            DateTimeFormatter.ofPattern("dd/MM/yy")
+    );
+
+    @Override
+    public String getName() {
+        return "CSV (en-tête Date / Libellé / Montant)";
+    }
+
+    @Override
+    public boolean sniff(StatementSample sample) {
+        return Columns.fromHeader(sample.firstLine()) != null;
+    }
+
+    @Override
+    public StatementRowReader open(Path file, Map<String, TypeTransaction> memo) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8));
+
+        // Preamble lines (account number, export date...) come before the header
+        String line;
+        Columns columns = null;
+        while (columns == null && (line = reader.readLine()) != null) {
+            columns = Columns.fromHeader(line);
+        }
+        if (columns == null) {
+            reader.close();
+            throw new IOException("En-tête CSV introuvable");
+        }
+
+        Columns cols = columns;
+        return new StatementRowReader() {
+            private int rows = 0;
+
+            @Override
+            public ParsedTransactionDTO nextRow() throws IOException {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    ParsedTransactionDTO transaction = parseLine(line, cols, memo);
+                    if (transaction != null) {
+                        rows++;
+                        return transaction;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public int rowCount() {
+                return rows;
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    @Override
+    public int priority() {
+        return 10;
+    }
+
+    private ParsedTransactionDTO parseLine(String line, Columns cols, Map<String, TypeTransaction> memo) {
+        List<String> values = split(line, cols.separator());
+        if (values.size() <= cols.maxIndex()) {
+            LOGGER.debugf("Line has insufficient columns: %s", line);
+            return null;
+        }
+
+        try {
+            LocalDate date = parseDate(values.get(cols.date()));
+            String label = values.get(cols.label()).trim();
+            if (date == null || label.isEmpty()) {
+                return null;
+            }
+
+            BigDecimal montant;
+            if (cols.amount() >= 0) {
+                montant = parseAmount(values.get(cols.amount()));
+            } else {
+                BigDecimal debit = parseAmount(values.get(cols.debit())).abs();
+                BigDecimal credit = parseAmount(values.get(cols.credit())).abs();
+                montant = credit.subtract(debit);
+            }
+
+            return toRow(date, label, montant, null, line, memo);
+
+        } catch (NumberFormatException e) {
+            LOGGER.warnf("Failed to parse line: %s - Error: %s", line, e.getMessage());
+            return null;
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        String trimmed = value.trim();
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(trimmed, format);
+            } catch (DateTimeParseException e) {
+                // try next pattern
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Montant au format français ("-1 234,56") ou anglais ("-1,234.56"), vide = 0.
+     */
+    static BigDecimal parseAmount(String value) {
+        String cleaned = value.trim()
+                .replace("\u00A0", "")
+                .replace("\u202F", "")
+                .replace(" ", "")
+                .replace("€", "")
+                .replace("+", "");
+        if (cleaned.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+
+        int comma = cleaned.lastIndexOf(',');
+        int dot = cleaned.lastIndexOf('.');
+        if (comma > dot) {
+            cleaned = cleaned.replace(".", "").replace(',', '.');
+        } else if (dot > comma && comma >= 0) {
+            cleaned = cleaned.replace(",", "");
+        }
+        return new BigDecimal(cleaned);
+    }
+
+    private static List<String> split(String line, char separator) {
+        List<String> result = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (c == separator && !inQuotes) {
+                result.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        result.add(current.toString());
+        return result;
+    }
+
+    private static String normalizeHeader(String header) {
+        String stripped = Normalizer.normalize(header.replace("\"", "").trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replace('\u2019', '\'');
+    }
+
+    /**
+     * Position des colonnes utiles, déduite de l'en-tête. -1 = colonne absente.
+     */
+    private record Columns(char separator, int date, int label, int amount, int debit, int credit) {
+
+        static Columns fromHeader(String line) {
+            if (line == null || line.isBlank()) {
+                return null;
+            }
+            String header = line.startsWith("\uFEFF") ? line.substring(1) : line;
+            char separator = header.indexOf(';') >= 0 ? ';' : header.indexOf('\t') >= 0 ? '\t' : ',';
+
+            int date = -1, label = -1, amount = -1, debit = -1, credit = -1;
+            List<String> names = split(header, separator);
+            for (int i = 0; i < names.size(); i++) {
+                String name = normalizeHeader(names.get(i));
+                if (date < 0 && DATE_HEADERS.contains(name)) date = i;
+                else if (label < 0 && LABEL_HEADERS.contains(name)) label = i;
+                else if (amount < 0 && AMOUNT_HEADERS.contains(name)) amount = i;
+                else if (debit < 0 && DEBIT_HEADERS.contains(name)) debit = i;
+                else if (credit < 0 && CREDIT_HEADERS.contains(name)) credit = i;
+            }
+
+            boolean hasAmount = amount >= 0 || (debit >= 0 && credit >= 0);
+            return date >= 0 && label >= 0 && hasAmount
+                    ? new Columns(separator, date, label, amount, debit, credit)
+                    : null;
+        }
+
+        int maxIndex() {
+            return Math.max(Math.max(date, label), Math.max(amount, Math.max(debit, credit)));
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.budgetmanager.service.statement;
+
+import com.budgetmanager.dto.ParsedTransactionDTO;
+import com.budgetmanager.entity.TypeTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.jboss.logging.Logger;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Export OFX / QFX (Money, Quicken), proposé par la plupart des banques françaises.
+ * OFX 1.x est du SGML (balises feuilles non fermées) et est lu par un tokenizer de balises ;
+ * OFX 2.x est du XML et est lu en StAX. Dans les deux cas seule la transaction courante
+ * (STMTTRN) est gardée en mémoire, et le FITID sert de référence bancaire.
+ */
+@ApplicationScoped
+public class OfxFormat extends AbstractStatementFormat {
+
+    private static final Logger LOGGER = Logger.getLogger(OfxFormat.class);
+
+    private static final String TRANSACTION = "STMTTRN";
+
+    private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+    @Override
+    public String getName() {
+        return "OFX";
+    }
+
+    @Override
+    public boolean sniff(StatementSample sample) {
+        String text = sample.text().toUpperCase(Locale.ROOT);
+        return text.contains("OFXHEADER") || text.contains("<OFX>");
+    }
+
+    @Override
+    public StatementRowReader open(Path file, Map<String, TypeTransaction> memo) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(Files.newInputStream(file));
+        try {
+            in.mark(StatementFormatRegistry.SNIFF_SIZE);
+            byte[] head = in.readNBytes(StatementFormatRegistry.SNIFF_SIZE);
+            in.reset();
+
+            boolean xml = new StatementSample(head, null, null).text().stripLeading().startsWith("<?xml");
+            return xml ? new XmlReader(in, memo) : new SgmlReader(in, memo);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int priority() {
+        return 80;
+    }
+
+    /**
+     * Convertit les champs d'une transaction OFX en ligne de relevé, ou null si elle est incomplète.
+     */
+    private ParsedTransactionDTO toRow(Map<String, String> fields, Map<String, TypeTransaction> memo) {
+        String posted = fields.getOrDefault("DTPOSTED", fields.get("DTUSER"));
+        String amount = fields.get("TRNAMT");
+        if (posted == null || posted.length() < 8 || amount == null) {
+            LOGGER.debugf("Skipping incomplete OFX transaction: %s", fields);
+            return null;
+        }
+
+        try {
+            LocalDate date = LocalDate.parse(posted.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+            BigDecimal montant = new BigDecimal(amount.replace(',', '.').replace(" ", ""));
+
+            String name = fields.get("NAME");
+            String memoField = fields.get("MEMO");
+            String description;
+            if (name == null) {
+                description = memoField != null ? memoField : fields.getOrDefault("TRNTYPE", "Opération");
+            } else if (memoField != null && !name.contains(memoField) && !memoField.contains(name)) {
+                description = name + " " + memoField;
+            } else {
+                description = memoField != null && memoField.length() > name.length() ? memoField : name;
+            }
+
+            return toRow(date, description, montant, fields.get("FITID"), fields.toString(), memo);
+
+        } catch (DateTimeParseException | NumberFormatException e) {
+            LOGGER.warnf("Failed to parse OFX transaction: %s - Error: %s", fields, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * OFX 1.x (SGML) : "<TAG>valeur" sans balise fermante pour les éléments feuilles.
+     */
+    private class SgmlReader implements StatementRowReader {
+
+        private final Reader reader;
+        private final Map<String, TypeTransaction> memo;
+        private final StringBuilder buffer = new StringBuilder(64);
+        private int rows = 0;
+        private boolean eof = false;
+
+        SgmlReader(InputStream in, Map<String, TypeTransaction> memo) throws IOException {
+            this.memo = memo;
+            this.reader = new BufferedReader(new InputStreamReader(in, readHeaderCharset(in)));
+        }
+
+        /**
+         * Lit l'en-tête "CLE:VALEUR" jusqu'au premier '<' (consommé) et en déduit l'encodage.
+         */
+        private static Charset readHeaderCharset(InputStream in) throws IOException {
+            StringBuilder header = new StringBuilder(256);
+            int b;
+            while ((b = in.read()) != -1 && b != '<') {
+                header.append((char) b);
+            }
+
+            String text = header.toString().toUpperCase(Locale.ROOT);
+            if (text.contains("ENCODING:UTF-8")) {
+                return StandardCharsets.UTF_8;
+            }
+            if (text.contains("CHARSET:ISO-8859-1") || text.contains("CHARSET:8859-1")) {
+                return StandardCharsets.ISO_8859_1;
+            }
+            return WINDOWS_1252;
+        }
+
+        @Override
+        public ParsedTransactionDTO nextRow() throws IOException {
+            Map<String, String> fields = null;
+
+            while (!eof) {
+                String tag = readTag();
+                String value = readValue();
+
+                if (TRANSACTION.equals(tag)) {
+                    fields = new HashMap<>();
+                } else if (fields != null && ("/" + TRANSACTION).equals(tag)) {
+                    ParsedTransactionDTO row = toRow(fields, memo);
+                    fields = null;
+                    if (row != null) {
+                        rows++;
+                        return row;
+                    }
+                } else if (fields != null && !tag.startsWith("/") && !value.isEmpty()) {
+                    fields.putIfAbsent(tag, decode(value));
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Nom de la balise courante ; le '<' a déjà été consommé.
+         */
+        private String readTag() throws IOException {
+            buffer.setLength(0);
+            int c;
+            while ((c = reader.read()) != -1 && c != '>') {
+                buffer.append((char) c);
+            }
+            if (c == -1) {
+                eof = true;
+            }
+            return buffer.toString().trim().toUpperCase(Locale.ROOT);
+        }
+
+        /**
+         * Texte jusqu'à la balise suivante (dont le '<' est consommé).
+         */
+        private String readValue() throws IOException {
+            buffer.setLength(0);
+            int c;
+            while ((c = reader.read()) != -1 && c != '<') {
+                buffer.append((char) c);
+            }
+            if (c == -1) {
+                eof = true;
+            }
+            return buffer.toString().trim();
+        }
+
+        private static String decode(String value) {
+            if (value.indexOf('&') < 0) {
+                return value;
+            }
+            return value.replace("&lt;", "<")
+                    .replace("&gt;", ">")
+                    .replace("&nbsp;", " ")
+                    .replace("&amp;", "&");
+        }
+
+        @Override
+        public int rowCount() {
+            return rows;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * OFX 2.x (XML), lu en StAX.
+     */
+    private class XmlReader implements StatementRowReader {
+
+        private final InputStream in;
+        private final XMLStreamReader xml;
+        private final Map<String, TypeTransaction> memo;
+        private final StringBuilder text = new StringBuilder(64);
+        private int rows = 0;
+
+        XmlReader(InputStream in, Map<String, TypeTransaction> memo) throws IOException {
+            this.in = in;
+            this.xml = StatementXml.open(in);
+            this.memo = memo;
+        }
+
+        @Override
+        public ParsedTransactionDTO nextRow() throws IOException {
+            Map<String, String> fields = null;
+
+            try {
+                while (xml.hasNext()) {
+                    switch (xml.next()) {
+                        case XMLStreamConstants.START_ELEMENT -> {
+                            text.setLength(0);
+                            if (TRANSACTION.equals(xml.getLocalName())) {
+                                fields = new HashMap<>();
+                            }
+                        }
+                        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                            if (fields != null) {
+                                text.append(xml.getText());
+                            }
+                        }
+                        case XMLStreamConstants.END_ELEMENT -> {
+                            if (fields == null) {
+                                break;
+                            }
+                            String name = xml.getLocalName();
+                            if (TRANSACTION.equals(name)) {
+                                ParsedTransactionDTO row = toRow(fields, memo);
+                                fields = null;
+                                if (row != null) {
+                                    rows++;
+                                    return row;
+                                }
+                            } else if (!text.isEmpty()) {
+                                String value = text.toString().trim();
+                                if (!value.isEmpty()) {
+                                    fields.putIfAbsent(name, value);
+                                }
+                                text.setLength(0);
+                            }
+                        }
+                        default -> {
+                            // comments, processing instructions, whitespace
+                        }
+                    }
+                }
+            } catch (XMLStreamException e) {
+                throw new IOException("OFX invalide : " + e.getMessage(), e);
+            }
+            return null;
+        }
+
+        @Override
+        public int rowCount() {
+            return rows;
+        }
+
+        @Override
+        public void close() throws IOException {
+            StatementXml.close(xml, in);
+        }
+    }
+}
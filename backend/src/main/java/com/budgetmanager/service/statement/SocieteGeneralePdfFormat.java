@@ -0,0 +1,43 @@
+package com.budgetmanager.service.statement;
+
+import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.service.BankStatementParserService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Relevé PDF au format Société Générale, reconnu à la signature %PDF-.
+ */
+@ApplicationScoped
+public class SocieteGeneralePdfFormat implements StatementFormat {
+
+    private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+
+    @Inject
+    BankStatementParserService pdfParserService;
+
+    @Override
+    public String getName() {
+        return "PDF";
+    }
+
+    @Override
+    public boolean sniff(StatementSample sample) {
+        return sample.startsWith(PDF_MAGIC);
+    }
+
+    @Override
+    public StatementRowReader open(Path file, Map<String, TypeTransaction> memo) throws IOException {
+        return pdfParserService.openReader(file.toFile(), memo);
+    }
+
+    @Override
+    public int priority() {
+        return 50;
+    }
+}
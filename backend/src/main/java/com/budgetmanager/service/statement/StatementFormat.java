@@ -0,0 +1,44 @@
+package com.budgetmanager.service.statement;
+
+import com.budgetmanager.entity.TypeTransaction;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Format de relevé bancaire importable.
+ * Les implémentations sont des beans CDI découverts par StatementFormatRegistry :
+ * ajouter une banque revient à ajouter un bean, sans toucher à l'endpoint d'upload.
+ */
+public interface StatementFormat {
+
+    /**
+     * Nom lisible du format (logs et messages d'erreur).
+     */
+    String getName();
+
+    /**
+     * Reconnaît le format à partir du début du fichier, sans parser le relevé.
+     *
+     * @param sample Premiers octets du fichier, nom et content-type
+     * @return true si ce format sait lire le fichier
+     */
+    boolean sniff(StatementSample sample);
+
+    /**
+     * Ouvre un lecteur en flux sur le relevé.
+     *
+     * @param file Fichier uploadé
+     * @param memo Mémo marchand -> catégorie de l'utilisateur, consulté avant les règles du format
+     * @return Lecteur à fermer par l'appelant
+     */
+    StatementRowReader open(Path file, Map<String, TypeTransaction> memo) throws IOException;
+
+    /**
+     * Ordre de test des sniffers : les formats les plus spécifiques passent en premier.
+     */
+    default int priority() {
+        return 0;
+    }
+}
@@ -0,0 +1,79 @@
+package com.budgetmanager.service.statement;
+
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Registre des formats de relevé découverts par CDI.
+ * La détection lit une seule fois les premiers Ko du fichier et interroge les sniffers
+ * par priorité décroissante, sans tenter de parser le relevé.
+ */
+@ApplicationScoped
+public class StatementFormatRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(StatementFormatRegistry.class);
+
+    /**
+     * Nombre d'octets lus pour la détection
+     */
+    public static final int SNIFF_SIZE = 8 * 1024;
+
+    @Inject
+    @Any
+    Instance<StatementFormat> discoveredFormats;
+
+    private List<StatementFormat> formats;
+
+    @PostConstruct
+    void init() {
+        formats = discoveredFormats.stream()
+                .sorted(Comparator.comparingInt(StatementFormat::priority).reversed())
+                .toList();
+        LOGGER.infof("Statement formats: %s", formats.stream().map(StatementFormat::getName).toList());
+    }
+
+    /**
+     * Détecte le format d'un relevé.
+     *
+     * @param file Fichier uploadé
+     * @param fileName Nom d'origine (optionnel)
+     * @param contentType Content-Type envoyé (optionnel)
+     * @return Le format reconnu, ou vide si aucun format ne correspond
+     */
+    @WithSpan
+    public Optional<StatementFormat> detect(Path file, String fileName, String contentType) throws IOException {
+        byte[] head;
+        try (InputStream in = Files.newInputStream(file)) {
+            head = in.readNBytes(SNIFF_SIZE);
+        }
+
+        StatementSample sample = new StatementSample(head, fileName, contentType);
+        for (StatementFormat format : formats) {
+            if (format.sniff(sample)) {
+                LOGGER.debugf("Detected statement format %s for %s", format.getName(), fileName);
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Formats disponibles, par ordre de détection.
+     */
+    public List<StatementFormat> getFormats() {
+        return formats;
+    }
+}
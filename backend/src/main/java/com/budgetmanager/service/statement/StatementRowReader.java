@@ -0,0 +1,33 @@
+package com.budgetmanager.service.statement;
+
+import com.budgetmanager.dto.ParsedTransactionDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lecteur de relevé en flux : les transactions sont produites une par une,
+ * sans garder le fichier complet en mémoire.
+ */
+public interface StatementRowReader extends Closeable {
+
+    /**
+     * Lit la transaction suivante du relevé.
+     *
+     * @return La transaction suivante, ou null en fin de relevé
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    ParsedTransactionDTO nextRow() throws IOException;
+
+    /**
+     * Nombre de transactions produites jusqu'ici.
+     */
+    int rowCount();
+
+    /**
+     * Nombre de pages du relevé, 0 pour les formats sans pagination.
+     */
+    default int pageCount() {
+        return 0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.budgetmanager.service.statement;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Début d'un fichier de relevé, lu une seule fois et partagé par tous les sniffers.
+ *
+ * @param head Premiers octets du fichier (au plus StatementFormatRegistry.SNIFF_SIZE)
+ * @param fileName Nom du fichier envoyé (peut être null)
+ * @param contentType Content-Type envoyé (peut être null)
+ */
+public record StatementSample(byte[] head, String fileName, String contentType) {
+
+    private static final String UTF8_BOM = "\uFEFF";
+
+    /**
+     * Vérifie si le fichier commence par la signature donnée.
+     */
+    public boolean startsWith(byte[] magic) {
+        if (head.length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (head[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Début du fichier décodé en UTF-8, sans BOM.
+     */
+    public String text() {
+        String text = new String(head, StandardCharsets.UTF_8);
+        return text.startsWith(UTF8_BOM) ? text.substring(1) : text;
+    }
+
+    /**
+     * Première ligne non vide du fichier.
+     */
+    public String firstLine() {
+        for (String line : text().split("\\r?\\n", 16)) {
+            if (!line.isBlank()) {
+                return line.trim();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Vérifie l'extension du nom de fichier (insensible à la casse).
+     */
+    public boolean hasExtension(String extension) {
+        return fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(extension);
+    }
+}
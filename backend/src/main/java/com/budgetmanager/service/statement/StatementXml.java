@@ -0,0 +1,53 @@
+package com.budgetmanager.service.statement;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Lecture StAX des relevés XML (OFX 2.x, CAMT.053).
+ * Le parseur pull ne garde que l'élément courant : la mémoire reste constante
+ * quelle que soit la taille de l'export. DTD et entités externes sont désactivées.
+ */
+final class StatementXml {
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private StatementXml() {
+        // Utility class - prevent instantiation
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * Ouvre un lecteur StAX ; l'encodage est lu dans la déclaration XML.
+     */
+    static XMLStreamReader open(InputStream in) throws IOException {
+        try {
+            return FACTORY.createXMLStreamReader(in);
+        } catch (XMLStreamException e) {
+            throw new IOException("XML invalide : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ferme le lecteur StAX et le flux sous-jacent (XMLStreamReader.close ne le fait pas).
+     */
+    static void close(XMLStreamReader xml, InputStream in) throws IOException {
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            // the underlying stream is closed below anyway
+        } finally {
+            in.close();
+        }
+    }
+}
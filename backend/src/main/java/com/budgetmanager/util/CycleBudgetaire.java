@@ -0,0 +1,69 @@
+package com.budgetmanager.util;
+
+import com.budgetmanager.entity.ChargeFixe;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Cycle budgétaire d'un utilisateur : du jour de paie au jour de paie suivant - 1.
+ *
+ * @param debut Premier jour du cycle
+ * @param fin Dernier jour du cycle
+ */
+public record CycleBudgetaire(LocalDate debut, LocalDate fin) {
+
+    /**
+     * Cycle contenant la date donnée.
+     *
+     * @param jourPaie Jour de paie de l'utilisateur (1-31)
+     * @param today Date de référence
+     */
+    public static CycleBudgetaire courant(int jourPaie, LocalDate today) {
+        LocalDate debutMois = today.getDayOfMonth() >= jourPaie ? today : today.minusMonths(1);
+        LocalDate debut = debutMois.withDayOfMonth(Math.min(jourPaie, debutMois.lengthOfMonth()));
+
+        // Cycle runs from jourPaie to jourPaie - 1 of next month (end of month when paid on the 1st)
+        LocalDate moisSuivant = debut.plusMonths(1);
+        LocalDate fin = jourPaie > 1
+                ? moisSuivant.withDayOfMonth(Math.min(jourPaie - 1, moisSuivant.lengthOfMonth()))
+                : debut.withDayOfMonth(debut.lengthOfMonth());
+
+        return new CycleBudgetaire(debut, fin);
+    }
+
+    /**
+     * Cycle commençant dans le mois donné.
+     *
+     * @param jourPaie Jour de paie de l'utilisateur (1-31)
+     * @param mois Mois de début du cycle
+     */
+    public static CycleBudgetaire du(int jourPaie, YearMonth mois) {
+        return courant(jourPaie, mois.atDay(Math.min(jourPaie, mois.lengthOfMonth())));
+    }
+
+    /**
+     * Libellé du cycle, mois de début au format "YYYY-MM".
+     */
+    public String label() {
+        return debut.getYear() + "-" + String.format("%02d", debut.getMonthValue());
+    }
+
+    /**
+     * Indique si la charge est prélevée dans ce cycle selon sa fréquence,
+     * comptée en mois depuis le mois de début de la charge.
+     */
+    public boolean concerne(ChargeFixe charge) {
+        LocalDate dateDebut = charge.getDateDebut();
+        int monthsSinceStart = (debut.getYear() - dateDebut.getYear()) * 12
+                + (debut.getMonthValue() - dateDebut.getMonthValue());
+
+        return switch (charge.getFrequence()) {
+            case MENSUELLE -> true;
+            case BIMESTRIELLE -> monthsSinceStart % 2 == 0;
+            case TRIMESTRIELLE -> monthsSinceStart % 3 == 0;
+            case SEMESTRIELLE -> monthsSinceStart % 6 == 0;
+            case ANNUELLE -> monthsSinceStart % 12 == 0;
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.budgetmanager.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+
+/**
+ * Utility class for building transaction fingerprints used to detect re-imported statement lines
+ * A bank reference (OFX FITID, CAMT AcctSvcrRef...) is used when available since it is stable
+ * across exports; otherwise the fingerprint is derived from date, amount and merchant key
+ */
+public final class FingerprintUtil {
+
+    private FingerprintUtil() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Digest bytes kept (128 bits, 33 characters with the prefix; transactions.empreinte is 40)
+     */
+    private static final int HASH_BYTES = 16;
+
+    /**
+     * Fingerprint of a statement line
+     *
+     * @param reference bank reference, may be null
+     * @return the reference-based fingerprint when a reference is given, the content-based one otherwise
+     */
+    public static String of(LocalDate date, BigDecimal montant, String description, String reference) {
+        if (reference != null && !reference.isBlank()) {
+            return ofReference(reference);
+        }
+        return ofContent(date, montant, description);
+    }
+
+    /**
+     * Fingerprint from a bank reference
+     */
+    public static String ofReference(String reference) {
+        return "R" + hash("REF|" + reference.trim());
+    }
+
+    /**
+     * Fingerprint from date, amount and merchant key
+     */
+    public static String ofContent(LocalDate date, BigDecimal montant, String description) {
+        String key = MerchantKeyUtil.normalize(description);
+        if (key.isEmpty() && description != null) {
+            key = description.trim().toUpperCase();
+        }
+        String amount = montant == null ? "" : montant.setScale(2, RoundingMode.HALF_UP).toPlainString();
+        return "C" + hash(date + "|" + amount + "|" + key);
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, HASH_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
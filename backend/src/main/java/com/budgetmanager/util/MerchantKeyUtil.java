@@ -0,0 +1,84 @@
+package com.budgetmanager.util;
+
+import java.text.Normalizer;
+import java.util.Set;
+
+/**
+ * Utility class for building merchant keys from bank statement descriptions
+ * Digits, dates, card suffixes and payment-method noise are stripped so that
+ * recurring lines of the same merchant share one key
+ */
+public final class MerchantKeyUtil {
+
+    private MerchantKeyUtil() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Maximum number of words kept in a key (trailing words are usually the city/branch)
+     */
+    public static final int MAX_TOKENS = 3;
+
+    /**
+     * Maximum key length (matches categories_marchands.cle_marchand)
+     */
+    public static final int MAX_LENGTH = 100;
+
+    // Payment-method words that say nothing about the merchant
+    private static final Set<String> NOISE_TOKENS = Set.of(
+            "CB", "CARTE", "PAIEMENT", "PAIE", "ACHAT", "PRLV", "PRELEVEMENT", "PRELEV",
+            "SEPA", "FACT", "FACTURE", "DU", "LE", "AU"
+    );
+
+    /**
+     * Normalize a description into a merchant key
+     * Example: "CARTE X4521 12/10 CARREFOUR MARKET PARIS 15" -> "CARREFOUR MARKET PARIS"
+     *
+     * @return the key, or an empty string if nothing meaningful remains
+     */
+    public static String normalize(String description) {
+        if (description == null || description.isBlank()) {
+            return "";
+        }
+
+        String source = stripAccents(description);
+        StringBuilder key = new StringBuilder(Math.min(source.length(), MAX_LENGTH));
+        StringBuilder token = new StringBuilder(16);
+        int tokens = 0;
+
+        for (int i = 0; i <= source.length() && tokens < MAX_TOKENS; i++) {
+            char c = i < source.length() ? source.charAt(i) : ' ';
+            if (Character.isLetter(c)) {
+                token.append(Character.toUpperCase(c));
+                continue;
+            }
+            if (Character.isDigit(c) && !token.isEmpty()) {
+                // "X4521", "ref123": a word glued to digits is a card or reference suffix
+                token.setLength(0);
+                while (i + 1 < source.length() && Character.isLetterOrDigit(source.charAt(i + 1))) {
+                    i++;
+                }
+                continue;
+            }
+            if (token.length() > 1 && !NOISE_TOKENS.contains(token.toString())) {
+                if (!key.isEmpty()) {
+                    key.append(' ');
+                }
+                key.append(token);
+                tokens++;
+            }
+            token.setLength(0);
+        }
+
+        return key.length() > MAX_LENGTH ? key.substring(0, MAX_LENGTH) : key.toString();
+    }
+
+    private static String stripAccents(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0x7F) {
+                return Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,137 @@
+package com.budgetmanager.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable amount of money backed by a long number of cents.
+ * Arithmetic is exact and throws ArithmeticException on overflow.
+ * Conversions from BigDecimal round with MoneyConstants.MONEY_ROUNDING_MODE to
+ * MoneyConstants.MONEY_SCALE, so Money.of(x).toBigDecimal() equals MoneyConstants.round(x).
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0L);
+
+    // Largest amount storable in the precision = 12, scale = 2 columns (9 999 999 999.99)
+    public static final long MAX_COLUMN_CENTS = 999_999_999_999L;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0L ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Create from a BigDecimal, rounded to cents like MoneyConstants.round.
+     */
+    public static Money of(BigDecimal value) {
+        return ofCents(toCents(value));
+    }
+
+    /**
+     * Cents of a BigDecimal, rounded like MoneyConstants.round.
+     * Values already at scale 2 (the usual case for column values) skip the rounding;
+     * movePointRight still allocates one BigDecimal (unscaledValue would allocate a BigInteger).
+     *
+     * @throws ArithmeticException if the amount does not fit in a long
+     */
+    public static long toCents(BigDecimal value) {
+        BigDecimal scaled = value.scale() == MoneyConstants.MONEY_SCALE
+                ? value
+                : value.setScale(MoneyConstants.MONEY_SCALE, MoneyConstants.MONEY_ROUNDING_MODE);
+        return scaled.movePointRight(MoneyConstants.MONEY_SCALE).longValueExact();
+    }
+
+    /**
+     * BigDecimal of a number of cents, scale 2.
+     */
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, MoneyConstants.MONEY_SCALE);
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money plus(BigDecimal other) {
+        return ofCents(Math.addExact(cents, toCents(other)));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(long factor) {
+        return ofCents(Math.multiplyExact(cents, factor));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public Money abs() {
+        return cents >= 0 ? this : negate();
+    }
+
+    /**
+     * Apply a percentage with the same rounding as MoneyConstants.applyPercentage.
+     */
+    public Money applyPercentage(BigDecimal percentage) {
+        return of(MoneyConstants.applyPercentage(toBigDecimal(), percentage));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isZero() {
+        return cents == 0L;
+    }
+
+    /**
+     * BigDecimal with scale 2, as read from and written to the amount columns.
+     */
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(cents);
+    }
+
+    /**
+     * BigDecimal for a precision = 12, scale = 2 column.
+     *
+     * @throws ArithmeticException if the amount exceeds the column precision
+     */
+    public BigDecimal toColumn() {
+        if (Math.abs(cents) > MAX_COLUMN_CENTS) {
+            throw new ArithmeticException("Amount exceeds column precision: " + toBigDecimal());
+        }
+        return toBigDecimal();
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money other && cents == other.cents);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
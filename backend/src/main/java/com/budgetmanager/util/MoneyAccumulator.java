@@ -0,0 +1,59 @@
+package com.budgetmanager.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Mutable sum of money amounts held as a primitive long of cents.
+ * Use it in aggregation loops instead of reducing BigDecimal streams:
+ * adding allocates nothing, the BigDecimal is built once at the end.
+ * Not thread-safe.
+ */
+public final class MoneyAccumulator {
+
+    private long cents;
+
+    public MoneyAccumulator add(BigDecimal value) {
+        if (value != null) {
+            cents = Math.addExact(cents, Money.toCents(value));
+        }
+        return this;
+    }
+
+    public MoneyAccumulator addAbs(BigDecimal value) {
+        if (value != null) {
+            cents = Math.addExact(cents, Math.absExact(Money.toCents(value)));
+        }
+        return this;
+    }
+
+    public MoneyAccumulator add(Money value) {
+        cents = Math.addExact(cents, value.cents());
+        return this;
+    }
+
+    public MoneyAccumulator addCents(long value) {
+        cents = Math.addExact(cents, value);
+        return this;
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public Money toMoney() {
+        return Money.ofCents(cents);
+    }
+
+    /**
+     * Sum with scale 2; a zero sum is BigDecimal.ZERO, as returned by reduce(BigDecimal.ZERO, BigDecimal::add)
+     * on an empty stream.
+     */
+    public BigDecimal toBigDecimal() {
+        return cents == 0L ? BigDecimal.ZERO : Money.toBigDecimal(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
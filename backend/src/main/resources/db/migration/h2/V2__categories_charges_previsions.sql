@@ -0,0 +1,78 @@
+-- Memo marchand -> categorie, occurrences et prochaine echeance des charges fixes,
+-- previsions de depenses, empreinte des lignes de releve importees.
+-- "if not exists" : une base passee par database.generation=update avec ces entites a deja tout ou partie
+-- de ces objets ; les cles etrangeres sont creees avec leur table.
+
+create table if not exists categories_marchands (
+    id uuid not null,
+    cle_marchand varchar(100) not null,
+    occurrences integer not null,
+    type enum ('ABONNEMENT','ALIMENTATION','ALLOCATION','ASSURANCE','AUTRE','BEAUTE','CADEAU_RECU','COMMISSION','CREDIT_CONSO','CREDIT_IMMOBILIER','EDUCATION','EPARGNE','ESSENCE','FRAIS_BANCAIRE','FREELANCE','GAIN_INVESTISSEMENT','IMPOTS','INVESTISSEMENT','LOISIRS','LOYER','MAISON','MUTUELLE','PRIME','REMBOURSEMENT','RESTAURANT','RETRAIT_ESPECES','SALAIRE','SANTE','SHOPPING','TRANSFERT_OBJECTIF','TRANSPORT','VENTE','VERSEMENT_OBJECTIF','VIREMENT_INTERNE','VOYAGE') not null,
+    updated_at timestamp(6),
+    user_id uuid not null,
+    primary key (id),
+    constraint uk_categorie_marchand unique (user_id, cle_marchand, type),
+    constraint FK3v15vjb1hht86a43hukks8usl foreign key (user_id) references users on delete cascade
+);
+
+create table if not exists charge_occurrences (
+    id uuid not null,
+    created_at timestamp(6),
+    cycle_budget varchar(7) not null,
+    charge_fixe_id uuid not null,
+    transaction_id uuid,
+    primary key (id),
+    constraint uk_charge_occurrence unique (charge_fixe_id, cycle_budget),
+    constraint FKmu2iu2jmlf9liywbcaflxyk69 foreign key (charge_fixe_id) references charges_fixes on delete cascade,
+    constraint FKjku1we16wi19kmb6ow5la2cp7 foreign key (transaction_id) references transactions on delete cascade
+);
+
+create table if not exists previsions_depenses (
+    id uuid not null,
+    categorie enum ('ABONNEMENT','ALIMENTATION','ALLOCATION','ASSURANCE','AUTRE','BEAUTE','CADEAU_RECU','COMMISSION','CREDIT_CONSO','CREDIT_IMMOBILIER','EDUCATION','EPARGNE','ESSENCE','FRAIS_BANCAIRE','FREELANCE','GAIN_INVESTISSEMENT','IMPOTS','INVESTISSEMENT','LOISIRS','LOYER','MAISON','MUTUELLE','PRIME','REMBOURSEMENT','RESTAURANT','RETRAIT_ESPECES','SALAIRE','SANTE','SHOPPING','TRANSFERT_OBJECTIF','TRANSPORT','VENTE','VERSEMENT_OBJECTIF','VIREMENT_INTERNE','VOYAGE') not null,
+    dernier_cycle varchar(7) not null,
+    erreur_absolue_cumulee float(53) not null,
+    niveau float(53) not null,
+    nombre_cycles integer not null,
+    saisons float(53) array not null,
+    tendance float(53) not null,
+    updated_at timestamp(6),
+    user_id uuid not null,
+    primary key (id),
+    constraint uk_prevision_depense unique (user_id, categorie),
+    constraint FK9x9vx63ioi62dgxmvomvw05ad foreign key (user_id) references users on delete cascade
+);
+
+alter table charges_fixes add column if not exists prochaine_echeance date;
+
+alter table transactions add column if not exists empreinte varchar(40);
+
+create index if not exists idx_categorie_marchand_user
+   on categories_marchands (user_id);
+
+create index if not exists idx_charge_occurrence_transaction
+   on charge_occurrences (transaction_id);
+
+create index if not exists idx_charge_actif_echeance
+   on charges_fixes (actif, prochaine_echeance);
+
+create index if not exists idx_transaction_compte_empreinte
+   on transactions (compte_id, empreinte);
+
+-- Reprise des charges passees avant charge_occurrences : les transactions generees ("nom - YYYY-MM",
+-- meme categorie) des charges sans occurrence sont rattachees au mois de leur date, une fois par mois.
+-- Le nom de la charge est echappe : % et _ y sont des caracteres ordinaires.
+insert into charge_occurrences (id, created_at, cycle_budget, charge_fixe_id, transaction_id)
+select random_uuid(), current_timestamp, cycle_budget, charge_fixe_id, transaction_id
+from (
+    select formatdatetime(t.date_transaction, 'yyyy-MM') as cycle_budget,
+           c.id as charge_fixe_id,
+           t.id as transaction_id,
+           row_number() over (partition by c.id, formatdatetime(t.date_transaction, 'yyyy-MM')
+                              order by t.date_transaction, t.id) as rang
+    from charges_fixes c
+    join transactions t on t.user_id = c.user_id and t.type = c.categorie
+    where t.description like replace(replace(replace(c.nom, '!', '!!'), '%', '!%'), '_', '!_') || ' - %' escape '!'
+      and not exists (select 1 from charge_occurrences o where o.charge_fixe_id = c.id)
+) reprises
+where rang = 1;
@@ -0,0 +1,24 @@
+-- Index des requetes chaudes, version H2 : ni index partiel ni colonnes incluses,
+-- le filtre actif devient une colonne de l'index. Memes noms que pour PostgreSQL.
+
+drop index if exists idx_compte_user_actif;
+create index idx_compte_user_actif
+    on comptes (user_id, actif, nom);
+
+drop index if exists idx_objectif_user_actif;
+create index idx_objectif_user_actif
+    on objectifs (user_id, actif, priorite, nom);
+
+drop index if exists idx_charge_user_actif;
+create index idx_charge_user_actif
+    on charges_fixes (user_id, actif, nom);
+
+drop index if exists idx_transaction_user_date;
+create index idx_transaction_user_date
+    on transactions (user_id, date_transaction desc, created_at desc);
+
+create index idx_repartition_compte
+    on objectif_repartitions (compte_id);
+
+create index idx_snapshot_user_month_desc
+    on month_snapshots (user_id, month desc);
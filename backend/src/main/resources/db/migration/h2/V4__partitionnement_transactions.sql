@@ -0,0 +1,2 @@
+-- Partitionnement de transactions par annee : PostgreSQL seulement (H2 n'a pas de partitions).
+-- Version tenue pour garder la meme suite de migrations sur les deux bases.
@@ -0,0 +1,318 @@
+-- Schema initial : tables, contraintes et index tels que generes par Hibernate 7.1 (PostgreSQLDialect)
+-- depuis les entites d'avant Flyway, quand le schema etait gere par database.generation=update.
+-- Une base existante sans historique Flyway est marquee a cette version (baseline-on-migrate) :
+-- ce script doit rester identique au schema de ces bases, les ajouts vont dans les versions suivantes.
+
+create table banques (
+    id uuid not null,
+    actif boolean not null,
+    couleur_theme varchar(255),
+    logo_url varchar(255),
+    nom varchar(255) not null unique,
+    primary key (id)
+);
+
+create table charges_fixes (
+    id uuid not null,
+    actif boolean not null,
+    categorie varchar(255) not null check (categorie in ('SALAIRE','PRIME','FREELANCE','ALLOCATION','REMBOURSEMENT','GAIN_INVESTISSEMENT','CADEAU_RECU','VENTE','LOYER','ASSURANCE','ABONNEMENT','CREDIT_IMMOBILIER','CREDIT_CONSO','IMPOTS','MUTUELLE','ALIMENTATION','RESTAURANT','TRANSPORT','ESSENCE','SHOPPING','LOISIRS','SANTE','BEAUTE','MAISON','EDUCATION','VOYAGE','EPARGNE','INVESTISSEMENT','VIREMENT_INTERNE','TRANSFERT_OBJECTIF','VERSEMENT_OBJECTIF','RETRAIT_ESPECES','FRAIS_BANCAIRE','COMMISSION','AUTRE')),
+    created_at timestamp(6),
+    date_debut date not null,
+    date_fin date,
+    description TEXT,
+    frequence varchar(255) not null check (frequence in ('MENSUELLE','BIMESTRIELLE','TRIMESTRIELLE','SEMESTRIELLE','ANNUELLE')),
+    jour_prelevement integer not null,
+    montant numeric(10,2) not null,
+    nom varchar(100) not null,
+    updated_at timestamp(6),
+    version bigint,
+    compte_id uuid not null,
+    user_id uuid not null,
+    primary key (id)
+);
+
+create table comptes (
+    id uuid not null,
+    actif boolean not null,
+    date_ouverture date,
+    nom varchar(255) not null,
+    plafond numeric(12,2),
+    principal_charges_fixes boolean not null,
+    solde_total numeric(12,2) not null,
+    taux numeric(5,2),
+    type varchar(255) not null check (type in ('COMPTE_COURANT','LIVRET_A','LDDS','LIVRET_JEUNE','LEP','PEL','CEL','CSL','PEA','PEA_PME','ASSURANCE_VIE','COMPTE_TITRE','CRYPTO','OR_METAUX','AUTRE')),
+    version bigint,
+    banque_id uuid not null,
+    user_id uuid not null,
+    primary key (id)
+);
+
+create table month_snapshots (
+    id uuid not null,
+    budgetChargesFixes numeric(12,2),
+    budgetDepensesVariables numeric(12,2),
+    created_at timestamp(6),
+    cycleEnd varchar(255) not null,
+    cycleStart varchar(255) not null,
+    month varchar(7) not null,
+    nombreChargesFixes integer,
+    nombreDepensesVariables integer,
+    nombreTransactions integer,
+    salaireMensuel numeric(12,2),
+    soldeCompteCourant numeric(12,2) not null,
+    totalChargesFixes numeric(12,2) not null,
+    totalDepensesVariables numeric(12,2) not null,
+    totalEpargne numeric(12,2) not null,
+    totalRevenus numeric(12,2) not null,
+    user_id uuid not null,
+    primary key (id),
+    constraint idx_snapshot_user_month unique (user_id, month)
+);
+
+create table objectif_repartitions (
+    id uuid not null,
+    montant_actuel numeric(12,2) not null,
+    ordre integer not null,
+    pourcentage_cible numeric(5,2),
+    version bigint,
+    compte_id uuid not null,
+    objectif_id uuid not null,
+    primary key (id),
+    unique (objectif_id, compte_id)
+);
+
+create table objectifs (
+    id uuid not null,
+    actif boolean not null,
+    couleur varchar(255),
+    description varchar(500),
+    icone varchar(255),
+    montant_cible numeric(12,2) not null,
+    nom varchar(255) not null,
+    priorite varchar(255) not null check (priorite in ('CRITIQUE','TRES_HAUTE','HAUTE','NORMALE','BASSE','TRES_BASSE','SUSPENDU')),
+    type varchar(255) not null check (type in ('SECURITE','COURT_TERME','MOYEN_TERME','LONG_TERME','PLAISIR','FAMILLE','FORMATION','INVESTISSEMENT','PROJET_IMMOBILIER','TRANSPORT','SANTE','TECHNOLOGIE','OPPORTUNITE','DIVERS')),
+    version bigint,
+    user_id uuid not null,
+    primary key (id)
+);
+
+create table salaires_valides (
+    id uuid not null,
+    created_at timestamp(6),
+    date_reception date not null,
+    description varchar(500),
+    mois varchar(7) not null,
+    montant_salaire numeric(12,2) not null,
+    updated_at timestamp(6),
+    version bigint,
+    compte_id uuid not null,
+    user_id uuid not null,
+    primary key (id),
+    constraint uk_salaire_user_mois unique (user_id, mois)
+);
+
+create table transactions (
+    id uuid not null,
+    created_at timestamp(6),
+    date_transaction date not null,
+    description varchar(500) not null,
+    montant numeric(12,2) not null,
+    type varchar(255) not null check (type in ('SALAIRE','PRIME','FREELANCE','ALLOCATION','REMBOURSEMENT','GAIN_INVESTISSEMENT','CADEAU_RECU','VENTE','LOYER','ASSURANCE','ABONNEMENT','CREDIT_IMMOBILIER','CREDIT_CONSO','IMPOTS','MUTUELLE','ALIMENTATION','RESTAURANT','TRANSPORT','ESSENCE','SHOPPING','LOISIRS','SANTE','BEAUTE','MAISON','EDUCATION','VOYAGE','EPARGNE','INVESTISSEMENT','VIREMENT_INTERNE','TRANSFERT_OBJECTIF','VERSEMENT_OBJECTIF','RETRAIT_ESPECES','FRAIS_BANCAIRE','COMMISSION','AUTRE')),
+    version bigint,
+    compte_id uuid not null,
+    objectif_id uuid,
+    transfert_objectif_id uuid,
+    user_id uuid not null,
+    primary key (id)
+);
+
+create table transfert_objectifs (
+    id uuid not null,
+    created_at timestamp(6),
+    date_transfert date not null,
+    montant numeric(12,2) not null,
+    motif varchar(500),
+    compte_destination_id uuid not null,
+    compte_source_id uuid not null,
+    objectif_destination_id uuid not null,
+    objectif_source_id uuid not null,
+    user_id uuid not null,
+    primary key (id)
+);
+
+create table users (
+    id uuid not null,
+    created_at timestamp(6),
+    decouvert_autorise numeric(10,2),
+    jour_paie integer,
+    nom varchar(255) not null,
+    objectif_compte_courant numeric(10,2),
+    pourcentage_charges_fixes numeric(5,2),
+    pourcentage_depenses_variables numeric(5,2),
+    pourcentage_epargne numeric(5,2),
+    prenom varchar(255) not null,
+    salaire_mensuel_net numeric(10,2),
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+create index idx_charge_user_actif
+   on charges_fixes (user_id, actif);
+
+create index idx_charge_compte
+   on charges_fixes (compte_id);
+
+create index idx_charge_jour_prelevement
+   on charges_fixes (jour_prelevement);
+
+create index idx_charge_frequence
+   on charges_fixes (frequence);
+
+create index idx_compte_user_actif
+   on comptes (user_id, actif);
+
+create index idx_compte_type
+   on comptes (type);
+
+create index idx_compte_banque
+   on comptes (banque_id);
+
+create index idx_objectif_user_actif
+   on objectifs (user_id, actif);
+
+create index idx_objectif_priorite
+   on objectifs (priorite);
+
+create index idx_objectif_type
+   on objectifs (type);
+
+create index idx_salaire_valide_user_mois
+   on salaires_valides (user_id, mois);
+
+create index idx_salaire_valide_mois
+   on salaires_valides (mois);
+
+create index idx_transaction_user_date
+   on transactions (user_id, date_transaction);
+
+create index idx_transaction_compte_date
+   on transactions (compte_id, date_transaction);
+
+create index idx_transaction_objectif
+   on transactions (objectif_id);
+
+create index idx_transaction_type
+   on transactions (type);
+
+create index idx_transaction_created_at
+   on transactions (created_at);
+
+create index idx_transfert_user_date
+   on transfert_objectifs (user_id, date_transfert);
+
+create index idx_transfert_objectif_source
+   on transfert_objectifs (objectif_source_id);
+
+create index idx_transfert_objectif_dest
+   on transfert_objectifs (objectif_destination_id);
+
+create index idx_transfert_created_at
+   on transfert_objectifs (created_at);
+
+create index idx_user_created_at
+   on users (created_at);
+
+alter table if exists charges_fixes
+   add constraint FKso3bi0r0hfafk18negbdh4ep2
+   foreign key (compte_id)
+   references comptes;
+
+alter table if exists charges_fixes
+   add constraint FK8ka2msnif0ddvhfd3q1lu0wkj
+   foreign key (user_id)
+   references users;
+
+alter table if exists comptes
+   add constraint FKkqdjm0bqowv952aewp6cb0856
+   foreign key (banque_id)
+   references banques;
+
+alter table if exists comptes
+   add constraint FK2feaip4kenosusiyvkt6s1t6w
+   foreign key (user_id)
+   references users;
+
+alter table if exists month_snapshots
+   add constraint FKlcqj726g17osutl7cm3vpaa24
+   foreign key (user_id)
+   references users;
+
+alter table if exists objectif_repartitions
+   add constraint FKnbl0h015cj3tlyxi1gw6frice
+   foreign key (compte_id)
+   references comptes;
+
+alter table if exists objectif_repartitions
+   add constraint FKs0rs06vv04rgfdg2005u7lr6
+   foreign key (objectif_id)
+   references objectifs;
+
+alter table if exists objectifs
+   add constraint FKi0cdxpmeegb2e0ivpgeqj9a3u
+   foreign key (user_id)
+   references users;
+
+alter table if exists salaires_valides
+   add constraint FKs51248dpbv1xa9mway9kqy8qs
+   foreign key (compte_id)
+   references comptes;
+
+alter table if exists salaires_valides
+   add constraint FKhfxr0amqd0nvcof0fr20xl4li
+   foreign key (user_id)
+   references users;
+
+alter table if exists transactions
+   add constraint FKsf4o41ro9ey7a5anak7n54jqv
+   foreign key (compte_id)
+   references comptes;
+
+alter table if exists transactions
+   add constraint FKac7sxusjrdkqjts1t2lqagxyo
+   foreign key (objectif_id)
+   references objectifs;
+
+alter table if exists transactions
+   add constraint FKfonhbvqfmcb6j73blmej1ilb
+   foreign key (transfert_objectif_id)
+   references transfert_objectifs;
+
+alter table if exists transactions
+   add constraint FKqwv7rmvc8va8rep7piikrojds
+   foreign key (user_id)
+   references users;
+
+alter table if exists transfert_objectifs
+   add constraint FKd44gpw8oy3y5amqsu1oo0yqc6
+   foreign key (compte_destination_id)
+   references comptes;
+
+alter table if exists transfert_objectifs
+   add constraint FKjek59ve2fvqe1ojvpo0er7sre
+   foreign key (compte_source_id)
+   references comptes;
+
+alter table if exists transfert_objectifs
+   add constraint FKr5hllut6usei2uh0h4hm7y3eb
+   foreign key (objectif_destination_id)
+   references objectifs;
+
+alter table if exists transfert_objectifs
+   add constraint FKhbe6v2en4owo1ab0uwke4llsq
+   foreign key (objectif_source_id)
+   references objectifs;
+
+alter table if exists transfert_objectifs
+   add constraint FK68wjnujo8lhb77sgjmk38qye3
+   foreign key (user_id)
+   references users;
@@ -0,0 +1,34 @@
+-- Index des requetes chaudes. Les index remplaces gardent leur nom (annotations @Index des entites).
+
+-- Comptes, objectifs, charges fixes : listes et tableau de bord ne lisent que les lignes actives,
+-- dans leur ordre d'affichage. Index partiels : les lignes desactivees n'y entrent pas.
+drop index if exists idx_compte_user_actif;
+create index idx_compte_user_actif
+    on comptes (user_id, nom) where actif;
+
+drop index if exists idx_objectif_user_actif;
+create index idx_objectif_user_actif
+    on objectifs (user_id, priorite, nom) where actif;
+
+drop index if exists idx_charge_user_actif;
+create index idx_charge_user_actif
+    on charges_fixes (user_id, nom) where actif;
+
+-- Traitement planifie : charges actives arrivees a echeance
+drop index if exists idx_charge_actif_echeance;
+create index idx_charge_actif_echeance
+    on charges_fixes (prochaine_echeance) where actif;
+
+-- Liste des transactions : utilisateur et periode, tri date puis creation decroissantes sans etape de tri.
+-- type et montant inclus : les agregats par periode (previsions de depenses) se font sur l'index seul.
+drop index if exists idx_transaction_user_date;
+create index idx_transaction_user_date
+    on transactions (user_id, date_transaction desc, created_at desc) include (type, montant);
+
+-- Repartitions lues par compte seul (argent affecte aux objectifs) ; (objectif, compte) a deja son index unique
+create index idx_repartition_compte
+    on objectif_repartitions (compte_id);
+
+-- Historique des snapshots, du plus recent au plus ancien
+create index idx_snapshot_user_month_desc
+    on month_snapshots (user_id, month desc);
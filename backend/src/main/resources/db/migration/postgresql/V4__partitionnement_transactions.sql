@@ -0,0 +1,123 @@
+-- Partitionnement de transactions par annee de date_transaction.
+-- Les requetes bornees par date (liste filtree, cycle d'un snapshot, suppression d'un mois)
+-- ne lisent qu'une ou deux partitions ; une annee ancienne se detache et s'archive seule.
+-- Partitions des annees a venir creees par TransactionPartitionJob.
+
+-- Cle primaire et cles uniques d'une table partitionnee incluent la cle de partition :
+-- charge_occurrences ne peut plus referencer transactions (id), la cascade passe par un declencheur
+alter table if exists charge_occurrences
+   drop constraint if exists FKjku1we16wi19kmb6ow5la2cp7;
+
+alter table transactions rename to transactions_monolithe;
+
+create table transactions (
+    like transactions_monolithe including defaults including constraints
+) partition by range (date_transaction);
+
+-- Dates hors des annees creees (import d'un vieux releve, date saisie par erreur)
+create table transactions_defaut partition of transactions default;
+
+-- Cree la partition d'une annee si elle manque ; les lignes de cette annee deja rangees
+-- dans la partition par defaut y sont deplacees avant l'attachement
+create or replace function creer_partition_transactions(annee integer) returns boolean
+language plpgsql as $$
+declare
+    nom_partition text := 'transactions_' || annee;
+    debut date := make_date(annee, 1, 1);
+    fin date := make_date(annee + 1, 1, 1);
+begin
+    -- Plusieurs instances peuvent lancer le job en meme temps
+    perform pg_advisory_xact_lock(hashtext('creer_partition_transactions'));
+    if to_regclass(nom_partition) is not null then
+        return false;
+    end if;
+
+    execute format('create table %I (like transactions including defaults including constraints)', nom_partition);
+    perform set_config('budget.deplacement_partition', 'on', true);
+    execute format('with deplacees as (delete from transactions_defaut'
+                   ' where date_transaction >= %L and date_transaction < %L returning *)'
+                   ' insert into %I select * from deplacees', debut, fin, nom_partition);
+    perform set_config('budget.deplacement_partition', 'off', true);
+    execute format('alter table transactions attach partition %I for values from (%L) to (%L)',
+                   nom_partition, debut, fin);
+    return true;
+end;
+$$;
+
+do $$
+declare
+    premiere integer;
+    derniere integer := extract(year from current_date)::integer + 1;
+begin
+    select coalesce(min(extract(year from date_transaction))::integer, derniere - 1)
+      into premiere
+      from transactions_monolithe;
+    for annee in premiere .. greatest(premiere, derniere) loop
+        perform creer_partition_transactions(annee);
+    end loop;
+end;
+$$;
+
+insert into transactions select * from transactions_monolithe;
+
+drop table transactions_monolithe;
+
+alter table transactions
+   add constraint transactions_pkey primary key (id, date_transaction);
+
+alter table transactions
+   add constraint FKsf4o41ro9ey7a5anak7n54jqv
+   foreign key (compte_id)
+   references comptes;
+
+alter table transactions
+   add constraint FKac7sxusjrdkqjts1t2lqagxyo
+   foreign key (objectif_id)
+   references objectifs;
+
+alter table transactions
+   add constraint FKfonhbvqfmcb6j73blmej1ilb
+   foreign key (transfert_objectif_id)
+   references transfert_objectifs;
+
+alter table transactions
+   add constraint FKqwv7rmvc8va8rep7piikrojds
+   foreign key (user_id)
+   references users;
+
+-- Index de V1 et V2, crees sur chaque partition
+create index idx_transaction_user_date
+   on transactions (user_id, date_transaction desc, created_at desc) include (type, montant);
+
+create index idx_transaction_compte_date
+   on transactions (compte_id, date_transaction);
+
+create index idx_transaction_objectif
+   on transactions (objectif_id);
+
+create index idx_transaction_type
+   on transactions (type);
+
+create index idx_transaction_created_at
+   on transactions (created_at);
+
+create index idx_transaction_compte_empreinte
+   on transactions (compte_id, empreinte);
+
+-- Suppression d'une transaction : son occurrence de charge fixe disparait, la charge redevient due.
+-- Ni pour un deplacement hors de la partition par defaut, ni pour une ligne changee d'annee
+-- (UPDATE = suppression puis insertion dans l'autre partition, declencheur joue en fin d'instruction)
+create or replace function supprimer_occurrences_transaction() returns trigger
+language plpgsql as $$
+begin
+    if coalesce(current_setting('budget.deplacement_partition', true), 'off') <> 'on'
+       and not exists (select 1 from transactions where id = old.id) then
+        delete from charge_occurrences where transaction_id = old.id;
+    end if;
+    return null;
+end;
+$$;
+
+create trigger trg_transaction_occurrences
+    after delete on transactions
+    for each row execute function supprimer_occurrences_transaction();
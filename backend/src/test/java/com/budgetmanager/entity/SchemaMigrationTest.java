@@ -0,0 +1,153 @@
+package com.budgetmanager.entity;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrations Flyway : appliquées au démarrage (le schéma validé par Hibernate en dépend)
+ * et tenues en parallèle pour H2 (dev local, tests) et PostgreSQL (dev Docker, production).
+ * Reprise des données d'une base antérieure à Flyway.
+ */
+@QuarkusTest
+class SchemaMigrationTest {
+
+    @Inject
+    Flyway flyway;
+
+    @Test
+    void testMigrationsAppliedAtStartup() throws Exception {
+        String latest = versions("db/migration/h2").stream()
+                .map(name -> name.substring(1, name.indexOf("__")))
+                .max(Comparator.comparing(Integer::valueOf))
+                .orElseThrow();
+
+        assertEquals(0, flyway.info().pending().length);
+        MigrationInfo current = flyway.info().current();
+        assertNotNull(current);
+        assertEquals(latest, current.getVersion().getVersion());
+        assertDoesNotThrow(() -> flyway.validate());
+    }
+
+    @Test
+    void testBaselinedDatabaseGetsTheLaterVersions() throws Exception {
+        // A database created by database.generation=update before Flyway holds the V1 schema only
+        String url = "jdbc:h2:mem:baseline;DB_CLOSE_DELAY=-1;NON_KEYWORDS=MONTH";
+        Flyway baselined = baseline(url, List.of());
+
+        assertEquals(flyway.info().current().getVersion(), baselined.info().current().getVersion());
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            // Tables and columns added after V1
+            statement.executeQuery("select count(*) from categories_marchands");
+            statement.executeQuery("select prochaine_echeance from charges_fixes");
+            statement.executeQuery("select empreinte from transactions");
+        }
+    }
+
+    @Test
+    void testGeneratedChargeTransactionsLinkedOnce() throws Exception {
+        String url = "jdbc:h2:mem:reprise;DB_CLOSE_DELAY=-1;NON_KEYWORDS=MONTH";
+        baseline(url, List.of(
+                "insert into users (id, nom, prenom) values ('00000000-0000-0000-0000-000000000001', 'Test', 'Reprise')",
+                "insert into banques (id, actif, nom) values ('00000000-0000-0000-0000-000000000002', true, 'Banque')",
+                "insert into comptes (id, actif, nom, principal_charges_fixes, solde_total, type, banque_id, user_id)"
+                        + " values ('00000000-0000-0000-0000-000000000003', true, 'Courant', true, 0, 'COMPTE_COURANT',"
+                        + " '00000000-0000-0000-0000-000000000002', '00000000-0000-0000-0000-000000000001')",
+                charge("00000000-0000-0000-0000-000000000010", "Loyer", "LOYER"),
+                // % and _ are plain characters of the name, not wildcards
+                charge("00000000-0000-0000-0000-000000000011", "Box_100%", "ABONNEMENT"),
+                transaction("Loyer - 2024-01", "LOYER", "2024-01-05"),
+                transaction("Loyer - 2024-02", "LOYER", "2024-02-05"),
+                transaction("Loyer - 2024-02", "LOYER", "2024-02-20"),
+                transaction("Loyer - 2024-03", "AUTRE", "2024-03-05"),
+                transaction("Box_100% - 2024-01", "ABONNEMENT", "2024-01-10"),
+                transaction("BoxA100X - 2024-02", "ABONNEMENT", "2024-02-10")));
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select c.nom, o.cycle_budget from charge_occurrences o"
+                     + " join charges_fixes c on c.id = o.charge_fixe_id order by c.nom, o.cycle_budget")) {
+            List<String> occurrences = new ArrayList<>();
+            while (rows.next()) {
+                occurrences.add(rows.getString(1) + " " + rows.getString(2));
+            }
+            // One occurrence per month, same category only
+            assertEquals(List.of("Box_100% 2024-01", "Loyer 2024-01", "Loyer 2024-02"), occurrences);
+        }
+    }
+
+    @Test
+    void testSameVersionsForEveryDatabase() throws Exception {
+        Set<String> h2 = versions("db/migration/h2");
+        Set<String> postgresql = versions("db/migration/postgresql");
+
+        assertFalse(h2.isEmpty());
+        assertEquals(h2, postgresql);
+    }
+
+    /**
+     * Base créée par database.generation=update avant Flyway (schéma V1 et données), puis migrée.
+     */
+    private static Flyway baseline(String url, List<String> donnees) throws Exception {
+        URL v1 = SchemaMigrationTest.class.getClassLoader().getResource("db/migration/h2/V1__schema_initial.sql");
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(Path.of(v1.toURI())));
+            for (String insert : donnees) {
+                statement.execute(insert);
+            }
+        }
+
+        Flyway baselined = Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+        baselined.migrate();
+        return baselined;
+    }
+
+    private static String charge(String id, String nom, String categorie) {
+        return "insert into charges_fixes (id, actif, categorie, date_debut, frequence, jour_prelevement, montant, nom,"
+                + " compte_id, user_id) values ('" + id + "', true, '" + categorie + "', '2023-01-01', 'MENSUELLE', 5,"
+                + " -10, '" + nom + "', '00000000-0000-0000-0000-000000000003', '00000000-0000-0000-0000-000000000001')";
+    }
+
+    private static String transaction(String description, String type, String date) {
+        return "insert into transactions (id, date_transaction, description, montant, type, compte_id, user_id)"
+                + " values (random_uuid(), '" + date + "', '" + description + "', -10, '" + type + "',"
+                + " '00000000-0000-0000-0000-000000000003', '00000000-0000-0000-0000-000000000001')";
+    }
+
+    private static Set<String> versions(String location) throws IOException, URISyntaxException {
+        URL url = SchemaMigrationTest.class.getClassLoader().getResource(location);
+        assertNotNull(url, location);
+        try (Stream<Path> files = Files.list(Path.of(url.toURI()))) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith("V") && name.endsWith(".sql"))
+                    .collect(Collectors.toSet());
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.budgetmanager.metrics;
+
+import com.budgetmanager.dto.GenerationDonneesRequest;
+import com.budgetmanager.entity.*;
+import com.budgetmanager.service.ChargeOccurrenceService;
+import com.budgetmanager.service.GenerateurDonneesService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plans d'exécution des requêtes chaudes (migration V3) sur un jeu de données de taille réelle :
+ * chaque requête des écrans principaux et du traitement des charges doit passer par un index,
+ * jamais par un parcours complet de table. Plans capturés par le journal des requêtes lentes
+ * (seuil 0, EXPLAIN actif) ; les sous-classes vérifient le plan de chaque base.
+ * <p>
+ * L'utilisateur courant est produit par le générateur (3 ans, 300 dépenses par mois) ; 199 autres
+ * utilisateurs sont insérés en JDBC, avec des lignes désactivées. Sans eux, chaque table ne contient
+ * qu'un utilisateur : l'index (user_id, ...) ne filtre rien et le parcours complet est le bon plan.
+ */
+@QuarkusTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class BaseHotQueryPlanTest {
+
+    static final LocalDate AUJOURD_HUI = LocalDate.of(2025, 3, 20);
+
+    private static final int VOISINS = 199;
+    private static final int MOIS_VOISINS = 36;
+    private static final int TRANSACTIONS_PAR_MOIS_VOISINS = 40;
+    private static final int LOT = 1000;
+
+    @Inject
+    SlowQueryLog slowQueryLog;
+
+    @Inject
+    GenerateurDonneesService generateurDonneesService;
+
+    @Inject
+    ChargeOccurrenceService chargeOccurrenceService;
+
+    @BeforeAll
+    void setUp() {
+        QuarkusTransaction.requiringNew().run(BaseHotQueryPlanTest::viderBase);
+        // 6 comptes, 8 objectifs, 20 charges, 3 ans d'historique, 300 dépenses par mois
+        generateurDonneesService.generer(new GenerationDonneesRequest(6, 8, 20, 3, 300, 4, 11L), AUJOURD_HUI);
+        QuarkusTransaction.requiringNew().run(() -> Transaction.getEntityManager().unwrap(Session.class)
+                .doWork(BaseHotQueryPlanTest::insererVoisins));
+        // Statistiques à jour : le choix d'index repose sur la sélectivité
+        QuarkusTransaction.requiringNew().run(() ->
+                Transaction.getEntityManager().createNativeQuery("ANALYZE").executeUpdate());
+    }
+
+    @AfterAll
+    void tearDown() {
+        slowQueryLog.setSeuilMs(10_000);
+        slowQueryLog.setExplain(false);
+        slowQueryLog.vider();
+        QuarkusTransaction.requiringNew().run(BaseHotQueryPlanTest::viderBase);
+    }
+
+    private static void viderBase() {
+        Transaction.deleteAll();
+        TransfertObjectif.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeOccurrence.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+    }
+
+    /**
+     * Plan de la requête de liste des transactions (utilisateur et période, tri date puis création).
+     */
+    abstract void assertListingPlan(SlowQuery listing);
+
+    abstract void assertNoTableScan(List<SlowQuery> plans);
+
+    @Test
+    void testTransactionListingUsesUserDateIndex() throws InterruptedException {
+        List<SlowQuery> plans = plans("/api/transactions?dateDebut=2025-01-01&dateFin=2025-01-31");
+
+        assertListingPlan(requete(plans, "from transactions"));
+        assertNoTableScan(plans);
+    }
+
+    @Test
+    void testSnapshotsUseIndexes() throws InterruptedException {
+        List<SlowQuery> plans = plans("/api/dashboard/snapshots");
+
+        requete(plans, "from month_snapshots");
+        assertNoTableScan(plans);
+    }
+
+    @Test
+    void testDashboardUsesIndexes() throws InterruptedException {
+        assertNoTableScan(plans("/api/dashboard/2025-02"));
+    }
+
+    @Test
+    void testActiveListsUseIndexes() throws InterruptedException {
+        for (String path : List.of("/api/comptes", "/api/objectifs", "/api/charges-fixes")) {
+            assertNoTableScan(plans(path));
+        }
+    }
+
+    @Test
+    void testDueChargesUseIndexes() throws InterruptedException {
+        List<SlowQuery> plans = plans(() -> QuarkusTransaction.requiringNew()
+                .run(() -> chargeOccurrenceService.findIdsChargesDues(AUJOURD_HUI)));
+
+        requete(plans, "from charges_fixes");
+        assertNoTableScan(plans);
+    }
+
+    List<SlowQuery> plans(String path) throws InterruptedException {
+        return plans(() -> given().when().get(path).then().statusCode(200));
+    }
+
+    /**
+     * Exécute l'appel en capturant toutes ses requêtes, puis attend leurs plans (calculés en
+     * arrière-plan) : chaque requête capturée doit avoir le sien.
+     */
+    List<SlowQuery> plans(Runnable appel) throws InterruptedException {
+        slowQueryLog.vider();
+        slowQueryLog.setExplain(true);
+        slowQueryLog.setSeuilMs(0);
+        try {
+            appel.run();
+        } finally {
+            slowQueryLog.setSeuilMs(10_000);
+        }
+
+        assertTrue(slowQueryLog.attendrePlans(Duration.ofSeconds(30)));
+        slowQueryLog.setExplain(false);
+        List<SlowQuery> captures = slowQueryLog.lister();
+        assertFalse(captures.isEmpty());
+        for (SlowQuery capture : captures) {
+            assertNotNull(capture.plan(), capture.sql());
+        }
+        return captures;
+    }
+
+    static SlowQuery requete(List<SlowQuery> plans, String fragment) {
+        SlowQuery requete = plans.stream()
+                .filter(capture -> capture.sql().contains(fragment))
+                .findFirst()
+                .orElse(null);
+        assertNotNull(requete, fragment);
+        return requete;
+    }
+
+    /**
+     * Autres utilisateurs : comptes, objectifs et répartitions, charges fixes, snapshots et
+     * transactions sur 3 ans. Un compte, deux objectifs et cinq charges sur vingt sont désactivés,
+     * les échéances des charges sont toutes à venir. Même SQL sur H2 et PostgreSQL.
+     */
+    private static void insererVoisins(Connection connection) throws SQLException {
+        Random random = new Random(7L);
+        UUID banqueId = Banque.<Banque>findAll().firstResult().getId();
+        YearMonth premierMois = YearMonth.from(AUJOURD_HUI).minusMonths(MOIS_VOISINS - 1);
+
+        try (PreparedStatement users = connection.prepareStatement(
+                     "insert into users (id, created_at, nom, prenom, jour_paie, salaire_mensuel_net) "
+                             + "values (?, ?, ?, ?, ?, ?)");
+             PreparedStatement comptes = connection.prepareStatement(
+                     "insert into comptes (id, actif, nom, principal_charges_fixes, solde_total, type, version, "
+                             + "banque_id, user_id) values (?, ?, ?, ?, ?, ?, 0, ?, ?)");
+             PreparedStatement objectifs = connection.prepareStatement(
+                     "insert into objectifs (id, actif, montant_cible, nom, priorite, type, version, user_id) "
+                             + "values (?, ?, ?, ?, ?, 'SECURITE', 0, ?)");
+             PreparedStatement repartitions = connection.prepareStatement(
+                     "insert into objectif_repartitions (id, montant_actuel, ordre, version, compte_id, objectif_id) "
+                             + "values (?, ?, 0, 0, ?, ?)");
+             PreparedStatement charges = connection.prepareStatement(
+                     "insert into charges_fixes (id, actif, categorie, created_at, date_debut, frequence, "
+                             + "jour_prelevement, montant, nom, version, compte_id, user_id, prochaine_echeance) "
+                             + "values (?, ?, 'ABONNEMENT', ?, ?, 'MENSUELLE', ?, ?, ?, 0, ?, ?, ?)");
+             PreparedStatement snapshots = connection.prepareStatement(
+                     "insert into month_snapshots (id, created_at, cycleEnd, cycleStart, month, soldeCompteCourant, "
+                             + "totalChargesFixes, totalDepensesVariables, totalEpargne, totalRevenus, user_id) "
+                             + "values (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)");
+             PreparedStatement transactions = connection.prepareStatement(
+                     "insert into transactions (id, created_at, date_transaction, description, montant, type, "
+                             + "version, compte_id, user_id) values (?, ?, ?, ?, ?, ?, 0, ?, ?)")) {
+
+            String[] priorites = {"CRITIQUE", "HAUTE", "NORMALE", "BASSE"};
+            String[] types = {"ALIMENTATION", "RESTAURANT", "TRANSPORT", "SHOPPING", "LOISIRS"};
+            int lignes = 0;
+
+            for (int v = 0; v < VOISINS; v++) {
+                UUID userId = UUID.randomUUID();
+                users.setObject(1, userId);
+                users.setObject(2, AUJOURD_HUI.minusYears(3).atStartOfDay());
+                users.setString(3, "Voisin" + v);
+                users.setString(4, "Utilisateur");
+                users.setInt(5, 1 + random.nextInt(28));
+                users.setBigDecimal(6, new BigDecimal("2800.00"));
+                users.executeUpdate();
+
+                UUID[] compteIds = new UUID[6];
+                for (int c = 0; c < compteIds.length; c++) {
+                    compteIds[c] = UUID.randomUUID();
+                    comptes.setObject(1, compteIds[c]);
+                    comptes.setBoolean(2, c < 5);
+                    comptes.setString(3, "Compte " + c);
+                    comptes.setBoolean(4, c == 0);
+                    comptes.setBigDecimal(5, BigDecimal.valueOf(random.nextInt(2_000_000), 2));
+                    comptes.setString(6, c == 0 ? "COMPTE_COURANT" : "LIVRET_A");
+                    comptes.setObject(7, banqueId);
+                    comptes.setObject(8, userId);
+                    comptes.addBatch();
+                }
+
+                for (int o = 0; o < 8; o++) {
+                    UUID objectifId = UUID.randomUUID();
+                    objectifs.setObject(1, objectifId);
+                    objectifs.setBoolean(2, o < 6);
+                    objectifs.setBigDecimal(3, BigDecimal.valueOf(100_000L + random.nextInt(1_000_000), 2));
+                    objectifs.setString(4, "Objectif " + o);
+                    objectifs.setString(5, priorites[o % priorites.length]);
+                    objectifs.setObject(6, userId);
+                    objectifs.addBatch();
+
+                    repartitions.setObject(1, UUID.randomUUID());
+                    repartitions.setBigDecimal(2, BigDecimal.valueOf(random.nextInt(500_000), 2));
+                    repartitions.setObject(3, compteIds[1 + o % 5]);
+                    repartitions.setObject(4, objectifId);
+                    repartitions.addBatch();
+                }
+
+                for (int c = 0; c < 20; c++) {
+                    charges.setObject(1, UUID.randomUUID());
+                    charges.setBoolean(2, c < 15);
+                    charges.setObject(3, premierMois.atDay(1).atStartOfDay());
+                    charges.setObject(4, premierMois.atDay(1));
+                    charges.setInt(5, 1 + random.nextInt(28));
+                    charges.setBigDecimal(6, BigDecimal.valueOf(1_000 + random.nextInt(100_000), 2));
+                    charges.setString(7, "Charge " + c);
+                    charges.setObject(8, compteIds[0]);
+                    charges.setObject(9, userId);
+                    charges.setObject(10, AUJOURD_HUI.plusDays(1 + random.nextInt(30)));
+                    charges.addBatch();
+                }
+
+                for (int m = 0; m < MOIS_VOISINS; m++) {
+                    YearMonth mois = premierMois.plusMonths(m);
+                    snapshots.setObject(1, UUID.randomUUID());
+                    snapshots.setObject(2, mois.atEndOfMonth().atStartOfDay());
+                    snapshots.setString(3, mois.atEndOfMonth().toString());
+                    snapshots.setString(4, mois.atDay(1).toString());
+                    snapshots.setString(5, mois.toString());
+                    snapshots.setBigDecimal(6, BigDecimal.valueOf(random.nextInt(300_000), 2));
+                    snapshots.setBigDecimal(7, BigDecimal.valueOf(random.nextInt(150_000), 2));
+                    snapshots.setBigDecimal(8, BigDecimal.valueOf(random.nextInt(150_000), 2));
+                    snapshots.setBigDecimal(9, new BigDecimal("2800.00"));
+                    snapshots.setObject(10, userId);
+                    snapshots.addBatch();
+
+                    for (int t = 0; t < TRANSACTIONS_PAR_MOIS_VOISINS; t++) {
+                        LocalDate date = mois.atDay(1 + random.nextInt(mois.lengthOfMonth()));
+                        String type = types[random.nextInt(types.length)];
+                        transactions.setObject(1, UUID.randomUUID());
+                        transactions.setObject(2, date.atTime(12, 0));
+                        transactions.setObject(3, date);
+                        transactions.setString(4, "CB " + type + " " + t);
+                        transactions.setBigDecimal(5, BigDecimal.valueOf(-(100 + random.nextInt(20_000)), 2));
+                        transactions.setString(6, type);
+                        transactions.setObject(7, compteIds[0]);
+                        transactions.setObject(8, userId);
+                        transactions.addBatch();
+                        if (++lignes % LOT == 0) {
+                            // Parents d'abord : comptes et objectifs avant les lignes qui les référencent
+                            executer(comptes, objectifs, repartitions, charges, snapshots, transactions);
+                        }
+                    }
+                }
+                executer(comptes, objectifs, repartitions, charges, snapshots, transactions);
+            }
+        }
+    }
+
+    private static void executer(PreparedStatement... lots) throws SQLException {
+        for (PreparedStatement lot : lots) {
+            lot.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.budgetmanager.metrics;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plans PostgreSQL des requêtes chaudes : index partiels des lignes actives, index de liste des
+ * transactions (par partition) sans étape de tri. Base lancée par les Dev Services Quarkus
+ * (même image que docker-compose.dev.yml) et migrée avec les scripts PostgreSQL.
+ * Demande Docker : exclu de ./mvnw test, lancé avec ./mvnw test -Dpostgresql.
+ */
+@QuarkusTest
+@TestProfile(HotQueryPlanPostgresqlTest.Postgresql.class)
+class HotQueryPlanPostgresqlTest extends BaseHotQueryPlanTest {
+
+    private static final List<String> TABLES = List.of("transactions", "month_snapshots",
+            "objectif_repartitions", "comptes", "objectifs", "charges_fixes");
+
+    // Noeud de tri explicite, pas la clé de tri d'un Merge Append entre partitions
+    private static final Pattern INDEX_UTILISATEUR = Pattern.compile("Index Cond: \\(+user_id = ");
+
+    private static final Pattern TRI = Pattern.compile("(?m)^\\s*(->\\s+)?(Incremental )?Sort\\s+\\(");
+
+    public static class Postgresql implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            // Sans URL, les Dev Services démarrent le conteneur et fournissent la connexion
+            return Map.of(
+                    "quarkus.datasource.db-kind", "postgresql",
+                    "quarkus.datasource.jdbc.url", "",
+                    "%test.quarkus.datasource.jdbc.url", "",
+                    "quarkus.datasource.devservices.image-name", "postgres:15-alpine",
+                    "quarkus.flyway.locations", "db/migration/postgresql");
+        }
+    }
+
+    @Override
+    void assertListingPlan(SlowQuery listing) {
+        String plan = listing.plan();
+        assertTrue(plan.contains("Index Scan") || plan.contains("Index Only Scan"), plan);
+        assertTrue(INDEX_UTILISATEUR.matcher(plan).find(), plan);
+        assertFalse(plan.contains("Bitmap Heap Scan"), plan);
+        assertFalse(TRI.matcher(plan).find(), plan);
+    }
+
+    @Override
+    void assertNoTableScan(List<SlowQuery> plans) {
+        for (SlowQuery capture : plans) {
+            // Partitions incluses : "Seq Scan on transactions_defaut t1_0"
+            for (String table : TABLES) {
+                assertFalse(capture.plan().contains("Seq Scan on " + table), capture.plan());
+            }
+        }
+    }
+
+    @Test
+    void testActiveListsUsePartialIndexes() throws InterruptedException {
+        assertPlanUses(plans("/api/comptes"), "from comptes", "idx_compte_user_actif");
+        assertPlanUses(plans("/api/objectifs"), "from objectifs", "idx_objectif_user_actif");
+        assertPlanUses(plans("/api/charges-fixes"), "from charges_fixes", "idx_charge_user_actif");
+    }
+
+    @Test
+    void testDueChargesUsePartialIndex() throws InterruptedException {
+        List<SlowQuery> plans = plans(() -> QuarkusTransaction.requiringNew()
+                .run(() -> chargeOccurrenceService.findIdsChargesDues(AUJOURD_HUI)));
+
+        assertPlanUses(plans, "from charges_fixes", "idx_charge_actif_echeance");
+    }
+
+    private static void assertPlanUses(List<SlowQuery> plans, String fragment, String index) {
+        SlowQuery requete = requete(plans, fragment);
+        assertTrue(requete.plan().contains(index), requete.plan());
+    }
+}
@@ -0,0 +1,34 @@
+package com.budgetmanager.metrics;
+
+import io.quarkus.test.junit.QuarkusTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plans H2 des requêtes chaudes (index de la migration V3 côté H2).
+ * H2 ne supprime pas le tri quand l'index commence par l'utilisateur, PostgreSQL si :
+ * l'absence d'étape de tri est vérifiée par HotQueryPlanPostgresqlTest.
+ */
+@QuarkusTest
+class HotQueryPlanTest extends BaseHotQueryPlanTest {
+
+    private static final List<String> TABLES = List.of("PUBLIC.TRANSACTIONS", "PUBLIC.MONTH_SNAPSHOTS",
+            "PUBLIC.OBJECTIF_REPARTITIONS", "PUBLIC.COMPTES", "PUBLIC.OBJECTIFS", "PUBLIC.CHARGES_FIXES");
+
+    @Override
+    void assertListingPlan(SlowQuery listing) {
+        assertTrue(listing.plan().contains("IDX_TRANSACTION_USER_DATE"), listing.plan());
+    }
+
+    @Override
+    void assertNoTableScan(List<SlowQuery> plans) {
+        for (SlowQuery capture : plans) {
+            // H2 EXPLAIN: "PUBLIC.TABLE /* PUBLIC.TABLE.tableScan */" for a full scan
+            for (String table : TABLES) {
+                assertFalse(capture.plan().contains(table + ".tableScan"), capture.plan());
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.budgetmanager.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Nombre maximum d'instructions SQL par requête HTTP émise pendant le test,
+ * vérifié par SqlStatementBudgetExtension. Les requêtes de préparation
+ * (@BeforeEach) ne sont pas comptées.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxSqlStatements {
+
+    /**
+     * @return Instructions SQL autorisées par requête HTTP
+     */
+    int value();
+
+    /**
+     * @return Méthode de ressource contrôlée (Classe.methode), toutes si vide
+     */
+    String ressource() default "";
+
+    /**
+     * @return Exécutions autorisées d'une même instruction dans une requête (détection N+1)
+     */
+    int repetitions() default Integer.MAX_VALUE;
+}
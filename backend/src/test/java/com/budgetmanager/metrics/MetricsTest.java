@@ -0,0 +1,120 @@
+package com.budgetmanager.metrics;
+
+import com.budgetmanager.entity.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.transaction.RollbackException;
+import jakarta.transaction.Transactional;
+import org.hibernate.StaleObjectStateException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des métriques exposées sur /q/metrics.
+ */
+@QuarkusTest
+@ExtendWith(SqlStatementBudgetExtension.class)
+class MetricsTest {
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    OptimisticLockMetrics optimisticLockMetrics;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        Transaction.deleteAll();
+        TransfertObjectif.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+
+        User user = new User("Test", "Metrics", 25, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        user.persist();
+        Banque banque = new Banque("Banque Test", "#000000", "/logos/test.png");
+        banque.persist();
+        Compte courant = new Compte(user, banque, "Courant", TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00"));
+        courant.persist();
+
+        // Several accounts and goals: a per-row query shows up as a repeated statement
+        for (int i = 0; i < 3; i++) {
+            Compte livret = new Compte(user, banque, "Livret " + i, TypeCompte.LIVRET_A, new BigDecimal("5000.00"));
+            livret.persist();
+            Objectif objectif = new Objectif(user, "Objectif " + i, new BigDecimal("3000.00"),
+                    PrioriteObjectif.NORMALE, TypeObjectif.PROJET_IMMOBILIER);
+            objectif.persist();
+            ObjectifRepartition repartition = new ObjectifRepartition(objectif, livret, new BigDecimal("500.00"));
+            repartition.persist();
+        }
+    }
+
+    @Test
+    @MaxSqlStatements(value = 5, repetitions = 1)
+    void testDashboardStatementsDoNotGrowWithAccountsAndGoals() {
+        given().when().get("/api/dashboard/2025-03").then().statusCode(200);
+    }
+
+    @Test
+    @MaxSqlStatements(value = 3, repetitions = 1)
+    void testObjectifListStatementsDoNotGrowWithGoals() {
+        given().when().get("/api/objectifs").then().statusCode(200);
+    }
+
+    @Test
+    void testSqlStatementsRecordedPerResourceMethod() {
+        given().when().get("/api/comptes").then().statusCode(200);
+
+        assertTrue(registry.find(SqlStatementMetricsFilter.METRIC)
+                .tag("ressource", "CompteResource.getAllComptes")
+                .summary().count() >= 1);
+        assertTrue(registry.find(SqlStatementMetricsFilter.METRIC)
+                .tag("ressource", "CompteResource.getAllComptes")
+                .summary().max() >= 1);
+    }
+
+    @Test
+    void testPrometheusEndpointExposesHistogramsAndHibernateStatistics() {
+        given().when().get("/api/comptes").then().statusCode(200);
+
+        given().when().get("/q/metrics").then()
+                .statusCode(200)
+                .body(containsString("http_server_requests_seconds_bucket"))
+                .body(containsString("budget_http_sql_statements_bucket"))
+                .body(containsString("hibernate_statements_total"))
+                .body(containsString("hibernate_entities_loads_total"))
+                .body(containsString("hibernate_optimistic_failures_total"));
+    }
+
+    @Test
+    void testOptimisticLockFailureCountedFromCauseChain() {
+        Counter before = registry.find(OptimisticLockMetrics.METRIC).tag("entite", "Compte").counter();
+        double initial = before == null ? 0 : before.count();
+
+        RollbackException commit = new RollbackException("commit failed");
+        commit.initCause(new OptimisticLockException(
+                new StaleObjectStateException("com.budgetmanager.entity.Compte", UUID.randomUUID())));
+
+        assertTrue(optimisticLockMetrics.enregistrer(commit));
+        assertFalse(optimisticLockMetrics.enregistrer(new IllegalStateException("autre")));
+        assertEquals(initial + 1,
+                registry.find(OptimisticLockMetrics.METRIC).tag("entite", "Compte").counter().count());
+    }
+}
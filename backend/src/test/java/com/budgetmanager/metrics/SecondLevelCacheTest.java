@@ -0,0 +1,109 @@
+package com.budgetmanager.metrics;
+
+import com.budgetmanager.entity.*;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du cache de second niveau (Banque, User, Compte, ChargeFixe) et de son invalidation.
+ */
+@QuarkusTest
+class SecondLevelCacheTest {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    private UUID banqueId;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        Transaction.deleteAll();
+        TransfertObjectif.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+
+        User user = new User("Test", "Cache", 25, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        user.persist();
+        Banque banque = new Banque("Banque Cache", "#000000", "/logos/test.png");
+        banque.persist();
+        banqueId = banque.getId();
+        for (int c = 0; c < 3; c++) {
+            Compte compte = new Compte(user, banque, "Compte " + c, TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00"));
+            compte.persist();
+            for (int t = 0; t < 5; t++) {
+                Transaction transaction = new Transaction(user, compte, new BigDecimal("-10.00"),
+                        TypeTransaction.ALIMENTATION, "Achat " + c + "-" + t);
+                transaction.setDateTransaction(LocalDate.of(2025, 3, 1 + t));
+                transaction.persist();
+            }
+        }
+    }
+
+    @Test
+    void testTransactionListingResolvesComptesAndBanquesFromCache() {
+        Statistics statistics = sessionFactory.getStatistics();
+        given().when().get("/api/transactions").then().statusCode(200);
+
+        statistics.clear();
+        given().when().get("/api/transactions").then().statusCode(200);
+
+        // Second listing: user, comptes and their banque come from the cache, not the database
+        assertEquals(0, statistics.getEntityStatistics(Compte.class.getName()).getFetchCount());
+        assertEquals(0, statistics.getEntityStatistics(Banque.class.getName()).getFetchCount());
+        assertTrue(statistics.getDomainDataRegionStatistics(Banque.class.getName()).getHitCount() > 0);
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+    }
+
+    @Test
+    void testWritesInvalidateCachedEntities() {
+        given().when().get("/api/comptes").then()
+                .statusCode(200)
+                .body("[0].banque.nom", is("Banque Cache"));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            Banque banque = Banque.findById(banqueId);
+            banque.setNom("Banque Renommee");
+        });
+        QuarkusTransaction.requiringNew().run(() ->
+                Compte.update("nom = 'Renomme' where nom = 'Compte 0'"));
+
+        given().when().get("/api/comptes").then()
+                .statusCode(200)
+                .body("[0].banque.nom", is("Banque Renommee"))
+                .body("nom", hasItem("Renomme"));
+    }
+
+    @Test
+    void testHitRatioExposedPerRegion() {
+        given().when().get("/api/transactions").then().statusCode(200);
+        given().when().get("/api/transactions").then().statusCode(200);
+
+        given().when().get("/q/metrics").then()
+                .statusCode(200)
+                .body(containsString("budget_cache_l2_hit_ratio{region=\"com.budgetmanager.entity.Banque\"}"))
+                .body(containsString("hibernate_second_level_cache_requests_total"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.budgetmanager.metrics;
+
+import com.budgetmanager.entity.*;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du journal des requêtes lentes (SlowQueryDriver actif en profil test, seuil élevé).
+ */
+@QuarkusTest
+class SlowQueryLogTest {
+
+    @Inject
+    SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        Transaction.deleteAll();
+        TransfertObjectif.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+
+        User user = new User("Test", "Lent", 25, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        user.persist();
+        Banque banque = new Banque("Banque Test", "#000000", "/logos/test.png");
+        banque.persist();
+        new Compte(user, banque, "Courant", TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00")).persist();
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowQueryLog.setSeuilMs(10_000);
+        slowQueryLog.setExplain(false);
+        slowQueryLog.vider();
+    }
+
+    @Test
+    void testNothingCapturedBelowThreshold() {
+        slowQueryLog.vider();
+
+        given().when().get("/api/comptes").then().statusCode(200);
+
+        given().when().get("/api/admin/slow-queries").then()
+                .statusCode(200)
+                .body("$", hasSize(0));
+    }
+
+    @Test
+    void testSlowSelectCapturedWithParameterShapeAndPlan() throws InterruptedException {
+        slowQueryLog.vider();
+        slowQueryLog.setExplain(true);
+        slowQueryLog.setSeuilMs(0);
+
+        given().when().get("/api/comptes").then().statusCode(200);
+        slowQueryLog.setSeuilMs(10_000);
+
+        assertTrue(slowQueryLog.attendrePlans(Duration.ofSeconds(30)));
+        SlowQuery comptes = slowQueryLog.lister().stream()
+                .filter(capture -> capture.sql().contains("from comptes"))
+                .findFirst()
+                .orElse(null);
+
+        assertNotNull(comptes);
+        assertFalse(comptes.parametres().isEmpty());
+        assertNotNull(comptes.plan());
+        // H2 EXPLAIN: the statement as planned, with the index or table scan used
+        assertTrue(comptes.plan().contains("COMPTES"), comptes.plan());
+    }
+
+    @Test
+    void testClearEmptiesTheBuffer() {
+        slowQueryLog.setSeuilMs(0);
+        given().when().get("/api/comptes").then().statusCode(200);
+        slowQueryLog.setSeuilMs(10_000);
+
+        List<SlowQuery> captures = slowQueryLog.lister();
+        assertFalse(captures.isEmpty());
+        assertTrue(captures.size() <= 100);
+
+        given().when().delete("/api/admin/slow-queries").then().statusCode(204);
+        assertTrue(slowQueryLog.lister().isEmpty());
+    }
+}
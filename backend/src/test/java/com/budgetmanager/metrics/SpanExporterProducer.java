@@ -0,0 +1,27 @@
+package com.budgetmanager.metrics;
+
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+/**
+ * Exporteur de spans en mémoire pour les tests, branché par un processeur de spans
+ * (aucun exporteur en profil test : quarkus.otel.traces.exporter=none).
+ */
+@Singleton
+public class SpanExporterProducer {
+
+    @Produces
+    @Singleton
+    InMemorySpanExporter inMemorySpanExporter() {
+        return InMemorySpanExporter.create();
+    }
+
+    @Produces
+    @Singleton
+    SpanProcessor inMemorySpanProcessor(InMemorySpanExporter exporter) {
+        return SimpleSpanProcessor.create(exporter);
+    }
+}
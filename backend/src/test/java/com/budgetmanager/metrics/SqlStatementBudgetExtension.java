@@ -0,0 +1,62 @@
+package com.budgetmanager.metrics;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Vérifie le budget SQL des requêtes HTTP émises par les tests annotés @MaxSqlStatements
+ * (sur la méthode de test ou la classe). Usage :
+ *
+ * <pre>
+ * &#64;ExtendWith(SqlStatementBudgetExtension.class)
+ * class TransactionResourceTest {
+ *     &#64;Test
+ *     &#64;MaxSqlStatements(value = 5, repetitions = 1)
+ *     void testGetAllTransactions() { ... }
+ * }
+ * </pre>
+ */
+public class SqlStatementBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (budget(context) != null) {
+            SqlStatementReports.start();
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        MaxSqlStatements budget = budget(context);
+        if (budget == null) {
+            return;
+        }
+        List<SqlStatementReport> reports = SqlStatementReports.stop().stream()
+                .filter(report -> budget.ressource().isEmpty() || budget.ressource().equals(report.ressource()))
+                .toList();
+        assertTrue(!reports.isEmpty(), "No HTTP request matched the SQL budget of " + context.getDisplayName());
+
+        for (SqlStatementReport report : reports) {
+            if (report.statements() > budget.value()) {
+                fail(report.ressource() + " executed " + report.statements() + " SQL statements, budget "
+                        + budget.value() + " (most repeated, " + report.repetitions() + " times: "
+                        + report.statementLePlusRepete() + ")");
+            }
+            if (report.repetitions() > budget.repetitions()) {
+                fail(report.ressource() + " executed the same statement " + report.repetitions()
+                        + " times, probable N+1: " + report.statementLePlusRepete());
+            }
+        }
+    }
+
+    private static MaxSqlStatements budget(ExtensionContext context) {
+        MaxSqlStatements budget = context.getRequiredTestMethod().getAnnotation(MaxSqlStatements.class);
+        return budget != null ? budget : context.getRequiredTestClass().getAnnotation(MaxSqlStatements.class);
+    }
+}
@@ -0,0 +1,39 @@
+package com.budgetmanager.metrics;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collecte les bilans SQL des requêtes HTTP pendant l'exécution d'un test.
+ */
+@ApplicationScoped
+public class SqlStatementReports {
+
+    private static final List<SqlStatementReport> CAPTURED = new ArrayList<>();
+    private static boolean capturing;
+
+    void onReport(@Observes SqlStatementReport report) {
+        synchronized (CAPTURED) {
+            if (capturing) {
+                CAPTURED.add(report);
+            }
+        }
+    }
+
+    static void start() {
+        synchronized (CAPTURED) {
+            CAPTURED.clear();
+            capturing = true;
+        }
+    }
+
+    static List<SqlStatementReport> stop() {
+        synchronized (CAPTURED) {
+            capturing = false;
+            return List.copyOf(CAPTURED);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.budgetmanager.metrics;
+
+import com.budgetmanager.dto.ValidationSalaireRequest;
+import com.budgetmanager.entity.*;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des traces OpenTelemetry (exporteur en mémoire, span processor simple en profil test).
+ */
+@QuarkusTest
+class TracingTest {
+
+    @Inject
+    InMemorySpanExporter exporter;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        Transaction.deleteAll();
+        TransfertObjectif.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+
+        User user = new User("Test", "Trace", 15, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        user.persist();
+        Banque banque = new Banque("Banque Test", "#000000", "/logos/test.png");
+        banque.persist();
+        Compte compte = new Compte(user, banque, "Courant", TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00"));
+        compte.setPrincipalChargesFixes(true);
+        compte.persist();
+
+        exporter.reset();
+    }
+
+    private static SpanData span(List<SpanData> spans, String name) {
+        return spans.stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No span " + name + " in "
+                        + spans.stream().map(SpanData::getName).toList()));
+    }
+
+    @Test
+    void testSalaryValidationLegsAreChildSpansOfTheRequest() throws InterruptedException {
+        String mois = LocalDate.now().toString().substring(0, 7);
+        ValidationSalaireRequest request = new ValidationSalaireRequest();
+        request.setMois(mois);
+        request.setType(TypeTransaction.SALAIRE);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+        .when()
+            .post("/api/transactions/salaire")
+        .then()
+            .statusCode(201);
+
+        // Server spans end once the response is written, possibly after the client got it:
+        // the previous test's request may land after reset(), this one may land late
+        SpanData serveur = null;
+        List<SpanData> spans = List.of();
+        for (int i = 0; i < 50 && serveur == null; i++) {
+            Thread.sleep(100);
+            spans = exporter.getFinishedSpanItems();
+            serveur = spans.stream()
+                    .filter(span -> span.getKind() == SpanKind.SERVER)
+                    .filter(span -> span.getName().equals("POST /api/transactions/salaire"))
+                    .findFirst()
+                    .orElse(null);
+        }
+        assertNotNull(serveur, spans.stream().map(SpanData::getName).toList().toString());
+        String traceId = serveur.getTraceId();
+
+        spans = spans.stream().filter(span -> span.getTraceId().equals(traceId)).toList();
+        SpanData snapshot = span(spans, "MonthSnapshotService.createOrUpdateSnapshot");
+        SpanData validation = span(spans, "TransactionService.validerSalaire");
+        SpanData salaire = span(spans, "SalaireValideService.createOrUpdate");
+        SpanData charges = span(spans, "TransactionService.processChargesFixes");
+
+        // Snapshot and salary validation hang off the request, the salary legs off the validation
+        assertEquals(serveur.getSpanId(), snapshot.getParentSpanId());
+        assertEquals(serveur.getSpanId(), validation.getParentSpanId());
+        assertEquals(validation.getSpanId(), salaire.getParentSpanId());
+        assertEquals(validation.getSpanId(), charges.getParentSpanId());
+        assertEquals(mois, salaire.getAttributes().get(AttributeKey.stringKey("budget.mois")));
+
+        // JDBC statements are traced as client spans of the same trace
+        assertTrue(spans.stream().anyMatch(span -> span.getKind() == SpanKind.CLIENT
+                && span.getAttributes().get(AttributeKey.stringKey("db.statement")) != null));
+    }
+}
@@ -0,0 +1,106 @@
+package com.budgetmanager.metrics.jfr;
+
+import com.budgetmanager.entity.*;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de l'enregistrement JFR continu (désactivé en profil test, démarré à la main ici).
+ */
+@QuarkusTest
+class JfrRecorderTest {
+
+    @Inject
+    JfrRecorder jfrRecorder;
+
+    private UUID compteId;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        Transaction.deleteAll();
+        TransfertObjectif.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+
+        User user = new User("Test", "Jfr", 25, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        user.persist();
+        Banque banque = new Banque("Banque Test", "#000000", "/logos/test.png");
+        banque.persist();
+        Compte compte = new Compte(user, banque, "Courant", TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00"));
+        compte.persist();
+        compteId = compte.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jfrRecorder.arreter();
+    }
+
+    @Test
+    void testDumpRefusedWhenRecordingDisabled() {
+        given().when().get("/api/admin/jfr/dump").then().statusCode(409);
+    }
+
+    @Test
+    void testDumpContainsApplicationEvents() throws Exception {
+        jfrRecorder.demarrer();
+
+        given().when().get("/api/dashboard/2025-03").then().statusCode(200);
+        QuarkusTransaction.requiringNew().run(() -> {
+            Compte compte = Compte.findById(compteId);
+            compte.setSoldeTotal(compte.getSoldeTotal().add(new BigDecimal("12.34")));
+        });
+
+        byte[] dump = given().when().get("/api/admin/jfr/dump").then()
+                .statusCode(200)
+                .extract().asByteArray();
+        Path file = Files.createTempFile("jfr-test-", ".jfr");
+        try {
+            Files.write(file, dump);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+            RecordedEvent dashboard = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("com.budgetmanager.DashboardAssembly"))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals("2025-03", dashboard.getString("mois"));
+            assertEquals(1, dashboard.getInt("comptes"));
+
+            RecordedEvent solde = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("com.budgetmanager.BalanceMutation"))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(compteId.toString(), solde.getString("compte"));
+            assertEquals(1234, solde.getLong("deltaCentimes"));
+
+            // Nothing copied from the environment, the system properties or the command line
+            assertTrue(events.stream().noneMatch(event ->
+                    JfrRecorder.EVENEMENTS_SENSIBLES.contains(event.getEventType().getName())));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -4,12 +4,15 @@ import com.budgetmanager.dto.CreateObjectifRequest;
 import com.budgetmanager.dto.CreateRepartitionRequest;
 import com.budgetmanager.dto.UpdateObjectifRequest;
 import com.budgetmanager.entity.*;
+import com.budgetmanager.metrics.MaxSqlStatements;
+import com.budgetmanager.metrics.SqlStatementBudgetExtension;
 import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -26,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * Teste les endpoints REST incluant la création avec répartitions initiales.
  */
 @QuarkusTest
+@ExtendWith(SqlStatementBudgetExtension.class)
 class ObjectifResourceTest extends BaseResourceTest {
 
     // Helper to wrap entity creation in committed transaction
@@ -44,6 +48,7 @@ class ObjectifResourceTest extends BaseResourceTest {
         SalaireValide.deleteAll();
         ChargeFixe.deleteAll();
         Compte.deleteAll();
+        MonthSnapshot.deleteAll();
         User.deleteAll();
         Banque.deleteAll();
     }
@@ -61,6 +66,7 @@ class ObjectifResourceTest extends BaseResourceTest {
     }
 
     @Test
+    @MaxSqlStatements(value = 3, repetitions = 1)
     void testGetAllObjectifs_WithMultipleObjectifs() {
         User user = createTestUser();
 
@@ -86,6 +92,7 @@ class ObjectifResourceTest extends BaseResourceTest {
     }
 
     @Test
+    @MaxSqlStatements(2)
     void testGetObjectif_ById() {
         User user = createTestUser();
 
@@ -151,6 +158,7 @@ class ObjectifResourceTest extends BaseResourceTest {
     }
 
     @Test
+    @MaxSqlStatements(6)
     void testCreateObjectif_WithInitialRepartitions() {
         User user = createTestUser();
         Banque banque = createTestBanque();
@@ -298,6 +306,7 @@ class ObjectifResourceTest extends BaseResourceTest {
     }
 
     @Test
+    @MaxSqlStatements(value = 4, repetitions = 1)
     void testGetRepartitions() {
         User user = createTestUser();
         Banque banque = createTestBanque();
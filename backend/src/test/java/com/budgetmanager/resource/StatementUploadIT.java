@@ -0,0 +1,8 @@
+package com.budgetmanager.resource;
+
+import io.quarkus.test.junit.QuarkusIntegrationTest;
+
+@QuarkusIntegrationTest
+class StatementUploadIT extends StatementUploadTest {
+    // Same uploads against the packaged application (mvn verify -Dnative for the native image).
+}
@@ -0,0 +1,136 @@
+package com.budgetmanager.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Import de relevés PDF et CSV de bout en bout, uniquement par l'API REST :
+ * rejoué tel quel sur l'artefact packagé (StatementUploadIT), y compris l'image native.
+ */
+@QuarkusTest
+class StatementUploadTest {
+
+    private String compteId;
+
+    @BeforeEach
+    void setUp() {
+        boolean exists = given().when().get("/api/user/exists")
+                .then().statusCode(200)
+                .extract().path("exists");
+        if (!exists) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(Map.of("nom", "Import", "prenom", "Releve", "jourPaie", 25,
+                            "salaireMensuelNet", 2500, "decouvertAutorise", 500))
+                    .when().post("/api/user/profile")
+                    .then().statusCode(201);
+        }
+
+        // Bank names are unique and packaged runs keep their database: one bank per test
+        String banqueId = given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("nom", "Banque Import " + UUID.randomUUID(), "couleurTheme", "#000000", "logoUrl", "/logos/test.png"))
+                .when().post("/api/banques")
+                .then().statusCode(201)
+                .extract().path("id");
+
+        compteId = given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("banqueId", banqueId, "nom", "Courant import", "type", "COMPTE_COURANT",
+                        "soldeTotal", 1000))
+                .when().post("/api/comptes")
+                .then().statusCode(201)
+                .extract().path("id");
+    }
+
+    @Test
+    void testUploadCsvStatement() throws IOException {
+        Path file = Files.createTempFile("releve", ".csv");
+        Files.writeString(file, """
+                Date;Libellé;Débit euros;Crédit euros
+                05/01/2025;CARTE X1234 CARREFOUR;42,50;
+                06/01/2025;VIR SALAIRE ACME;;2 100,00
+                """, StandardCharsets.UTF_8);
+
+        try {
+            given()
+                    .multiPart("file", file.toFile(), "text/csv")
+                    .multiPart("compteId", compteId)
+                    .when().post("/api/transactions/upload")
+                    .then()
+                    .statusCode(200)
+                    .body("$", hasSize(2))
+                    .body("[0].montant", is(-42.5f))
+                    .body("[1].montant", is(2100.0f));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testUploadPdfStatement() throws IOException {
+        // Standard 14 font, not embedded: text extraction goes through the PDFBox font mapper and AFM metrics
+        Path file = Files.createTempFile("releve", ".pdf");
+        writePdf(file, List.of(
+                "RELEVE DE COMPTE",
+                "Date Valeur Nature de l'opération Débit Crédit",
+                "05/01/2025 05/01/2025 CARTE X1234 CARREFOUR",
+                "42,50",
+                "06/01/2025 06/01/2025 PRLV SEPA EDF",
+                "FACTURE JANVIER",
+                "61,20",
+                "TOTAL DES OPERATIONS"));
+
+        try {
+            given()
+                    .multiPart("file", file.toFile(), "application/pdf")
+                    .multiPart("compteId", compteId)
+                    .when().post("/api/transactions/upload")
+                    .then()
+                    .statusCode(200)
+                    .body("$", hasSize(2))
+                    .body("[0].date", is("2025-01-05"))
+                    .body("[1].description", is("PRLV SEPA EDF FACTURE JANVIER"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void writePdf(Path file, List<String> lines) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 11);
+                content.setLeading(16);
+                content.newLineAtOffset(50, 720);
+                for (String line : lines) {
+                    content.showText(line);
+                    content.newLine();
+                }
+                content.endText();
+            }
+            document.save(file.toFile());
+        }
+    }
+}
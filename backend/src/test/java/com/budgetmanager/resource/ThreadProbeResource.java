@@ -0,0 +1,23 @@
+package com.budgetmanager.resource;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import java.util.Map;
+
+/**
+ * Ressource de test : indique sur quel type de thread s'exécutent les ressources @RunOnVirtualThread.
+ */
+@Path("/test/thread")
+@RunOnVirtualThread
+public class ThreadProbeResource {
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Map<String, Object> thread() {
+        return Map.of("virtuel", Thread.currentThread().isVirtual());
+    }
+}
@@ -2,6 +2,8 @@ package com.budgetmanager.resource;
 
 import com.budgetmanager.dto.*;
 import com.budgetmanager.entity.*;
+import com.budgetmanager.metrics.MaxSqlStatements;
+import com.budgetmanager.metrics.SqlStatementBudgetExtension;
 import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
@@ -10,9 +12,14 @@ import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 import static io.restassured.RestAssured.given;
@@ -41,6 +48,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * - Transaction filtering and pagination
  */
 @QuarkusTest
+@ExtendWith(SqlStatementBudgetExtension.class)
 class TransactionResourceTest {
 
     @Inject
@@ -65,6 +73,7 @@ class TransactionResourceTest {
         ObjectifRepartition.deleteAll();
         Objectif.deleteAll();
         Compte.deleteAll();
+        MonthSnapshot.deleteAll();
         User.deleteAll();
         Banque.deleteAll();
 
@@ -109,7 +118,7 @@ class TransactionResourceTest {
     // ========== GET /api/transactions TESTS ==========
 
     @Test
-
+    @MaxSqlStatements(value = 4, repetitions = 1)
     void getAllTransactions_ShouldReturnAllTransactions() {
         // Given: Create some transactions
         createTestTransaction(testCompteCourant, new BigDecimal("100.00"),
@@ -206,7 +215,7 @@ class TransactionResourceTest {
     }
 
     @Test
-
+    @MaxSqlStatements(value = 4, repetitions = 1)
     void getAllTransactions_ShouldRespectLimit() {
         // Given: Create many transactions
         for (int i = 0; i < 150; i++) {
@@ -237,7 +246,7 @@ class TransactionResourceTest {
     // ========== GET /api/transactions/{id} TESTS ==========
 
     @Test
-
+    @MaxSqlStatements(3)
     void getTransaction_ShouldReturnTransaction_WhenExists() {
         // Given: A transaction
         Transaction transaction = createTestTransaction(testCompteCourant,
@@ -274,6 +283,7 @@ class TransactionResourceTest {
     // ========== POST /api/transactions TESTS ==========
 
     @Test
+    @MaxSqlStatements(9)
     void createTransaction_ShouldCreateTransaction_AndUpdateCompteBalance() {
         // Given: Initial balance
         BigDecimal initialBalance = testCompteCourant.getSoldeTotal();
@@ -634,6 +644,7 @@ class TransactionResourceTest {
     }
 
     @Test
+    @MaxSqlStatements(17)
     void validerSalaire_ShouldProcessChargesFixes_Automatically() {
         // Given: Charge fixe with jour prelevement = 5
         // And: Validation date is after day 5
@@ -673,6 +684,34 @@ class TransactionResourceTest {
         );
     }
 
+    @Test
+    void validerSalaire_ShouldAdvanceProchaineEcheance_OfAppliedCharges() {
+        // Given: Rent next due on the 5th of next month, inside the cycle of a salary received on the 15th
+        LocalDate echeance = LocalDate.now().plusMonths(1).withDayOfMonth(5);
+        QuarkusTransaction.requiringNew().run(() ->
+                ChargeFixe.<ChargeFixe>findById(testChargeFixe.getId()).setProchaineEcheance(echeance));
+
+        ValidationSalaireRequest request = new ValidationSalaireRequest();
+        request.setMois(LocalDate.now().toString().substring(0, 7));
+        request.setType(TypeTransaction.SALAIRE);
+        request.setDateReception(LocalDate.now().withDayOfMonth(15).toString());
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+        .when()
+            .post("/api/transactions/salaire")
+        .then()
+            .statusCode(201);
+
+        // Then: Applied with the salary, so next due the month after, as after a catch-up run
+        entityManager.clear();
+        ChargeFixe charge = ChargeFixe.findById(testChargeFixe.getId());
+        assertEquals(echeance.plusMonths(1), charge.getProchaineEcheance());
+        assertEquals(1L, ChargeOccurrence.count("chargeFixe.id = ?1 and cycle = ?2",
+                testChargeFixe.getId(), ChargeOccurrence.cycleOf(echeance)));
+    }
+
     @Test
     void validerSalaire_ShouldNotDuplicateChargesFixes_IfAlreadyProcessed() {
         // Given: Already validated salaire for this month
@@ -762,8 +801,191 @@ class TransactionResourceTest {
             .body("message", is("Aucun compte disponible"));
     }
 
+    // ========== POST /api/charges-fixes/process TESTS ==========
+
+    @Test
+    void processChargesDues_ShouldApplyEachOccurrenceOnce_EvenAfterRename() {
+        // Given: A monthly charge due today
+        UUID chargeId = createChargeDueToday("Netflix");
+
+        given()
+            .contentType(ContentType.JSON)
+            .when().post("/api/charges-fixes/process")
+            .then()
+            .statusCode(200)
+            .body("processed", is(1));
+
+        // When: The charge is renamed, then processed again
+        QuarkusTransaction.requiringNew().run(() -> {
+            ChargeFixe charge = ChargeFixe.findById(chargeId);
+            charge.setNom("Netflix Premium");
+        });
+
+        given()
+            .contentType(ContentType.JSON)
+            .when().post("/api/charges-fixes/process")
+            .then()
+            // Then: The occurrence is tracked by charge, not by name
+            .statusCode(200)
+            .body("processed", is(0));
+
+        assertEquals(1, ChargeOccurrence.count("chargeFixe.id", chargeId));
+    }
+
+    @Test
+    void processChargesDues_ShouldNotBackfillChargeWithoutHistory() {
+        // Given: A monthly charge started a year ago and never applied
+        UUID chargeId = createChargeDueToday("Spotify", LocalDate.now().minusYears(1));
+        BigDecimal soldeInitial = QuarkusTransaction.requiringNew()
+                .call(() -> Compte.<Compte>findById(testCompteCourant.getId()).getSoldeTotal());
+
+        given()
+            .contentType(ContentType.JSON)
+            .when().post("/api/charges-fixes/process")
+            .then()
+            // Then: Only the current cycle is debited, the past months are not backfilled
+            .statusCode(200)
+            .body("processed", is(1));
+
+        assertEquals(1, ChargeOccurrence.count("chargeFixe.id", chargeId));
+        BigDecimal solde = QuarkusTransaction.requiringNew()
+                .call(() -> Compte.<Compte>findById(testCompteCourant.getId()).getSoldeTotal());
+        assertEquals(0, soldeInitial.subtract(new BigDecimal("15.99")).compareTo(solde));
+
+        given()
+            .contentType(ContentType.JSON)
+            .when().post("/api/charges-fixes/process")
+            .then()
+            .statusCode(200)
+            .body("processed", is(0));
+    }
+
+    @Test
+    void processChargesDues_ShouldApplyAgain_WhenGeneratedTransactionIsDeleted() {
+        // Given: A charge already applied for this cycle
+        UUID chargeId = createChargeDueToday("Salle de sport");
+
+        String transactionId = given()
+            .contentType(ContentType.JSON)
+            .when().post("/api/charges-fixes/process")
+            .then()
+            .statusCode(200)
+            .body("processed", is(1))
+            .extract().path("transactions[0].id");
+
+        // When: The generated transaction is deleted, then charges are processed again
+        given()
+            .when().delete("/api/transactions/" + transactionId)
+            .then()
+            .statusCode(200);
+
+        given()
+            .contentType(ContentType.JSON)
+            .when().post("/api/charges-fixes/process")
+            .then()
+            // Then: The occurrence went away with the transaction, the charge is due again
+            .statusCode(200)
+            .body("processed", is(1));
+
+        assertEquals(1, ChargeOccurrence.count("chargeFixe.id", chargeId));
+    }
+
+    // ========== POST /api/transactions/upload TESTS ==========
+
+    @Test
+    @MaxSqlStatements(value = 3, ressource = "TransactionResource.uploadBankStatement")
+    void uploadBankStatement_ShouldFlagLinesAlreadyImported() throws IOException {
+        // Given: A CAMT.053 statement with two entries, the first one already imported
+        Path file = Files.createTempFile("camt053", ".xml");
+        Files.writeString(file, """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <Document xmlns="urn:iso:std:iso:20022:tech:xsd:camt.053.001.02"><BkToCstmrStmt><Stmt>
+                  <Ntry><Amt Ccy="EUR">12.30</Amt><CdtDbtInd>DBIT</CdtDbtInd>
+                    <BookgDt><Dt>2025-04-02</Dt></BookgDt><AcctSvcrRef>REF-A</AcctSvcrRef>
+                    <AddtlNtryInf>CARTE BOULANGERIE</AddtlNtryInf></Ntry>
+                  <Ntry><Amt Ccy="EUR">55.00</Amt><CdtDbtInd>DBIT</CdtDbtInd>
+                    <BookgDt><Dt>2025-04-03</Dt></BookgDt><AcctSvcrRef>REF-B</AcctSvcrRef>
+                    <AddtlNtryInf>CARTE LIBRAIRIE</AddtlNtryInf></Ntry>
+                </Stmt></BkToCstmrStmt></Document>
+                """);
+
+        try {
+            CreateTransactionRequest imported = new CreateTransactionRequest();
+            imported.setCompteId(testCompteCourant.getId());
+            imported.setMontant(new BigDecimal("-12.30"));
+            imported.setDescription("Boulangerie (libellé modifié)");
+            imported.setType(TypeTransaction.RESTAURANT);
+            imported.setDateTransaction("2025-04-02");
+            imported.setReference("REF-A");
+
+            BulkCreateTransactionRequest bulk = new BulkCreateTransactionRequest();
+            bulk.setCompteId(testCompteCourant.getId());
+            bulk.setTransactions(List.of(imported));
+
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(bulk)
+                    .when().post("/api/transactions/bulk")
+                    .then()
+                    .statusCode(201);
+
+            // When: Uploading the same statement again
+            given()
+                    .multiPart("file", file.toFile(), "application/octet-stream")
+                    .multiPart("compteId", testCompteCourant.getId().toString())
+                    .when().post("/api/transactions/upload")
+                    .then()
+                    // Then: Only the entry with the known bank reference is flagged
+                    .statusCode(200)
+                    .body("$", hasSize(2))
+                    .body("[0].reference", is("REF-A"))
+                    .body("[0].doublon", is(true))
+                    .body("[1].reference", is("REF-B"))
+                    .body("[1].doublon", is(false));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void uploadBankStatement_ShouldRejectUnknownFormat() throws IOException {
+        Path file = Files.createTempFile("releve", ".csv");
+        Files.writeString(file, "hello;world\n1;2\n");
+
+        try {
+            given()
+                    .multiPart("file", file.toFile(), "text/csv")
+                    .multiPart("compteId", testCompteCourant.getId().toString())
+                    .when().post("/api/transactions/upload")
+                    .then()
+                    .statusCode(400);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
     // ========== HELPER METHODS ==========
 
+    private UUID createChargeDueToday(String nom) {
+        return createChargeDueToday(nom, LocalDate.now());
+    }
+
+    private UUID createChargeDueToday(String nom, LocalDate dateDebut) {
+        UUID[] idHolder = new UUID[1];
+        QuarkusTransaction.requiringNew().run(() -> {
+            // Only this charge may be due, whatever the current date
+            ChargeFixe.update("actif = false where id = ?1", testChargeFixe.getId());
+
+            ChargeFixe charge = new ChargeFixe(User.findById(testUser.getId()),
+                    Compte.findById(testCompteCourant.getId()), nom, null,
+                    new BigDecimal("15.99"), TypeTransaction.ABONNEMENT,
+                    LocalDate.now().getDayOfMonth(), FrequenceCharge.MENSUELLE, dateDebut);
+            charge.persist();
+            idHolder[0] = charge.getId();
+        });
+        return idHolder[0];
+    }
+
     private Transaction createTestTransaction(Compte compte, BigDecimal montant,
                                              TypeTransaction type, String description) {
         Transaction[] transactionHolder = new Transaction[1];
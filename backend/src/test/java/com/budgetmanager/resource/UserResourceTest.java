@@ -10,6 +10,7 @@ import static io.restassured.RestAssured.given;
 
 import com.budgetmanager.entity.User;
 import com.budgetmanager.entity.Compte;
+import com.budgetmanager.entity.MonthSnapshot;
 import com.budgetmanager.entity.Objectif;
 import com.budgetmanager.entity.ObjectifRepartition;
 import com.budgetmanager.entity.Transaction;
@@ -95,6 +96,7 @@ class UserResourceTest {
         ObjectifRepartition.deleteAll();
         Objectif.deleteAll();
         Compte.deleteAll();
+        MonthSnapshot.deleteAll();
         User.deleteAll();
     }
 }
\ No newline at end of file
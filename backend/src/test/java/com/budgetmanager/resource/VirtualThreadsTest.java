@@ -0,0 +1,69 @@
+package com.budgetmanager.resource;
+
+import com.budgetmanager.entity.*;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit5.virtual.ShouldNotPin;
+import io.quarkus.test.junit5.virtual.VirtualThreadUnit;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+
+/**
+ * Tests du mode threads virtuels (budget.virtual-threads=true en profil test) :
+ * les ressources s'exécutent sur des threads virtuels et les accès JDBC/Hibernate ne les épinglent pas.
+ */
+@QuarkusTest
+@VirtualThreadUnit
+@ShouldNotPin
+class VirtualThreadsTest {
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        Transaction.deleteAll();
+        TransfertObjectif.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+
+        User user = new User("Test", "Virtuel", 25, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        user.persist();
+        Banque banque = new Banque("Banque Test", "#000000", "/logos/test.png");
+        banque.persist();
+        Compte compte = new Compte(user, banque, "Courant", TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00"));
+        compte.persist();
+        for (int i = 0; i < 10; i++) {
+            Transaction transaction = new Transaction(user, compte, new BigDecimal("-12.50"),
+                    TypeTransaction.ALIMENTATION, "Achat " + i);
+            transaction.setDateTransaction(LocalDate.of(2025, 3, 1 + i));
+            transaction.persist();
+        }
+    }
+
+    @Test
+    void testResourcesRunOnVirtualThreads() {
+        given().when().get("/test/thread").then()
+                .statusCode(200)
+                .body("virtuel", is(true));
+    }
+
+    @Test
+    void testReadEndpointsDoNotPinCarrierThreads() {
+        given().when().get("/api/dashboard/2025-03").then().statusCode(200);
+        given().when().get("/api/transactions").then().statusCode(200);
+        given().when().get("/api/comptes").then().statusCode(200);
+        given().when().get("/api/objectifs").then().statusCode(200);
+        given().when().get("/api/user/profile").then().statusCode(200);
+    }
+}
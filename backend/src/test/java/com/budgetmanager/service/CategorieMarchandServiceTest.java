@@ -0,0 +1,145 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.entity.*;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du mémo marchand -> catégorie : amorçage depuis l'historique, apprentissage,
+ * égalités, recatégorisation et annulation.
+ */
+@QuarkusTest
+class CategorieMarchandServiceTest {
+
+    private static final String CARREFOUR = "CARTE X4521 12/10 CARREFOUR MARKET";
+
+    @Inject
+    CategorieMarchandService service;
+
+    private UUID userId;
+    private UUID compteId;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        Transaction.deleteAll();
+        TransfertObjectif.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeOccurrence.deleteAll();
+        ChargeFixe.deleteAll();
+        CategorieMarchand.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+
+        User user = new User("Test", "Memo", 1, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        user.persist();
+        userId = user.getId();
+        Banque banque = new Banque("Banque Test", "#000000", "/logos/test.png");
+        banque.persist();
+        Compte compte = new Compte(user, banque, "Courant", TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00"));
+        compte.persist();
+        compteId = compte.getId();
+    }
+
+    @Test
+    void testBootstrapsFromHistoryWithoutWriting() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            transaction(CARREFOUR, TypeTransaction.ALIMENTATION);
+            transaction(CARREFOUR, TypeTransaction.ALIMENTATION);
+            transaction(CARREFOUR, TypeTransaction.RESTAURANT);
+            transaction("VIR INTERNE", TypeTransaction.VIREMENT_INTERNE);
+        });
+
+        assertEquals(TypeTransaction.ALIMENTATION, QuarkusTransaction.requiringNew()
+                .call(() -> service.lookup(User.findById(userId), CARREFOUR)));
+        assertNull(QuarkusTransaction.requiringNew()
+                .call(() -> service.lookup(User.findById(userId), "VIR INTERNE")));
+        // Reading the memo writes nothing: the rows come with the first recorded categorisation
+        assertEquals(0L, QuarkusTransaction.requiringNew().call(() -> CategorieMarchand.count()));
+    }
+
+    @Test
+    void testLearnsAndPersistsHistoryOnFirstRecord() {
+        enregistrer(CARREFOUR, TypeTransaction.ALIMENTATION);
+        enregistrer("SNCF VOYAGES", TypeTransaction.TRANSPORT);
+
+        assertEquals(TypeTransaction.ALIMENTATION, lookup(CARREFOUR));
+        assertEquals(TypeTransaction.TRANSPORT, lookup("SNCF VOYAGES"));
+        assertEquals(2L, QuarkusTransaction.requiringNew().call(() -> CategorieMarchand.count()));
+    }
+
+    @Test
+    void testTieGoesToTheLastChoice() {
+        enregistrer(CARREFOUR, TypeTransaction.ALIMENTATION);
+        enregistrer(CARREFOUR, TypeTransaction.SHOPPING);
+        assertEquals(TypeTransaction.SHOPPING, lookup(CARREFOUR));
+
+        enregistrer(CARREFOUR, TypeTransaction.ALIMENTATION);
+        assertEquals(TypeTransaction.ALIMENTATION, lookup(CARREFOUR));
+    }
+
+    @Test
+    void testRecategorisationMovesOneOccurrence() {
+        enregistrer(CARREFOUR, TypeTransaction.ALIMENTATION);
+        enregistrer(CARREFOUR, TypeTransaction.ALIMENTATION);
+        enregistrer(CARREFOUR, TypeTransaction.RESTAURANT);
+
+        QuarkusTransaction.requiringNew().run(() -> service.recategoriser(User.findById(userId),
+                CARREFOUR, TypeTransaction.ALIMENTATION, CARREFOUR, TypeTransaction.RESTAURANT));
+
+        assertEquals(TypeTransaction.RESTAURANT, lookup(CARREFOUR));
+        CategorieMarchand alimentation = QuarkusTransaction.requiringNew().call(() -> CategorieMarchand
+                .<CategorieMarchand>find("type", TypeTransaction.ALIMENTATION).firstResult());
+        assertEquals(1, alimentation.getOccurrences());
+    }
+
+    @Test
+    void testRolledBackRecordLeavesTheMemoUnchanged() {
+        enregistrer(CARREFOUR, TypeTransaction.ALIMENTATION);
+        assertEquals(TypeTransaction.ALIMENTATION, lookup(CARREFOUR));
+
+        QuarkusTransaction.begin();
+        service.enregistrer(User.findById(userId), CARREFOUR, TypeTransaction.SHOPPING);
+        service.enregistrer(User.findById(userId), "FNAC", TypeTransaction.SHOPPING);
+        QuarkusTransaction.rollback();
+
+        assertEquals(TypeTransaction.ALIMENTATION, lookup(CARREFOUR));
+        assertNull(lookup("FNAC"));
+    }
+
+    private void enregistrer(String description, TypeTransaction type) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            transaction(description, type);
+            service.enregistrer(User.findById(userId), description, type);
+        });
+    }
+
+    private TypeTransaction lookup(String description) {
+        return QuarkusTransaction.requiringNew().call(() -> service.lookup(User.findById(userId), description));
+    }
+
+    private void transaction(String description, TypeTransaction type) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(User.findById(userId));
+        transaction.setCompte(Compte.findById(compteId));
+        transaction.setMontant(new BigDecimal("-10.00"));
+        transaction.setType(type);
+        transaction.setDescription(description);
+        transaction.setDateTransaction(LocalDate.of(2025, 3, 10));
+        transaction.persist();
+    }
+}
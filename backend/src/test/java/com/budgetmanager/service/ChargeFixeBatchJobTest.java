@@ -0,0 +1,208 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.entity.*;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du traitement planifié des charges fixes.
+ * Date de traitement fixe : le 20 mars 2025.
+ */
+@QuarkusTest
+class ChargeFixeBatchJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 20);
+    // Charges starting with the current cycle: nothing to catch up
+    private static final LocalDate CYCLE_15 = LocalDate.of(2025, 3, 15);
+    private static final LocalDate CYCLE_25 = LocalDate.of(2025, 2, 25);
+
+    @Inject
+    ChargeFixeBatchJob batchJob;
+
+    private UUID paye15;
+    private UUID comptePaye15;
+    private UUID comptePaye25;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        TransfertObjectif.deleteAll();
+        Transaction.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+
+        Banque banque = new Banque("Test Bank", "#FF0000", null);
+        banque.persist();
+
+        // Paid on the 15th: cycle from March 15 to April 14
+        User paye15 = new User("Paye", "Quinze", 15, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        paye15.persist();
+        this.paye15 = paye15.getId();
+        Compte compte15 = new Compte(paye15, banque, "Courant 15", TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00"));
+        compte15.persist();
+        comptePaye15 = compte15.getId();
+
+        charge(paye15, compte15, "Salle de sport", "30.00", 18, CYCLE_15);   // March 18: due
+        charge(paye15, compte15, "Streaming", "9.99", 25, CYCLE_15);        // March 25: not yet due
+        charge(paye15, compte15, "Assurance", "40.00", 5, CYCLE_15);        // April 5: not yet due
+
+        // Paid on the 25th: cycle from February 25 to March 24
+        User paye25 = new User("Paye", "VingtCinq", 25, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        paye25.persist();
+        Compte compte25 = new Compte(paye25, banque, "Courant 25", TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00"));
+        compte25.persist();
+        comptePaye25 = compte25.getId();
+
+        charge(paye25, compte25, "Loyer", "800.00", 27, CYCLE_25);          // February 27: due
+        charge(paye25, compte25, "Electricite", "60.00", 10, CYCLE_25);     // March 10: due
+        charge(paye25, compte25, "Internet", "30.00", 22, CYCLE_25);        // March 22: not yet due
+    }
+
+    private void charge(User user, Compte compte, String nom, String montant, int jour, LocalDate dateDebut) {
+        charge(user, compte, nom, montant, jour, dateDebut, FrequenceCharge.MENSUELLE);
+    }
+
+    private void charge(User user, Compte compte, String nom, String montant, int jour,
+                        LocalDate dateDebut, FrequenceCharge frequence) {
+        ChargeFixe charge = new ChargeFixe(user, compte, nom, null, new BigDecimal(montant),
+                TypeTransaction.ABONNEMENT, jour, frequence, dateDebut);
+        // Created on the processing date
+        charge.setProchaineEcheance(charge.echeanceInitiale(TODAY));
+        charge.persist();
+    }
+
+    @Test
+    void testGeneratesDueChargesForAllUsersAndAppliesBalances() {
+        int created = batchJob.traiter(TODAY);
+
+        assertEquals(3, created);
+        assertEquals(1, Transaction.count("compte.id", comptePaye15));
+        assertEquals(2, Transaction.count("compte.id", comptePaye25));
+        assertEquals(1, Transaction.count("description = ?1 and dateTransaction = ?2",
+                "Loyer - 2025-02", LocalDate.of(2025, 2, 27)));
+
+        Compte compte15 = Compte.findById(comptePaye15);
+        Compte compte25 = Compte.findById(comptePaye25);
+        assertEquals(0, new BigDecimal("970.00").compareTo(compte15.getSoldeTotal()));
+        assertEquals(0, new BigDecimal("140.00").compareTo(compte25.getSoldeTotal()));
+        assertEquals(3, ChargeOccurrence.count());
+
+        // Next due dates move past today, pending charges keep theirs
+        assertEquals(LocalDate.of(2025, 4, 18), prochaineEcheance("Salle de sport"));
+        assertEquals(LocalDate.of(2025, 3, 22), prochaineEcheance("Internet"));
+        assertEquals(LocalDate.of(2025, 4, 5), prochaineEcheance("Assurance"));
+    }
+
+    private LocalDate prochaineEcheance(String nom) {
+        return ChargeFixe.<ChargeFixe>find("nom", nom).firstResult().getProchaineEcheance();
+    }
+
+    @Test
+    void testSecondRunCreatesNothing() {
+        batchJob.traiter(TODAY);
+        long transactions = Transaction.count();
+
+        assertEquals(0, batchJob.traiter(TODAY));
+        assertEquals(transactions, Transaction.count());
+
+        Compte compte25 = Compte.findById(comptePaye25);
+        assertEquals(0, new BigDecimal("140.00").compareTo(compte25.getSoldeTotal()));
+    }
+
+    @Test
+    void testLaterRunPicksUpNewlyDueCharges() {
+        batchJob.traiter(TODAY);
+
+        // March 22: only "Internet" becomes due, the charges already passed are not generated again
+        int created = batchJob.traiter(TODAY.plusDays(2));
+
+        assertEquals(1, created);
+        assertEquals(1, Transaction.count("description", "Internet - 2025-02"));
+    }
+
+    @Test
+    void testCatchesUpMissedCyclesSinceLastOccurrence() {
+        batchJob.traiter(TODAY);
+
+        // Nobody ran the batch for three months: the missed months are generated with the current one
+        int created = batchJob.traiter(LocalDate.of(2025, 6, 20));
+
+        // Three missed months for each of the six charges, e.g. Salle de sport: April to June,
+        // Internet: March to May (its June 22 occurrence is not due yet)
+        assertEquals(18, created);
+        assertEquals(4, Transaction.count("description like ?1", "Salle de sport - %"));
+        assertEquals(4, Transaction.count("description like ?1", "Loyer - %"));
+        assertEquals(3, Transaction.count("description like ?1", "Internet - %"));
+
+        Compte compte25 = Compte.findById(comptePaye25);
+        assertEquals(0, new BigDecimal("-2530.00").compareTo(compte25.getSoldeTotal()));
+    }
+
+    @Test
+    void testChargeWithoutHistoryIsDebitedAtMostOnce() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            User user = User.findById(paye15);
+            Compte compte = Compte.findById(comptePaye15);
+            charge(user, compte, "Mutuelle", "50.00", 16, TODAY.minusYears(1));
+            charge(user, compte, "Box", "20.00", 10, TODAY.minusYears(1));
+            charge(user, compte, "Taxe", "90.00", 16, LocalDate.of(2024, 6, 1), FrequenceCharge.TRIMESTRIELLE);
+            charge(user, compte, "Vignette", "45.00", 16, LocalDate.of(2024, 7, 1), FrequenceCharge.TRIMESTRIELLE);
+        });
+
+        batchJob.traiter(TODAY);
+
+        // Started a year ago but never applied: only the due date of the current month is debited
+        assertEquals(List.of(LocalDate.of(2025, 3, 16)), dates("Mutuelle"));
+        assertEquals(List.of(LocalDate.of(2025, 3, 10)), dates("Box"));
+        assertEquals(LocalDate.of(2025, 4, 10), prochaineEcheance("Box"));
+        // Quarterly from June 2024: March is due; from July 2024: April is the next one
+        assertEquals(List.of(LocalDate.of(2025, 3, 16)), dates("Taxe"));
+        assertEquals(List.of(), dates("Vignette"));
+    }
+
+    @Test
+    void testCatchUpSinceLastOccurrenceIsBounded() {
+        batchJob.traiter(TODAY);
+
+        // Two years without a run: only the last 12 months are generated
+        batchJob.traiter(TODAY.plusYears(2));
+
+        List<LocalDate> dates = dates("Salle de sport");
+        assertEquals(13, dates.size());
+        assertEquals(LocalDate.of(2026, 4, 18), dates.get(1));
+    }
+
+    private List<LocalDate> dates(String nom) {
+        return Transaction.<Transaction>find("description like ?1 order by dateTransaction", nom + " - %")
+                .stream().map(Transaction::getDateTransaction).toList();
+    }
+
+    @Test
+    void testEcheancesManqueesStopsAtDateFin() {
+        ChargeFixe charge = new ChargeFixe(null, null, "Abonnement", null, new BigDecimal("10.00"),
+                TypeTransaction.ABONNEMENT, 31, FrequenceCharge.MENSUELLE, LocalDate.of(2025, 1, 1));
+        charge.setDateFin(LocalDate.of(2025, 2, 28));
+
+        // January 31, then February 28 (short month); March is after dateFin
+        assertEquals(List.of(LocalDate.of(2025, 1, 31), LocalDate.of(2025, 2, 28)),
+                ChargeRattrapageService.echeancesManquees(charge, 1, YearMonth.of(2025, 1), TODAY));
+    }
+}
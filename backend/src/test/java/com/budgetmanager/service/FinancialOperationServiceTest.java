@@ -59,6 +59,7 @@ class FinancialOperationServiceTest {
         ObjectifRepartition.deleteAll();
         Objectif.deleteAll();
         Compte.deleteAll();
+        MonthSnapshot.deleteAll();
         User.deleteAll();
         Banque.deleteAll();
 
@@ -0,0 +1,119 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.dto.GenerationDonneesRequest;
+import com.budgetmanager.dto.GenerationDonneesResponse;
+import com.budgetmanager.entity.*;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du générateur de jeu de données synthétique.
+ * Fin de l'historique fixe : le 20 mars 2025.
+ */
+@QuarkusTest
+class GenerateurDonneesServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 20);
+
+    @Inject
+    GenerateurDonneesService generateurDonneesService;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        // Generated transfers are referenced by their transactions: delete those first
+        Transaction.deleteAll();
+        TransfertObjectif.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Leave no transfer-linked transaction behind for the next test classes
+        QuarkusTransaction.requiringNew().run(this::setUp);
+    }
+
+    private static GenerationDonneesRequest petitJeu() {
+        return new GenerationDonneesRequest(3, 3, 4, 1, 10, 2, 7L);
+    }
+
+    private static BigDecimal totalMontants() {
+        return QuarkusTransaction.requiringNew().call(() -> Transaction.getEntityManager()
+                .createQuery("select sum(t.montant) from Transaction t", BigDecimal.class)
+                .getSingleResult());
+    }
+
+    @Test
+    void testGeneratesConsistentHistory() {
+        GenerationDonneesResponse response = generateurDonneesService.generer(petitJeu(), TODAY);
+
+        assertEquals(LocalDate.of(2024, 4, 1), response.getDateDebut());
+        assertEquals(3, response.getComptes());
+        assertEquals(3, response.getObjectifs());
+        assertEquals(4, response.getChargesFixes());
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            assertEquals(response.getTransactions(), Transaction.count());
+            assertEquals(response.getTransferts(), TransfertObjectif.count());
+            assertEquals(2 * response.getTransferts(), Transaction.count("type", TypeTransaction.TRANSFERT_OBJECTIF));
+            // Salary on the 25th: April 2024 to February 2025
+            assertEquals(11, Transaction.count("type", TypeTransaction.SALAIRE));
+            assertEquals(120, Transaction.count("type in ?1", MonthSnapshotService.VARIABLE_EXPENSE_TYPES));
+
+            // Every generated charge transaction is recorded as an occurrence, next due date in the future
+            for (ChargeFixe charge : ChargeFixe.<ChargeFixe>listAll()) {
+                assertEquals(ChargeOccurrence.count("chargeFixe", charge),
+                        Transaction.count("description = ?1 and type = ?2", charge.getNom(), charge.getCategorie()));
+                assertTrue(charge.getProchaineEcheance().isAfter(TODAY));
+            }
+
+            // Goal allocations match the money moved to each goal
+            for (ObjectifRepartition repartition : ObjectifRepartition.<ObjectifRepartition>listAll()) {
+                BigDecimal mouvements = Transaction.getEntityManager()
+                        .createQuery("select coalesce(sum(t.montant), 0) from Transaction t where t.objectif = ?1",
+                                BigDecimal.class)
+                        .setParameter(1, repartition.getObjectif())
+                        .getSingleResult();
+                assertEquals(0, mouvements.compareTo(repartition.getMontantActuel()));
+            }
+        });
+    }
+
+    @Test
+    void testSameSeedGivesSameData() {
+        GenerationDonneesResponse premier = generateurDonneesService.generer(petitJeu(), TODAY);
+        BigDecimal total = totalMontants();
+        QuarkusTransaction.requiringNew().run(this::setUp);
+
+        GenerationDonneesResponse second = generateurDonneesService.generer(petitJeu(), TODAY);
+
+        assertEquals(premier.getTransactions(), second.getTransactions());
+        assertEquals(premier.getTransferts(), second.getTransferts());
+        assertEquals(0, total.compareTo(totalMontants()));
+    }
+
+    @Test
+    void testRefusesWhenAProfileExists() {
+        QuarkusTransaction.requiringNew().run(() ->
+                new User("Deja", "La", 25, new BigDecimal("2500.00"), new BigDecimal("500.00")).persist());
+
+        assertThrows(IllegalStateException.class, () -> generateurDonneesService.generer(petitJeu(), TODAY));
+    }
+}
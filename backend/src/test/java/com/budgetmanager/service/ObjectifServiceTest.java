@@ -47,6 +47,7 @@ class ObjectifServiceTest {
         SalaireValide.deleteAll();
         ChargeFixe.deleteAll();
         Compte.deleteAll();
+        MonthSnapshot.deleteAll();
         User.deleteAll();
         Banque.deleteAll();
 
@@ -0,0 +1,136 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.dto.PrevisionCategorieResponse;
+import com.budgetmanager.entity.*;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la prévision des dépenses variables par lissage exponentiel saisonnier.
+ * Salaire le 25 : le cycle "2024-03" va du 25 mars au 24 avril.
+ */
+@QuarkusTest
+class PrevisionDepenseServiceTest {
+
+    @Inject
+    PrevisionDepenseService previsionDepenseService;
+
+    private User user;
+    private Compte compte;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        TransfertObjectif.deleteAll();
+        Transaction.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+
+        Banque banque = new Banque("Test Bank", "#FF0000", null);
+        banque.persist();
+
+        user = new User("Test", "Depenses", 25, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        user.persist();
+        compte = new Compte(user, banque, "Courant", TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00"));
+        compte.persist();
+
+        // Groceries every cycle of 2024, doubled in December; restaurants only in June
+        for (int mois = 1; mois <= 12; mois++) {
+            depense(LocalDate.of(2024, mois, 28), TypeTransaction.ALIMENTATION, mois == 12 ? "-600.00" : "-300.00");
+        }
+        depense(LocalDate.of(2024, 6, 28), TypeTransaction.RESTAURANT, "-80.00");
+        // Fixed charges are not variable spending
+        depense(LocalDate.of(2024, 6, 28), TypeTransaction.LOYER, "-800.00");
+    }
+
+    private void depense(LocalDate date, TypeTransaction type, String montant) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setCompte(compte);
+        transaction.setMontant(new BigDecimal(montant));
+        transaction.setType(type);
+        transaction.setDescription(type.name());
+        transaction.setDateTransaction(date);
+        transaction.persist();
+    }
+
+    @Test
+    @Transactional
+    void testFitsOneModelPerCategoryWithSpending() {
+        previsionDepenseService.integrerCycles(user, "2024-12", LocalDate.of(2025, 2, 1));
+
+        PrevisionDepense alimentation = PrevisionDepense.find("categorie", TypeTransaction.ALIMENTATION).firstResult();
+        assertEquals(12, alimentation.getNombreCycles());
+        assertEquals("2024-12", alimentation.getDernierCycle());
+
+        // Restaurant model starts with its first spending in June: 7 cycles up to December
+        PrevisionDepense restaurant = PrevisionDepense.find("categorie", TypeTransaction.RESTAURANT).firstResult();
+        assertEquals(7, restaurant.getNombreCycles());
+        assertEquals(2, PrevisionDepense.count());
+    }
+
+    @Test
+    @Transactional
+    void testIntegratesOnlyNewClosedCycles() {
+        previsionDepenseService.integrerCycles(user, "2024-12", LocalDate.of(2025, 2, 1));
+
+        // Same cycle again: nothing to do
+        assertEquals(0, previsionDepenseService.integrerCycles(user, "2024-12", LocalDate.of(2025, 2, 1)));
+
+        // January 2025 cycle (January 25 to February 24) is not closed on February 10
+        assertEquals(0, previsionDepenseService.integrerCycles(user, "2025-01", LocalDate.of(2025, 2, 10)));
+
+        depense(LocalDate.of(2025, 1, 28), TypeTransaction.ALIMENTATION, "-310.00");
+        assertEquals(2, previsionDepenseService.integrerCycles(user, "2025-01", LocalDate.of(2025, 3, 1)));
+
+        PrevisionDepense alimentation = PrevisionDepense.find("categorie", TypeTransaction.ALIMENTATION).firstResult();
+        assertEquals(13, alimentation.getNombreCycles());
+        assertEquals("2025-01", alimentation.getDernierCycle());
+    }
+
+    @Test
+    @Transactional
+    void testForecastsFollowSeasonality() {
+        previsionDepenseService.integrerCycles(user, "2024-12", LocalDate.of(2025, 2, 1));
+
+        List<PrevisionCategorieResponse> previsions = previsionDepenseService.prevoir(user, 12);
+
+        PrevisionCategorieResponse alimentation = previsions.stream()
+                .filter(p -> p.getCategorie() == TypeTransaction.ALIMENTATION)
+                .findFirst().orElseThrow();
+        assertEquals("2025-01", alimentation.getPremierCycle());
+        assertEquals(12, alimentation.getMontants().size());
+        assertNotNull(alimentation.getErreurMoyenne());
+
+        // December is forecast above November
+        assertTrue(alimentation.getMontants().get(11).compareTo(alimentation.getMontants().get(10)) > 0);
+        alimentation.getMontants().forEach(m -> assertTrue(m.signum() >= 0));
+    }
+
+    @Test
+    void testSmoothingUpdateIsConstantTime() {
+        PrevisionDepense modele = new PrevisionDepense(null, TypeTransaction.TRANSPORT);
+        LissageSaisonnier.integrer(modele, YearMonth.of(2024, 1), 100);
+        LissageSaisonnier.integrer(modele, YearMonth.of(2024, 2), 100);
+
+        // Flat history: flat forecast, one-step error 0
+        assertEquals(100, LissageSaisonnier.prevoir(modele, 1), 1e-9);
+        assertEquals(0.0, LissageSaisonnier.erreurMoyenne(modele), 1e-9);
+    }
+}
@@ -0,0 +1,165 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.dto.PrevisionCompteResponse;
+import com.budgetmanager.dto.PrevisionResponse;
+import com.budgetmanager.entity.*;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la prévision de trésorerie.
+ * Date de référence fixe : le 20 mars 2025, salaire le 25.
+ */
+@QuarkusTest
+class PrevisionServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 20);
+
+    @Inject
+    PrevisionService previsionService;
+
+    @Inject
+    SalaireValideService salaireValideService;
+
+    private UUID userId;
+    private UUID loyerId;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        TransfertObjectif.deleteAll();
+        Transaction.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+
+        Banque banque = new Banque("Test Bank", "#FF0000", null);
+        banque.persist();
+
+        User user = new User("Test", "Prevision", 25, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        user.persist();
+        userId = user.getId();
+
+        Compte courant = new Compte(user, banque, "Courant", TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00"));
+        courant.persist();
+        new Compte(user, banque, "Livret", TypeCompte.LIVRET_A, new BigDecimal("5000.00")).persist();
+
+        ChargeFixe loyer = new ChargeFixe(user, courant, "Loyer", null, new BigDecimal("800.00"),
+                TypeTransaction.LOYER, 5, FrequenceCharge.MENSUELLE, LocalDate.of(2025, 1, 1));
+        loyer.persist();
+        loyerId = loyer.getId();
+
+        // Yearly, counted from March 2024: due in the cycle starting March 25, 2025
+        new ChargeFixe(user, courant, "Assurance", null, new BigDecimal("120.00"),
+                TypeTransaction.ASSURANCE, 10, FrequenceCharge.ANNUELLE, LocalDate.of(2024, 3, 1)).persist();
+    }
+
+    private PrevisionResponse calculer(int mois) {
+        // One persistence context per call, as for each HTTP request
+        return QuarkusTransaction.requiringNew().call(() -> {
+            User user = User.findById(userId);
+            return previsionService.calculer(userId, previsionService.versionDonnees(user), TODAY, mois);
+        });
+    }
+
+    private PrevisionCompteResponse compte(PrevisionResponse prevision, String nom) {
+        return prevision.getComptes().stream().filter(c -> c.getNom().equals(nom)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void testProjectsChargesAndSalaryDayByDay() {
+        PrevisionResponse prevision = calculer(2);
+
+        assertEquals(LocalDate.of(2025, 5, 20), prevision.getDateFin());
+        PrevisionCompteResponse courant = compte(prevision, "Courant");
+        assertEquals(62, courant.getSoldes().size());
+
+        // Salary on March 25 and April 25, rent on April 5 and May 5, insurance on April 10
+        assertEquals(0, new BigDecimal("1000.00").compareTo(courant.getSoldes().get(4)));
+        assertEquals(0, new BigDecimal("3500.00").compareTo(courant.getSoldes().get(5)));
+        assertEquals(0, new BigDecimal("2700.00").compareTo(courant.getSoldes().get(16)));
+        assertEquals(0, new BigDecimal("2580.00").compareTo(courant.getSoldes().get(21)));
+        assertEquals(0, new BigDecimal("4280.00").compareTo(courant.getSoldeFinal()));
+        assertEquals(TODAY, courant.getDateSoldeMin());
+
+        PrevisionCompteResponse livret = compte(prevision, "Livret");
+        assertEquals(0, new BigDecimal("5000.00").compareTo(livret.getSoldeFinal()));
+        assertEquals(0, new BigDecimal("9280.00").compareTo(prevision.getSoldesTotaux().get(61)));
+    }
+
+    @Test
+    void testSkipsOccurrencesAndSalariesAlreadyApplied() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            // Rent for April already generated at salary validation, March salary already received
+            new ChargeOccurrence(ChargeFixe.findById(loyerId), "2025-04", null).persist();
+            User user = User.findById(userId);
+            Compte courant = Compte.find("nom", "Courant").firstResult();
+            new SalaireValide(user, "2025-03", new BigDecimal("2500.00"), TODAY, courant, "Salaire").persist();
+        });
+
+        PrevisionCompteResponse courant = compte(calculer(2), "Courant");
+
+        assertEquals(0, new BigDecimal("2580.00").compareTo(courant.getSoldeFinal()));
+    }
+
+    @Test
+    void testResultIsCachedUntilDataChanges() {
+        PrevisionResponse premiere = calculer(3);
+        assertSame(premiere, calculer(3));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            ChargeFixe loyer = ChargeFixe.findById(loyerId);
+            loyer.setMontant(new BigDecimal("850.00"));
+        });
+
+        PrevisionResponse apresModification = calculer(3);
+        assertNotSame(premiere, apresModification);
+        assertEquals(0, new BigDecimal("5830.00").compareTo(compte(apresModification, "Courant").getSoldeFinal()));
+    }
+
+    @Test
+    void testCacheFollowsDeleteThenCreate() {
+        PrevisionResponse premiere = calculer(3);
+
+        // Same number of charges and same version sum as before
+        QuarkusTransaction.requiringNew().run(() -> {
+            ChargeFixe loyer = ChargeFixe.findById(loyerId);
+            loyer.delete();
+            new ChargeFixe(loyer.getUser(), loyer.getCompte(), "Loyer", null, new BigDecimal("900.00"),
+                    TypeTransaction.LOYER, 5, FrequenceCharge.MENSUELLE, LocalDate.of(2025, 1, 1)).persist();
+        });
+
+        PrevisionResponse apresRemplacement = calculer(3);
+        assertNotSame(premiere, apresRemplacement);
+        assertEquals(0, new BigDecimal("5680.00").compareTo(compte(apresRemplacement, "Courant").getSoldeFinal()));
+    }
+
+    @Test
+    void testCacheFollowsBulkSalaryDeletion() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Compte courant = Compte.find("nom", "Courant").firstResult();
+            new SalaireValide(User.findById(userId), "2025-03", new BigDecimal("2500.00"), TODAY, courant,
+                    "Salaire").persist();
+        });
+        PrevisionResponse premiere = calculer(2);
+
+        QuarkusTransaction.requiringNew().run(() -> salaireValideService.deleteByMois(User.findById(userId), "2025-03"));
+
+        assertNotSame(premiere, calculer(2));
+    }
+}
@@ -0,0 +1,89 @@
+package com.budgetmanager.service;
+
+import com.budgetmanager.entity.*;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des partitions annuelles de transactions. Le partitionnement lui-même est propre à
+ * PostgreSQL ; sur H2 on vérifie le calendrier du job et la clé de partition ajoutée par
+ * Hibernate aux update/delete (ancienne date, ligne retrouvée même quand la date change).
+ */
+@QuarkusTest
+class TransactionPartitionJobTest {
+
+    @Inject
+    TransactionPartitionJob partitionJob;
+
+    @Inject
+    TransactionService transactionService;
+
+    private UUID transactionId;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        Transaction.deleteAll();
+        TransfertObjectif.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+
+        User user = new User("Test", "Partition", 25, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        user.persist();
+        Banque banque = new Banque("Banque Test", "#000000", "/logos/test.png");
+        banque.persist();
+        Compte compte = new Compte(user, banque, "Courant", TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00"));
+        compte.persist();
+
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setCompte(compte);
+        transaction.setMontant(new BigDecimal("-42.50"));
+        transaction.setType(TypeTransaction.ALIMENTATION);
+        transaction.setDescription("Courses fin d'annee");
+        transaction.setDateTransaction(LocalDate.of(2024, 12, 30));
+        transaction.persist();
+        transactionId = transaction.getId();
+    }
+
+    @Test
+    void testYearsToPrepare() {
+        assertEquals(List.of(2025, 2026), TransactionPartitionJob.anneesAPreparer(LocalDate.of(2025, 12, 31), 1));
+        assertEquals(List.of(2026), TransactionPartitionJob.anneesAPreparer(LocalDate.of(2026, 1, 1), 0));
+    }
+
+    @Test
+    void testNothingToDoOutsidePostgresql() {
+        assertEquals(0, partitionJob.preparer(LocalDate.of(2025, 3, 20)));
+    }
+
+    @Test
+    void testUpdateMovesTransactionToAnotherYear() {
+        QuarkusTransaction.requiringNew().run(() -> transactionService.updateTransaction(
+                transactionId, null, new BigDecimal("-45.00"), null, "2025-01-02"));
+
+        Transaction transaction = QuarkusTransaction.requiringNew().call(() -> Transaction.findById(transactionId));
+        assertEquals(LocalDate.of(2025, 1, 2), transaction.getDateTransaction());
+        assertEquals(0, new BigDecimal("-45.00").compareTo(transaction.getMontant()));
+
+        QuarkusTransaction.requiringNew().run(() -> transactionService.deleteTransaction(transactionId));
+        assertNull(QuarkusTransaction.requiringNew().call(() -> Transaction.findById(transactionId)));
+    }
+}
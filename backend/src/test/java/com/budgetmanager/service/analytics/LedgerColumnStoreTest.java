@@ -0,0 +1,177 @@
+package com.budgetmanager.service.analytics;
+
+import com.budgetmanager.dto.CreateTransactionRequest;
+import com.budgetmanager.dto.UpdateTransactionRequest;
+import com.budgetmanager.entity.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du store des grands livres en colonnes : suivi des écritures validées,
+ * annulations ignorées, statistiques sur plusieurs années sans requête.
+ */
+@QuarkusTest
+class LedgerColumnStoreTest {
+
+    private static final LocalDate DEBUT = LocalDate.of(2015, 1, 1);
+    private static final LocalDate FIN = LocalDate.of(2024, 12, 31);
+
+    @Inject
+    LedgerColumnStore store;
+
+    @Inject
+    MeterRegistry registry;
+
+    private UUID userId;
+    private UUID compteId;
+    private UUID loyerId;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        Transaction.deleteAll();
+        TransfertObjectif.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeOccurrence.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+
+        User user = new User("Test", "Colonnes", 1, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        user.persist();
+        userId = user.getId();
+        Banque banque = new Banque("Banque Test", "#000000", "/logos/test.png");
+        banque.persist();
+        Compte compte = new Compte(user, banque, "Courant", TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00"));
+        compte.persist();
+        compteId = compte.getId();
+
+        // Ten years: salary, rent and groceries every month
+        for (LocalDate mois = DEBUT; mois.isBefore(FIN); mois = mois.plusMonths(1)) {
+            transaction(user, compte, "2500.00", TypeTransaction.SALAIRE, mois);
+            Transaction loyer = transaction(user, compte, "-800.00", TypeTransaction.LOYER, mois.plusDays(4));
+            loyerId = loyer.getId();
+            for (int jour = 0; jour < 28; jour += 3) {
+                transaction(user, compte, "-12.34", TypeTransaction.ALIMENTATION, mois.plusDays(jour));
+            }
+        }
+    }
+
+    private static Transaction transaction(User user, Compte compte, String montant, TypeTransaction type,
+                                           LocalDate date) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setCompte(compte);
+        transaction.setMontant(new BigDecimal(montant));
+        transaction.setType(type);
+        transaction.setDescription(type.name());
+        transaction.setDateTransaction(date);
+        transaction.persist();
+        return transaction;
+    }
+
+    @Test
+    void testMultiYearStatisticsFromColumns() {
+        given().queryParam("dateDebut", DEBUT.toString()).queryParam("dateFin", FIN.toString())
+                .when().get("/api/transactions/statistiques").then()
+                .statusCode(200)
+                .body("nombreTransactions", is(120 * 12))
+                .body("totalRevenus", is(300_000.0f))
+                .body("totalChargesFixes", is(96_000.0f))
+                .body("totalDepensesVariables", is(14_808.0f))
+                .body("soldeNet", is(189_192.0f));
+
+        LedgerColumns colonnes = store.colonnes(userId);
+        long meilleur = Long.MAX_VALUE;
+        for (int i = 0; i < 2_000; i++) {
+            long debut = System.nanoTime();
+            TotauxParType totaux = colonnes.totaliser(DEBUT, FIN, null);
+            meilleur = Math.min(meilleur, System.nanoTime() - debut);
+            assertEquals(-96_000_00L, totaux.debits(TypeTransaction.LOYER));
+        }
+        // Ten years of ledger scanned without SQL nor entities
+        assertTrue(meilleur < 1_000_000, "best scan " + meilleur + " ns");
+    }
+
+    @Test
+    void testFollowsCommittedWrites() {
+        LocalDate jour = LocalDate.of(2024, 6, 15);
+        assertEquals(0, store.colonnes(userId).totaliser(jour, jour, null).nombre());
+        double chargements = chargements();
+
+        CreateTransactionRequest creation = new CreateTransactionRequest();
+        creation.setCompteId(compteId);
+        creation.setMontant(new BigDecimal("-45.00"));
+        creation.setDescription("RESTAURANT");
+        creation.setType(TypeTransaction.RESTAURANT);
+        creation.setDateTransaction(jour.toString());
+        String id = given().contentType(ContentType.JSON).body(creation)
+                .when().post("/api/transactions").then()
+                .statusCode(201)
+                .extract().path("id");
+        assertEquals(-4_500, store.colonnes(userId).totaliser(jour, jour, null).debits(TypeTransaction.RESTAURANT));
+
+        UpdateTransactionRequest modification = new UpdateTransactionRequest();
+        modification.setDateTransaction(jour.plusDays(1).toString());
+        given().contentType(ContentType.JSON).body(modification)
+                .when().put("/api/transactions/" + id).then()
+                .statusCode(200);
+        assertEquals(0, store.colonnes(userId).totaliser(jour, jour, null).nombre());
+        assertEquals(-4_500, store.colonnes(userId).totaliser(jour.plusDays(1), jour.plusDays(1), null)
+                .debits(TypeTransaction.RESTAURANT));
+
+        given().when().delete("/api/transactions/" + id).then().statusCode(200);
+        given().when().delete("/api/transactions/" + loyerId).then().statusCode(200);
+        TotauxParType totaux = store.colonnes(userId).totaliser(null, null, null);
+        assertEquals(0, totaux.nombreDebits(TypeTransaction.RESTAURANT));
+        assertEquals(-95_200_00L, totaux.debits(TypeTransaction.LOYER));
+
+        // Kept up to date in memory, never reloaded
+        assertEquals(chargements, chargements());
+    }
+
+    @Test
+    void testIgnoresRolledBackWrites() {
+        LocalDate jour = LocalDate.of(2024, 7, 1);
+        store.colonnes(userId);
+
+        QuarkusTransaction.begin();
+        transaction(User.findById(userId), Compte.findById(compteId), "-99.00", TypeTransaction.SHOPPING, jour);
+        // The transaction sees its own writes
+        assertEquals(-9_900, store.colonnes(userId).totaliser(jour, jour, null).debits(TypeTransaction.SHOPPING));
+        QuarkusTransaction.rollback();
+
+        assertEquals(0, store.colonnes(userId).totaliser(jour, jour, null).nombreDebits(TypeTransaction.SHOPPING));
+
+        // Not loaded yet: read within the transaction, never cached
+        store.invaliderApresCommit(userId);
+        QuarkusTransaction.begin();
+        transaction(User.findById(userId), Compte.findById(compteId), "-99.00", TypeTransaction.SHOPPING, jour);
+        assertEquals(-9_900, store.colonnes(userId).totaliser(jour, jour, null).debits(TypeTransaction.SHOPPING));
+        QuarkusTransaction.rollback();
+
+        assertEquals(0, store.colonnes(userId).totaliser(jour, jour, null).nombreDebits(TypeTransaction.SHOPPING));
+    }
+
+    private double chargements() {
+        return registry.get("budget.ledger.loads").counter().count();
+    }
+}
@@ -0,0 +1,130 @@
+package com.budgetmanager.service.analytics;
+
+import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.service.analytics.LedgerColumns.Ligne;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du grand livre en colonnes : totaux par période et application des écritures.
+ */
+class LedgerColumnsTest {
+
+    private static final UUID COURANT = UUID.randomUUID();
+    private static final UUID LIVRET = UUID.randomUUID();
+
+    private final Ligne salaire = ligne(LocalDate.of(2024, 1, 25), 250_000, TypeTransaction.SALAIRE, COURANT);
+    private final Ligne loyer = ligne(LocalDate.of(2024, 2, 5), -80_000, TypeTransaction.LOYER, COURANT);
+    private final Ligne courses = ligne(LocalDate.of(2024, 2, 5), -4_250, TypeTransaction.ALIMENTATION, COURANT);
+    private final Ligne remboursement = ligne(LocalDate.of(2024, 2, 12), 1_999, TypeTransaction.ALIMENTATION, COURANT);
+    private final Ligne versement = ligne(LocalDate.of(2024, 3, 1), -15_000, TypeTransaction.EPARGNE, LIVRET);
+
+    @Test
+    void testTotalsOverAPeriod() {
+        // Rows in any order
+        LedgerColumns colonnes = LedgerColumns.of(List.of(versement, courses, salaire, remboursement, loyer));
+
+        TotauxParType fevrier = colonnes.totaliser(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29), null);
+        assertEquals(3, fevrier.nombre());
+        assertEquals(-80_000, fevrier.debits(TypeTransaction.LOYER));
+        assertEquals(-4_250, fevrier.debits(TypeTransaction.ALIMENTATION));
+        assertEquals(1_999, fevrier.credits(TypeTransaction.ALIMENTATION));
+        assertEquals(1, fevrier.nombreDebits(TypeTransaction.ALIMENTATION));
+        assertEquals(1, fevrier.nombreCredits(TypeTransaction.ALIMENTATION));
+        assertEquals(0, fevrier.credits(TypeTransaction.SALAIRE));
+
+        // Both bounds included, open bounds
+        assertEquals(2, colonnes.totaliser(LocalDate.of(2024, 2, 5), LocalDate.of(2024, 2, 5), null).nombre());
+        assertEquals(5, colonnes.totaliser(null, null, null).nombre());
+        assertEquals(2, colonnes.totaliser(LocalDate.of(2024, 2, 12), null, null).nombre());
+        assertEquals(0, colonnes.totaliser(LocalDate.of(2025, 1, 1), null, null).nombre());
+        assertEquals(0, colonnes.totaliser(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 2, 1), null).nombre());
+    }
+
+    @Test
+    void testTotalsOfOneCompte() {
+        LedgerColumns colonnes = LedgerColumns.of(List.of(salaire, loyer, versement));
+
+        TotauxParType livret = colonnes.totaliser(null, null, LIVRET);
+        assertEquals(1, livret.nombre());
+        assertEquals(-15_000, livret.debits(TypeTransaction.EPARGNE));
+        assertEquals(0, livret.debits(TypeTransaction.LOYER));
+        assertEquals(0, colonnes.totaliser(null, null, UUID.randomUUID()).nombre());
+    }
+
+    @Test
+    void testAppliesWritesWithoutChangingTheOriginal() {
+        LedgerColumns colonnes = LedgerColumns.of(List.of(salaire, loyer, courses));
+        UUID autreCompte = UUID.randomUUID();
+        Ligne modifiee = new Ligne(courses.id(), (int) LocalDate.of(2024, 1, 2).toEpochDay(), -5_000,
+                TypeTransaction.RESTAURANT, autreCompte);
+
+        Map<UUID, Ligne> modifications = new HashMap<>();
+        modifications.put(loyer.id(), null);
+        modifications.put(courses.id(), modifiee);
+        modifications.put(versement.id(), versement);
+        LedgerColumns apres = colonnes.appliquer(modifications);
+
+        assertEquals(3, apres.taille());
+        TotauxParType janvier = apres.totaliser(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null);
+        assertEquals(2, janvier.nombre());
+        assertEquals(-5_000, janvier.debits(TypeTransaction.RESTAURANT));
+        assertEquals(-5_000, apres.totaliser(null, null, autreCompte).debits(TypeTransaction.RESTAURANT));
+        assertEquals(0, apres.totaliser(null, null, null).debits(TypeTransaction.LOYER));
+        assertEquals(-15_000, apres.totaliser(LocalDate.of(2024, 3, 1), null, null).debits(TypeTransaction.EPARGNE));
+
+        // Same writes again: nothing duplicated
+        assertEquals(3, apres.appliquer(modifications).taille());
+        // Readers of the previous columns keep their version
+        assertEquals(-80_000, colonnes.totaliser(null, null, null).debits(TypeTransaction.LOYER));
+    }
+
+    @Test
+    void testPublishesInsertsAtTheEndInPlace() {
+        LedgerColumns colonnes = LedgerColumns.of(List.of(salaire, loyer));
+        TotauxParType avant = colonnes.totaliser(null, null, null);
+
+        // No spare capacity yet: grown once, then filled in place
+        LedgerColumns agrandies = colonnes.publier(Map.of(courses.id(), courses), Set.of(courses.id()));
+        assertNotSame(colonnes, agrandies);
+        assertEquals(2, colonnes.taille());
+        LedgerColumns completees = agrandies.publier(Map.of(versement.id(), versement), Set.of(versement.id()));
+        assertSame(agrandies, completees);
+        assertEquals(4, completees.taille());
+        assertEquals(-15_000, completees.totaliser(null, null, LIVRET).debits(TypeTransaction.EPARGNE));
+        assertEquals(avant.nombre(), colonnes.totaliser(null, null, null).nombre());
+
+        // Already read by a concurrent load: not appended twice
+        assertEquals(4, completees.publier(Map.of(versement.id(), versement), Set.of(versement.id())).taille());
+    }
+
+    @Test
+    void testPublishesOtherWritesOnACopy() {
+        LedgerColumns colonnes = LedgerColumns.of(List.of(salaire, loyer, versement));
+
+        // Back-dated insert
+        LedgerColumns antidatees = colonnes.publier(Map.of(courses.id(), courses), Set.of(courses.id()));
+        assertNotSame(colonnes, antidatees);
+        assertEquals(4, antidatees.taille());
+        assertEquals(2, antidatees.totaliser(LocalDate.of(2024, 2, 5), LocalDate.of(2024, 2, 5), null).nombre());
+
+        // Deletion
+        Map<UUID, Ligne> suppression = new HashMap<>();
+        suppression.put(loyer.id(), null);
+        LedgerColumns apres = antidatees.publier(suppression, Set.of());
+        assertEquals(3, apres.taille());
+        assertEquals(4, antidatees.taille());
+    }
+
+    private static Ligne ligne(LocalDate date, long centimes, TypeTransaction type, UUID compte) {
+        return new Ligne(UUID.randomUUID(), (int) date.toEpochDay(), centimes, type, compte);
+    }
+}
@@ -0,0 +1,112 @@
+package com.budgetmanager.service.archive;
+
+import com.budgetmanager.entity.TypeTransaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du format des segments d'archive (écriture, relecture, lecture partielle par l'index).
+ */
+class ArchiveSegmentTest {
+
+    private static final UUID COMPTE = UUID.randomUUID();
+    private static final UUID AUTRE_COMPTE = UUID.randomUUID();
+    private static final UUID OBJECTIF = UUID.randomUUID();
+
+    @TempDir
+    Path dossier;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        List<ArchivedTransaction> lignes = List.of(
+                ligne(LocalDate.of(2022, 11, 30), -123_456, TypeTransaction.ALIMENTATION, "CARTE CARREFOUR", COMPTE, null,
+                        LocalDateTime.of(2022, 12, 2, 8, 15, 30, 123_000_000)),
+                ligne(LocalDate.of(2022, 1, 3), 250_000, TypeTransaction.SALAIRE, "VIR SALAIRE ACME", COMPTE, null,
+                        LocalDateTime.of(2022, 1, 2, 23, 59)),
+                ligne(LocalDate.of(2022, 1, 3), -4_250, TypeTransaction.ALIMENTATION, "CARTE CARREFOUR", AUTRE_COMPTE,
+                        OBJECTIF, null),
+                ligne(LocalDate.of(2022, 12, 31), -1, TypeTransaction.FRAIS_BANCAIRE, "Frais é", COMPTE, OBJECTIF,
+                        LocalDateTime.of(2022, 12, 31, 0, 0)));
+        Path fichier = dossier.resolve("2022.seg");
+
+        ArchiveSegment.Entete entete = ArchiveSegment.ecrire(fichier, 2022, lignes);
+
+        assertEquals(entete, ArchiveSegment.lireEntete(fichier));
+        assertEquals(4, entete.lignes());
+        assertEquals(LocalDate.of(2022, 1, 3), entete.premiere());
+        assertEquals(LocalDate.of(2022, 12, 31), entete.derniere());
+
+        List<ArchivedTransaction> relues = ArchiveSegment.lire(fichier, null, null);
+        // Date then creation order, undated creations first
+        assertEquals(List.of(lignes.get(2), lignes.get(1), lignes.get(0), lignes.get(3)), relues);
+    }
+
+    @Test
+    void testReadsOnlyTheRequestedPeriod() throws IOException {
+        List<ArchivedTransaction> lignes = new ArrayList<>();
+        for (int mois = 1; mois <= 12; mois += 2) {
+            lignes.add(ligne(LocalDate.of(2021, mois, 10), -mois * 100L, TypeTransaction.LOISIRS, "Mois " + mois,
+                    COMPTE, null, null));
+        }
+        Path fichier = dossier.resolve("2021.seg");
+        ArchiveSegment.ecrire(fichier, 2021, lignes);
+
+        List<ArchivedTransaction> relues = ArchiveSegment.lire(fichier,
+                LocalDate.of(2021, 2, 1), LocalDate.of(2021, 7, 10));
+
+        assertEquals(List.of("Mois 3", "Mois 5", "Mois 7"),
+                relues.stream().map(ArchivedTransaction::description).toList());
+        assertTrue(ArchiveSegment.lire(fichier, LocalDate.of(2021, 12, 1), null).isEmpty());
+        assertTrue(ArchiveSegment.lire(fichier, LocalDate.of(2022, 1, 1), null).isEmpty());
+    }
+
+    @Test
+    void testCompactEncoding() throws IOException {
+        List<ArchivedTransaction> lignes = new ArrayList<>();
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 1000; i++) {
+            lignes.add(ligne(date.plusDays(i % 366), -(i % 50) * 199L, TypeTransaction.values()[i % 5],
+                    "Commerce " + (i % 20), i % 2 == 0 ? COMPTE : AUTRE_COMPTE, null, date.plusDays(i % 366).atTime(12, 0)));
+        }
+        Path fichier = dossier.resolve("2020.seg");
+        ArchiveSegment.ecrire(fichier, 2020, lignes);
+
+        // Per row: 16 bytes of id and a few varints, against about 80 bytes for the same columns fixed-width;
+        // descriptions, types and comptes written once in the dictionaries
+        assertTrue(Files.size(fichier) < 1000 * 32, "size " + Files.size(fichier));
+        assertEquals(1000, ArchiveSegment.lire(fichier, null, null).size());
+    }
+
+    @Test
+    void testRejectsRowsOfAnotherYear() {
+        List<ArchivedTransaction> lignes = List.of(ligne(LocalDate.of(2019, 12, 31), -100,
+                TypeTransaction.AUTRE, "Veille", COMPTE, null, null));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ArchiveSegment.ecrire(dossier.resolve("2020.seg"), 2020, lignes));
+    }
+
+    @Test
+    void testRejectsForeignFile() throws IOException {
+        Path fichier = dossier.resolve("2020.seg");
+        Files.writeString(fichier, "pas un segment");
+
+        assertThrows(IOException.class, () -> ArchiveSegment.lireEntete(fichier));
+    }
+
+    private static ArchivedTransaction ligne(LocalDate date, long cents, TypeTransaction type, String description,
+                                             UUID compte, UUID objectif, LocalDateTime createdAt) {
+        return new ArchivedTransaction(UUID.randomUUID(), compte, objectif, cents, type, description, date, createdAt);
+    }
+}
@@ -0,0 +1,192 @@
+package com.budgetmanager.service.archive;
+
+import com.budgetmanager.entity.*;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de l'archive froide : passage planifié (horizon de 24 mois au 20 mars 2025,
+ * soit avant le 1er mars 2023), lectures fusionnées table + archive et transferts archivés.
+ */
+@QuarkusTest
+class TransactionArchiveJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 20);
+
+    @Inject
+    TransactionArchiveJob archiveJob;
+
+    private UUID userId;
+    private UUID compteId;
+    private UUID objectifId;
+    private UUID occurrenceId;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        Transaction.deleteAll();
+        TransfertObjectif.deleteAll();
+        ObjectifRepartition.deleteAll();
+        Objectif.deleteAll();
+        SalaireValide.deleteAll();
+        ChargeOccurrence.deleteAll();
+        ChargeFixe.deleteAll();
+        Compte.deleteAll();
+        MonthSnapshot.deleteAll();
+        User.deleteAll();
+        Banque.deleteAll();
+
+        User user = new User("Test", "Archive", 25, new BigDecimal("2500.00"), new BigDecimal("500.00"));
+        user.persist();
+        userId = user.getId();
+        Banque banque = new Banque("Banque Test", "#000000", "/logos/test.png");
+        banque.persist();
+        Compte compte = new Compte(user, banque, "Courant", TypeCompte.COMPTE_COURANT, new BigDecimal("1000.00"));
+        compte.persist();
+        compteId = compte.getId();
+        Objectif objectif = new Objectif(user, "Vacances", new BigDecimal("1500.00"), TypeObjectif.PLAISIR);
+        objectif.persist();
+        objectifId = objectif.getId();
+        ChargeFixe loyer = new ChargeFixe(user, compte, "Loyer", null, new BigDecimal("-800.00"),
+                TypeTransaction.LOYER, 5, FrequenceCharge.MENSUELLE, LocalDate.of(2022, 1, 5));
+        loyer.persist();
+
+        transaction(user, compte, null, "2500.00", TypeTransaction.SALAIRE, "VIR SALAIRE", LocalDate.of(2022, 3, 25));
+        Transaction prelevement = transaction(user, compte, null, "-800.00", TypeTransaction.LOYER, "LOYER MARS",
+                LocalDate.of(2022, 3, 5));
+        transaction(user, compte, objectif, "-150.00", TypeTransaction.EPARGNE, "VERSEMENT VACANCES",
+                LocalDate.of(2022, 11, 2));
+        transaction(user, compte, null, "-42.50", TypeTransaction.ALIMENTATION, "CARTE CARREFOUR",
+                LocalDate.of(2023, 2, 28));
+        transaction(user, compte, null, "-61.20", TypeTransaction.ALIMENTATION, "CARTE MONOPRIX",
+                LocalDate.of(2025, 3, 10));
+
+        ChargeOccurrence occurrence = new ChargeOccurrence(loyer, "2022-03", prelevement);
+        occurrence.persist();
+        occurrenceId = occurrence.getId();
+    }
+
+    private static Transaction transaction(User user, Compte compte, Objectif objectif, String montant,
+                                           TypeTransaction type, String description, LocalDate date) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setCompte(compte);
+        transaction.setObjectif(objectif);
+        transaction.setMontant(new BigDecimal(montant));
+        transaction.setType(type);
+        transaction.setDescription(description);
+        transaction.setDateTransaction(date);
+        transaction.persist();
+        return transaction;
+    }
+
+    @Test
+    void testHorizon() {
+        assertEquals(LocalDate.of(2023, 3, 1), TransactionArchiveJob.limite(TODAY, 24));
+        assertEquals(LocalDate.of(2025, 1, 1), TransactionArchiveJob.limite(LocalDate.of(2025, 1, 31), 0));
+    }
+
+    @Test
+    void testMovesOldTransactionsOutOfTheTable() {
+        assertEquals(4, archiveJob.archiver(TODAY));
+
+        assertEquals(1L, QuarkusTransaction.requiringNew().call(() -> Transaction.count("user.id", userId)));
+        // The occurrence stays, so the charge is not debited again for March 2022
+        ChargeOccurrence occurrence = QuarkusTransaction.requiringNew()
+                .call(() -> ChargeOccurrence.findById(occurrenceId));
+        assertNotNull(occurrence);
+        assertNull(occurrence.getTransaction());
+
+        // Nothing left to move, nothing duplicated
+        assertEquals(0, archiveJob.archiver(TODAY));
+        given().when().get("/api/transactions").then()
+                .statusCode(200)
+                .body("$", hasSize(5));
+    }
+
+    @Test
+    void testListingMergesArchive() {
+        archiveJob.archiver(TODAY);
+
+        given().when().get("/api/transactions").then()
+                .statusCode(200)
+                .body("$", hasSize(5))
+                .body("description", contains("CARTE MONOPRIX", "CARTE CARREFOUR", "VERSEMENT VACANCES",
+                        "VIR SALAIRE", "LOYER MARS"))
+                .body("[1].montant", is(-42.5f))
+                .body("[1].dateTransaction", is("2023-02-28"))
+                .body("[1].compte.nom", is("Courant"))
+                .body("[2].objectif.nom", is("Vacances"));
+
+        given().queryParam("dateDebut", "2022-01-01").queryParam("dateFin", "2022-06-30")
+                .when().get("/api/transactions").then()
+                .statusCode(200)
+                .body("description", contains("VIR SALAIRE", "LOYER MARS"));
+
+        given().queryParam("type", "ALIMENTATION").queryParam("limit", 1)
+                .when().get("/api/transactions").then()
+                .statusCode(200)
+                .body("description", contains("CARTE MONOPRIX"));
+
+        given().queryParam("limit", 3)
+                .when().get("/api/transactions").then()
+                .statusCode(200)
+                .body("description", contains("CARTE MONOPRIX", "CARTE CARREFOUR", "VERSEMENT VACANCES"));
+    }
+
+    @Test
+    void testStatisticsIncludeArchive() {
+        archiveJob.archiver(TODAY);
+
+        given().queryParam("dateDebut", "2022-01-01").queryParam("dateFin", "2022-12-31")
+                .when().get("/api/transactions/statistiques").then()
+                .statusCode(200)
+                .body("nombreTransactions", is(3))
+                .body("totalRevenus", is(2500.0f))
+                .body("totalChargesFixes", is(800.0f))
+                .body("totalEpargne", is(150.0f));
+    }
+
+    @Test
+    void testArchivedTransferCannotBeCancelled() {
+        UUID transfertId = QuarkusTransaction.requiringNew().call(() -> {
+            User user = User.findById(userId);
+            Compte compte = Compte.findById(compteId);
+            Objectif vacances = Objectif.findById(objectifId);
+            Objectif voiture = new Objectif(user, "Voiture", new BigDecimal("5000.00"), TypeObjectif.PLAISIR);
+            voiture.persist();
+            TransfertObjectif transfert = new TransfertObjectif(user, vacances, voiture, compte, compte,
+                    new BigDecimal("100.00"), "Changement de priorité");
+            transfert.setDateTransfert(LocalDate.of(2022, 12, 1));
+            transfert.persist();
+            transaction(user, compte, vacances, "-100.00", TypeTransaction.TRANSFERT_OBJECTIF,
+                    "Transfert vers Voiture", LocalDate.of(2022, 12, 1)).setTransfertObjectif(transfert);
+            transaction(user, compte, voiture, "100.00", TypeTransaction.TRANSFERT_OBJECTIF,
+                    "Transfert depuis Vacances", LocalDate.of(2022, 12, 1)).setTransfertObjectif(transfert);
+            return transfert.getId();
+        });
+        assertEquals(6, archiveJob.archiver(TODAY));
+
+        given().when().delete("/api/transferts/objectifs/" + transfertId).then()
+                .statusCode(409);
+
+        // The archived transfer rows are still read, so the transfer must stay as well
+        assertNotNull(QuarkusTransaction.requiringNew().call(() -> TransfertObjectif.findById(transfertId)));
+        given().queryParam("type", "TRANSFERT_OBJECTIF")
+                .when().get("/api/transactions").then()
+                .statusCode(200)
+                .body("$", hasSize(2));
+    }
+}
@@ -0,0 +1,115 @@
+package com.budgetmanager.service.statement;
+
+import com.budgetmanager.dto.ParsedTransactionDTO;
+import com.budgetmanager.entity.TypeTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de détection des formats de relevé par le contenu.
+ */
+@QuarkusTest
+class StatementFormatRegistryTest {
+
+    @Inject
+    StatementFormatRegistry registry;
+
+    private final List<Path> files = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = Files.createTempFile("releve", ".tmp");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        files.add(file);
+        return file;
+    }
+
+    @Test
+    void testDetectsBoursoBankCsvRegardlessOfExtension() throws IOException {
+        Path file = write("\uFEFFdateOp;dateVal;label;category;categoryParent;supplierFound;amount;comment;accountNum;accountLabel;accountbalance\n");
+
+        Optional<StatementFormat> format = registry.detect(file, "export.txt", "application/octet-stream");
+
+        assertTrue(format.isPresent());
+        assertInstanceOf(BoursoBankCsvFormat.class, format.get());
+    }
+
+    @Test
+    void testDetectsPdfByMagicBytes() throws IOException {
+        Path file = write("%PDF-1.7\n");
+
+        Optional<StatementFormat> format = registry.detect(file, "releve.bin", null);
+
+        assertTrue(format.isPresent());
+        assertInstanceOf(SocieteGeneralePdfFormat.class, format.get());
+    }
+
+    @Test
+    void testRejectsUnknownContentEvenWithCsvExtension() throws IOException {
+        Path file = write("hello;world\n1;2\n");
+
+        assertTrue(registry.detect(file, "releve.csv", "text/csv").isEmpty());
+    }
+
+    @Test
+    void testGenericCsvWithDebitCreditColumns() throws IOException {
+        Path file = write("""
+                Date;Libellé;Débit euros;Crédit euros
+                05/01/2025;CARTE X1234 CARREFOUR;42,50;
+                06/01/2025;VIR SALAIRE ACME;;2 100,00
+                """);
+
+        Optional<StatementFormat> format = registry.detect(file, "releve.csv", "text/csv");
+        assertTrue(format.isPresent());
+        assertInstanceOf(GenericCsvFormat.class, format.get());
+
+        List<ParsedTransactionDTO> rows = new ArrayList<>();
+        try (StatementRowReader reader = format.get().open(file, Map.of())) {
+            ParsedTransactionDTO row;
+            while ((row = reader.nextRow()) != null) {
+                rows.add(row);
+            }
+            assertEquals(2, reader.rowCount());
+        }
+
+        assertEquals("2025-01-05", rows.get(0).getDate());
+        assertEquals(0, new BigDecimal("-42.50").compareTo(rows.get(0).getMontant()));
+        assertTrue(rows.get(0).getIsDebit());
+        assertEquals(0, new BigDecimal("2100.00").compareTo(rows.get(1).getMontant()));
+        assertEquals(TypeTransaction.SALAIRE, rows.get(1).getType());
+    }
+
+    @Test
+    void testGenericCsvUsesMemoBeforeKeywordRules() throws IOException {
+        Path file = write("date,description,amount\n2025-02-03,\"CARTE 1234 BOULANGERIE PAUL\",\"-1,234.56\"\n");
+
+        StatementFormat format = registry.detect(file, null, null).orElseThrow();
+        try (StatementRowReader reader = format.open(file, Map.of("BOULANGERIE PAUL", TypeTransaction.LOISIRS))) {
+            ParsedTransactionDTO row = reader.nextRow();
+            assertNotNull(row);
+            assertEquals(TypeTransaction.LOISIRS, row.getType());
+            assertEquals(0, new BigDecimal("-1234.56").compareTo(row.getMontant()));
+            assertNull(reader.nextRow());
+        }
+    }
+}
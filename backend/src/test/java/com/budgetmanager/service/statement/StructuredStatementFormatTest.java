@@ -0,0 +1,198 @@
+package com.budgetmanager.service.statement;
+
+import com.budgetmanager.dto.ParsedTransactionDTO;
+import com.budgetmanager.entity.TypeTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des formats structurés : OFX (SGML et XML) et CAMT.053.
+ */
+@QuarkusTest
+class StructuredStatementFormatTest {
+
+    @Inject
+    StatementFormatRegistry registry;
+
+    private final List<Path> files = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private Path write(String content, Charset charset) throws IOException {
+        Path file = Files.createTempFile("releve", ".tmp");
+        Files.writeString(file, content, charset);
+        files.add(file);
+        return file;
+    }
+
+    private List<ParsedTransactionDTO> readAll(StatementFormat format, Path file) throws IOException {
+        List<ParsedTransactionDTO> rows = new ArrayList<>();
+        try (StatementRowReader reader = format.open(file, Map.of())) {
+            ParsedTransactionDTO row;
+            while ((row = reader.nextRow()) != null) {
+                rows.add(row);
+            }
+            assertEquals(rows.size(), reader.rowCount());
+        }
+        return rows;
+    }
+
+    @Test
+    void testOfxSgmlWithUnclosedLeafTags() throws IOException {
+        Path file = write("""
+                OFXHEADER:100
+                DATA:OFXSGML
+                VERSION:102
+                ENCODING:USASCII
+                CHARSET:1252
+
+                <OFX>
+                <BANKMSGSRSV1><STMTTRNRS><STMTRS><CURDEF>EUR
+                <BANKTRANLIST>
+                <DTSTART>20250101
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20250105120000[+1:CET]
+                <TRNAMT>-42.50
+                <FITID>SG2025010500001
+                <NAME>CB CARREFOUR
+                <MEMO>Carte X1234 Café crème
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>CREDIT
+                <DTPOSTED>20250106
+                <TRNAMT>2100,00
+                <FITID>SG2025010600002
+                <NAME>VIR SALAIRE ACME &amp; CO
+                </STMTTRN>
+                </BANKTRANLIST>
+                </STMTRS></STMTTRNRS></BANKMSGSRSV1>
+                </OFX>
+                """, Charset.forName("windows-1252"));
+
+        StatementFormat format = registry.detect(file, "releve.ofx", null).orElseThrow();
+        assertInstanceOf(OfxFormat.class, format);
+
+        List<ParsedTransactionDTO> rows = readAll(format, file);
+        assertEquals(2, rows.size());
+
+        assertEquals("2025-01-05", rows.get(0).getDate());
+        assertEquals(0, new BigDecimal("-42.50").compareTo(rows.get(0).getMontant()));
+        assertEquals("CB CARREFOUR Carte X1234 Café crème", rows.get(0).getDescription());
+        assertEquals("SG2025010500001", rows.get(0).getReference());
+        assertEquals(TypeTransaction.ALIMENTATION, rows.get(0).getType());
+
+        assertEquals(0, new BigDecimal("2100.00").compareTo(rows.get(1).getMontant()));
+        assertEquals("VIR SALAIRE ACME & CO", rows.get(1).getDescription());
+        assertEquals(TypeTransaction.SALAIRE, rows.get(1).getType());
+    }
+
+    @Test
+    void testOfxXml() throws IOException {
+        Path file = write("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <?OFX OFXHEADER="200" VERSION="220" SECURITY="NONE" OLDFILEUID="NONE" NEWFILEUID="NONE"?>
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                  <STMTTRN>
+                    <TRNTYPE>DEBIT</TRNTYPE>
+                    <DTPOSTED>20250210</DTPOSTED>
+                    <TRNAMT>-9.99</TRNAMT>
+                    <FITID>F-1</FITID>
+                    <PAYEE><NAME>NETFLIX</NAME></PAYEE>
+                  </STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """, StandardCharsets.UTF_8);
+
+        StatementFormat format = registry.detect(file, null, null).orElseThrow();
+        assertInstanceOf(OfxFormat.class, format);
+
+        List<ParsedTransactionDTO> rows = readAll(format, file);
+        assertEquals(1, rows.size());
+        assertEquals("2025-02-10", rows.get(0).getDate());
+        assertEquals("NETFLIX", rows.get(0).getDescription());
+        assertEquals("F-1", rows.get(0).getReference());
+        assertTrue(rows.get(0).getIsDebit());
+    }
+
+    @Test
+    void testCamt053EntriesWithReferences() throws IOException {
+        Path file = write("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <Document xmlns="urn:iso:std:iso:20022:tech:xsd:camt.053.001.02">
+                  <BkToCstmrStmt>
+                    <GrpHdr><MsgId>MSG1</MsgId></GrpHdr>
+                    <Stmt>
+                      <Acct><Ownr><Nm>Jean Dupont</Nm></Ownr></Acct>
+                      <Ntry>
+                        <NtryRef>E1</NtryRef>
+                        <Amt Ccy="EUR">800.00</Amt>
+                        <CdtDbtInd>DBIT</CdtDbtInd>
+                        <Sts>BOOK</Sts>
+                        <BookgDt><Dt>2025-03-05</Dt></BookgDt>
+                        <ValDt><Dt>2025-03-06</Dt></ValDt>
+                        <AcctSvcrRef>BANKREF-001</AcctSvcrRef>
+                        <NtryDtls><TxDtls>
+                          <Refs><EndToEndId>NOTPROVIDED</EndToEndId></Refs>
+                          <AmtDtls><TxAmt><Amt Ccy="EUR">800.00</Amt></TxAmt></AmtDtls>
+                          <RltdPties>
+                            <Dbtr><Nm>Jean Dupont</Nm></Dbtr>
+                            <Cdtr><Nm>SCI LES TILLEULS</Nm></Cdtr>
+                            <CdtrAcct><Nm>Compte SCI</Nm></CdtrAcct>
+                          </RltdPties>
+                          <RmtInf><Ustrd>LOYER MARS</Ustrd></RmtInf>
+                        </TxDtls></NtryDtls>
+                      </Ntry>
+                      <Ntry>
+                        <Amt Ccy="EUR">2500.00</Amt>
+                        <CdtDbtInd>CRDT</CdtDbtInd>
+                        <BookgDt><DtTm>2025-03-28T09:00:00</DtTm></BookgDt>
+                        <NtryDtls><TxDtls>
+                          <Refs><EndToEndId>PAY-2025-03</EndToEndId></Refs>
+                          <RltdPties><Dbtr><Pty><Nm>ACME SAS</Nm></Pty></Dbtr></RltdPties>
+                          <RmtInf><Ustrd>VIR SALAIRE MARS</Ustrd></RmtInf>
+                        </TxDtls></NtryDtls>
+                      </Ntry>
+                    </Stmt>
+                  </BkToCstmrStmt>
+                </Document>
+                """, StandardCharsets.UTF_8);
+
+        StatementFormat format = registry.detect(file, "camt053.xml", "application/xml").orElseThrow();
+        assertInstanceOf(Camt053Format.class, format);
+
+        List<ParsedTransactionDTO> rows = readAll(format, file);
+        assertEquals(2, rows.size());
+
+        ParsedTransactionDTO loyer = rows.get(0);
+        assertEquals("2025-03-05", loyer.getDate());
+        assertEquals(0, new BigDecimal("-800.00").compareTo(loyer.getMontant()));
+        assertEquals("SCI LES TILLEULS LOYER MARS", loyer.getDescription());
+        assertEquals("BANKREF-001", loyer.getReference());
+
+        ParsedTransactionDTO salaire = rows.get(1);
+        assertEquals("2025-03-28", salaire.getDate());
+        assertEquals(0, new BigDecimal("2500.00").compareTo(salaire.getMontant()));
+        assertEquals("ACME SAS VIR SALAIRE MARS", salaire.getDescription());
+        assertEquals("PAY-2025-03", salaire.getReference());
+        assertEquals(TypeTransaction.SALAIRE, salaire.getType());
+    }
+}
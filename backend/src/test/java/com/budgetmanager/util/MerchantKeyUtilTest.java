@@ -0,0 +1,40 @@
+package com.budgetmanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerchantKeyUtilTest {
+
+    @Test
+    void testNormalize_StripsCardSuffixAndDate() {
+        assertEquals("CARREFOUR MARKET PARIS",
+                MerchantKeyUtil.normalize("CARTE X4521 12/10 CARREFOUR MARKET PARIS 15"));
+    }
+
+    @Test
+    void testNormalize_SameMerchantDifferentMonthsShareKey() {
+        assertEquals(
+                MerchantKeyUtil.normalize("PRLV SEPA NETFLIX.COM 2025-09"),
+                MerchantKeyUtil.normalize("PRLV SEPA NETFLIX.COM 2025-10")
+        );
+    }
+
+    @Test
+    void testNormalize_RemovesAccentsAndLowercase() {
+        assertEquals("BOULANGERIE ELEGANTE", MerchantKeyUtil.normalize("Boulangerie Élégante"));
+    }
+
+    @Test
+    void testNormalize_KeepsAtMostMaxTokens() {
+        String key = MerchantKeyUtil.normalize("UBER EATS HELP UBER COM PARIS");
+        assertEquals(MerchantKeyUtil.MAX_TOKENS, key.split(" ").length);
+    }
+
+    @Test
+    void testNormalize_NullOrOnlyDigits() {
+        assertEquals("", MerchantKeyUtil.normalize(null));
+        assertEquals("", MerchantKeyUtil.normalize("   "));
+        assertEquals("", MerchantKeyUtil.normalize("12/10/2025 123456"));
+    }
+}
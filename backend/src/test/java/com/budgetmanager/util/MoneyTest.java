@@ -0,0 +1,86 @@
+package com.budgetmanager.util;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class MoneyTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "123.45, 12345",
+            "123.456, 12346",
+            "123.445, 12345",
+            "-0.005, -1",
+            "100, 10000",
+            "0.1, 10"
+    })
+    void testToCentsRoundsLikeMoneyConstants(String value, long expected) {
+        BigDecimal amount = new BigDecimal(value);
+        assertEquals(expected, Money.toCents(amount));
+        assertEquals(MoneyConstants.round(amount), Money.of(amount).toBigDecimal());
+    }
+
+    @Test
+    void testToBigDecimalHasMoneyScale() {
+        BigDecimal result = Money.ofCents(-1050).toBigDecimal();
+        assertEquals(new BigDecimal("-10.50"), result);
+        assertEquals(2, result.scale());
+    }
+
+    @Test
+    void testArithmetic() {
+        Money a = Money.of(new BigDecimal("10.25"));
+        Money b = Money.of(new BigDecimal("3.30"));
+
+        assertEquals(Money.ofCents(1355), a.plus(b));
+        assertEquals(Money.ofCents(695), a.minus(b));
+        assertEquals(Money.ofCents(-695), b.minus(a));
+        assertEquals(Money.ofCents(695), b.minus(a).abs());
+        assertEquals(Money.ofCents(3075), a.times(3));
+        assertTrue(a.compareTo(b) > 0);
+        assertEquals("10.25", a.toString());
+    }
+
+    @Test
+    void testApplyPercentageMatchesMoneyConstants() {
+        BigDecimal salaire = new BigDecimal("2345.67");
+        BigDecimal pourcentage = new BigDecimal("33.33");
+
+        assertEquals(MoneyConstants.applyPercentage(salaire, pourcentage),
+                Money.of(salaire).applyPercentage(pourcentage).toBigDecimal());
+    }
+
+    @Test
+    void testOverflowThrows() {
+        Money max = Money.ofCents(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e20")));
+    }
+
+    @Test
+    void testToColumnRejectsAmountsBeyondPrecision() {
+        assertEquals(new BigDecimal("9999999999.99"), Money.ofCents(Money.MAX_COLUMN_CENTS).toColumn());
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Money.MAX_COLUMN_CENTS + 1).toColumn());
+    }
+
+    @Test
+    void testAccumulatorSumsWithoutScaleDrift() {
+        MoneyAccumulator total = new MoneyAccumulator();
+        total.add(new BigDecimal("0.10"))
+                .add(new BigDecimal("0.2"))
+                .addAbs(new BigDecimal("-1.005"))
+                .add((BigDecimal) null)
+                .add(Money.ofCents(5));
+
+        assertEquals(136, total.cents());
+        assertEquals(new BigDecimal("1.36"), total.toBigDecimal());
+        assertEquals(Money.ofCents(136), total.toMoney());
+    }
+}
@@ -0,0 +1,122 @@
+package com.budgetmanager.benchmarks;
+
+import com.budgetmanager.entity.Transaction;
+import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.service.MonthSnapshotService;
+import com.budgetmanager.service.analytics.LedgerColumns;
+import com.budgetmanager.util.MoneyAccumulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cycle totals of MonthSnapshotService on in-memory transactions (no database).
+ * A cycle holds a few hundred transactions; 10k covers a multi-year recomputation.
+ * totaliser is the former one-pass loop over Transaction entities, kept here as the baseline;
+ * totaliserColonnes runs the same totals over the ledger columns of LedgerColumnStore,
+ * the same transactions spread over ten years.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AggregationBenchmark {
+
+    private static final LocalDate DEBUT = LocalDate.of(2015, 1, 1);
+
+    // Same grouping as MonthSnapshotService
+    private static final Set<TypeTransaction> FIXED_CHARGE_TYPES = EnumSet.of(TypeTransaction.LOYER,
+            TypeTransaction.ASSURANCE, TypeTransaction.ABONNEMENT, TypeTransaction.CREDIT_IMMOBILIER,
+            TypeTransaction.CREDIT_CONSO, TypeTransaction.IMPOTS, TypeTransaction.MUTUELLE,
+            TypeTransaction.FRAIS_BANCAIRE);
+    private static final Set<TypeTransaction> VARIABLE_EXPENSE_TYPES = EnumSet.of(TypeTransaction.ALIMENTATION,
+            TypeTransaction.RESTAURANT, TypeTransaction.TRANSPORT, TypeTransaction.ESSENCE,
+            TypeTransaction.SHOPPING, TypeTransaction.LOISIRS, TypeTransaction.SANTE, TypeTransaction.BEAUTE,
+            TypeTransaction.MAISON, TypeTransaction.EDUCATION, TypeTransaction.VOYAGE);
+    private static final Set<TypeTransaction> INCOME_TYPES = EnumSet.of(TypeTransaction.SALAIRE,
+            TypeTransaction.PRIME, TypeTransaction.FREELANCE, TypeTransaction.ALLOCATION,
+            TypeTransaction.REMBOURSEMENT);
+    private static final Set<TypeTransaction> SAVINGS_TYPES = EnumSet.of(TypeTransaction.EPARGNE,
+            TypeTransaction.INVESTISSEMENT);
+
+    @Param({"200", "10000"})
+    int size;
+
+    List<Transaction> transactions;
+    LedgerColumns colonnes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        TypeTransaction[] types = TypeTransaction.values();
+        transactions = new ArrayList<>(size);
+        List<LedgerColumns.Ligne> lignes = new ArrayList<>(size);
+        UUID compte = UUID.randomUUID();
+        for (int i = 0; i < size; i++) {
+            TypeTransaction type = types[random.nextInt(types.length)];
+            long cents = (random.nextInt(10) == 0 ? 1 : -1) * (100L + random.nextInt(50_000));
+            transactions.add(new Transaction(null, null, BigDecimal.valueOf(cents, 2), type, "Operation " + i));
+            lignes.add(new LedgerColumns.Ligne(UUID.randomUUID(), (int) DEBUT.toEpochDay() + random.nextInt(3652),
+                    cents, type, compte));
+        }
+        colonnes = LedgerColumns.of(lignes);
+    }
+
+    @Benchmark
+    public MonthSnapshotService.TotauxCycle totaliser() {
+        MoneyAccumulator totalRevenus = new MoneyAccumulator();
+        MoneyAccumulator totalChargesFixes = new MoneyAccumulator();
+        MoneyAccumulator totalDepensesVariables = new MoneyAccumulator();
+        MoneyAccumulator totalEpargne = new MoneyAccumulator();
+        int nombreChargesFixes = 0;
+        int nombreDepensesVariables = 0;
+
+        for (Transaction t : transactions) {
+            int signe = t.getMontant().signum();
+            if (INCOME_TYPES.contains(t.getType()) && signe > 0) {
+                totalRevenus.add(t.getMontant());
+            } else if (FIXED_CHARGE_TYPES.contains(t.getType()) && signe < 0) {
+                totalChargesFixes.addAbs(t.getMontant());
+                nombreChargesFixes++;
+            } else if (VARIABLE_EXPENSE_TYPES.contains(t.getType()) && signe < 0) {
+                totalDepensesVariables.addAbs(t.getMontant());
+                nombreDepensesVariables++;
+            } else if (SAVINGS_TYPES.contains(t.getType()) && signe < 0) {
+                totalEpargne.addAbs(t.getMontant());
+            }
+        }
+
+        return new MonthSnapshotService.TotauxCycle(
+                totalRevenus.toMoney().toColumn(),
+                totalChargesFixes.toMoney().toColumn(),
+                totalDepensesVariables.toMoney().toColumn(),
+                totalEpargne.toMoney().toColumn(),
+                nombreChargesFixes,
+                nombreDepensesVariables);
+    }
+
+    @Benchmark
+    public MonthSnapshotService.TotauxCycle totaliserColonnes() {
+        return MonthSnapshotService.totaliser(colonnes.totaliser(DEBUT, DEBUT.plusYears(10), null));
+    }
+}
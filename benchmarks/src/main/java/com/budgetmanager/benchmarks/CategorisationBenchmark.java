@@ -0,0 +1,112 @@
+package com.budgetmanager.benchmarks;
+
+import com.budgetmanager.entity.TypeTransaction;
+import com.budgetmanager.service.BankStatementParserService;
+import com.budgetmanager.service.CSVBankStatementParserService;
+import com.budgetmanager.service.statement.StatementRowReader;
+import com.budgetmanager.util.MerchantKeyUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Categorisation functions, per description:
+ * keyword rules shared by the PDF and generic formats, merchant key normalisation
+ * (memo lookup), and the BoursoBank category rules through a one-line CSV read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CategorisationBenchmark {
+
+    // Number of sample operations in SyntheticStatements (checked at setup)
+    private static final int OPERATIONS = 17;
+
+    BankStatementParserService pdfParser;
+    CSVBankStatementParserService csvParser;
+    String[] descriptions;
+    boolean[] debits;
+    String[] csvLines;
+    Map<String, TypeTransaction> memo;
+
+    @Setup
+    public void setUp() {
+        pdfParser = new BankStatementParserService();
+        csvParser = new CSVBankStatementParserService();
+
+        String[][] operations = SyntheticStatements.operations();
+        if (operations.length != OPERATIONS) {
+            throw new IllegalStateException("Expected " + OPERATIONS + " sample operations, got " + operations.length);
+        }
+        descriptions = new String[OPERATIONS];
+        debits = new boolean[OPERATIONS];
+        csvLines = new String[OPERATIONS];
+        memo = new HashMap<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            descriptions[i] = operations[i][0];
+            debits[i] = operations[i][3].equals("-1");
+            csvLines[i] = SyntheticStatements.boursoBankLine(LocalDate.of(2025, 3, 12), operations[i],
+                    debits[i] ? "-42,50" : "2500,00");
+            // Half the merchants already learned
+            if (i % 2 == 0) {
+                memo.put(MerchantKeyUtil.normalize(descriptions[i]), TypeTransaction.AUTRE);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void keywordRules(Blackhole blackhole) {
+        for (int i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(pdfParser.categorizeTransaction(descriptions[i], debits[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void merchantKey(Blackhole blackhole) {
+        for (int i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(MerchantKeyUtil.normalize(descriptions[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void memoThenKeywordRules(Blackhole blackhole) {
+        for (int i = 0; i < OPERATIONS; i++) {
+            TypeTransaction type = memo.get(MerchantKeyUtil.normalize(descriptions[i]));
+            blackhole.consume(type != null ? type : pdfParser.categorizeTransaction(descriptions[i], debits[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void boursoBankLine(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < OPERATIONS; i++) {
+            try (StatementRowReader reader = csvParser.openReader(
+                    new BufferedReader(new StringReader(csvLines[i])), Map.of())) {
+                blackhole.consume(reader.nextRow());
+            }
+        }
+    }
+}
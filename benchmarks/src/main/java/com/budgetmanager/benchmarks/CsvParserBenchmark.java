@@ -0,0 +1,76 @@
+package com.budgetmanager.benchmarks;
+
+import com.budgetmanager.dto.ParsedTransactionDTO;
+import com.budgetmanager.service.CSVBankStatementParserService;
+import com.budgetmanager.service.statement.StatementRowReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BoursoBank CSV import on synthetic exports of 1k, 100k and 1M lines.
+ * parseAll keeps every row (upload preview), streamRows only reads them (staged import).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class CsvParserBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int lines;
+
+    CSVBankStatementParserService parser;
+    Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        parser = new CSVBankStatementParserService();
+        file = Files.createTempFile("boursobank-" + lines + "-", ".csv");
+        SyntheticStatements.writeBoursoBankCsv(file, lines, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<ParsedTransactionDTO> parseAll() throws IOException {
+        return parser.parseCSVBankStatement(file.toFile());
+    }
+
+    @Benchmark
+    public int streamRows(Blackhole blackhole) throws IOException {
+        BufferedReader source = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        try (StatementRowReader reader = parser.openReader(source, Map.of())) {
+            ParsedTransactionDTO row;
+            while ((row = reader.nextRow()) != null) {
+                blackhole.consume(row);
+            }
+            return reader.rowCount();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.budgetmanager.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Side-by-side comparison of two LoadDriver JSON reports, typically the same mix against the
+ * platform-thread worker pool and against virtual threads ({@code BUDGET_VIRTUAL_THREADS=true}).
+ * Prints throughput and p99 per endpoint with the relative change from baseline to candidate.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetmanager.benchmarks.LoadComparison \
+ *     target/load-workers.json target/load-virtual.json
+ * </pre>
+ */
+public final class LoadComparison {
+
+    private LoadComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: LoadComparison <baseline.json> <candidate.json>");
+        }
+        ObjectMapper json = new ObjectMapper();
+        JsonNode baseline = json.readTree(Path.of(args[0]).toFile());
+        JsonNode candidate = json.readTree(Path.of(args[1]).toFile());
+
+        System.out.printf("%-36s %10s %10s %8s %10s %10s %8s %8s%n", "Endpoint",
+                "Req/s A", "Req/s B", "Delta", "p99 A", "p99 B", "Delta", "Err B");
+        for (Iterator<Map.Entry<String, JsonNode>> it = baseline.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            JsonNode other = candidate.get(entry.getKey());
+            if (other == null) {
+                continue;
+            }
+            JsonNode base = entry.getValue();
+            System.out.printf(Locale.ROOT, "%-36s %10.1f %10.1f %7.1f%% %10.2f %10.2f %7.1f%% %8d%n",
+                    entry.getKey(),
+                    base.path("throughput").asDouble(), other.path("throughput").asDouble(),
+                    change(base.path("throughput").asDouble(), other.path("throughput").asDouble()),
+                    base.path("p99Ms").asDouble(), other.path("p99Ms").asDouble(),
+                    change(base.path("p99Ms").asDouble(), other.path("p99Ms").asDouble()),
+                    other.path("errors").asInt());
+        }
+    }
+
+    private static double change(double baseline, double candidate) {
+        return baseline == 0 ? 0 : (candidate - baseline) * 100 / baseline;
+    }
+}
@@ -0,0 +1,362 @@
+package com.budgetmanager.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against a running backend, with the request mix of a user browsing
+ * the dashboard, listing transactions, importing statements and moving money between goals.
+ * Reports p50/p99/max latency, throughput and error count per endpoint.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetmanager.benchmarks.LoadDriver \
+ *     --url http://localhost:8080 --concurrency 16 --warmup 10 --duration 60 --generer --json target/load.json
+ * </pre>
+ *
+ * {@code --generer} first seeds an empty database through {@code POST /api/dev/donnees}
+ * (dev profile or {@code budget.generateur.enabled=true}).
+ */
+public final class LoadDriver {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    /**
+     * Report entry aggregating every endpoint of the mix.
+     */
+    static final String ALL = "all";
+    private static final int BULK_SIZE = 50;
+    private static final String[] DESCRIPTIONS = {
+            "CARTE CARREFOUR MARKET", "CARTE MONOPRIX", "CARTE UBER EATS", "CARTE SNCF", "CARTE DECATHLON"
+    };
+    private static final String[] TYPES = {"ALIMENTATION", "ALIMENTATION", "RESTAURANT", "TRANSPORT", "LOISIRS"};
+
+    private final HttpClient client;
+    private final String url;
+    private final List<String> comptes = new ArrayList<>();
+    private final Map<String, List<String>> repartitions = new LinkedHashMap<>(); // objectifId -> compteIds
+    private final List<String> objectifs = new ArrayList<>();
+    private final List<Endpoint> mix = new ArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    private LoadDriver(String url) {
+        this.url = url;
+        this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    /**
+     * One operation of the mix: a label for the report, its relative weight and the request it sends.
+     */
+    private record Endpoint(String name, int weight, RequestFactory factory) {
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest create(Random random) throws IOException;
+    }
+
+    /**
+     * Latencies of one endpoint, in nanoseconds.
+     */
+    private static final class Stats {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void record(long nanos, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized int errors() {
+            return errors;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://localhost:8080";
+        int concurrency = 8;
+        int duration = 30;
+        int warmup = 5;
+        boolean generer = false;
+        Path json = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url" -> url = args[++i];
+                case "--concurrency" -> concurrency = Integer.parseInt(args[++i]);
+                case "--duration" -> duration = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                case "--generer" -> generer = true;
+                case "--json" -> json = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        LoadDriver driver = new LoadDriver(url);
+        if (generer) {
+            driver.generate();
+        }
+        driver.discover();
+        driver.buildMix();
+
+        if (warmup > 0) {
+            System.out.printf("Warmup: %d s, %d clients%n", warmup, concurrency);
+            driver.run(concurrency, warmup);
+        }
+        System.out.printf("Measurement: %d s, %d clients%n", duration, concurrency);
+        driver.stats = new ConcurrentHashMap<>();
+        driver.run(concurrency, duration);
+
+        driver.report(duration, json);
+    }
+
+    private void generate() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(post("/api/dev/donnees", "{}"),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Data generation failed (" + response.statusCode() + "): "
+                    + response.body());
+        }
+        System.out.println("Generated: " + response.body());
+    }
+
+    private void discover() throws IOException, InterruptedException {
+        for (JsonNode compte : getJson("/api/comptes")) {
+            comptes.add(compte.get("id").asText());
+        }
+        for (JsonNode objectif : getJson("/api/objectifs")) {
+            for (JsonNode repartition : objectif.path("repartitions")) {
+                repartitions.computeIfAbsent(objectif.get("id").asText(), id -> new ArrayList<>())
+                        .add(repartition.path("compte").path("id").asText());
+            }
+        }
+        objectifs.addAll(repartitions.keySet());
+        if (comptes.isEmpty()) {
+            throw new IllegalStateException("No account found: seed the database first (--generer)");
+        }
+    }
+
+    private void buildMix() {
+        YearMonth mois = YearMonth.now();
+        mix.add(new Endpoint("GET /api/dashboard/{mois}", 20, random ->
+                get("/api/dashboard/" + mois.minusMonths(random.nextInt(12)))));
+        mix.add(new Endpoint("GET /api/transactions", 25, random -> get("/api/transactions?limit=100")));
+        mix.add(new Endpoint("GET /api/transactions/statistiques", 10, random ->
+                get("/api/transactions/statistiques")));
+        mix.add(new Endpoint("GET /api/comptes", 15, random -> get("/api/comptes")));
+        mix.add(new Endpoint("GET /api/objectifs", 15, random -> get("/api/objectifs")));
+        mix.add(new Endpoint("POST /api/transactions/bulk", 5, this::bulk));
+        // A transfer needs two distinct goals holding money
+        if (objectifs.size() >= 2) {
+            mix.add(new Endpoint("POST /api/transferts/objectifs", 10, this::transfert));
+        }
+    }
+
+    private HttpRequest bulk(Random random) throws IOException {
+        String compteId = comptes.get(random.nextInt(comptes.size()));
+        ObjectNode body = JSON.createObjectNode().put("compteId", compteId);
+        ArrayNode transactions = body.putArray("transactions");
+        LocalDate date = LocalDate.now();
+        for (int i = 0; i < BULK_SIZE; i++) {
+            int operation = random.nextInt(DESCRIPTIONS.length);
+            // Unique reference: rows are never skipped as duplicates
+            transactions.addObject()
+                    .put("compteId", compteId)
+                    .put("montant", String.format(Locale.ROOT, "-%d.%02d", 1 + random.nextInt(80), random.nextInt(100)))
+                    .put("description", DESCRIPTIONS[operation])
+                    .put("type", TYPES[operation])
+                    .put("dateTransaction", date.minusDays(random.nextInt(28)).toString())
+                    .put("reference", "LOAD-" + sequence.incrementAndGet());
+        }
+        return post("/api/transactions/bulk", JSON.writeValueAsString(body));
+    }
+
+    private HttpRequest transfert(Random random) throws IOException {
+        int source = random.nextInt(objectifs.size());
+        // Any other goal, drawn without retrying
+        int destination = random.nextInt(objectifs.size() - 1);
+        if (destination >= source) {
+            destination++;
+        }
+        String objectifSource = objectifs.get(source);
+        String objectifDestination = objectifs.get(destination);
+        ObjectNode body = JSON.createObjectNode()
+                .put("objectifSourceId", objectifSource)
+                .put("objectifDestinationId", objectifDestination)
+                .put("compteSourceId", compte(objectifSource, random))
+                .put("compteDestinationId", compte(objectifDestination, random))
+                .put("montant", "1.00")
+                .put("motif", "load");
+        return post("/api/transferts/objectifs", JSON.writeValueAsString(body));
+    }
+
+    private String compte(String objectifId, Random random) {
+        List<String> comptesObjectif = repartitions.get(objectifId);
+        return comptesObjectif.get(random.nextInt(comptesObjectif.size()));
+    }
+
+    private void run(int concurrency, int seconds) throws InterruptedException {
+        int totalWeight = mix.stream().mapToInt(Endpoint::weight).sum();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+
+        for (int c = 0; c < concurrency; c++) {
+            Random random = new Random(42 + c);
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    Endpoint endpoint = pick(random, totalWeight);
+                    long start = System.nanoTime();
+                    boolean error;
+                    try {
+                        HttpResponse<Void> response = client.send(endpoint.factory().create(random),
+                                HttpResponse.BodyHandlers.discarding());
+                        error = response.statusCode() >= 400;
+                    } catch (IOException e) {
+                        error = true;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    stats.computeIfAbsent(endpoint.name(), k -> new Stats()).record(System.nanoTime() - start, error);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+    }
+
+    private Endpoint pick(Random random, int totalWeight) {
+        int draw = random.nextInt(totalWeight);
+        for (Endpoint endpoint : mix) {
+            draw -= endpoint.weight();
+            if (draw < 0) {
+                return endpoint;
+            }
+        }
+        return mix.get(mix.size() - 1);
+    }
+
+    private void report(int seconds, Path json) throws IOException {
+        ObjectNode results = JSON.createObjectNode();
+        System.out.printf("%n%-36s %9s %9s %10s %10s %10s %7s%n",
+                "Endpoint", "Requests", "Req/s", "p50 (ms)", "p99 (ms)", "max (ms)", "Errors");
+
+        Map<String, Stats> ordered = new LinkedHashMap<>();
+        mix.forEach(endpoint -> {
+            Stats endpointStats = stats.get(endpoint.name());
+            if (endpointStats != null) {
+                ordered.put(endpoint.name(), endpointStats);
+            }
+        });
+        Stats all = new Stats();
+        for (Map.Entry<String, Stats> entry : ordered.entrySet()) {
+            long[] latencies = entry.getValue().sorted();
+            int errors = entry.getValue().errors();
+            for (int i = 0; i < latencies.length; i++) {
+                all.record(latencies[i], i < errors);
+            }
+            report(results, entry.getKey(), latencies, errors, seconds);
+        }
+        if (!ordered.isEmpty()) {
+            report(results, ALL, all.sorted(), all.errors(), seconds);
+        }
+
+        if (json != null) {
+            if (json.getParent() != null) {
+                Files.createDirectories(json.getParent());
+            }
+            JSON.writerWithDefaultPrettyPrinter().writeValue(json.toFile(), results);
+            System.out.println("Results written to " + json);
+        }
+    }
+
+    private static void report(ObjectNode results, String name, long[] latencies, int errors, int seconds) {
+        double throughput = (double) latencies.length / seconds;
+        double p50 = millis(percentile(latencies, 0.50));
+        double p99 = millis(percentile(latencies, 0.99));
+        double max = millis(latencies[latencies.length - 1]);
+
+        System.out.printf(Locale.ROOT, "%-36s %9d %9.1f %10.2f %10.2f %10.2f %7d%n",
+                name, latencies.length, throughput, p50, p99, max, errors);
+        results.putObject(name)
+                .put("requests", latencies.length)
+                .put("throughput", throughput)
+                .put("p50Ms", p50)
+                .put("p99Ms", p99)
+                .put("maxMs", max)
+                .put("errors", errors);
+    }
+
+    /**
+     * Nearest-rank percentile of a sorted array.
+     */
+    static long percentile(long[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private JsonNode getJson(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(get(path), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " failed (" + response.statusCode() + ")");
+        }
+        return JSON.readTree(response.body());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(url + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(url + path))
+                .timeout(Duration.ofSeconds(120))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.budgetmanager.benchmarks;
+
+import com.budgetmanager.util.Money;
+import com.budgetmanager.util.MoneyAccumulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sum of transaction amounts: BigDecimal stream reduce (previous code) against the long-cents
+ * accumulator. Run with -prof gc to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+    @Param({"100", "10000"})
+    int size;
+
+    List<BigDecimal> montants;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        montants = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // Column values: scale 2, mostly small expenses
+            montants.add(BigDecimal.valueOf(random.nextInt(200_000) - 150_000, 2));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalReduce() {
+        return montants.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalAbsReduce() {
+        return montants.stream().map(BigDecimal::abs).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal accumulator() {
+        MoneyAccumulator total = new MoneyAccumulator();
+        for (BigDecimal montant : montants) {
+            total.add(montant);
+        }
+        return total.toBigDecimal();
+    }
+
+    @Benchmark
+    public BigDecimal accumulatorAbs() {
+        MoneyAccumulator total = new MoneyAccumulator();
+        for (BigDecimal montant : montants) {
+            total.addAbs(montant);
+        }
+        return total.toBigDecimal();
+    }
+
+    @Benchmark
+    public Money moneyPlus() {
+        Money total = Money.ZERO;
+        for (BigDecimal montant : montants) {
+            total = total.plus(montant);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,59 @@
+package com.budgetmanager.benchmarks;
+
+import com.budgetmanager.util.MoneyConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MoneyConstants conversions and percentage arithmetic (budget split, progress gauges).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyConstantsBenchmark {
+
+    String text = "1234.567";
+    double value = 1234.567;
+    BigDecimal salaire = new BigDecimal("2345.67");
+    BigDecimal montant = new BigDecimal("812.40");
+    BigDecimal pourcentage = new BigDecimal("33.33");
+    BigDecimal unrounded = new BigDecimal("1234.5678");
+
+    @Benchmark
+    public BigDecimal moneyFromString() {
+        return MoneyConstants.money(text);
+    }
+
+    @Benchmark
+    public BigDecimal moneyFromDouble() {
+        return MoneyConstants.money(value);
+    }
+
+    @Benchmark
+    public BigDecimal round() {
+        return MoneyConstants.round(unrounded);
+    }
+
+    @Benchmark
+    public BigDecimal percentage() {
+        return MoneyConstants.percentage(montant, salaire);
+    }
+
+    @Benchmark
+    public BigDecimal applyPercentage() {
+        return MoneyConstants.applyPercentage(salaire, pourcentage);
+    }
+}
@@ -0,0 +1,64 @@
+package com.budgetmanager.benchmarks;
+
+import com.budgetmanager.dto.ParsedTransactionDTO;
+import com.budgetmanager.service.BankStatementParserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Société Générale PDF import (text extraction page by page and multi-line state machine)
+ * on generated statements.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdfParserBenchmark {
+
+    @Param({"100", "2000"})
+    int transactions;
+
+    BankStatementParserService parser;
+    Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        parser = new BankStatementParserService();
+        file = Files.createTempFile("societe-generale-" + transactions + "-", ".pdf");
+        SyntheticStatements.writeSocieteGeneralePdf(file, transactions, 42);
+
+        int parsed = parser.parseBankStatement(file.toFile()).size();
+        if (parsed != transactions) {
+            throw new IllegalStateException("Generated PDF parsed into " + parsed + " rows instead of " + transactions);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<ParsedTransactionDTO> parse() throws IOException {
+        return parser.parseBankStatement(file.toFile());
+    }
+}
@@ -0,0 +1,238 @@
+package com.budgetmanager.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cold-start comparison of the JVM build and the native executable of the backend. Each run
+ * launches a fresh process and reports:
+ * <ul>
+ *   <li>time to ready: process spawn to the first 200 on {@code /q/health/ready} (datasource checked)</li>
+ *   <li>Quarkus boot time, as logged by "started in X.XXXs"</li>
+ *   <li>first request: latency of the first call to a real endpoint (lazy ORM and JIT work)</li>
+ *   <li>resident set size ({@code VmRSS} from {@code /proc}, Linux only) when ready and after the first request</li>
+ * </ul>
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.budgetmanager.benchmarks.StartupBenchmark \
+ *     --jvm ../backend/target/quarkus-app/quarkus-run.jar \
+ *     --native ../backend/target/budget-manager-backend-1.0.0-SNAPSHOT-runner \
+ *     --runs 10 --json target/startup.json
+ * </pre>
+ *
+ * {@code --arg -Dkey=value} is passed to both processes (for example the datasource URL).
+ */
+public final class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("started in ([0-9.]+)s");
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final int port;
+    private final String path;
+    private final List<String> extraArgs;
+
+    private StartupBenchmark(int port, String path, List<String> extraArgs) {
+        this.port = port;
+        this.path = path;
+        this.extraArgs = extraArgs;
+    }
+
+    /**
+     * Measures of one cold start; times in milliseconds, sizes in kilobytes.
+     */
+    private record Run(double readyMs, double quarkusMs, double firstRequestMs, long rssReadyKb, long rssKb) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jvm = null;
+        Path nativeImage = null;
+        int runs = 5;
+        int port = 8099;
+        String path = "/api/user/exists";
+        List<String> extraArgs = new ArrayList<>();
+        Path json = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--jvm" -> jvm = Path.of(args[++i]);
+                case "--native" -> nativeImage = Path.of(args[++i]);
+                case "--runs" -> runs = Integer.parseInt(args[++i]);
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--path" -> path = args[++i];
+                case "--arg" -> extraArgs.add(args[++i]);
+                case "--json" -> json = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (jvm == null && nativeImage == null) {
+            throw new IllegalArgumentException("Usage: StartupBenchmark [--jvm quarkus-run.jar] [--native runner] "
+                    + "[--runs n] [--port p] [--path /api/...] [--arg -Dkey=value]... [--json file]");
+        }
+
+        StartupBenchmark benchmark = new StartupBenchmark(port, path, extraArgs);
+        Map<String, List<Run>> results = new LinkedHashMap<>();
+        if (jvm != null) {
+            String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+            results.put("jvm", benchmark.measure(runs, List.of(java), List.of("-jar", jvm.toString())));
+        }
+        if (nativeImage != null) {
+            results.put("native", benchmark.measure(runs, List.of(nativeImage.toString()), List.of()));
+        }
+
+        System.out.printf("%-8s %12s %12s %14s %12s %12s%n",
+                "Mode", "Ready ms", "Quarkus ms", "1st req ms", "RSS ready", "RSS after");
+        ObjectNode report = new ObjectMapper().createObjectNode();
+        results.forEach((mode, measures) -> {
+            double ready = median(measures.stream().mapToDouble(Run::readyMs).toArray());
+            double quarkus = median(measures.stream().mapToDouble(Run::quarkusMs).toArray());
+            double first = median(measures.stream().mapToDouble(Run::firstRequestMs).toArray());
+            double rssReady = median(measures.stream().mapToDouble(Run::rssReadyKb).toArray()) / 1024;
+            double rss = median(measures.stream().mapToDouble(Run::rssKb).toArray()) / 1024;
+            System.out.printf(Locale.ROOT, "%-8s %12.1f %12.1f %14.1f %10.1fMB %10.1fMB%n",
+                    mode, ready, quarkus, first, rssReady, rss);
+
+            ObjectNode node = report.putObject(mode);
+            node.put("runs", measures.size());
+            node.put("readyMs", ready);
+            node.put("readyMinMs", measures.stream().mapToDouble(Run::readyMs).min().orElse(0));
+            node.put("quarkusMs", quarkus);
+            node.put("firstRequestMs", first);
+            node.put("rssReadyMb", rssReady);
+            node.put("rssMb", rss);
+        });
+        if (json != null) {
+            Files.writeString(json, report.toPrettyString());
+        }
+    }
+
+    private List<Run> measure(int runs, List<String> launcher, List<String> target) throws Exception {
+        List<Run> measures = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            Run measure = coldStart(launcher, target);
+            System.out.printf(Locale.ROOT, "%s run %d: ready %.1f ms, Quarkus %.1f ms, first request %.1f ms, RSS %d kB%n",
+                    launcher.get(0), run, measure.readyMs(), measure.quarkusMs(), measure.firstRequestMs(), measure.rssKb());
+            measures.add(measure);
+        }
+        return measures;
+    }
+
+    private Run coldStart(List<String> launcher, List<String> target) throws Exception {
+        List<String> command = new ArrayList<>(launcher);
+        // System properties go before -jar for the JVM; the native executable takes them anywhere
+        command.add("-Dquarkus.http.port=" + port);
+        command.addAll(extraArgs);
+        command.addAll(target);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        CompletableFuture<Double> quarkusMs = new CompletableFuture<>();
+        Thread.ofPlatform().daemon().start(() -> drain(process, quarkusMs));
+        try {
+            waitReady(process, start);
+            double readyMs = (System.nanoTime() - start) / 1e6;
+            long rssReady = rss(process.pid());
+
+            long requestStart = System.nanoTime();
+            HttpResponse<Void> response = client.send(request(path), HttpResponse.BodyHandlers.discarding());
+            double firstRequestMs = (System.nanoTime() - requestStart) / 1e6;
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+            }
+
+            return new Run(readyMs, quarkusMs.getNow(Double.NaN), firstRequestMs, rssReady, rss(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(20, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private void waitReady(Process process, long start) throws IOException, InterruptedException {
+        while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend exited with code " + process.exitValue());
+            }
+            try {
+                if (client.send(request("/q/health/ready"), HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(2);
+        }
+        throw new IllegalStateException("Backend not ready after " + TIMEOUT.toSeconds() + " s");
+    }
+
+    private HttpRequest request(String requestPath) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + requestPath))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+    }
+
+    /**
+     * Reads the process output to the end, so the pipe never blocks it, and picks up the boot time.
+     */
+    private static void drain(Process process, CompletableFuture<Double> quarkusMs) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (!quarkusMs.isDone() && matcher.find()) {
+                    quarkusMs.complete(Double.parseDouble(matcher.group(1)) * 1000);
+                }
+            }
+        } catch (IOException e) {
+            // Process killed
+        }
+    }
+
+    /**
+     * @return Resident set size of the process in kilobytes, 0 where /proc is not available
+     */
+    private static long rss(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return 0;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
@@ -0,0 +1,152 @@
+package com.budgetmanager.benchmarks;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic bank statements in the formats read by the backend parsers.
+ * Same seed, same file: runs can be compared across commits.
+ */
+public final class SyntheticStatements {
+
+    private SyntheticStatements() {
+        // Utility class - prevent instantiation
+    }
+
+    static final String BOURSOBANK_HEADER =
+            "dateOp;dateVal;label;category;categoryParent;supplierFound;amount;comment;accountNum;accountLabel;accountbalance";
+
+    private static final DateTimeFormatter SG_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // label, BoursoBank category, BoursoBank parent category, sign (-1 debit, 1 credit)
+    private static final String[][] OPERATIONS = {
+            {"CARTE X4521 CARREFOUR MARKET PARIS", "Alimentation", "Vie quotidienne", "-1"},
+            {"CARTE X4521 MONOPRIX PARIS 15", "Courses", "Vie quotidienne", "-1"},
+            {"CARTE X4521 UBER EATS", "Restaurants, bars, discothèques", "Loisirs et sorties", "-1"},
+            {"CARTE X4521 SNCF INTERNET", "Transports en commun", "Voyages et transports", "-1"},
+            {"CARTE X4521 TOTAL ACCESS STATION", "Essence - Carburant - Station", "Auto et transports", "-1"},
+            {"PRLV SEPA EDF CLIENTS PARTICULIERS", "Energie - Electricité - Gaz", "Logement", "-1"},
+            {"PRLV SEPA FREE MOBILE", "Téléphonie - Internet", "Abonnements", "-1"},
+            {"PRLV SEPA NETFLIX.COM", "Abonnement", "Loisirs et sorties", "-1"},
+            {"CARTE X4521 PHARMACIE DU CENTRE", "Pharmacie", "Santé", "-1"},
+            {"CARTE X4521 DECATHLON", "Sport", "Loisirs et sorties", "-1"},
+            {"CARTE X4521 ZARA", "Habillement", "Shopping", "-1"},
+            {"PRLV SEPA AXA ASSURANCE", "Assurance habitation", "Logement", "-1"},
+            {"RETRAIT DAB 12/03 PARIS", "Retrait d'espèces", "Retraits, cheques et virements", "-1"},
+            {"FRAIS TENUE DE COMPTE", "Frais bancaires", "Banque", "-1"},
+            {"VIR SEPA SALAIRE ACME SAS", "Salaires", "Revenus", "1"},
+            {"VIR RECU REMBOURSEMENT AMELI", "Remboursement", "Revenus", "1"},
+            {"VIR INST LIVRET A", "Virement interne", "Mouvements internes", "-1"}
+    };
+
+    /**
+     * Write a BoursoBank CSV export.
+     *
+     * @param file Target file
+     * @param lines Number of transaction lines (header excluded)
+     * @param seed Random seed
+     */
+    public static void writeBoursoBankCsv(Path file, int lines, long seed) throws IOException {
+        Random random = new Random(seed);
+        LocalDate date = LocalDate.of(2020, 1, 1);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write('\uFEFF');
+            writer.write(BOURSOBANK_HEADER);
+            writer.newLine();
+            for (int i = 0; i < lines; i++) {
+                if (random.nextInt(8) == 0) {
+                    date = date.plusDays(1);
+                }
+                String[] operation = OPERATIONS[random.nextInt(OPERATIONS.length)];
+                writer.write(boursoBankLine(date, operation, amount(random, operation)));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * One BoursoBank CSV line, as read by CSVBankStatementParserService.
+     */
+    static String boursoBankLine(LocalDate date, String[] operation, String amount) {
+        return date + ";" + date + ";\"" + operation[0] + "\";\"" + operation[1] + "\";\"" + operation[2]
+                + "\";\"\";" + amount + ";;00012345678;\"Compte courant\";1234,56";
+    }
+
+    /**
+     * Write a Société Générale PDF statement: one "date date label" line then one amount line
+     * per transaction, between the column header and the totals line.
+     *
+     * @param file Target file
+     * @param transactions Number of transactions
+     * @param seed Random seed
+     */
+    public static void writeSocieteGeneralePdf(Path file, int transactions, long seed) throws IOException {
+        Random random = new Random(seed);
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        LocalDate date = LocalDate.of(2025, 1, 1);
+        int linesPerPage = 50;
+
+        try (PDDocument document = new PDDocument()) {
+            int written = 0;
+            while (written < transactions) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.setFont(font, 9);
+                    content.setLeading(14);
+                    content.beginText();
+                    content.newLineAtOffset(40, 800);
+                    content.showText("Date Valeur Nature de l'opération Débit Crédit");
+                    content.newLine();
+
+                    int lines = 1;
+                    while (written < transactions && lines + 2 <= linesPerPage) {
+                        if (random.nextInt(4) == 0) {
+                            date = date.plusDays(1);
+                        }
+                        String[] operation = OPERATIONS[random.nextInt(OPERATIONS.length)];
+                        String jour = date.format(SG_DATE);
+                        content.showText(jour + " " + jour + " " + operation[0]);
+                        content.newLine();
+                        content.showText(amount(random, operation).replace("-", ""));
+                        content.newLine();
+                        written++;
+                        lines += 2;
+                    }
+                    if (written == transactions) {
+                        content.showText("TOTAL DES OPERATIONS");
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+    }
+
+    /**
+     * Labels of the sample operations, for categorisation benchmarks.
+     */
+    static String[][] operations() {
+        return OPERATIONS;
+    }
+
+    private static String amount(Random random, String[] operation) {
+        int cents = operation[3].equals("1") ? 150_000 + random.nextInt(150_000) : 100 + random.nextInt(20_000);
+        return String.format(Locale.FRANCE, "%s%d,%02d", operation[3].equals("1") ? "" : "-", cents / 100, cents % 100);
+    }
+}
@@ -0,0 +1,75 @@
+package com.budgetmanager.benchmarks;
+
+import com.budgetmanager.entity.Compte;
+import com.budgetmanager.entity.User;
+import com.budgetmanager.util.DateUtil;
+import com.budgetmanager.util.ValidationUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request parameter parsing and validation done on every resource call.
+ * The invalid cases go through DateTimeParseException, which dominates their cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UtilParsingBenchmark {
+
+    String date = "2025-03-12";
+    String invalidDate = "12/03/2025";
+    String yearMonth = "2025-03";
+    User user;
+    Compte compte;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        compte = new Compte();
+        compte.setUser(user);
+        compte.setActif(true);
+    }
+
+    @Benchmark
+    public LocalDate parseDate() {
+        return DateUtil.parseDate(date);
+    }
+
+    @Benchmark
+    public LocalDate parseInvalidDate() {
+        return DateUtil.parseDate(invalidDate);
+    }
+
+    @Benchmark
+    public YearMonth parseYearMonth() {
+        return DateUtil.parseYearMonth(yearMonth);
+    }
+
+    @Benchmark
+    public LocalDate lastDayOfMonth() {
+        return DateUtil.getLastDayOfMonth(yearMonth);
+    }
+
+    @Benchmark
+    public Compte validateCompteOwnership() {
+        ValidationUtil.validateCompteOwnership(compte, user);
+        return compte;
+    }
+}
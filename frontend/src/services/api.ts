@@ -15,6 +15,8 @@ import type {
   BudgetConfigRequest,
   ChargeFixe,
   CreateChargeFixeRequest,
+  Prevision,
+  PrevisionCategorie,
   Transaction,
   ErrorResponse,
   ValidationSalaireRequest,
@@ -45,6 +47,8 @@ export interface ParsedTransaction {
   type: string
   isDebit: boolean
   rawLine: string
+  reference?: string  // Référence bancaire (OFX, CAMT.053)
+  doublon?: boolean   // Déjà importée sur ce compte
 }
 
 const API_BASE = import.meta.env.VITE_API_BASE_URL || '/api'
@@ -429,6 +433,24 @@ export const apiService = {
     return response.data
   },
 
+  /**
+   * GET /api/previsions?mois=N
+   * Soldes projetés jour par jour sur les N prochains mois (1 à 36).
+   */
+  async getPrevisions(mois = 12): Promise<Prevision> {
+    const response = await apiClient.get<Prevision>('/previsions', { params: { mois } })
+    return response.data
+  },
+
+  /**
+   * GET /api/previsions/depenses?mois=N
+   * Dépenses variables prévues par catégorie pour les N prochains cycles.
+   */
+  async getPrevisionsDepenses(mois = 12): Promise<PrevisionCategorie[]> {
+    const response = await apiClient.get<PrevisionCategorie[]>('/previsions/depenses', { params: { mois } })
+    return response.data
+  },
+
   // ===============================================
   // TRANSACTIONS RESOURCE
   // ===============================================
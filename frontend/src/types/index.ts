@@ -198,10 +198,49 @@ export interface ChargeFixe {
   dateDebut: string
   dateFin?: string
   actif: boolean
+  prochaineEcheance?: string | null
   createdAt?: string
   updatedAt?: string
 }
 
+/**
+ * Prévision de trésorerie d'un compte : un solde par jour depuis dateDebut
+ */
+export interface PrevisionCompte {
+  compteId: string
+  nom: string
+  type: string
+  soldeInitial: number
+  soldeFinal: number
+  soldeMin: number
+  dateSoldeMin: string
+  soldes: number[]
+}
+
+/**
+ * Prévision de trésorerie sur plusieurs mois (GET /api/previsions)
+ */
+export interface Prevision {
+  dateDebut: string
+  dateFin: string
+  mois: number
+  comptes: PrevisionCompte[]
+  soldesTotaux: number[]
+  soldeTotalMin: number
+  dateSoldeTotalMin: string
+}
+
+/**
+ * Dépenses variables prévues d'une catégorie, un montant par cycle à partir de premierCycle
+ */
+export interface PrevisionCategorie {
+  categorie: TypeTransaction
+  premierCycle: string
+  montants: number[]
+  nombreCycles: number
+  erreurMoyenne: number | null
+}
+
 /**
  * Transaction (à venir)
  */
@@ -390,6 +429,7 @@ export interface CreateTransactionRequest {
   description: string
   type: TypeTransaction
   dateTransaction?: string        // Format: "YYYY-MM-DD", optionnel
+  reference?: string              // Référence bancaire de la ligne importée, optionnel
 }
 
 /**